@@ -0,0 +1,64 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.payment.ClearingConfirmation;
+import com.payments.domain.payment.ClearingCorrelationRegistry;
+import com.payments.domain.payment.ClearingSystemReference;
+import com.payments.domain.payment.PendingClearing;
+import com.payments.domain.shared.PaymentId;
+import com.payments.domain.shared.TenantContext;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Clearing response correlation with {@code inFlight} payments waiting
+ *
+ * <p>Each operation registers a payment and confirms the oldest one still pending, so the registry
+ * stays at {@code inFlight} entries. Run with {@code -prof gc} for the allocation per payment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClearingCorrelationBenchmark {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-BENCH", "Bench Tenant", "BU-BENCH", "Bench BU");
+  private static final Duration TIMEOUT = Duration.ofHours(1);
+  private static final ClearingConfirmation CONFIRMATION = ClearingConfirmation.of("BENCH");
+
+  @Param({"10000", "1000000"})
+  public int inFlight;
+
+  private ClearingCorrelationRegistry registry;
+  private ClearingSystemReference[] references;
+  private PaymentId paymentId;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    registry = new ClearingCorrelationRegistry(expired -> {});
+    references = new ClearingSystemReference[inFlight];
+    paymentId = PaymentId.generate();
+    for (int i = 0; i < inFlight; i++) {
+      references[i] = ClearingSystemReference.of("BSV-" + i);
+      registry.register(references[i], paymentId, TENANT, TIMEOUT);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    registry.close();
+  }
+
+  @Benchmark
+  public PendingClearing registerAndConfirm() {
+    int slot = next;
+    next = slot + 1 == inFlight ? 0 : slot + 1;
+    PendingClearing confirmed = registry.confirm(references[slot], CONFIRMATION);
+    registry.register(references[slot], paymentId, TENANT, TIMEOUT);
+    return confirmed;
+  }
+}
@@ -0,0 +1,78 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.clearing.ClearingAdapter;
+import com.payments.domain.clearing.ClearingNetwork;
+import com.payments.domain.clearing.ClearingRouteIndex;
+import com.payments.domain.clearing.ResolvedClearingRoute;
+import com.payments.domain.shared.ClearingAdapterId;
+import com.payments.domain.shared.ClearingRouteId;
+import com.payments.domain.shared.TenantContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Clearing route resolution per payment
+ *
+ * <p>One adapter per network, each with a default route and a route for bank 25, and {@code
+ * branchRoutes} six-digit branch routes of banks 26 to 35 spread over them. Payments go to a routed
+ * branch, to a branch of bank 25 (falling back to the bank routes) and to bank 47 (falling back to
+ * the defaults).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClearingRouteBenchmark {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-BENCH", "Bench Tenant", "BU-BENCH", "Bench BU");
+
+  @Param({"100", "10000"})
+  public int branchRoutes;
+
+  private ClearingRouteIndex index;
+
+  @Setup
+  public void setUp() {
+    List<ClearingAdapter> adapters = new ArrayList<>();
+    for (ClearingNetwork network : ClearingNetwork.values()) {
+      ClearingAdapter adapter =
+          ClearingAdapter.create(
+              ClearingAdapterId.generate(),
+              TENANT,
+              network.name(),
+              network,
+              "https://" + network.name().toLowerCase() + ".test",
+              "bench");
+      adapter.addRoute(ClearingRouteId.generate(), "default", "*", "*", 100, "bench");
+      adapter.addRoute(ClearingRouteId.generate(), "bank 25", "*", "25", 50, "bench");
+      adapters.add(adapter);
+    }
+    for (int i = 0; i < branchRoutes; i++) {
+      String branch = String.valueOf(260_000 + i * 7 % 99_999);
+      adapters
+          .get(i % adapters.size())
+          .addRoute(ClearingRouteId.generate(), "branch " + branch, "*", branch, i % 10, "bench");
+    }
+    index = ClearingRouteIndex.of(adapters);
+  }
+
+  @Benchmark
+  public ResolvedClearingRoute routedBranch() {
+    return index.resolve("632005", "260007");
+  }
+
+  @Benchmark
+  public ResolvedClearingRoute bankFallback() {
+    return index.resolve("632005", "251234");
+  }
+
+  @Benchmark
+  public ResolvedClearingRoute defaultRoute() {
+    return index.resolve("632005", "470010");
+  }
+}
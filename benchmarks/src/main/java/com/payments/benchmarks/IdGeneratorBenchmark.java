@@ -0,0 +1,34 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.TimeOrderedIdGenerator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Random UUID vs time-ordered IDs
+ *
+ * <p>Both build a complete prefixed ID string, as {@code PaymentId.generate()} does. Run with
+ * {@code -t 8} to see the cost of the shared {@code SecureRandom} behind {@code UUID.randomUUID}
+ * under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+  private final TimeOrderedIdGenerator timeOrdered = new TimeOrderedIdGenerator();
+
+  @Benchmark
+  public String randomUuid() {
+    return "PAY-" + UUID.randomUUID();
+  }
+
+  @Benchmark
+  public String timeOrderedId() {
+    return timeOrdered.nextId("PAY-");
+  }
+}
@@ -0,0 +1,42 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.CallOutcome;
+import com.payments.domain.shared.LatencyMetrics;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Latency recording under contention
+ *
+ * <p>Every thread records into the same key, as calls to one busy backend system do; rotation runs
+ * every second in the background. Compare {@code -t 1} with the default 16 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LatencyMetricsBenchmark {
+
+  private LatencyMetrics<String> metrics;
+
+  @Setup
+  public void setUp() {
+    metrics = new LatencyMetrics<>("bench", Duration.ofSeconds(1), windows -> {});
+  }
+
+  @TearDown
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Benchmark
+  public void record() {
+    long micros = ThreadLocalRandom.current().nextLong(200, 250_000);
+    metrics.record("BACKEND-1", micros, CallOutcome.SUCCESS);
+  }
+}
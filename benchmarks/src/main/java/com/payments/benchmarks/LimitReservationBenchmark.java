@@ -0,0 +1,104 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.Money;
+import com.payments.domain.shared.PaymentId;
+import com.payments.domain.validation.CustomerLimits;
+import com.payments.domain.validation.LimitRepository;
+import com.payments.domain.validation.LimitReservation;
+import com.payments.domain.validation.LimitReservationEngine;
+import com.payments.domain.validation.LimitUsage;
+import com.payments.domain.validation.LimitUsageHistory;
+import com.payments.domain.validation.PaymentTypeLimit;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Limit reservations under contention
+ *
+ * <p>Every thread reserves against the same corporate customer, so all of them compare-and-set the
+ * same daily, monthly and payment type counters. The limits are high enough never to be hit.
+ * Compare {@code -t 1} with the default 16 threads for the cost of contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LimitReservationBenchmark {
+
+  private static final String CUSTOMER = "CORP-1";
+  private static final Money AMOUNT = Money.zar(new BigDecimal("125.00"));
+
+  private LimitReservationEngine engine;
+
+  @Setup
+  public void setUp() {
+    engine =
+        new LimitReservationEngine(
+            new UnlimitedCorporateCustomer(),
+            Duration.ofMinutes(15),
+            Duration.ofMillis(100),
+            Clock.systemUTC());
+  }
+
+  @TearDown
+  public void tearDown() {
+    engine.close();
+  }
+
+  @Benchmark
+  public LimitReservation reserveAndConsume() {
+    LimitReservation reservation = engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", AMOUNT);
+    return engine.consume(reservation.getReservationId());
+  }
+
+  @Benchmark
+  public boolean reserveAndRelease() {
+    LimitReservation reservation = engine.reserve(CUSTOMER, PaymentId.generate(), "RTC", AMOUNT);
+    return engine.release(reservation.getReservationId());
+  }
+
+  /** One customer with limits out of reach; writes go nowhere. */
+  private static final class UnlimitedCorporateCustomer implements LimitRepository {
+    private static final BigDecimal UNLIMITED = new BigDecimal("9999999999999999.99");
+
+    @Override
+    public List<CustomerLimits> findActiveLimits(LocalDate date) {
+      return List.of(
+          new CustomerLimits(
+              CUSTOMER,
+              "TNT-BENCH",
+              "BU-BENCH",
+              UNLIMITED,
+              UNLIMITED,
+              UNLIMITED,
+              null,
+              List.of(
+                  new PaymentTypeLimit("EFT", UNLIMITED, null, null),
+                  new PaymentTypeLimit("RTC", UNLIMITED, null, null))));
+    }
+
+    @Override
+    public List<LimitUsage> findUsageSince(LocalDate from) {
+      return List.of();
+    }
+
+    @Override
+    public List<LimitReservation> findReserved() {
+      return List.of();
+    }
+
+    @Override
+    public void saveState(List<LimitReservation> reservations, List<LimitUsage> usage) {}
+
+    @Override
+    public void addHistory(List<LimitUsageHistory> history) {}
+  }
+}
@@ -0,0 +1,76 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.CompactMoney;
+import com.payments.domain.shared.Money;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Money vs CompactMoney
+ *
+ * <p>Runs the same settlement-style fold (add, subtract, multiply, compare) over both
+ * representations so throughput and allocation per operation can be compared side by side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+  private static final int POSTINGS = 64;
+
+  private Money[] money;
+  private CompactMoney[] compact;
+  private Money limit;
+  private CompactMoney compactLimit;
+
+  @Setup
+  public void setUp() {
+    money = new Money[POSTINGS];
+    compact = new CompactMoney[POSTINGS];
+    for (int i = 0; i < POSTINGS; i++) {
+      money[i] = Money.zar(BigDecimal.valueOf(1_000 + i * 37L, 2));
+      compact[i] = money[i].toCompact();
+    }
+    limit = Money.zar(new BigDecimal("1000000.00"));
+    compactLimit = limit.toCompact();
+  }
+
+  @Benchmark
+  public Money bigDecimalMoney() {
+    Money total = Money.zero(limit.getCurrency());
+    for (int i = 0; i < POSTINGS; i++) {
+      Money fee = money[i].multiply(BigDecimal.valueOf(2));
+      total = total.add(money[i]).subtract(fee).add(fee);
+      if (total.isGreaterThan(limit)) {
+        total = total.subtract(limit);
+      }
+    }
+    return total;
+  }
+
+  @Benchmark
+  public CompactMoney compactMoney() {
+    CompactMoney total = CompactMoney.zero(compactLimit.getCurrency());
+    for (int i = 0; i < POSTINGS; i++) {
+      CompactMoney fee = compact[i].multiply(2);
+      total = total.add(compact[i]).subtract(fee).add(fee);
+      if (total.isGreaterThan(compactLimit)) {
+        total = total.subtract(compactLimit);
+      }
+    }
+    return total;
+  }
+
+  @Benchmark
+  public Money compactMoneyWithBridge() {
+    CompactMoney total = CompactMoney.zero(compactLimit.getCurrency());
+    for (int i = 0; i < POSTINGS; i++) {
+      total = total.add(money[i].toCompact());
+    }
+    return total.toMoney();
+  }
+}
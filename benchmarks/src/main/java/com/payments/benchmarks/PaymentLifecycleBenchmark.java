@@ -0,0 +1,75 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.payment.*;
+import com.payments.domain.shared.*;
+import com.payments.domain.validation.ValidationId;
+import com.payments.domain.validation.ValidationResult;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Payment aggregate lifecycle
+ *
+ * <p>Drives one payment from {@code initiate} through validate, clearing and {@code complete()},
+ * including the status history and domain events recorded along the way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentLifecycleBenchmark {
+
+  private TenantContext tenant;
+  private Money amount;
+  private AccountNumber source;
+  private AccountNumber destination;
+  private PaymentReference reference;
+  private ClearingSystemReference clearingRef;
+  private ClearingConfirmation confirmation;
+  private ValidationResult validation;
+
+  @Setup
+  public void setUp() {
+    tenant = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+    amount = Money.zar(new BigDecimal("250.00"));
+    source = AccountNumber.of("12345678901");
+    destination = AccountNumber.of("10987654321");
+    reference = PaymentReference.of("REF-BENCH");
+    clearingRef = ClearingSystemReference.of("CLR-BENCH");
+    confirmation = ClearingConfirmation.of("CONF-BENCH");
+    validation = ValidationResult.create(ValidationId.generate(), tenant, PaymentId.of("PAY-1"));
+    validation.completeValidation(true, "benchmark");
+  }
+
+  @Benchmark
+  public Payment initiate() {
+    return newPayment();
+  }
+
+  @Benchmark
+  public Payment initiateThroughComplete() {
+    Payment payment = newPayment();
+    payment.validate(validation);
+    payment.submitToClearing(clearingRef);
+    payment.markCleared(confirmation);
+    payment.complete();
+    return payment;
+  }
+
+  private Payment newPayment() {
+    return Payment.initiate(
+        PaymentId.generate(),
+        tenant,
+        amount,
+        source,
+        destination,
+        reference,
+        PaymentType.EFT,
+        Priority.NORMAL,
+        "benchmark",
+        "idem-bench");
+  }
+}
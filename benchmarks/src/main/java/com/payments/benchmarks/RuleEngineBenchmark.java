@@ -0,0 +1,90 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.AccountNumber;
+import com.payments.domain.shared.Money;
+import com.payments.domain.shared.PaymentId;
+import com.payments.domain.shared.TenantContext;
+import com.payments.domain.validation.PaymentFacts;
+import com.payments.domain.validation.RuleField;
+import com.payments.domain.validation.ValidationId;
+import com.payments.domain.validation.ValidationResult;
+import com.payments.domain.validation.ValidationRuleDefinition;
+import com.payments.domain.validation.ValidationRuleEngine;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compiled validation rules per payment
+ *
+ * <p>A business unit with {@value #RULES} rules that all hold, so every payment runs every rule:
+ * numeric ranges, set lookups, regular expressions and nested all/any. The validation result is
+ * created per payment, as it is in the service.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleEngineBenchmark {
+
+  private static final int RULES = 200;
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-BENCH", "Bench Tenant", "BU-BENCH", "Bench BU");
+
+  private ValidationRuleEngine engine;
+  private PaymentFacts facts;
+
+  @Setup
+  public void setUp() {
+    List<ValidationRuleDefinition> rules = new ArrayList<>();
+    for (int i = 0; i < RULES; i++) {
+      rules.add(
+          new ValidationRuleDefinition(
+              "RULE-" + i,
+              "rule_" + i,
+              "BUSINESS_RULE",
+              null,
+              condition(i),
+              i,
+              "TNT-BENCH",
+              "BU-BENCH"));
+    }
+    engine = new ValidationRuleEngine((tenantId, businessUnitId) -> rules);
+    facts =
+        PaymentFacts.of(
+                Money.zar(new BigDecimal("1250.00")),
+                "EFT",
+                AccountNumber.of("12345678901"),
+                AccountNumber.of("10987654321"))
+            .with(RuleField.CHANNEL, "MOBILE")
+            .with(RuleField.REFERENCE, "INV-2024-0001")
+            .with(RuleField.HOUR_OF_DAY, 14);
+  }
+
+  @Benchmark
+  public boolean evaluateAllRules() {
+    ValidationResult result =
+        ValidationResult.create(ValidationId.generate(), TENANT, PaymentId.generate());
+    return engine.evaluate(result, facts);
+  }
+
+  private static String condition(int i) {
+    switch (i % 4) {
+      case 0:
+        return "{\"field\": \"amount\", \"op\": \"lte\", \"value\": " + (2000 + i * 100) + "}";
+      case 1:
+        return "{\"field\": \"payment_type\", \"op\": \"in\", \"value\": [\"EFT\", \"RTC\"]}";
+      case 2:
+        return "{\"field\": \"reference\", \"op\": \"matches\","
+            + " \"value\": \"INV-\\\\d{4}-\\\\d+\"}";
+      default:
+        return "{\"any\": [{\"field\": \"channel\", \"op\": \"eq\", \"value\": \"BRANCH\"},"
+            + " {\"all\": [{\"field\": \"hour_of_day\", \"op\": \"gte\", \"value\": 6},"
+            + " {\"field\": \"hour_of_day\", \"op\": \"lt\", \"value\": 22}]}]}";
+    }
+  }
+}
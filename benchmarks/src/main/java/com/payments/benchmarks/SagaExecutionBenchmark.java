@@ -0,0 +1,74 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.saga.*;
+import com.payments.domain.shared.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * SagaOrchestrator step execution
+ *
+ * <p>Builds a saga with {@code steps} steps and runs every step to completion, then separately
+ * fails the last step to exercise compensation. Parameterised on saga size so per-step lookup cost
+ * shows up as the saga grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SagaExecutionBenchmark {
+
+  @Param({"10", "100", "500"})
+  public int steps;
+
+  private TenantContext tenant;
+  private SagaStepId[] stepIds;
+
+  @Setup
+  public void setUp() {
+    tenant = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+    stepIds = new SagaStepId[steps];
+    for (int i = 0; i < steps; i++) {
+      stepIds[i] = SagaStepId.of("STEP-" + i);
+    }
+  }
+
+  @Benchmark
+  public SagaOrchestrator executeAllSteps() {
+    SagaOrchestrator saga = newSaga();
+    for (int i = 0; i < steps; i++) {
+      saga.executeNextStep("benchmark");
+      saga.completeStep(stepIds[i], "ok", "benchmark");
+    }
+    return saga;
+  }
+
+  @Benchmark
+  public SagaOrchestrator failLastStepAndCompensate() {
+    SagaOrchestrator saga = newSaga();
+    for (int i = 0; i < steps - 1; i++) {
+      saga.executeNextStep("benchmark");
+      saga.completeStep(stepIds[i], "ok", "benchmark");
+    }
+    saga.executeNextStep("benchmark");
+    saga.failStep(stepIds[steps - 1], "downstream rejected", "benchmark");
+    return saga;
+  }
+
+  private SagaOrchestrator newSaga() {
+    SagaOrchestrator saga =
+        SagaOrchestrator.create(
+            SagaId.generate(),
+            tenant,
+            "bulk-payment",
+            SagaType.BATCH_PROCESSING,
+            "BULK-1",
+            "benchmark");
+    for (int i = 0; i < steps; i++) {
+      saga.addStep(stepIds[i], "step-" + i, "payment-service", "debit", "reverse", i, "benchmark");
+    }
+    return saga;
+  }
+}
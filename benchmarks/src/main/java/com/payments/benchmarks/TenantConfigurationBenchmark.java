@@ -0,0 +1,57 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.*;
+import com.payments.domain.tenant.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Tenant configuration lookup
+ *
+ * <p>{@code Tenant.getConfigurationValue} for a key near the end of the configuration list, with
+ * {@code extraKeys} additional entries on top of the defaults seeded at creation, and the typed
+ * read from the tenant's {@link TenantConfigSnapshot} that replaces the parse.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TenantConfigurationBenchmark {
+
+  @Param({"0", "50"})
+  public int extraKeys;
+
+  private Tenant tenant;
+
+  @Setup
+  public void setUp() {
+    tenant =
+        Tenant.create(
+            TenantId.of("TNT-BENCH"), "Bench Bank", TenantType.BANK, "ops@bank.test", "bench");
+    for (int i = 0; i < extraKeys; i++) {
+      tenant.updateConfiguration("extra_key_" + i, "v" + i, ConfigurationType.STRING, "bench");
+    }
+  }
+
+  @Benchmark
+  public String lookupDefaultKey() {
+    return tenant.getConfigurationValue("audit_retention_days");
+  }
+
+  @Benchmark
+  public long lookupAndParseDailyLimit() {
+    return Long.parseLong(tenant.getConfigurationValue("max_daily_transactions"));
+  }
+
+  @Benchmark
+  public long snapshotDailyLimit() {
+    return tenant.getConfigSnapshot().getMaxDailyTransactions();
+  }
+
+  @Benchmark
+  public String lookupMissingKey() {
+    return tenant.getConfigurationValue("not_configured");
+  }
+}
@@ -0,0 +1,52 @@
+package com.payments.benchmarks;
+
+import com.payments.domain.shared.*;
+import com.payments.domain.transaction.*;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Transaction aggregate creation
+ *
+ * <p>{@code Transaction.create} including the double-entry {@code createLedgerEntries()} it runs,
+ * the TransactionCreated audit event and the domain event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionCreateBenchmark {
+
+  private TenantContext tenant;
+  private PaymentId paymentId;
+  private AccountNumber debit;
+  private AccountNumber credit;
+  private Money amount;
+
+  @Setup
+  public void setUp() {
+    tenant = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+    paymentId = PaymentId.generate();
+    debit = AccountNumber.of("12345678901");
+    credit = AccountNumber.of("10987654321");
+    amount = Money.zar(new BigDecimal("250.00"));
+  }
+
+  @Benchmark
+  public Transaction create() {
+    return Transaction.create(
+        TransactionId.generate(), tenant, paymentId, debit, credit, amount, TransactionType.CREDIT);
+  }
+
+  @Benchmark
+  public Transaction createThroughComplete() {
+    Transaction tx = create();
+    tx.startProcessing();
+    tx.markCleared("SAMOS", "CLR-BENCH");
+    tx.complete();
+    return tx;
+  }
+}
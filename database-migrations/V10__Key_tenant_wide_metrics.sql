@@ -0,0 +1,14 @@
+-- =====================================================
+-- TENANT-WIDE METRICS KEY
+-- =====================================================
+-- The tenant service's quota counters add each tenant's payments and
+-- amount for the day to tenant-wide tenant_metrics rows (business_unit_id
+-- NULL), and read them back to start a day after a restart. NULLs are
+-- distinct in uk_tenant_metrics, so those rows need a key of their own
+-- for the upsert.
+
+CREATE UNIQUE INDEX idx_tenant_metrics_tenant_wide
+    ON tenant_metrics(tenant_id, metric_date, metric_type)
+    WHERE business_unit_id IS NULL;
+
+COMMENT ON COLUMN tenant_metrics.metric_value IS 'TRANSACTIONS: payments admitted (COUNT); PAYMENTS: amount admitted, in metric_unit currency';
@@ -0,0 +1,51 @@
+-- =====================================================
+-- CIRCUIT BREAKER STATE BY SYSTEM TYPE
+-- =====================================================
+-- Backend guards protect clearing adapters as well as backend systems,
+-- and both persist their circuits here. Clearing adapter IDs are not
+-- backend_systems rows and the two ID spaces may overlap, so rows are
+-- keyed by system type and ID, and only backend system rows reference
+-- backend_systems.
+
+ALTER TABLE circuit_breaker_state
+    ADD COLUMN system_type VARCHAR(20) NOT NULL DEFAULT 'BACKEND_SYSTEM'
+        CHECK (system_type IN ('BACKEND_SYSTEM', 'CLEARING_ADAPTER'));
+
+ALTER TABLE circuit_breaker_state DROP CONSTRAINT fk_circuit_backend_system;
+ALTER TABLE circuit_breaker_state DROP CONSTRAINT circuit_breaker_state_pkey;
+ALTER TABLE circuit_breaker_state ADD PRIMARY KEY (system_type, backend_system);
+
+-- NULL for clearing adapters, so the foreign key is not checked for them
+ALTER TABLE circuit_breaker_state
+    ADD COLUMN backend_system_ref VARCHAR(50) GENERATED ALWAYS AS (
+        CASE WHEN system_type = 'BACKEND_SYSTEM' THEN backend_system END) STORED;
+
+ALTER TABLE circuit_breaker_state
+    ADD CONSTRAINT fk_circuit_backend_system FOREIGN KEY (backend_system_ref)
+        REFERENCES backend_systems(system_id);
+
+CREATE OR REPLACE VIEW backend_system_health AS
+SELECT 
+    bs.system_id,
+    bs.system_name,
+    bs.base_url,
+    bs.is_active,
+    bs.health_status,
+    bs.last_health_check,
+    cbs.state AS circuit_breaker_state,
+    cbs.failure_count,
+    (SELECT COUNT(*) FROM api_call_log 
+     WHERE backend_system = bs.system_id 
+       AND called_at > NOW() - INTERVAL '1 hour') AS calls_last_hour,
+    (SELECT COUNT(*) FROM api_call_log 
+     WHERE backend_system = bs.system_id 
+       AND success = false 
+       AND called_at > NOW() - INTERVAL '1 hour') AS failures_last_hour,
+    (SELECT AVG(response_time_ms) FROM api_call_log 
+     WHERE backend_system = bs.system_id 
+       AND called_at > NOW() - INTERVAL '1 hour') AS avg_response_time_ms
+FROM backend_systems bs
+LEFT JOIN circuit_breaker_state cbs ON bs.system_id = cbs.backend_system_ref
+WHERE bs.tenant_id = current_setting('app.current_tenant_id', true)::VARCHAR;
+
+COMMENT ON COLUMN circuit_breaker_state.backend_system IS 'Backend system ID or clearing adapter ID, per system_type';
@@ -0,0 +1,21 @@
+-- =====================================================
+-- LEDGER REPLAY ONTO BALANCE CHECKPOINTS
+-- =====================================================
+-- Since V7 the balance engine keeps balances in memory and checkpoints
+-- account_balances in batches, so a checkpoint can lag the ledger. Each
+-- ledger entry now carries the engine's per-account posting sequence, and
+-- each checkpoint the sequence it includes; an account is rebuilt from its
+-- checkpoint plus the entries posted after it. Entries written before this
+-- migration have no sequence and are already in their checkpoint.
+
+ALTER TABLE ledger_entries ADD COLUMN posting_sequence BIGINT;
+
+ALTER TABLE account_balances
+    ADD COLUMN last_posting_sequence BIGINT NOT NULL DEFAULT 0;
+
+CREATE UNIQUE INDEX idx_ledger_account_posting_sequence
+    ON ledger_entries(account_number, posting_sequence)
+    WHERE posting_sequence IS NOT NULL;
+
+COMMENT ON COLUMN ledger_entries.posting_sequence IS 'Order of the entry among the postings to its account, stamped by the balance engine';
+COMMENT ON COLUMN account_balances.last_posting_sequence IS 'posting_sequence of the last ledger entry included in current_balance';
@@ -0,0 +1,33 @@
+-- =====================================================
+-- CLEARING MESSAGE LOG
+-- =====================================================
+-- Messages exchanged by clearing adapters with their networks. Logs are no
+-- longer held by the ClearingAdapter aggregate: they are written here in
+-- batches, one row per message with the number of payments it carried.
+
+CREATE TABLE clearing_message_log (
+    message_id VARCHAR(50) PRIMARY KEY,
+    clearing_adapter_id VARCHAR(50) NOT NULL,
+    direction VARCHAR(10) NOT NULL CHECK (direction IN ('INBOUND', 'OUTBOUND')),
+    message_type VARCHAR(30) NOT NULL,
+    payload_hash VARCHAR(128),
+    status_code INTEGER,
+    message_count INTEGER NOT NULL DEFAULT 1,
+    logged_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- MULTI-TENANCY
+    tenant_id VARCHAR(20) NOT NULL,
+    business_unit_id VARCHAR(30) NOT NULL
+);
+
+CREATE INDEX idx_clearing_log_adapter_logged_at
+    ON clearing_message_log(clearing_adapter_id, logged_at DESC);
+CREATE INDEX idx_clearing_log_tenant_id ON clearing_message_log(tenant_id);
+CREATE INDEX idx_clearing_log_tenant_bu ON clearing_message_log(tenant_id, business_unit_id);
+
+ALTER TABLE clearing_message_log ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY tenant_isolation_clearing_message_log ON clearing_message_log
+    USING (tenant_id = current_setting('app.current_tenant_id', true)::VARCHAR);
+
+COMMENT ON COLUMN clearing_message_log.message_count IS 'Payments carried by the message; more than 1 for a batch';
@@ -0,0 +1,12 @@
+-- =====================================================
+-- ACCOUNT CACHE BY TENANT
+-- =====================================================
+-- The account info cache is keyed by tenant and account number, and
+-- upserts one row per cached entry, adding the hits served from it to
+-- hit_count. Two tenants may cache the same account number, so rows are
+-- keyed by both.
+
+ALTER TABLE account_cache DROP CONSTRAINT account_cache_pkey;
+ALTER TABLE account_cache ADD PRIMARY KEY (account_number, tenant_id);
+
+COMMENT ON COLUMN account_cache.hit_count IS 'Hits served from the cached entry, written back in batches; may lag by the flush interval';
@@ -0,0 +1,48 @@
+-- =====================================================
+-- TRANSACTIONAL OUTBOX
+-- =====================================================
+-- Domain events staged in the same transaction as the aggregate save,
+-- published afterwards by the outbox relay
+
+-- =====================================================
+-- OUTBOX EVENTS (pending and published domain events)
+-- =====================================================
+CREATE TABLE outbox_events (
+    outbox_id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(50) NOT NULL UNIQUE,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    payload BYTEA NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+
+    -- MULTI-TENANCY
+    tenant_id VARCHAR(20) NOT NULL,
+    business_unit_id VARCHAR(30)
+);
+
+-- Indexes for outbox events
+CREATE INDEX idx_outbox_unpublished ON outbox_events(outbox_id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_aggregate ON outbox_events(aggregate_type, aggregate_id, outbox_id);
+CREATE INDEX idx_outbox_tenant_id ON outbox_events(tenant_id);
+CREATE INDEX idx_outbox_published_at ON outbox_events(published_at);
+
+-- =====================================================
+-- ROW LEVEL SECURITY (RLS)
+-- =====================================================
+-- No tenant isolation policy: the relay reads pending events across all tenants.
+-- Services only ever insert their own tenant's rows.
+
+-- =====================================================
+-- COMMENTS
+-- =====================================================
+
+COMMENT ON TABLE outbox_events IS 'Transactional outbox of domain events awaiting publication';
+
+COMMENT ON COLUMN outbox_events.outbox_id IS 'Relay order; assigned at insert, after the aggregate row is locked';
+COMMENT ON COLUMN outbox_events.event_id IS 'Unique event identifier for consumer-side de-duplication';
+COMMENT ON COLUMN outbox_events.content_type IS 'Serialization format of the payload';
+COMMENT ON COLUMN outbox_events.published_at IS 'When the relay handed the event to the sink; NULL while pending';
@@ -0,0 +1,16 @@
+-- =====================================================
+-- ACCOUNT BALANCE MAINTENANCE
+-- =====================================================
+-- Balances are now applied in memory by the transaction service's
+-- balance engine, which stamps balance_before/balance_after on each
+-- ledger entry before it is inserted and checkpoints account_balances
+-- in batches. The per-entry trigger read and rewrote the account_balances
+-- row on every insert, serializing all postings to a hot account on that
+-- row lock, and would now overwrite the engine's stamped balances.
+
+DROP TRIGGER IF EXISTS update_account_balance_trigger ON ledger_entries;
+DROP FUNCTION IF EXISTS update_account_balance();
+
+COMMENT ON TABLE account_balances IS 'Account balances, checkpointed periodically from the in-memory balance engine';
+COMMENT ON COLUMN ledger_entries.balance_before IS 'Account balance before this entry, stamped by the balance engine';
+COMMENT ON COLUMN ledger_entries.balance_after IS 'Account balance after this entry, stamped by the balance engine';
@@ -0,0 +1,12 @@
+-- =====================================================
+-- VELOCITY TRACKING WINDOW KEY
+-- =====================================================
+-- The validation service's velocity engine keeps sliding windows in
+-- memory and adds new payments to one HOURLY row per account and clock
+-- hour. This key lets it upsert those tallies in one batch and reload
+-- them on startup.
+
+CREATE UNIQUE INDEX idx_velocity_account_window
+    ON velocity_tracking(tenant_id, account_number, window_type, window_start);
+
+COMMENT ON COLUMN velocity_tracking.window_start IS 'Start of the tallied period; for HOURLY rows the clock hour';
@@ -0,0 +1,11 @@
+-- =====================================================
+-- API KEY HASH LOOKUP
+-- =====================================================
+-- Requests present an API key; the tenant service hashes it and looks
+-- the row up by api_key_hash, caching the result. This index keeps the
+-- lookups on a cache miss off a sequential scan.
+
+CREATE INDEX idx_tenant_api_keys_hash ON tenant_api_keys(api_key_hash);
+
+COMMENT ON COLUMN tenant_api_keys.permissions IS 'JSON array of permission codes, e.g. ["payment:create", "payment:*"]';
+COMMENT ON COLUMN tenant_api_keys.last_used_at IS 'Latest use, written back in batches; may lag by the flush interval';
@@ -16,7 +16,7 @@ import lombok.*;
 @Entity
 @Table(name = "account_adapters")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class AccountAdapter {
+public class AccountAdapter implements DomainEventSource {
 
   @EmbeddedId private AccountAdapterId id;
 
@@ -69,10 +69,6 @@ public class AccountAdapter {
   @JoinColumn(name = "adapter_id")
   private List<AccountCache> accountCaches = new ArrayList<>();
 
-  @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-  @JoinColumn(name = "adapter_id")
-  private List<ApiCallLog> apiCallLogs = new ArrayList<>();
-
   @Transient private List<DomainEvent> domainEvents = new ArrayList<>();
 
   // ─────────────────────────────────────────────────────────
@@ -160,7 +156,10 @@ public class AccountAdapter {
     registerEvent(new BackendSystemAddedEvent(this.id, systemId, systemName, systemType));
   }
 
-  /** Cache account information */
+  /**
+   * Cache account information. Replaces any entry for the same account and drops expired ones; the
+   * hot lookup path is {@link AccountInfoCache}.
+   */
   public void cacheAccountInfo(
       AccountNumber accountNumber,
       String accountHolderName,
@@ -177,6 +176,9 @@ public class AccountAdapter {
             bankCode,
             cachedBy);
 
+    Instant now = Instant.now();
+    this.accountCaches.removeIf(
+        existing -> existing.getAccountNumber().equals(accountNumber) || existing.isExpired(now));
     this.accountCaches.add(cache);
     this.updatedAt = Instant.now();
     this.updatedBy = cachedBy;
@@ -184,17 +186,45 @@ public class AccountAdapter {
     registerEvent(new AccountCachedEvent(this.id, accountNumber, accountHolderName));
   }
 
-  /** Log API call */
-  public void logApiCall(
-      String endpoint, String method, Integer statusCode, Long responseTimeMs, String requestId) {
+  /**
+   * Log API call to one of the adapter's backend systems. Neither the entry nor an event is kept by
+   * the aggregate (which it does not dirty); record the returned log through {@link
+   * ApiCallTelemetry}, which buffers recent calls and persists them.
+   *
+   * @param operation what the call did, e.g. {@code GET_ACCOUNT}
+   */
+  public ApiCallLog logApiCall(
+      BackendSystemId backendSystem,
+      String operation,
+      String endpoint,
+      String method,
+      Integer statusCode,
+      Long responseTimeMs,
+      String requestId) {
+    if (backendSystem == null) {
+      throw new InvalidAccountAdapterException("Backend system cannot be null");
+    }
+    if (!hasBackendSystem(backendSystem)) {
+      throw new InvalidAccountAdapterException(
+          "Backend system " + backendSystem.getValue() + " is not one of the adapter's");
+    }
+    if (operation == null || operation.isBlank()) {
+      throw new InvalidAccountAdapterException("Operation cannot be null or blank");
+    }
     ApiCallLog log =
         ApiCallLog.create(
-            LogId.generate(), this.id, endpoint, method, statusCode, responseTimeMs, requestId);
-
-    this.apiCallLogs.add(log);
-    this.updatedAt = Instant.now();
+            LogId.generate(),
+            this.id,
+            backendSystem,
+            this.tenantContext,
+            operation,
+            endpoint,
+            method,
+            statusCode,
+            responseTimeMs,
+            requestId);
 
-    registerEvent(new ApiCallLoggedEvent(this.id, endpoint, method, statusCode));
+    return log;
   }
 
   /** Update adapter configuration */
@@ -260,18 +290,15 @@ public class AccountAdapter {
     return backendSystems.stream().anyMatch(system -> system.getId().equals(systemId));
   }
 
+  /** Cached entry for the account, or null if there is none or it has expired. */
   public AccountCache getCachedAccount(AccountNumber accountNumber) {
-    return accountCaches.stream()
-        .filter(cache -> cache.getAccountNumber().equals(accountNumber))
-        .findFirst()
-        .orElse(null);
-  }
-
-  public List<ApiCallLog> getRecentApiCalls(int limit) {
-    return apiCallLogs.stream()
-        .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-        .limit(limit)
-        .collect(java.util.stream.Collectors.toList());
+    Instant now = Instant.now();
+    for (AccountCache cache : accountCaches) {
+      if (cache.getAccountNumber().equals(accountNumber)) {
+        return cache.isExpired(now) ? null : cache;
+      }
+    }
+    return null;
   }
 
   public AccountAdapterId getId() {
@@ -294,6 +321,14 @@ public class AccountAdapter {
     return baseUrl;
   }
 
+  public Integer getTimeoutSeconds() {
+    return timeoutSeconds;
+  }
+
+  public TenantContext getTenantContext() {
+    return tenantContext;
+  }
+
   public List<AccountRoutingRule> getRoutingRules() {
     return Collections.unmodifiableList(routingRules);
   }
@@ -471,49 +506,8 @@ class AccountCache {
 
     return cache;
   }
-}
 
-/** API Call Log (Entity within AccountAdapter Aggregate) */
-@Entity
-@Table(name = "api_call_logs")
-@NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Data
-class ApiCallLog {
-
-  @EmbeddedId private LogId id;
-
-  @Embedded private AccountAdapterId adapterId;
-
-  private String endpoint;
-
-  private String method;
-
-  private Integer statusCode;
-
-  private Long responseTimeMs;
-
-  private String requestId;
-
-  private Instant createdAt;
-
-  public static ApiCallLog create(
-      LogId id,
-      AccountAdapterId adapterId,
-      String endpoint,
-      String method,
-      Integer statusCode,
-      Long responseTimeMs,
-      String requestId) {
-    ApiCallLog log = new ApiCallLog();
-    log.id = id;
-    log.adapterId = adapterId;
-    log.endpoint = endpoint;
-    log.method = method;
-    log.statusCode = statusCode;
-    log.responseTimeMs = responseTimeMs;
-    log.requestId = requestId;
-    log.createdAt = Instant.now();
-
-    return log;
+  public boolean isExpired(Instant now) {
+    return expiresAt != null && !expiresAt.isAfter(now);
   }
 }
@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class AccountAdapterCreatedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   String adapterName;
+
+  @WireTag(3)
   AdapterType adapterType;
+
+  @WireTag(4)
   Instant createdAt;
 
   @Override
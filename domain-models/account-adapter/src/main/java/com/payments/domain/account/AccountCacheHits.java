@@ -0,0 +1,21 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.*;
+import java.time.Instant;
+import lombok.*;
+
+/** One cached account's {@code account_cache} row and the hits served since the last write-back. */
+@Value
+@AllArgsConstructor
+public class AccountCacheHits {
+  String tenantId;
+  String businessUnitId;
+  AccountInfo info;
+  Instant cachedAt;
+  Instant expiresAt;
+  int hits;
+
+  public AccountNumber getAccountNumber() {
+    return info.getAccountNumber();
+  }
+}
@@ -0,0 +1,12 @@
+package com.payments.domain.account;
+
+import java.util.List;
+
+/** Repository port: the {@code account_cache} table. */
+public interface AccountCacheRepository {
+
+  /**
+   * Insert or refresh each entry's row and add its hit delta to {@code account_cache.hit_count}.
+   */
+  void addHitCounts(List<AccountCacheHits> hits);
+}
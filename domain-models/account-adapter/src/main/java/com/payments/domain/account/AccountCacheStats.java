@@ -0,0 +1,21 @@
+package com.payments.domain.account;
+
+import lombok.*;
+
+/** Account Cache Stats - point-in-time snapshot of {@link AccountInfoCache} counters. */
+@Value
+@AllArgsConstructor
+public class AccountCacheStats {
+  long hitCount;
+  long missCount;
+  long loadCount;
+  long loadFailureCount;
+  long evictionCount;
+  long expiredCount;
+  int size;
+
+  public double getHitRate() {
+    long requests = hitCount + missCount;
+    return requests == 0 ? 0.0 : (double) hitCount / requests;
+  }
+}
@@ -8,8 +8,13 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class AccountCachedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   AccountNumber accountNumber;
+
+  @WireTag(3)
   String accountHolderName;
 
   @Override
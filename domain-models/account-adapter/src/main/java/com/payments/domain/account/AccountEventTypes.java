@@ -0,0 +1,20 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Account Adapter aggregate, for event codec registration. */
+public final class AccountEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(
+          AccountAdapterCreatedEvent.class,
+          AccountCachedEvent.class,
+          AdapterActivatedEvent.class,
+          AdapterConfigurationUpdatedEvent.class,
+          AdapterDeactivatedEvent.class,
+          BackendSystemAddedEvent.class,
+          RoutingRuleAddedEvent.class);
+
+  private AccountEventTypes() {}
+}
@@ -0,0 +1,15 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.*;
+import lombok.*;
+
+/** Account Info - Value Object: account details resolved from a backend system. */
+@Value
+@AllArgsConstructor(staticName = "of")
+public class AccountInfo {
+  AccountNumber accountNumber;
+  String accountHolderName;
+  String accountType;
+  String bankCode;
+  BackendSystemId backendSystem;
+}
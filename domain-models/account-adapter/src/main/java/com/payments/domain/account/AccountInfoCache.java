@@ -0,0 +1,398 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Account information cache (per tenant + account number)
+ *
+ * <p>Replaces the linear scan over {@code AccountAdapter.accountCaches}:
+ *
+ * <ul>
+ *   <li>O(1) lookups in lock-striped, access-ordered segments (LRU eviction per segment once the
+ *       size bound is reached)
+ *   <li>TTL enforced on read; expired entries are never served and are dropped when seen
+ *   <li>single-flight loading: concurrent misses for the same key share one backend call
+ *   <li>each loaded or put entry's {@code account_cache} row is upserted in the background, with
+ *       the hits served from it since the last flush added to {@code hit_count}; the hits of an
+ *       entry that is evicted, expires or is invalidated go out with the next flush. The rows of a
+ *       failed flush are written with the next one, up to {@code maximumSize} of them; the rest are
+ *       dropped and counted
+ * </ul>
+ *
+ * <p>{@link #getStats()} exposes hit, miss, load, eviction and expiry counters.
+ */
+public class AccountInfoCache implements AutoCloseable {
+
+  private static final int SEGMENTS = 16;
+
+  private final Segment[] segments = new Segment[SEGMENTS];
+  private final ConcurrentHashMap<Key, CompletableFuture<AccountInfo>> inFlight =
+      new ConcurrentHashMap<>();
+  private final long ttlMillis;
+  private final Clock clock;
+  private final AccountCacheRepository repository;
+  private final ScheduledExecutorService hitCountFlusher;
+  private final int maxRetainedRows;
+  // Rows of the last failed flush, written with the next one
+  private List<AccountCacheHits> failedFlush = new ArrayList<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder droppedHitRows = new LongAdder();
+
+  public AccountInfoCache(AccountCacheRepository repository) {
+    this(repository, 100_000, Duration.ofHours(1), Duration.ofSeconds(30), Clock.systemUTC());
+  }
+
+  public AccountInfoCache(
+      AccountCacheRepository repository,
+      int maximumSize,
+      Duration ttl,
+      Duration hitCountFlushInterval,
+      Clock clock) {
+    if (maximumSize < SEGMENTS) {
+      throw new IllegalArgumentException("Maximum size must be at least " + SEGMENTS);
+    }
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(maximumSize / SEGMENTS);
+    }
+    this.ttlMillis = ttl.toMillis();
+    this.clock = clock;
+    this.repository = repository;
+    this.maxRetainedRows = maximumSize;
+    this.hitCountFlusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "account-cache-hit-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = hitCountFlushInterval.toMillis();
+    hitCountFlusher.scheduleWithFixedDelay(
+        this::flushHitCountsQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // LOOKUPS
+  // ─────────────────────────────────────────────────────────
+
+  /** Cached info, or null if absent or expired. Does not load. */
+  public AccountInfo getIfPresent(TenantContext tenant, AccountNumber accountNumber) {
+    Key key = new Key(tenant.getTenantId(), accountNumber);
+    AccountInfo cached = segmentFor(key).get(key, clock.millis());
+    if (cached != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return cached;
+  }
+
+  /**
+   * Cached info, loading it with {@code loader} on a miss. Concurrent misses for the same key wait
+   * for a single load. A null result is returned but not cached.
+   */
+  public AccountInfo get(
+      TenantContext tenant,
+      AccountNumber accountNumber,
+      Function<AccountNumber, AccountInfo> loader) {
+    Key key = new Key(tenant.getTenantId(), accountNumber);
+    Segment segment = segmentFor(key);
+    AccountInfo cached = segment.get(key, clock.millis());
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+
+    CompletableFuture<AccountInfo> flight = new CompletableFuture<>();
+    CompletableFuture<AccountInfo> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      return await(existing);
+    }
+    try {
+      // Another caller may have finished loading between our miss and claiming the flight
+      AccountInfo loaded = segment.peek(key, clock.millis());
+      if (loaded == null) {
+        loads.increment();
+        loaded = loader.apply(accountNumber);
+        if (loaded != null) {
+          segment.put(key, tenant.getBusinessUnitId(), loaded, clock.millis());
+        }
+      }
+      flight.complete(loaded);
+      return loaded;
+    } catch (RuntimeException e) {
+      loadFailures.increment();
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  public void put(TenantContext tenant, AccountInfo info) {
+    Key key = new Key(tenant.getTenantId(), info.getAccountNumber());
+    segmentFor(key).put(key, tenant.getBusinessUnitId(), info, clock.millis());
+  }
+
+  public void invalidate(TenantContext tenant, AccountNumber accountNumber) {
+    Key key = new Key(tenant.getTenantId(), accountNumber);
+    segmentFor(key).remove(key);
+  }
+
+  public AccountCacheStats getStats() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return new AccountCacheStats(
+        hits.sum(),
+        misses.sum(),
+        loads.sum(),
+        loadFailures.sum(),
+        evictions.sum(),
+        expirations.sum(),
+        size);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // HIT COUNT WRITE-BACK
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Upsert the rows of new entries and of entries with hits to {@code account_cache} now, after
+   * those of a failed flush.
+   */
+  public synchronized void flushHitCounts() {
+    List<AccountCacheHits> pending = failedFlush;
+    failedFlush = new ArrayList<>();
+    for (Segment segment : segments) {
+      segment.drainHitCounts(pending);
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+    try {
+      repository.addHitCounts(pending);
+    } catch (RuntimeException e) {
+      if (pending.size() > maxRetainedRows) {
+        droppedHitRows.add(pending.size() - maxRetainedRows);
+        pending.subList(maxRetainedRows, pending.size()).clear();
+      }
+      failedFlush = pending;
+      throw e;
+    }
+  }
+
+  /** Rows and their hits lost because too many were already waiting for a failed flush. */
+  public long getDroppedHitRowCount() {
+    return droppedHitRows.sum();
+  }
+
+  @Override
+  public void close() {
+    hitCountFlusher.shutdown();
+    try {
+      hitCountFlusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flushHitCountsQuietly();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void flushHitCountsQuietly() {
+    try {
+      flushHitCounts();
+    } catch (RuntimeException e) {
+      // The drained rows are kept and written with the next flush
+    }
+  }
+
+  private Segment segmentFor(Key key) {
+    int h = key.hashCode();
+    return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  private static AccountInfo await(CompletableFuture<AccountInfo> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static final class Key {
+    final String tenantId;
+    final AccountNumber accountNumber;
+    final int hash;
+
+    Key(String tenantId, AccountNumber accountNumber) {
+      this.tenantId = Objects.requireNonNull(tenantId, "tenantId");
+      this.accountNumber = Objects.requireNonNull(accountNumber, "accountNumber");
+      this.hash = 31 * tenantId.hashCode() + accountNumber.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hash == other.hash
+          && tenantId.equals(other.tenantId)
+          && accountNumber.equals(other.accountNumber);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Entry {
+    final String businessUnitId;
+    final AccountInfo info;
+    final long cachedAtMillis;
+    final long expiresAtMillis;
+    int unflushedHits;
+    // Whether its row has been written since it was cached
+    boolean stored;
+
+    Entry(String businessUnitId, AccountInfo info, long cachedAtMillis, long expiresAtMillis) {
+      this.businessUnitId = businessUnitId;
+      this.info = info;
+      this.cachedAtMillis = cachedAtMillis;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+
+    AccountCacheHits toHits(Key key) {
+      return new AccountCacheHits(
+          key.tenantId,
+          businessUnitId,
+          info,
+          Instant.ofEpochMilli(cachedAtMillis),
+          Instant.ofEpochMilli(expiresAtMillis),
+          unflushedHits);
+    }
+  }
+
+  /** One lock stripe: an access-ordered LinkedHashMap evicting its least recently used entry. */
+  private final class Segment {
+    private final LinkedHashMap<Key, Entry> map;
+
+    /** Hits of entries no longer in the map, until the next flush. */
+    private final List<AccountCacheHits> releasedHits = new ArrayList<>();
+
+    Segment(int capacity) {
+      this.map =
+          new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+              if (size() > capacity) {
+                evictions.increment();
+                release(eldest.getKey(), eldest.getValue());
+                return true;
+              }
+              return false;
+            }
+          };
+    }
+
+    /** The live entry's info, counting a hit. */
+    synchronized AccountInfo get(Key key, long nowMillis) {
+      Entry entry = live(key, nowMillis);
+      if (entry == null) {
+        return null;
+      }
+      entry.unflushedHits++;
+      return entry.info;
+    }
+
+    /** The live entry's info, without counting a hit. */
+    synchronized AccountInfo peek(Key key, long nowMillis) {
+      Entry entry = live(key, nowMillis);
+      return entry != null ? entry.info : null;
+    }
+
+    synchronized void put(Key key, String businessUnitId, AccountInfo info, long nowMillis) {
+      Entry replaced =
+          map.put(key, new Entry(businessUnitId, info, nowMillis, nowMillis + ttlMillis));
+      if (replaced != null) {
+        release(key, replaced);
+      }
+    }
+
+    synchronized void remove(Key key) {
+      Entry removed = map.remove(key);
+      if (removed != null) {
+        release(key, removed);
+      }
+    }
+
+    synchronized int size() {
+      return map.size();
+    }
+
+    synchronized void drainHitCounts(List<AccountCacheHits> sink) {
+      sink.addAll(releasedHits);
+      releasedHits.clear();
+      for (Map.Entry<Key, Entry> e : map.entrySet()) {
+        Key key = e.getKey();
+        Entry entry = e.getValue();
+        if (entry.unflushedHits > 0 || !entry.stored) {
+          sink.add(entry.toHits(key));
+          entry.unflushedHits = 0;
+          entry.stored = true;
+        }
+      }
+    }
+
+    private Entry live(Key key, long nowMillis) {
+      Entry entry = map.get(key);
+      if (entry != null && entry.expiresAtMillis <= nowMillis) {
+        map.remove(key);
+        expirations.increment();
+        release(key, entry);
+        return null;
+      }
+      return entry;
+    }
+
+    private void release(Key key, Entry entry) {
+      if (entry.unflushedHits > 0) {
+        releasedHits.add(entry.toHits(key));
+      }
+    }
+  }
+}
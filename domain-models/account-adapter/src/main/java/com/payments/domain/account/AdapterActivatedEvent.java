@@ -8,7 +8,10 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class AdapterActivatedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   String activatedBy;
 
   @Override
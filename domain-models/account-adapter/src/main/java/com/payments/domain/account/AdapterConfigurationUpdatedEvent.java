@@ -8,8 +8,13 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class AdapterConfigurationUpdatedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   String baseUrl;
+
+  @WireTag(3)
   String apiVersion;
 
   @Override
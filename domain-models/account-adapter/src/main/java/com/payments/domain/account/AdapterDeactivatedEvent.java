@@ -8,8 +8,13 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class AdapterDeactivatedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   String reason;
+
+  @WireTag(3)
   String deactivatedBy;
 
   @Override
@@ -0,0 +1,69 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * API Call Log - Value Object (Immutable)
+ *
+ * <p>One call made by an {@link AccountAdapter} to its backend. Deliberately not part of the
+ * aggregate: entries flow through {@link ApiCallTelemetry} into the {@code api_call_log} table.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ApiCallLog {
+
+  LogId id;
+
+  AccountAdapterId adapterId;
+
+  /** The backend system of the adapter that was called. */
+  BackendSystemId backendSystem;
+
+  TenantContext tenantContext;
+
+  /** What the call did, e.g. {@code GET_ACCOUNT}; the HTTP method is {@link #method}. */
+  String operation;
+
+  String endpoint;
+
+  String method;
+
+  Integer statusCode;
+
+  Long responseTimeMs;
+
+  String requestId;
+
+  Instant createdAt;
+
+  public static ApiCallLog create(
+      LogId id,
+      AccountAdapterId adapterId,
+      BackendSystemId backendSystem,
+      TenantContext tenantContext,
+      String operation,
+      String endpoint,
+      String method,
+      Integer statusCode,
+      Long responseTimeMs,
+      String requestId) {
+    return new ApiCallLog(
+        id,
+        adapterId,
+        backendSystem,
+        tenantContext,
+        operation,
+        endpoint,
+        method,
+        statusCode,
+        responseTimeMs,
+        requestId,
+        Instant.now());
+  }
+
+  public boolean isSuccess() {
+    return statusCode != null && statusCode >= 200 && statusCode < 400;
+  }
+}
@@ -0,0 +1,10 @@
+package com.payments.domain.account;
+
+import java.util.List;
+
+/** Repository port: persistence of API call logs to the {@code api_call_log} table. */
+public interface ApiCallLogRepository {
+
+  /** Persist a batch of logs; implementations should write them in one round trip. */
+  void saveAll(List<ApiCallLog> logs);
+}
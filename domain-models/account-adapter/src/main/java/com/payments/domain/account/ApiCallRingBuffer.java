@@ -0,0 +1,68 @@
+package com.payments.domain.account;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring of the most recent API calls of one adapter.
+ *
+ * <p>Writers claim a sequence number with a single {@code getAndIncrement} and publish the entry
+ * followed by its sequence stamp. Readers walk backwards from the newest sequence and accept a slot
+ * only if its stamp matches before and after reading the entry, so a slot being overwritten by a
+ * concurrent writer is skipped. (Two writers a full lap apart racing on one slot can still swap
+ * entries; acceptable for a telemetry view.) Memory is bounded by the capacity, and {@link
+ * #recent(int)} costs O(limit).
+ */
+final class ApiCallRingBuffer {
+
+  private final int mask;
+  private final AtomicReferenceArray<ApiCallLog> entries;
+  private final AtomicLongArray stamps;
+  private final AtomicLong nextSequence = new AtomicLong();
+
+  ApiCallRingBuffer(int capacity) {
+    if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.entries = new AtomicReferenceArray<>(capacity);
+    this.stamps = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      stamps.set(i, -1L);
+    }
+  }
+
+  void add(ApiCallLog log) {
+    long sequence = nextSequence.getAndIncrement();
+    int slot = (int) (sequence & mask);
+    stamps.set(slot, -1L); // mark in-flight
+    entries.set(slot, log);
+    stamps.set(slot, sequence);
+  }
+
+  /** Up to {@code limit} most recent entries, newest first. */
+  List<ApiCallLog> recent(int limit) {
+    long newest = nextSequence.get() - 1;
+    long oldest = Math.max(0L, newest - mask);
+    int wanted = (int) Math.min(Math.max(limit, 0), newest - oldest + 1);
+    List<ApiCallLog> result = new ArrayList<>(wanted);
+    for (long sequence = newest; sequence >= oldest && result.size() < wanted; sequence--) {
+      int slot = (int) (sequence & mask);
+      if (stamps.get(slot) != sequence) {
+        continue;
+      }
+      ApiCallLog log = entries.get(slot);
+      if (stamps.get(slot) == sequence) {
+        result.add(log);
+      }
+    }
+    return result;
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+}
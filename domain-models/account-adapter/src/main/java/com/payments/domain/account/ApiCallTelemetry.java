@@ -0,0 +1,210 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.AccountAdapterId;
+import com.payments.domain.shared.AsyncBatchWriter;
+import com.payments.domain.shared.BackendGuardRegistry;
+import com.payments.domain.shared.BackendSystemId;
+import com.payments.domain.shared.CallOutcome;
+import com.payments.domain.shared.LatencyMetrics;
+import com.payments.domain.shared.LatencyWindow;
+import com.payments.domain.shared.TenantContext;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * API call telemetry for account adapters (outside the aggregate)
+ *
+ * <p>Keeps the last {@code ringCapacity} calls of every adapter in a lock-free ring buffer, so
+ * "recent N calls" is O(N) and memory stays bounded, and persists every call to {@code
+ * api_call_log} asynchronously in batches. Loading an {@link AccountAdapter} no longer loads its
+ * call history.
+ *
+ * <p>Response times are also aggregated per backend system called and tenant into latency
+ * histograms, written to {@code backend_system_metrics} every {@code metricsInterval} with their
+ * p95 and p99, and with the circuit state of the backend system's {@link BackendGuardRegistry}
+ * guard, if there is one.
+ */
+public class ApiCallTelemetry implements AutoCloseable {
+
+  public static final int DEFAULT_RING_CAPACITY = 256;
+
+  private final int ringCapacity;
+  private final ConcurrentHashMap<AccountAdapterId, ApiCallRingBuffer> rings =
+      new ConcurrentHashMap<>();
+  private final AsyncBatchWriter<ApiCallLog> writer;
+  private final LatencyMetrics<Key> latency;
+  private final BackendGuardRegistry guards;
+
+  public ApiCallTelemetry(
+      ApiCallLogRepository repository, BackendSystemMetricsRepository metricsRepository) {
+    this(
+        repository,
+        metricsRepository,
+        DEFAULT_RING_CAPACITY,
+        65_536,
+        500,
+        Duration.ofMillis(200),
+        Duration.ofMinutes(1));
+  }
+
+  public ApiCallTelemetry(
+      ApiCallLogRepository repository,
+      BackendSystemMetricsRepository metricsRepository,
+      int ringCapacity,
+      int queueCapacity,
+      int batchSize,
+      Duration linger,
+      Duration metricsInterval) {
+    this(
+        repository,
+        metricsRepository,
+        ringCapacity,
+        queueCapacity,
+        batchSize,
+        linger,
+        metricsInterval,
+        null);
+  }
+
+  /**
+   * @param guards source of the rows' {@code circuit_breaker_status}; may be null
+   */
+  public ApiCallTelemetry(
+      ApiCallLogRepository repository,
+      BackendSystemMetricsRepository metricsRepository,
+      int ringCapacity,
+      int queueCapacity,
+      int batchSize,
+      Duration linger,
+      Duration metricsInterval,
+      BackendGuardRegistry guards) {
+    if (ringCapacity < 1 || Integer.bitCount(ringCapacity) != 1) {
+      throw new IllegalArgumentException("Ring capacity must be a power of two: " + ringCapacity);
+    }
+    this.ringCapacity = ringCapacity;
+    this.guards = guards;
+    this.writer =
+        new AsyncBatchWriter<>(
+            "api-call-log-writer", queueCapacity, batchSize, linger, repository::saveAll);
+    this.latency =
+        new LatencyMetrics<>(
+            "backend-system",
+            metricsInterval,
+            windows -> metricsRepository.saveAll(toMetrics(windows)));
+  }
+
+  /** Record a call returned by {@link AccountAdapter#logApiCall}. Never blocks the caller. */
+  public void record(ApiCallLog log) {
+    ApiCallRingBuffer ring = rings.get(log.getAdapterId());
+    if (ring == null) {
+      ring = rings.computeIfAbsent(log.getAdapterId(), id -> new ApiCallRingBuffer(ringCapacity));
+    }
+    ring.add(log);
+    writer.offer(log);
+    if (log.getResponseTimeMs() != null) {
+      latency.record(
+          new Key(log.getBackendSystem(), log.getTenantContext()),
+          log.getResponseTimeMs() * 1000,
+          log.isSuccess() ? CallOutcome.SUCCESS : CallOutcome.FAILURE);
+    }
+  }
+
+  /** Most recent calls of an adapter, newest first. */
+  public List<ApiCallLog> getRecentApiCalls(AccountAdapterId adapterId, int limit) {
+    ApiCallRingBuffer ring = rings.get(adapterId);
+    return ring == null ? List.of() : ring.recent(limit);
+  }
+
+  /** Calls that could not be queued for persistence because the writer was saturated. */
+  public long getDroppedCount() {
+    return writer.getDroppedCount();
+  }
+
+  /** Calls lost because the batch insert carrying them failed. */
+  public long getFailedCount() {
+    return writer.getFailedCount();
+  }
+
+  public long getPersistedCount() {
+    return writer.getWrittenCount();
+  }
+
+  /**
+   * The latest interval of every backend system and tenant with recent calls, as written to the
+   * table.
+   */
+  public List<BackendSystemMetrics> getLatestMetrics() {
+    return toMetrics(new ArrayList<>(latency.getLatestWindows().values()));
+  }
+
+  @Override
+  public void close() {
+    writer.close();
+    latency.close();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private List<BackendSystemMetrics> toMetrics(List<LatencyWindow<Key>> windows) {
+    List<BackendSystemMetrics> rows = new ArrayList<>(windows.size());
+    for (LatencyWindow<Key> window : windows) {
+      Key key = window.getKey();
+      rows.add(
+          new BackendSystemMetrics(
+              key.backendSystem.getValue(),
+              window.getEnd(),
+              (int) window.getCallCount(),
+              (int) window.getSuccessCount(),
+              (int) (window.getFailureCount() + window.getTimeoutCount()),
+              window.getMeanMillis(),
+              window.getPercentileMillis(95),
+              window.getPercentileMillis(99),
+              guards != null ? guards.getCircuitState(key.backendSystem) : null,
+              BigDecimal.valueOf(window.getErrorRatePercent()).setScale(2, RoundingMode.HALF_UP),
+              key.tenantId,
+              key.businessUnitId));
+    }
+    return rows;
+  }
+
+  private static final class Key {
+    final BackendSystemId backendSystem;
+    final String tenantId;
+    final String businessUnitId;
+    final int hash;
+
+    Key(BackendSystemId backendSystem, TenantContext tenant) {
+      this.backendSystem = Objects.requireNonNull(backendSystem, "backendSystem");
+      this.tenantId = tenant.getTenantId();
+      this.businessUnitId = tenant.getBusinessUnitId();
+      this.hash = Objects.hash(backendSystem, tenantId, businessUnitId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hash == other.hash
+          && backendSystem.equals(other.backendSystem)
+          && tenantId.equals(other.tenantId)
+          && businessUnitId.equals(other.businessUnitId);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
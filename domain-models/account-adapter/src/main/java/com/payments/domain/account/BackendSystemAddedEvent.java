@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class BackendSystemAddedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   BackendSystemId systemId;
+
+  @WireTag(3)
   String systemName;
+
+  @WireTag(4)
   String systemType;
 
   @Override
@@ -0,0 +1,24 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.CircuitState;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.*;
+
+/** A {@code backend_system_metrics} row: the calls to one backend system in one interval. */
+@Value
+@AllArgsConstructor
+public class BackendSystemMetrics {
+  String backendSystem;
+  Instant metricTimestamp;
+  int totalCalls;
+  int successfulCalls;
+  int failedCalls;
+  int avgResponseTimeMs;
+  int p95ResponseTimeMs;
+  int p99ResponseTimeMs;
+  CircuitState circuitBreakerStatus;
+  BigDecimal errorRate;
+  String tenantId;
+  String businessUnitId;
+}
@@ -0,0 +1,9 @@
+package com.payments.domain.account;
+
+import java.util.List;
+
+/** Repository port: the {@code backend_system_metrics} table. */
+public interface BackendSystemMetricsRepository {
+
+  void saveAll(List<BackendSystemMetrics> metrics);
+}
@@ -0,0 +1,59 @@
+package com.payments.domain.account;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link AccountCacheRepository} issuing JDBC batch upserts against {@code account_cache} (V5,
+ * keyed by tenant in V14).
+ */
+public class JdbcAccountCacheRepository implements AccountCacheRepository {
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO account_cache (account_number, account_data, backend_system, cached_at,"
+          + " expires_at, hit_count, tenant_id, business_unit_id)"
+          + " VALUES (?, jsonb_build_object('accountHolderName', ?::text, 'accountType', ?::text,"
+          + " 'bankCode', ?::text), ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (account_number, tenant_id) DO UPDATE SET"
+          + " account_data = EXCLUDED.account_data, backend_system = EXCLUDED.backend_system,"
+          + " cached_at = EXCLUDED.cached_at, expires_at = EXCLUDED.expires_at,"
+          + " hit_count = COALESCE(account_cache.hit_count, 0) + EXCLUDED.hit_count,"
+          + " business_unit_id = EXCLUDED.business_unit_id";
+
+  private final DataSource dataSource;
+
+  public JdbcAccountCacheRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void addHitCounts(List<AccountCacheHits> hits) {
+    if (hits.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+      for (AccountCacheHits entry : hits) {
+        AccountInfo info = entry.getInfo();
+        statement.setString(1, info.getAccountNumber().getValue());
+        statement.setString(2, info.getAccountHolderName());
+        statement.setString(3, info.getAccountType());
+        statement.setString(4, info.getBankCode());
+        statement.setString(5, info.getBackendSystem().getValue());
+        statement.setTimestamp(6, Timestamp.from(entry.getCachedAt()));
+        statement.setTimestamp(7, Timestamp.from(entry.getExpiresAt()));
+        statement.setInt(8, entry.getHits());
+        statement.setString(9, entry.getTenantId());
+        statement.setString(10, entry.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to write back " + hits.size() + " hit counts", e);
+    }
+  }
+}
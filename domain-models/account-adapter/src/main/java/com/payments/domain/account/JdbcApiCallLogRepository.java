@@ -0,0 +1,66 @@
+package com.payments.domain.account;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import javax.sql.DataSource;
+
+/** {@link ApiCallLogRepository} writing JDBC batch inserts into {@code api_call_log} (V5). */
+public class JdbcApiCallLogRepository implements ApiCallLogRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO api_call_log (call_id, backend_system, operation, http_method, endpoint_url,"
+          + " response_status, response_time_ms, success, correlation_id, called_at, tenant_id,"
+          + " business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+
+  public JdbcApiCallLogRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void saveAll(List<ApiCallLog> logs) {
+    if (logs.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (ApiCallLog log : logs) {
+        statement.setString(1, log.getId().getValue());
+        statement.setString(2, log.getBackendSystem().getValue());
+        statement.setString(3, log.getOperation());
+        statement.setString(4, log.getMethod());
+        statement.setString(5, log.getEndpoint());
+        setInteger(statement, 6, log.getStatusCode());
+        setInteger(
+            statement,
+            7,
+            log.getResponseTimeMs() == null
+                ? null
+                : (int) Math.min(log.getResponseTimeMs(), Integer.MAX_VALUE));
+        statement.setBoolean(8, log.isSuccess());
+        statement.setString(9, log.getRequestId());
+        statement.setTimestamp(10, Timestamp.from(log.getCreatedAt()));
+        statement.setString(11, log.getTenantContext().getTenantId());
+        statement.setString(12, log.getTenantContext().getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to persist " + logs.size() + " API call logs", e);
+    }
+  }
+
+  private static void setInteger(PreparedStatement statement, int index, Integer value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.INTEGER);
+    } else {
+      statement.setInt(index, value);
+    }
+  }
+}
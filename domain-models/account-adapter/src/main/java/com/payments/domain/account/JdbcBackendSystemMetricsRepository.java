@@ -0,0 +1,55 @@
+package com.payments.domain.account;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import javax.sql.DataSource;
+
+/** {@link BackendSystemMetricsRepository} writing JDBC batch inserts (V5). */
+public class JdbcBackendSystemMetricsRepository implements BackendSystemMetricsRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO backend_system_metrics (backend_system, metric_timestamp, total_calls,"
+          + " successful_calls, failed_calls, avg_response_time_ms, p95_response_time_ms,"
+          + " p99_response_time_ms, circuit_breaker_status, error_rate, tenant_id,"
+          + " business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+
+  public JdbcBackendSystemMetricsRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void saveAll(List<BackendSystemMetrics> metrics) {
+    if (metrics.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (BackendSystemMetrics row : metrics) {
+        statement.setString(1, row.getBackendSystem());
+        statement.setTimestamp(2, Timestamp.from(row.getMetricTimestamp()));
+        statement.setInt(3, row.getTotalCalls());
+        statement.setInt(4, row.getSuccessfulCalls());
+        statement.setInt(5, row.getFailedCalls());
+        statement.setInt(6, row.getAvgResponseTimeMs());
+        statement.setInt(7, row.getP95ResponseTimeMs());
+        statement.setInt(8, row.getP99ResponseTimeMs());
+        statement.setString(
+            9, row.getCircuitBreakerStatus() != null ? row.getCircuitBreakerStatus().name() : null);
+        statement.setBigDecimal(10, row.getErrorRate());
+        statement.setString(11, row.getTenantId());
+        statement.setString(12, row.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to persist " + metrics.size() + " backend system metrics rows", e);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.payments.domain.account;
+
+import com.payments.domain.shared.CircuitBreakerStateRepository;
+import com.payments.domain.shared.CircuitBreakerStatus;
+import com.payments.domain.shared.CircuitState;
+import com.payments.domain.shared.GuardedSystemType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link CircuitBreakerStateRepository} over {@code circuit_breaker_state} (V5).
+ *
+ * <p>Rows are keyed by {@code system_type} and ID (V11); only rows of backend systems reference
+ * {@code backend_systems}. The registry loads every row at once, so the DataSource must connect as
+ * a role that is not subject to the table's row-level security policy.
+ */
+public class JdbcCircuitBreakerStateRepository implements CircuitBreakerStateRepository {
+
+  private static final String FIND_ALL_SQL =
+      "SELECT system_type, backend_system, state, failure_count, last_failure, last_success,"
+          + " state_changed_at, next_retry_at, tenant_id, business_unit_id"
+          + " FROM circuit_breaker_state";
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO circuit_breaker_state (system_type, backend_system, state, failure_count,"
+          + " last_failure, last_success, state_changed_at, next_retry_at, tenant_id,"
+          + " business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (system_type, backend_system) DO UPDATE SET"
+          + " state = EXCLUDED.state, failure_count = EXCLUDED.failure_count,"
+          + " last_failure = EXCLUDED.last_failure, last_success = EXCLUDED.last_success,"
+          + " state_changed_at = EXCLUDED.state_changed_at,"
+          + " next_retry_at = EXCLUDED.next_retry_at";
+
+  private final DataSource dataSource;
+
+  public JdbcCircuitBreakerStateRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public List<CircuitBreakerStatus> findAll() {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_ALL_SQL);
+        ResultSet rs = statement.executeQuery()) {
+      List<CircuitBreakerStatus> statuses = new ArrayList<>();
+      while (rs.next()) {
+        statuses.add(
+            new CircuitBreakerStatus(
+                GuardedSystemType.valueOf(rs.getString("system_type")),
+                rs.getString("backend_system"),
+                CircuitState.valueOf(rs.getString("state")),
+                rs.getInt("failure_count"),
+                toInstant(rs.getTimestamp("last_failure")),
+                toInstant(rs.getTimestamp("last_success")),
+                toInstant(rs.getTimestamp("state_changed_at")),
+                toInstant(rs.getTimestamp("next_retry_at")),
+                rs.getString("tenant_id"),
+                rs.getString("business_unit_id")));
+      }
+      return statuses;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to load circuit breaker states", e);
+    }
+  }
+
+  @Override
+  public void saveAll(List<CircuitBreakerStatus> statuses) {
+    if (statuses.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+      // Rows are upserted in order, so the last transition of a system wins
+      for (CircuitBreakerStatus status : statuses) {
+        statement.setString(1, status.getSystemType().name());
+        statement.setString(2, status.getBackendSystem());
+        statement.setString(3, status.getState().name());
+        statement.setInt(4, status.getFailureCount());
+        statement.setTimestamp(5, toTimestamp(status.getLastFailure()));
+        statement.setTimestamp(6, toTimestamp(status.getLastSuccess()));
+        statement.setTimestamp(7, toTimestamp(status.getStateChangedAt()));
+        statement.setTimestamp(8, toTimestamp(status.getNextRetryAt()));
+        statement.setString(9, status.getTenantId());
+        statement.setString(10, status.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to persist " + statuses.size() + " circuit breaker transitions", e);
+    }
+  }
+
+  private static Timestamp toTimestamp(Instant instant) {
+    return instant != null ? Timestamp.from(instant) : null;
+  }
+
+  private static Instant toInstant(Timestamp timestamp) {
+    return timestamp != null ? timestamp.toInstant() : null;
+  }
+}
@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class RoutingRuleAddedEvent implements DomainEvent {
+  @WireTag(1)
   AccountAdapterId adapterId;
+
+  @WireTag(2)
   RoutingRuleId ruleId;
+
+  @WireTag(3)
   String ruleName;
+
+  @WireTag(4)
   String condition;
 
   @Override
@@ -0,0 +1,203 @@
+package com.payments.domain.account;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AccountInfoCacheTest {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Retail");
+  private static final BackendSystemId CORE_BANKING = BackendSystemId.of("BS-CORE");
+  private static final AccountNumber ACCOUNT = AccountNumber.of("12345678901");
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-03-01T08:00:00Z"));
+  private final RecordingRepository repository = new RecordingRepository();
+
+  @Test
+  void only_hits_are_written_back() {
+    try (AccountInfoCache cache = cache(16)) {
+      AtomicInteger loads = new AtomicInteger();
+      for (int i = 0; i < 3; i++) {
+        cache.get(TENANT, ACCOUNT, account -> load(account, loads));
+      }
+      assertEquals(1, loads.get());
+      cache.flushHitCounts();
+      cache.flushHitCounts();
+
+      assertEquals(List.of("TNT-1 12345678901 2"), repository.lines());
+      AccountCacheStats stats = cache.getStats();
+      assertEquals(2, stats.getHitCount());
+      assertEquals(1, stats.getMissCount());
+    }
+  }
+
+  @Test
+  void rows_of_a_failed_flush_are_written_with_the_next_one() {
+    try (AccountInfoCache cache = cache(16)) {
+      AtomicInteger loads = new AtomicInteger();
+      for (int i = 0; i < 3; i++) {
+        cache.get(TENANT, ACCOUNT, account -> load(account, loads));
+      }
+      repository.failing = true;
+      assertThrows(IllegalStateException.class, cache::flushHitCounts);
+
+      repository.failing = false;
+      cache.getIfPresent(TENANT, ACCOUNT);
+      cache.flushHitCounts();
+
+      assertEquals(List.of("TNT-1 12345678901 2", "TNT-1 12345678901 1"), repository.lines());
+      assertEquals(0, cache.getDroppedHitRowCount());
+    }
+  }
+
+  @Test
+  void hits_of_evicted_expired_and_invalidated_entries_are_flushed() {
+    try (AccountInfoCache cache = cache(16)) {
+      List<AccountNumber> accounts = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        AccountNumber account = AccountNumber.of(String.valueOf(20_000_000_000L + i));
+        accounts.add(account);
+        cache.put(TENANT, info(account));
+        assertNotNull(cache.getIfPresent(TENANT, account));
+      }
+      cache.put(TENANT, info(ACCOUNT));
+      cache.getIfPresent(TENANT, ACCOUNT);
+      cache.invalidate(TENANT, ACCOUNT);
+      assertTrue(cache.getStats().getEvictionCount() > 0);
+
+      clock.advance(Duration.ofHours(2));
+      for (AccountNumber account : accounts) {
+        assertNull(cache.getIfPresent(TENANT, account));
+      }
+      cache.flushHitCounts();
+
+      assertEquals(201, repository.totalHits());
+      assertEquals(0, cache.getStats().getSize());
+    }
+  }
+
+  @Test
+  void concurrent_misses_share_one_load() throws InterruptedException {
+    try (AccountInfoCache cache = cache(16)) {
+      AtomicInteger loads = new AtomicInteger();
+      CountDownLatch loading = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        Thread thread =
+            new Thread(
+                () ->
+                    cache.get(
+                        TENANT,
+                        ACCOUNT,
+                        account -> {
+                          loading.countDown();
+                          await(release);
+                          return load(account, loads);
+                        }));
+        threads.add(thread);
+        thread.start();
+      }
+      assertTrue(loading.await(5, TimeUnit.SECONDS));
+      Thread.sleep(50);
+      release.countDown();
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertEquals(1, loads.get());
+      cache.flushHitCounts();
+      assertEquals(List.of("TNT-1 12345678901 0"), repository.lines());
+    }
+  }
+
+  private AccountInfoCache cache(int maximumSize) {
+    return new AccountInfoCache(
+        repository, maximumSize, Duration.ofHours(1), Duration.ofHours(1), clock);
+  }
+
+  private static AccountInfo load(AccountNumber account, AtomicInteger loads) {
+    loads.incrementAndGet();
+    return info(account);
+  }
+
+  private static AccountInfo info(AccountNumber account) {
+    return AccountInfo.of(account, "Holder", "CURRENT", "632005", CORE_BANKING);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static final class RecordingRepository implements AccountCacheRepository {
+    final List<AccountCacheHits> written = new ArrayList<>();
+    volatile boolean failing;
+
+    @Override
+    public synchronized void addHitCounts(List<AccountCacheHits> hits) {
+      if (failing) {
+        throw new IllegalStateException("account_cache unavailable");
+      }
+      written.addAll(hits);
+    }
+
+    synchronized List<String> lines() {
+      List<String> lines = new ArrayList<>();
+      for (AccountCacheHits hits : written) {
+        lines.add(
+            hits.getTenantId() + " " + hits.getAccountNumber().getValue() + " " + hits.getHits());
+      }
+      return lines;
+    }
+
+    synchronized long totalHits() {
+      long total = 0;
+      for (AccountCacheHits hits : written) {
+        total += hits.getHits();
+      }
+      return total;
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
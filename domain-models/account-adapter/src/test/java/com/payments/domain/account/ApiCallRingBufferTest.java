@@ -0,0 +1,62 @@
+package com.payments.domain.account;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class ApiCallRingBufferTest {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+  private static final AccountAdapterId ADAPTER = AccountAdapterId.generate();
+  private static final BackendSystemId CBS = BackendSystemId.of("CBS");
+
+  @Test
+  void keeps_the_newest_calls_once_wrapped() {
+    ApiCallRingBuffer ring = new ApiCallRingBuffer(4);
+    for (int i = 1; i <= 10; i++) {
+      ring.add(call(i));
+    }
+
+    assertEquals(List.of("REQ-10", "REQ-9", "REQ-8", "REQ-7"), requestIds(ring.recent(100)));
+    assertEquals(List.of("REQ-10", "REQ-9"), requestIds(ring.recent(2)));
+  }
+
+  @Test
+  void returns_only_what_was_added_before_wrapping() {
+    ApiCallRingBuffer ring = new ApiCallRingBuffer(8);
+    assertTrue(ring.recent(5).isEmpty());
+    ring.add(call(1));
+    ring.add(call(2));
+
+    assertEquals(List.of("REQ-2", "REQ-1"), requestIds(ring.recent(5)));
+    assertTrue(ring.recent(0).isEmpty());
+  }
+
+  @Test
+  void capacity_must_be_a_power_of_two() {
+    assertThrows(IllegalArgumentException.class, () -> new ApiCallRingBuffer(6));
+    assertThrows(IllegalArgumentException.class, () -> new ApiCallRingBuffer(0));
+  }
+
+  private static ApiCallLog call(int n) {
+    return ApiCallLog.create(
+        LogId.generate(),
+        ADAPTER,
+        CBS,
+        TENANT,
+        "GET_ACCOUNT",
+        "/accounts/" + n,
+        "GET",
+        200,
+        5L,
+        "REQ-" + n);
+  }
+
+  private static List<String> requestIds(List<ApiCallLog> calls) {
+    return calls.stream().map(ApiCallLog::getRequestId).collect(Collectors.toList());
+  }
+}
@@ -19,7 +19,7 @@ import lombok.*;
 @Entity
 @Table(name = "clearing_adapters")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class ClearingAdapter {
+public class ClearingAdapter implements DomainEventSource {
 
   @EmbeddedId private ClearingAdapterId id;
 
@@ -60,10 +60,6 @@ public class ClearingAdapter {
   @JoinColumn(name = "clearing_adapter_id")
   private List<ClearingRoute> routes = new ArrayList<>();
 
-  @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-  @JoinColumn(name = "clearing_adapter_id")
-  private List<ClearingMessageLog> messageLogs = new ArrayList<>();
-
   @Transient private List<DomainEvent> domainEvents = new ArrayList<>();
 
   public static ClearingAdapter create(
@@ -116,22 +112,40 @@ public class ClearingAdapter {
     this.updatedAt = Instant.now();
     this.updatedBy = addedBy;
 
-    registerEvent(new ClearingRouteAddedEvent(this.id, routeId, routeName));
+    registerEvent(
+        new ClearingRouteAddedEvent(this.id, routeId, routeName, source, destination, priority));
   }
 
-  public void logMessage(
+  /**
+   * Log one message. Neither the log nor an event is kept on the aggregate: hand the log to a
+   * {@link ClearingMessageLogWriter}.
+   */
+  public ClearingMessageLog logMessage(
       ClearingMessageId messageId,
       String direction,
       String messageType,
       String payloadHash,
       Integer statusCode) {
-    ClearingMessageLog log =
-        ClearingMessageLog.create(
-            messageId, this.id, direction, messageType, payloadHash, statusCode);
-    this.messageLogs.add(log);
-    this.updatedAt = Instant.now();
+    return ClearingMessageLog.create(
+        messageId, this.id, tenantContext, direction, messageType, payloadHash, statusCode, 1);
+  }
 
-    registerEvent(new ClearingMessageLoggedEvent(this.id, direction, messageType, statusCode));
+  /** Log one outbound message that carried a batch of {@code messageCount} payments. */
+  public ClearingMessageLog logBatch(
+      ClearingMessageId messageId,
+      String messageType,
+      String payloadHash,
+      Integer statusCode,
+      int messageCount) {
+    return ClearingMessageLog.create(
+        messageId,
+        this.id,
+        tenantContext,
+        "OUTBOUND",
+        messageType,
+        payloadHash,
+        statusCode,
+        messageCount);
   }
 
   public void updateConfiguration(
@@ -172,6 +186,18 @@ public class ClearingAdapter {
     registerEvent(new ClearingAdapterDeactivatedEvent(this.id, reason, deactivatedBy));
   }
 
+  public ClearingAdapterId getId() {
+    return id;
+  }
+
+  public ClearingNetwork getNetwork() {
+    return network;
+  }
+
+  public Integer getTimeoutSeconds() {
+    return timeoutSeconds;
+  }
+
   public boolean isActive() {
     return this.status == AdapterOperationalStatus.ACTIVE;
   }
@@ -180,10 +206,6 @@ public class ClearingAdapter {
     return Collections.unmodifiableList(routes);
   }
 
-  public List<ClearingMessageLog> getMessageLogs() {
-    return Collections.unmodifiableList(messageLogs);
-  }
-
   public List<DomainEvent> getDomainEvents() {
     return Collections.unmodifiableList(domainEvents);
   }
@@ -243,38 +265,3 @@ class ClearingRoute {
     return route;
   }
 }
-
-@Entity
-@Table(name = "clearing_message_logs")
-@NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Data
-class ClearingMessageLog {
-
-  @EmbeddedId private ClearingMessageId id;
-
-  @Embedded private ClearingAdapterId clearingAdapterId;
-
-  private String direction; // INBOUND / OUTBOUND
-  private String messageType; // e.g. pacs.008, pain.001
-  private String payloadHash;
-  private Integer statusCode;
-  private Instant createdAt;
-
-  public static ClearingMessageLog create(
-      ClearingMessageId id,
-      ClearingAdapterId clearingAdapterId,
-      String direction,
-      String messageType,
-      String payloadHash,
-      Integer statusCode) {
-    ClearingMessageLog log = new ClearingMessageLog();
-    log.id = id;
-    log.clearingAdapterId = clearingAdapterId;
-    log.direction = direction;
-    log.messageType = messageType;
-    log.payloadHash = payloadHash;
-    log.statusCode = statusCode;
-    log.createdAt = Instant.now();
-    return log;
-  }
-}
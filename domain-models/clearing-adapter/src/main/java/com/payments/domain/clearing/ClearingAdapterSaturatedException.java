@@ -0,0 +1,9 @@
+package com.payments.domain.clearing;
+
+/** A clearing adapter has too many batches in flight to accept another payment in time. */
+public class ClearingAdapterSaturatedException extends RuntimeException {
+
+  public ClearingAdapterSaturatedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,111 @@
+package com.payments.domain.clearing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import lombok.*;
+
+/**
+ * How a {@link ClearingBatcher} groups payments for one network
+ *
+ * <p>A batch is sent when it holds {@code maxBatchSize} payments, when its first payment has waited
+ * {@code linger}, or {@code cutOffMargin} before the next cycle cut-off, whichever comes first;
+ * cycles only run on the days of the {@code calendar}. At most {@code maxInFlightBatches} are sent
+ * at a time; beyond that payments wait in a queue of {@code queueCapacity}.
+ */
+@Value
+@AllArgsConstructor
+public class ClearingBatchPolicy {
+
+  private static final ZoneId SAST = ZoneId.of("Africa/Johannesburg");
+
+  int maxBatchSize;
+  Duration linger;
+  int maxInFlightBatches;
+  int queueCapacity;
+  String messageType;
+
+  /** Cycle cut-offs, in ascending order, in {@code zone}; empty for networks without cycles. */
+  List<LocalTime> cutOffs;
+
+  ZoneId zone;
+  Duration cutOffMargin;
+  ClearingCalendar calendar;
+
+  /** A policy whose cycles, if any, run every day. */
+  public ClearingBatchPolicy(
+      int maxBatchSize,
+      Duration linger,
+      int maxInFlightBatches,
+      int queueCapacity,
+      String messageType,
+      List<LocalTime> cutOffs,
+      ZoneId zone,
+      Duration cutOffMargin) {
+    this(
+        maxBatchSize,
+        linger,
+        maxInFlightBatches,
+        queueCapacity,
+        messageType,
+        cutOffs,
+        zone,
+        cutOffMargin,
+        ClearingCalendar.everyDay());
+  }
+
+  /** Defaults per network: SAMOS and SWIFT singles, instant micro-batches, EFT bulk cycles. */
+  public static ClearingBatchPolicy forNetwork(ClearingNetwork network) {
+    switch (network) {
+      case SAMOS:
+      case SWIFT:
+        return new ClearingBatchPolicy(
+            1, Duration.ZERO, 4, 1_024, "pacs.008", List.of(), SAST, Duration.ZERO);
+      case RTC:
+        return new ClearingBatchPolicy(
+            100, Duration.ofMillis(20), 8, 8_192, "pacs.008", List.of(), SAST, Duration.ZERO);
+      case PAYSHAP:
+        return new ClearingBatchPolicy(
+            50, Duration.ofMillis(5), 16, 8_192, "pacs.008", List.of(), SAST, Duration.ZERO);
+      case BANKSERVAFRICA:
+        return new ClearingBatchPolicy(
+            5_000,
+            Duration.ofMinutes(30),
+            2,
+            65_536,
+            "pain.001",
+            List.of(
+                LocalTime.of(8, 0),
+                LocalTime.of(10, 30),
+                LocalTime.of(13, 0),
+                LocalTime.of(15, 30),
+                LocalTime.of(18, 30)),
+            SAST,
+            Duration.ofMinutes(2),
+            ClearingCalendar.southAfrica());
+      default:
+        throw new IllegalArgumentException("No batch policy for " + network);
+    }
+  }
+
+  /** The first cut-off after {@code now}, or {@code null} when the network has no cycles. */
+  public Instant nextCutOff(Instant now) {
+    if (cutOffs.isEmpty()) {
+      return null;
+    }
+    LocalDate today = LocalDate.ofInstant(now, zone);
+    if (calendar.isCycleDay(today)) {
+      for (LocalTime cutOff : cutOffs) {
+        Instant at = today.atTime(cutOff).atZone(zone).toInstant();
+        if (at.isAfter(now)) {
+          return at;
+        }
+      }
+    }
+    LocalDate next = calendar.nextCycleDay(today.plusDays(1));
+    return next.atTime(cutOffs.get(0)).atZone(zone).toInstant();
+  }
+}
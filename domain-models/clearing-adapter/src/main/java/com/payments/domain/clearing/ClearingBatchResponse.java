@@ -0,0 +1,18 @@
+package com.payments.domain.clearing;
+
+import java.util.List;
+import lombok.*;
+
+/** What a clearing network answered to one batch message. */
+@Value
+@AllArgsConstructor
+public class ClearingBatchResponse {
+  Integer statusCode;
+  String payloadHash;
+
+  /**
+   * The network's reference for each payment, in submission order; {@code null} for a payment the
+   * network rejected.
+   */
+  List<String> clearingReferences;
+}
@@ -0,0 +1,347 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Submits validated payments to one clearing adapter's network in batches
+ *
+ * <ul>
+ *   <li>payments are grouped per the adapter's {@link ClearingBatchPolicy}: singles for SAMOS and
+ *       SWIFT, micro-batches for RTC and PayShap, EFT bulk batches that are sent at the latest just
+ *       before the next cycle cut-off
+ *   <li>at most {@code maxInFlightBatches} messages are on the wire at once; while they are, the
+ *       queue fills and {@link #submit(ClearingSubmission, Duration)} waits, then throws {@link
+ *       ClearingAdapterSaturatedException}
+ *   <li>each message is logged once, with the number of payments it carried, through a {@link
+ *       ClearingMessageLogWriter}; the batcher does not close the writer
+ *   <li>with a {@link BackendGuard}, each batch is sent under one of its permits. While the guard's
+ *       concurrency limit is reached, a batch waits for room, up to the guard's timeout, and the
+ *       queue backs up as when saturated. A batch refused because the network's circuit is open, or
+ *       still waiting at the timeout, fails with {@link BackendUnavailableException}, without being
+ *       sent or logged
+ * </ul>
+ *
+ * <p>The returned future completes with the network's reference for the payment, for {@code
+ * Payment.submitToClearing}. Logging a batch leaves the adapter unchanged, so a long-lived batcher
+ * does not grow its domain events.
+ */
+public class ClearingBatcher implements AutoCloseable {
+
+  /** Longest single wait of the batching thread, so cut-offs and close are noticed promptly. */
+  private static final long POLL_MILLIS = 10;
+
+  private final ClearingAdapter adapter;
+  private final ClearingNetworkGateway gateway;
+  private final ClearingMessageLogWriter messageLog;
+  private final ClearingBatchPolicy policy;
+  private final BackendGuard guard;
+  private final Clock clock;
+  private final ClearingNetwork network;
+
+  private final BlockingQueue<PendingSubmission> queue;
+  private final Semaphore inFlight;
+  private final Thread batcher;
+  private final ExecutorService senders;
+  private volatile boolean running = true;
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder saturated = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder cutOffBatches = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+  private final LongAdder shedBatches = new LongAdder();
+
+  public ClearingBatcher(
+      ClearingAdapter adapter,
+      ClearingNetworkGateway gateway,
+      ClearingMessageLogWriter messageLog) {
+    this(
+        adapter,
+        gateway,
+        messageLog,
+        ClearingBatchPolicy.forNetwork(adapter.getNetwork()),
+        Clock.systemUTC());
+  }
+
+  public ClearingBatcher(
+      ClearingAdapter adapter,
+      ClearingNetworkGateway gateway,
+      ClearingMessageLogWriter messageLog,
+      ClearingBatchPolicy policy,
+      Clock clock) {
+    this(adapter, gateway, messageLog, policy, null, clock);
+  }
+
+  /**
+   * @param guard the network's guard, or null to send unguarded
+   */
+  public ClearingBatcher(
+      ClearingAdapter adapter,
+      ClearingNetworkGateway gateway,
+      ClearingMessageLogWriter messageLog,
+      ClearingBatchPolicy policy,
+      BackendGuard guard,
+      Clock clock) {
+    if (policy.getMaxBatchSize() < 1 || policy.getMaxInFlightBatches() < 1) {
+      throw new IllegalArgumentException("Batch size and batches in flight must be positive");
+    }
+    this.adapter = adapter;
+    this.gateway = gateway;
+    this.messageLog = messageLog;
+    this.policy = policy;
+    this.guard = guard;
+    this.clock = clock;
+    this.network = adapter.getNetwork();
+    this.queue = new ArrayBlockingQueue<>(policy.getQueueCapacity());
+    this.inFlight = new Semaphore(policy.getMaxInFlightBatches());
+
+    String name = "clearing-" + network.name().toLowerCase();
+    AtomicInteger senderNumber = new AtomicInteger();
+    this.senders =
+        Executors.newFixedThreadPool(
+            policy.getMaxInFlightBatches(),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, name + "-sender-" + senderNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.batcher = new Thread(this::runBatcher, name + "-batcher");
+    this.batcher.setDaemon(true);
+    this.batcher.start();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // SUBMISSION
+  // ─────────────────────────────────────────────────────────
+
+  /** Queue the payment without waiting; throws if the adapter is saturated. */
+  public CompletableFuture<String> submit(ClearingSubmission submission) {
+    return submit(submission, Duration.ZERO);
+  }
+
+  /**
+   * Queue the payment, waiting at most {@code maxWait} for room while the adapter is saturated.
+   *
+   * @return completes with the network's clearing reference, or exceptionally if the network
+   *     rejected the payment or its batch failed
+   */
+  public CompletableFuture<String> submit(ClearingSubmission submission, Duration maxWait) {
+    if (!running) {
+      throw new IllegalStateException("Clearing batcher for " + network + " is closed");
+    }
+    PendingSubmission pending = new PendingSubmission(submission);
+    boolean queued;
+    try {
+      queued = queue.offer(pending, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      queued = false;
+    }
+    if (!queued) {
+      saturated.increment();
+      throw new ClearingAdapterSaturatedException(
+          network + " adapter has " + queue.size() + " payments waiting to be sent");
+    }
+    submitted.increment();
+    return pending.reference;
+  }
+
+  public int getQueuedCount() {
+    return queue.size();
+  }
+
+  public long getSubmittedCount() {
+    return submitted.sum();
+  }
+
+  public long getSaturatedCount() {
+    return saturated.sum();
+  }
+
+  public long getBatchCount() {
+    return batches.sum();
+  }
+
+  /** Batches sent before they were full or had lingered, because a cycle cut-off was due. */
+  public long getCutOffBatchCount() {
+    return cutOffBatches.sum();
+  }
+
+  public long getFailedBatchCount() {
+    return failedBatches.sum();
+  }
+
+  /** Batches refused by the guard, and so never sent. */
+  public long getShedBatchCount() {
+    return shedBatches.sum();
+  }
+
+  /** Stop accepting payments, send everything already queued and wait for the messages. */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      batcher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    senders.shutdown();
+    try {
+      senders.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // BATCHING
+  // ─────────────────────────────────────────────────────────
+
+  private void runBatcher() {
+    List<PendingSubmission> abandoned = new ArrayList<>();
+    while (running || !queue.isEmpty()) {
+      List<PendingSubmission> batch = new ArrayList<>();
+      try {
+        PendingSubmission first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        fill(batch);
+        inFlight.acquire(); // Saturated: the queue backs up behind this
+        batches.increment();
+        senders.execute(() -> send(batch));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        abandoned.addAll(batch);
+        break;
+      }
+    }
+    queue.drainTo(abandoned);
+    for (PendingSubmission pending : abandoned) {
+      pending.reference.completeExceptionally(
+          new IllegalStateException("Clearing batcher for " + network + " was interrupted"));
+    }
+  }
+
+  private void fill(List<PendingSubmission> batch) throws InterruptedException {
+    int maxBatchSize = policy.getMaxBatchSize();
+    long start = clock.millis();
+    long deadline = start + policy.getLinger().toMillis();
+    boolean cutOffFirst = false;
+    Instant cutOff = policy.nextCutOff(Instant.ofEpochMilli(start));
+    if (cutOff != null) {
+      long cutOffDeadline = cutOff.minus(policy.getCutOffMargin()).toEpochMilli();
+      if (cutOffDeadline < deadline) {
+        deadline = cutOffDeadline;
+        cutOffFirst = true;
+      }
+    }
+    while (batch.size() < maxBatchSize) {
+      queue.drainTo(batch, maxBatchSize - batch.size());
+      long remaining = deadline - clock.millis();
+      if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+        break;
+      }
+      PendingSubmission next = queue.poll(Math.min(remaining, POLL_MILLIS), TimeUnit.MILLISECONDS);
+      if (next != null) {
+        batch.add(next);
+      }
+    }
+    if (cutOffFirst && batch.size() < maxBatchSize && running) {
+      cutOffBatches.increment();
+    }
+  }
+
+  private void send(List<PendingSubmission> batch) {
+    long permit = 0;
+    if (guard != null) {
+      RuntimeException refused;
+      try {
+        permit = guard.acquire(guard.getTimeout());
+        refused = null;
+      } catch (BackendUnavailableException e) {
+        shedBatches.increment();
+        refused = e;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        refused = new IllegalStateException("Clearing batcher for " + network + " was interrupted");
+      }
+      if (refused != null) {
+        inFlight.release();
+        for (PendingSubmission pending : batch) {
+          pending.reference.completeExceptionally(refused);
+        }
+        return;
+      }
+    }
+    List<ClearingSubmission> submissions = new ArrayList<>(batch.size());
+    for (PendingSubmission pending : batch) {
+      submissions.add(pending.submission);
+    }
+    ClearingBatchResponse response = null;
+    RuntimeException failure = null;
+    try {
+      response = gateway.send(network, policy.getMessageType(), submissions);
+      List<String> references = response.getClearingReferences();
+      if (references == null || references.size() != batch.size()) {
+        throw new IllegalStateException(
+            network + " did not answer each of the " + batch.size() + " payments in a batch");
+      }
+    } catch (RuntimeException e) {
+      failedBatches.increment();
+      failure = e;
+    }
+    if (guard != null) {
+      guard.release(permit, failure == null ? CallOutcome.SUCCESS : CallOutcome.FAILURE);
+    }
+    try {
+      messageLog.record(
+          adapter.logBatch(
+              ClearingMessageId.generate(),
+              policy.getMessageType(),
+              response != null ? response.getPayloadHash() : null,
+              response != null ? response.getStatusCode() : null,
+              batch.size()));
+    } finally {
+      inFlight.release();
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      PendingSubmission pending = batch.get(i);
+      String reference = failure == null ? response.getClearingReferences().get(i) : null;
+      if (reference != null) {
+        pending.reference.complete(reference);
+      } else {
+        pending.reference.completeExceptionally(
+            failure != null
+                ? failure
+                : new IllegalStateException(
+                    network + " rejected payment " + pending.submission.getPaymentId().getValue()));
+      }
+    }
+  }
+
+  private static final class PendingSubmission {
+    final ClearingSubmission submission;
+    final CompletableFuture<String> reference = new CompletableFuture<>();
+
+    PendingSubmission(ClearingSubmission submission) {
+      this.submission = submission;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.payments.domain.clearing;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The days on which a clearing network runs its cycles.
+ *
+ * <p>{@link #southAfrica()} is weekdays other than the South African public holidays of the Public
+ * Holidays Act: fixed-date holidays that fall on a Sunday are observed on the Monday, and Good
+ * Friday and Family Day follow Easter. Holidays declared ad hoc are passed as {@code
+ * extraHolidays}.
+ */
+public final class ClearingCalendar {
+
+  private static final ClearingCalendar EVERY_DAY = new ClearingCalendar(false, Set.of());
+
+  private final boolean southAfrican;
+  private final Set<LocalDate> extraHolidays;
+  private final ConcurrentHashMap<Integer, Set<LocalDate>> holidaysByYear =
+      new ConcurrentHashMap<>();
+
+  private ClearingCalendar(boolean southAfrican, Set<LocalDate> extraHolidays) {
+    this.southAfrican = southAfrican;
+    this.extraHolidays = Set.copyOf(extraHolidays);
+  }
+
+  /** Cycles run every day, as for networks without a settlement calendar. */
+  public static ClearingCalendar everyDay() {
+    return EVERY_DAY;
+  }
+
+  public static ClearingCalendar southAfrica() {
+    return new ClearingCalendar(true, Set.of());
+  }
+
+  public static ClearingCalendar southAfrica(Set<LocalDate> extraHolidays) {
+    return new ClearingCalendar(true, extraHolidays);
+  }
+
+  public boolean isCycleDay(LocalDate date) {
+    if (!southAfrican) {
+      return true;
+    }
+    DayOfWeek day = date.getDayOfWeek();
+    if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+      return false;
+    }
+    return !extraHolidays.contains(date)
+        && !holidaysByYear
+            .computeIfAbsent(date.getYear(), ClearingCalendar::holidays)
+            .contains(date);
+  }
+
+  /** The first cycle day on or after {@code date}. */
+  public LocalDate nextCycleDay(LocalDate date) {
+    LocalDate day = date;
+    while (!isCycleDay(day)) {
+      day = day.plusDays(1);
+    }
+    return day;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static Set<LocalDate> holidays(int year) {
+    Set<LocalDate> holidays = new HashSet<>();
+    LocalDate[] fixed = {
+      LocalDate.of(year, Month.JANUARY, 1), // New Year's Day
+      LocalDate.of(year, Month.MARCH, 21), // Human Rights Day
+      LocalDate.of(year, Month.APRIL, 27), // Freedom Day
+      LocalDate.of(year, Month.MAY, 1), // Workers' Day
+      LocalDate.of(year, Month.JUNE, 16), // Youth Day
+      LocalDate.of(year, Month.AUGUST, 9), // National Women's Day
+      LocalDate.of(year, Month.SEPTEMBER, 24), // Heritage Day
+      LocalDate.of(year, Month.DECEMBER, 16), // Day of Reconciliation
+      LocalDate.of(year, Month.DECEMBER, 25), // Christmas Day
+      LocalDate.of(year, Month.DECEMBER, 26) // Day of Goodwill
+    };
+    for (LocalDate holiday : fixed) {
+      holidays.add(holiday);
+      if (holiday.getDayOfWeek() == DayOfWeek.SUNDAY) {
+        holidays.add(holiday.plusDays(1));
+      }
+    }
+    LocalDate easter = easterSunday(year);
+    holidays.add(easter.minusDays(2)); // Good Friday
+    holidays.add(easter.plusDays(1)); // Family Day
+    return holidays;
+  }
+
+  /** Western Easter Sunday, by the anonymous Gregorian algorithm. */
+  private static LocalDate easterSunday(int year) {
+    int a = year % 19;
+    int b = year / 100;
+    int c = year % 100;
+    int d = b / 4;
+    int e = b % 4;
+    int f = (b + 8) / 25;
+    int g = (b - f + 1) / 3;
+    int h = (19 * a + b - d - g + 15) % 30;
+    int i = c / 4;
+    int k = c % 4;
+    int l = (32 + 2 * e + 2 * i - h - k) % 7;
+    int m = (a + 11 * h + 22 * l) / 451;
+    int month = (h + l - 7 * m + 114) / 31;
+    int day = (h + l - 7 * m + 114) % 31 + 1;
+    return LocalDate.of(year, month, day);
+  }
+}
@@ -7,9 +7,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 class ClearingAdapterCreatedEvent implements DomainEvent {
+  @WireTag(1)
   ClearingAdapterId adapterId;
+
+  @WireTag(2)
   String adapterName;
+
+  @WireTag(3)
   ClearingNetwork network;
+
+  @WireTag(4)
   Instant createdAt;
 
   @Override
@@ -23,35 +30,31 @@ class ClearingAdapterCreatedEvent implements DomainEvent {
   }
 }
 
+@EventSchemaVersion(minor = 1)
 @Value
 @AllArgsConstructor
 class ClearingRouteAddedEvent implements DomainEvent {
+  @WireTag(1)
   ClearingAdapterId adapterId;
+
+  @WireTag(2)
   com.payments.domain.shared.ClearingRouteId routeId;
+
+  @WireTag(3)
   String routeName;
 
-  @Override
-  public String getEventType() {
-    return "ClearingRouteAdded";
-  }
+  @WireTag(4)
+  String source;
 
-  @Override
-  public Instant getOccurredAt() {
-    return Instant.now();
-  }
-}
+  @WireTag(5)
+  String destination;
 
-@Value
-@AllArgsConstructor
-class ClearingMessageLoggedEvent implements DomainEvent {
-  ClearingAdapterId adapterId;
-  String direction;
-  String messageType;
-  Integer statusCode;
+  @WireTag(6)
+  Integer priority;
 
   @Override
   public String getEventType() {
-    return "ClearingMessageLogged";
+    return "ClearingRouteAdded";
   }
 
   @Override
@@ -63,8 +66,13 @@ class ClearingMessageLoggedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class ClearingAdapterConfigurationUpdatedEvent implements DomainEvent {
+  @WireTag(1)
   ClearingAdapterId adapterId;
+
+  @WireTag(2)
   String endpoint;
+
+  @WireTag(3)
   String apiVersion;
 
   @Override
@@ -81,7 +89,10 @@ class ClearingAdapterConfigurationUpdatedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class ClearingAdapterActivatedEvent implements DomainEvent {
+  @WireTag(1)
   ClearingAdapterId adapterId;
+
+  @WireTag(2)
   String activatedBy;
 
   @Override
@@ -98,8 +109,13 @@ class ClearingAdapterActivatedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class ClearingAdapterDeactivatedEvent implements DomainEvent {
+  @WireTag(1)
   ClearingAdapterId adapterId;
+
+  @WireTag(2)
   String reason;
+
+  @WireTag(3)
   String deactivatedBy;
 
   @Override
@@ -0,0 +1,18 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Clearing Adapter aggregate, for event codec registration. */
+public final class ClearingEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(
+          ClearingAdapterCreatedEvent.class,
+          ClearingRouteAddedEvent.class,
+          ClearingAdapterConfigurationUpdatedEvent.class,
+          ClearingAdapterActivatedEvent.class,
+          ClearingAdapterDeactivatedEvent.class);
+
+  private ClearingEventTypes() {}
+}
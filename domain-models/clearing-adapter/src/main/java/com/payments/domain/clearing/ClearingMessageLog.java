@@ -0,0 +1,59 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * Clearing Message Log - Value Object (Immutable)
+ *
+ * <p>One message exchanged by a {@link ClearingAdapter} with its network. Deliberately not part of
+ * the aggregate: entries flow through a {@link ClearingMessageLogWriter} into the {@code
+ * clearing_message_log} table.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClearingMessageLog {
+
+  ClearingMessageId id;
+
+  ClearingAdapterId adapterId;
+
+  TenantContext tenantContext;
+
+  /** {@code INBOUND} or {@code OUTBOUND} */
+  String direction;
+
+  /** e.g. {@code pacs.008}, {@code pain.001} */
+  String messageType;
+
+  String payloadHash;
+
+  Integer statusCode;
+
+  /** Payments the message carried. */
+  int messageCount;
+
+  Instant createdAt;
+
+  public static ClearingMessageLog create(
+      ClearingMessageId id,
+      ClearingAdapterId adapterId,
+      TenantContext tenantContext,
+      String direction,
+      String messageType,
+      String payloadHash,
+      Integer statusCode,
+      int messageCount) {
+    return new ClearingMessageLog(
+        id,
+        adapterId,
+        tenantContext,
+        direction,
+        messageType,
+        payloadHash,
+        statusCode,
+        messageCount,
+        Instant.now());
+  }
+}
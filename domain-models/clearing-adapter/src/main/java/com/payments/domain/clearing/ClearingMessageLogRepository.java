@@ -0,0 +1,10 @@
+package com.payments.domain.clearing;
+
+import java.util.List;
+
+/** Repository port: persistence of clearing message logs to {@code clearing_message_log}. */
+public interface ClearingMessageLogRepository {
+
+  /** Persist a batch of logs; implementations should write them in one round trip. */
+  void saveAll(List<ClearingMessageLog> logs);
+}
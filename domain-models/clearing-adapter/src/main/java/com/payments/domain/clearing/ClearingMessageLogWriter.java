@@ -0,0 +1,49 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.AsyncBatchWriter;
+import java.time.Duration;
+
+/**
+ * Persists clearing message logs to {@code clearing_message_log} asynchronously in batches, so
+ * logging a message neither blocks the sender nor grows the {@link ClearingAdapter} aggregate. One
+ * writer may serve every adapter; close it after the batchers using it.
+ */
+public class ClearingMessageLogWriter implements AutoCloseable {
+
+  private final AsyncBatchWriter<ClearingMessageLog> writer;
+
+  public ClearingMessageLogWriter(ClearingMessageLogRepository repository) {
+    this(repository, 65_536, 500, Duration.ofMillis(200));
+  }
+
+  public ClearingMessageLogWriter(
+      ClearingMessageLogRepository repository, int queueCapacity, int batchSize, Duration linger) {
+    this.writer =
+        new AsyncBatchWriter<>(
+            "clearing-message-log-writer", queueCapacity, batchSize, linger, repository::saveAll);
+  }
+
+  /** Record a log returned by {@link ClearingAdapter#logBatch}. Never blocks the caller. */
+  public void record(ClearingMessageLog log) {
+    writer.offer(log);
+  }
+
+  /** Logs that could not be queued for persistence because the writer was saturated. */
+  public long getDroppedCount() {
+    return writer.getDroppedCount();
+  }
+
+  /** Logs lost because the batch insert carrying them failed. */
+  public long getFailedCount() {
+    return writer.getFailedCount();
+  }
+
+  public long getPersistedCount() {
+    return writer.getWrittenCount();
+  }
+
+  @Override
+  public void close() {
+    writer.close();
+  }
+}
@@ -0,0 +1,15 @@
+package com.payments.domain.clearing;
+
+import java.util.List;
+
+/** Port: the connection of a clearing adapter to its network, sending one message per batch. */
+public interface ClearingNetworkGateway {
+
+  /**
+   * Send the payments as one message of the given type.
+   *
+   * @return the network's answer, with one reference per submission in submission order
+   */
+  ClearingBatchResponse send(
+      ClearingNetwork network, String messageType, List<ClearingSubmission> submissions);
+}
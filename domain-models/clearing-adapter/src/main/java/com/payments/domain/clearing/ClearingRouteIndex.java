@@ -0,0 +1,356 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Chooses the clearing route for a payment across all adapters.
+ *
+ * <p>The active routes of active adapters are compiled into a trie on destination (sort code or
+ * BIC, case-insensitive). The route for a payment is that of the longest destination prefix with a
+ * route for the payment's source; among those the lowest {@code priority} wins, then the longest
+ * source prefix. A route whose source is blank or {@code *} serves every source, and one whose
+ * destination is blank or {@code *} every destination. Routes of adapters marked unhealthy are
+ * passed over for the next one in that order.
+ *
+ * <p>Each node of the trie holds its fallbacks already ordered (its own routes, then its parent's),
+ * so {@link #resolve} walks the destination once and scans one array, without allocating. Every
+ * change compiles a new trie and publishes it with one volatile write; routes change rarely next to
+ * payments.
+ */
+public class ClearingRouteIndex {
+
+  private static final String ANY = "*";
+  private static final Node EMPTY_NODE = new Node(new char[0], new Node[0], new Candidate[0]);
+
+  private static final Comparator<Candidate> ORDER =
+      Comparator.comparingInt((Candidate candidate) -> candidate.route.getPriority())
+          .thenComparing(candidate -> -candidate.source.length())
+          .thenComparing(
+              candidate -> candidate.route.getRouteName(),
+              Comparator.nullsLast(Comparator.naturalOrder()));
+
+  private final Object publishLock = new Object();
+  private final Map<ClearingAdapterId, AdapterEntry> adapters = new HashMap<>();
+
+  private volatile Node root = EMPTY_NODE;
+
+  public static ClearingRouteIndex of(Collection<ClearingAdapter> adapters) {
+    ClearingRouteIndex index = new ClearingRouteIndex();
+    synchronized (index.publishLock) {
+      for (ClearingAdapter adapter : adapters) {
+        index.adapters.put(adapter.getId(), AdapterEntry.of(adapter));
+      }
+      index.compile();
+    }
+    return index;
+  }
+
+  /**
+   * The route for a payment from {@code source} to {@code destination}, or {@code null} if no
+   * healthy adapter has one.
+   */
+  public ResolvedClearingRoute resolve(String source, String destination) {
+    Node node = root;
+    if (destination != null) {
+      for (int i = 0; i < destination.length(); i++) {
+        Node child = node.child(Character.toUpperCase(destination.charAt(i)));
+        if (child == null) {
+          break;
+        }
+        node = child;
+      }
+    }
+    for (Candidate candidate : node.candidates) {
+      if (candidate.health.healthy && candidate.matchesSource(source)) {
+        return candidate.route;
+      }
+    }
+    return null;
+  }
+
+  /** Add or replace an adapter with its current routes and status. */
+  public void register(ClearingAdapter adapter) {
+    synchronized (publishLock) {
+      AdapterEntry previous = adapters.get(adapter.getId());
+      AdapterEntry entry = AdapterEntry.of(adapter);
+      if (previous != null) {
+        entry.health = previous.health;
+      }
+      adapters.put(adapter.getId(), entry);
+      compile();
+    }
+  }
+
+  /**
+   * Apply an adapter's creation, route addition, activation or deactivation; other events are
+   * ignored, as are events of adapters not in the index.
+   */
+  public void onEvent(DomainEvent event) {
+    synchronized (publishLock) {
+      if (event instanceof ClearingAdapterCreatedEvent) {
+        ClearingAdapterCreatedEvent created = (ClearingAdapterCreatedEvent) event;
+        if (adapters.containsKey(created.getAdapterId())) {
+          return;
+        }
+        adapters.put(created.getAdapterId(), new AdapterEntry(created.getNetwork()));
+      } else if (event instanceof ClearingRouteAddedEvent) {
+        ClearingRouteAddedEvent added = (ClearingRouteAddedEvent) event;
+        AdapterEntry entry = adapters.get(added.getAdapterId());
+        if (entry == null || entry.hasRoute(added.getRouteId())) {
+          return;
+        }
+        entry.routes.add(
+            new RouteEntry(
+                added.getRouteId(),
+                added.getRouteName(),
+                added.getSource(),
+                added.getDestination(),
+                added.getPriority()));
+      } else if (event instanceof ClearingAdapterActivatedEvent) {
+        if (!setActive(((ClearingAdapterActivatedEvent) event).getAdapterId(), true)) {
+          return;
+        }
+      } else if (event instanceof ClearingAdapterDeactivatedEvent) {
+        if (!setActive(((ClearingAdapterDeactivatedEvent) event).getAdapterId(), false)) {
+          return;
+        }
+      } else {
+        return;
+      }
+      compile();
+    }
+  }
+
+  /**
+   * Pass over (or stop passing over) an adapter's routes while it is up but failing, e.g. when its
+   * circuit is open. Takes effect at once, without recompiling.
+   */
+  public void setHealthy(ClearingAdapterId adapterId, boolean healthy) {
+    synchronized (publishLock) {
+      AdapterEntry entry = adapters.get(adapterId);
+      if (entry != null) {
+        entry.health.healthy = healthy;
+      }
+    }
+  }
+
+  /**
+   * Mark adapters unhealthy while their circuit in {@code guards} is open, starting with the
+   * circuits already open.
+   */
+  public void followCircuits(BackendGuardRegistry guards) {
+    guards.addTransitionListener(
+        status -> {
+          if (status.getSystemType() == GuardedSystemType.CLEARING_ADAPTER) {
+            setHealthy(
+                ClearingAdapterId.of(status.getBackendSystem()),
+                status.getState() != CircuitState.OPEN);
+          }
+        });
+    // Under the lock, so a transition after the state is read is applied after it
+    synchronized (publishLock) {
+      for (Map.Entry<ClearingAdapterId, AdapterEntry> adapter : adapters.entrySet()) {
+        if (guards.getCircuitState(adapter.getKey()) == CircuitState.OPEN) {
+          adapter.getValue().health.healthy = false;
+        }
+      }
+    }
+  }
+
+  /** Routes in the compiled trie. */
+  public int size() {
+    synchronized (publishLock) {
+      int size = 0;
+      for (AdapterEntry entry : adapters.values()) {
+        size += entry.active ? entry.routes.size() : 0;
+      }
+      return size;
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // COMPILATION
+  // ─────────────────────────────────────────────────────────
+
+  private boolean setActive(ClearingAdapterId adapterId, boolean active) {
+    AdapterEntry entry = adapters.get(adapterId);
+    if (entry == null || entry.active == active) {
+      return false;
+    }
+    entry.active = active;
+    return true;
+  }
+
+  private void compile() {
+    TrieBuilder rootBuilder = new TrieBuilder();
+    for (Map.Entry<ClearingAdapterId, AdapterEntry> adapter : adapters.entrySet()) {
+      AdapterEntry entry = adapter.getValue();
+      if (!entry.active) {
+        continue;
+      }
+      for (RouteEntry route : entry.routes) {
+        TrieBuilder builder = rootBuilder;
+        for (int i = 0; i < route.destinationPrefix.length(); i++) {
+          builder =
+              builder.children.computeIfAbsent(
+                  route.destinationPrefix.charAt(i), c -> new TrieBuilder());
+        }
+        ResolvedClearingRoute resolved = route.resolve(adapter.getKey(), entry.network);
+        builder.candidates.add(new Candidate(resolved, route.sourcePrefix, entry.health));
+      }
+    }
+    root = rootBuilder.build(new Candidate[0]);
+  }
+
+  private static String normalize(String prefix) {
+    return prefix == null || prefix.isBlank() || ANY.equals(prefix.trim())
+        ? ""
+        : prefix.trim().toUpperCase(Locale.ROOT);
+  }
+
+  /** A compiled trie node: children by destination character, and fallbacks in order. */
+  private static final class Node {
+    final char[] keys;
+    final Node[] children;
+    final Candidate[] candidates;
+
+    Node(char[] keys, Node[] children, Candidate[] candidates) {
+      this.keys = keys;
+      this.children = children;
+      this.candidates = candidates;
+    }
+
+    Node child(char key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] == key) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final class TrieBuilder {
+    final TreeMap<Character, TrieBuilder> children = new TreeMap<>();
+    final List<Candidate> candidates = new ArrayList<>();
+
+    Node build(Candidate[] inherited) {
+      candidates.sort(ORDER);
+      Candidate[] ordered = new Candidate[candidates.size() + inherited.length];
+      for (int i = 0; i < candidates.size(); i++) {
+        ordered[i] = candidates.get(i);
+      }
+      System.arraycopy(inherited, 0, ordered, candidates.size(), inherited.length);
+
+      char[] keys = new char[children.size()];
+      Node[] nodes = new Node[children.size()];
+      int i = 0;
+      for (Map.Entry<Character, TrieBuilder> child : children.entrySet()) {
+        keys[i] = child.getKey();
+        nodes[i] = child.getValue().build(ordered);
+        i++;
+      }
+      return new Node(keys, nodes, ordered);
+    }
+  }
+
+  private static final class Candidate {
+    final ResolvedClearingRoute route;
+    final String source;
+    final AdapterHealth health;
+
+    Candidate(ResolvedClearingRoute route, String source, AdapterHealth health) {
+      this.route = route;
+      this.source = source;
+      this.health = health;
+    }
+
+    boolean matchesSource(String paymentSource) {
+      if (source.isEmpty()) {
+        return true;
+      }
+      return paymentSource != null
+          && paymentSource.length() >= source.length()
+          && paymentSource.regionMatches(true, 0, source, 0, source.length());
+    }
+  }
+
+  private static final class AdapterHealth {
+    volatile boolean healthy = true;
+  }
+
+  private static final class AdapterEntry {
+    final ClearingNetwork network;
+    final List<RouteEntry> routes = new ArrayList<>();
+    boolean active = true;
+    AdapterHealth health = new AdapterHealth();
+
+    AdapterEntry(ClearingNetwork network) {
+      this.network = network;
+    }
+
+    static AdapterEntry of(ClearingAdapter adapter) {
+      AdapterEntry entry = new AdapterEntry(adapter.getNetwork());
+      entry.active = adapter.isActive();
+      for (ClearingRoute route : adapter.getRoutes()) {
+        if (route.getStatus() == RouteStatus.ACTIVE) {
+          entry.routes.add(
+              new RouteEntry(
+                  route.getId(),
+                  route.getRouteName(),
+                  route.getSource(),
+                  route.getDestination(),
+                  route.getPriority()));
+        }
+      }
+      return entry;
+    }
+
+    boolean hasRoute(ClearingRouteId routeId) {
+      for (RouteEntry route : routes) {
+        if (route.routeId.equals(routeId)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class RouteEntry {
+    final ClearingRouteId routeId;
+    final String routeName;
+    final String source;
+    final String destination;
+    final String sourcePrefix;
+    final String destinationPrefix;
+    final int priority;
+
+    RouteEntry(
+        ClearingRouteId routeId,
+        String routeName,
+        String source,
+        String destination,
+        Integer priority) {
+      this.routeId = routeId;
+      this.routeName = routeName;
+      this.source = source;
+      this.destination = destination;
+      this.sourcePrefix = normalize(source);
+      this.destinationPrefix = normalize(destination);
+      this.priority = priority != null ? priority : Integer.MAX_VALUE;
+    }
+
+    ResolvedClearingRoute resolve(ClearingAdapterId adapterId, ClearingNetwork network) {
+      return new ResolvedClearingRoute(
+          routeId, adapterId, network, routeName, source, destination, priority);
+    }
+  }
+}
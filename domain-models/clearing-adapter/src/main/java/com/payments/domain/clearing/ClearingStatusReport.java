@@ -0,0 +1,27 @@
+package com.payments.domain.clearing;
+
+import lombok.*;
+
+/**
+ * The status of one transaction in a pacs.002 report: {@code ACSC} marks the payment cleared,
+ * {@code RJCT} fails it with the reason code, and anything else ({@code ACSP}, {@code PDNG}, ...)
+ * leaves it in clearing.
+ */
+@Value
+@AllArgsConstructor
+public class ClearingStatusReport {
+  String originalMessageId;
+  String originalEndToEndId;
+  String originalTransactionId;
+  String status;
+  String reasonCode;
+  String clearingSystemReference;
+
+  public boolean isSettled() {
+    return "ACSC".equals(status);
+  }
+
+  public boolean isRejected() {
+    return "RJCT".equals(status);
+  }
+}
@@ -0,0 +1,27 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import lombok.*;
+
+/** A validated payment handed to a {@link ClearingBatcher} for submission to its network. */
+@Value
+@AllArgsConstructor
+public class ClearingSubmission {
+  PaymentId paymentId;
+  TenantContext tenantContext;
+  Money amount;
+  AccountNumber sourceAccount;
+  AccountNumber destinationAccount;
+
+  /** Name of the destination account's holder, sent as the creditor. */
+  String creditorName;
+
+  /** The creditor's postal address, or null if not known. */
+  PostalAddress creditorAddress;
+
+  /** Clearing member (sort code or BIC) of the destination account's bank. */
+  String destinationAgent;
+
+  /** The payment reference, sent as unstructured remittance information. */
+  String reference;
+}
@@ -0,0 +1,16 @@
+package com.payments.domain.clearing;
+
+import lombok.*;
+
+/** A clearing message written by {@link Iso20022Codec}, as recorded in the message log. */
+@Value
+@AllArgsConstructor
+public class EncodedClearingMessage {
+  String messageId;
+  String messageType;
+  int transactionCount;
+  long byteCount;
+
+  /** Hex SHA-256 of the bytes written, for {@code payloadHash}. */
+  String payloadHash;
+}
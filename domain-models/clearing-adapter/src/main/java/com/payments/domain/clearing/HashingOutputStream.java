@@ -0,0 +1,95 @@
+package com.payments.domain.clearing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Buffers writes into the target stream and feeds every byte to a SHA-256 digest on the way, so the
+ * hash of a message is ready as soon as its last byte is written.
+ *
+ * <p>The buffer is per thread and reused from message to message; only one stream may be open per
+ * thread at a time. {@link #close()} flushes but leaves the target open.
+ */
+final class HashingOutputStream extends OutputStream {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final ThreadLocal<byte[]> BUFFERS =
+      ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+  private final OutputStream target;
+  private final MessageDigest digest;
+  private final byte[] buf = BUFFERS.get();
+  private int pos;
+  private long count;
+
+  HashingOutputStream(OutputStream target) {
+    this.target = target;
+    this.digest = sha256();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (pos == buf.length) {
+      drain();
+    }
+    buf[pos++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] bytes, int off, int len) throws IOException {
+    if (len >= buf.length) {
+      drain();
+      digest.update(bytes, off, len);
+      target.write(bytes, off, len);
+      count += len;
+      return;
+    }
+    if (len > buf.length - pos) {
+      drain();
+    }
+    System.arraycopy(bytes, off, buf, pos, len);
+    pos += len;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    drain();
+    target.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  /** Bytes written so far. */
+  long getCount() {
+    return count + pos;
+  }
+
+  /** Hex SHA-256 of everything written; flushes first and ends the stream. */
+  String finish() throws IOException {
+    flush();
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private void drain() throws IOException {
+    if (pos > 0) {
+      digest.update(buf, 0, pos);
+      target.write(buf, 0, pos);
+      count += pos;
+      pos = 0;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.payments.domain.clearing;
+
+/** An ISO 20022 message that is not well-formed or does not map onto the domain types. */
+public class InvalidClearingMessageException extends RuntimeException {
+
+  public InvalidClearingMessageException(String message) {
+    super(message);
+  }
+
+  public InvalidClearingMessageException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,248 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Currency;
+import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Streaming ISO 20022 codec for the clearing messages
+ *
+ * <ul>
+ *   <li>pacs.008 (outbound): a batch of {@link ClearingSubmission}s is written straight to the
+ *       target stream with StAX, through a per-thread 64 KiB buffer, and hashed on the way for the
+ *       message log's {@code payloadHash}
+ *   <li>pacs.002 (status) and pain.001 (bulk inbound): read with {@link Pacs002Reader} and {@link
+ *       Pain001Reader}, one transaction at a time in constant memory
+ * </ul>
+ *
+ * <p>No document tree is built in either direction. Thread-safe.
+ */
+public final class Iso20022Codec {
+
+  public static final String PACS_008 = "pacs.008";
+  public static final String PACS_002 = "pacs.002";
+  public static final String PAIN_001 = "pain.001";
+
+  private static final String PACS_008_NAMESPACE = "urn:iso:std:iso:20022:tech:xsd:pacs.008.001.08";
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+  private final String instructingAgent;
+  private final String instructedAgent;
+  private final Clock clock;
+
+  /**
+   * @param instructingAgent our clearing member ID, also the debtor agent of every payment
+   * @param instructedAgent the clearing system's member ID
+   */
+  public Iso20022Codec(String instructingAgent, String instructedAgent) {
+    this(instructingAgent, instructedAgent, Clock.systemUTC());
+  }
+
+  public Iso20022Codec(String instructingAgent, String instructedAgent, Clock clock) {
+    this.instructingAgent = instructingAgent;
+    this.instructedAgent = instructedAgent;
+    this.clock = clock;
+  }
+
+  /**
+   * Write the submissions as one pacs.008 FI to FI customer credit transfer. The payment ID is the
+   * instruction, end-to-end and transaction ID of each transfer.
+   *
+   * @return the size and SHA-256 of what was written
+   */
+  public EncodedClearingMessage writePacs008(
+      String messageId, List<ClearingSubmission> submissions, OutputStream out) {
+    if (submissions.isEmpty()) {
+      throw new IllegalArgumentException("A pacs.008 message needs at least one payment");
+    }
+    for (ClearingSubmission submission : submissions) {
+      if (submission.getDestinationAgent() == null) {
+        throw new IllegalArgumentException(
+            "Payment " + submission.getPaymentId().getValue() + " has no destination agent");
+      }
+    }
+    Instant now = clock.instant();
+    HashingOutputStream target = new HashingOutputStream(out);
+    try {
+      XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(target, "UTF-8");
+      xml.writeStartDocument("UTF-8", "1.0");
+      xml.writeStartElement("Document");
+      xml.writeDefaultNamespace(PACS_008_NAMESPACE);
+      xml.writeStartElement("FIToFICstmrCdtTrf");
+
+      xml.writeStartElement("GrpHdr");
+      element(xml, "MsgId", messageId);
+      element(
+          xml,
+          "CreDtTm",
+          DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(
+              now.truncatedTo(ChronoUnit.SECONDS).atOffset(ZoneOffset.UTC)));
+      element(xml, "NbOfTxs", Integer.toString(submissions.size()));
+      Money total = total(submissions);
+      if (total != null) {
+        amount(xml, "TtlIntrBkSttlmAmt", total);
+      }
+      element(xml, "IntrBkSttlmDt", LocalDate.ofInstant(now, clock.getZone()).toString());
+      xml.writeStartElement("SttlmInf");
+      element(xml, "SttlmMtd", "CLRG");
+      xml.writeEndElement();
+      agent(xml, "InstgAgt", instructingAgent);
+      agent(xml, "InstdAgt", instructedAgent);
+      xml.writeEndElement();
+
+      for (ClearingSubmission submission : submissions) {
+        writeCreditTransfer(xml, submission);
+      }
+
+      xml.writeEndElement();
+      xml.writeEndElement();
+      xml.writeEndDocument();
+      xml.flush();
+      xml.close();
+      long byteCount = target.getCount();
+      return new EncodedClearingMessage(
+          messageId, PACS_008, submissions.size(), byteCount, target.finish());
+    } catch (XMLStreamException | IOException e) {
+      throw new IllegalStateException("Failed to write pacs.008 " + messageId, e);
+    }
+  }
+
+  /** Read a pain.001 file; close the reader when done. */
+  public static Pain001Reader readPain001(InputStream in) {
+    return new Pain001Reader(in);
+  }
+
+  /** Read a pacs.002 status report; close the reader when done. */
+  public static Pacs002Reader readPacs002(InputStream in) {
+    return new Pacs002Reader(in);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void writeCreditTransfer(XMLStreamWriter xml, ClearingSubmission submission)
+      throws XMLStreamException {
+    String paymentId = submission.getPaymentId().getValue();
+    xml.writeStartElement("CdtTrfTxInf");
+    xml.writeStartElement("PmtId");
+    element(xml, "InstrId", paymentId);
+    element(xml, "EndToEndId", paymentId);
+    element(xml, "TxId", paymentId);
+    xml.writeEndElement();
+    amount(xml, "IntrBkSttlmAmt", submission.getAmount());
+    element(xml, "ChrgBr", "SLEV");
+
+    xml.writeStartElement("Dbtr");
+    xml.writeStartElement("Id");
+    xml.writeStartElement("OrgId");
+    xml.writeStartElement("Othr");
+    element(xml, "Id", submission.getTenantContext().getTenantId());
+    xml.writeEndElement();
+    xml.writeEndElement();
+    xml.writeEndElement();
+    xml.writeEndElement();
+    account(xml, "DbtrAcct", submission.getSourceAccount());
+    agent(xml, "DbtrAgt", instructingAgent);
+
+    agent(xml, "CdtrAgt", submission.getDestinationAgent());
+    xml.writeStartElement("Cdtr");
+    optionalElement(xml, "Nm", submission.getCreditorName());
+    if (submission.getCreditorAddress() != null) {
+      postalAddress(xml, submission.getCreditorAddress());
+    }
+    xml.writeEndElement();
+    account(xml, "CdtrAcct", submission.getDestinationAccount());
+
+    if (submission.getReference() != null) {
+      xml.writeStartElement("RmtInf");
+      element(xml, "Ustrd", submission.getReference());
+      xml.writeEndElement();
+    }
+    xml.writeEndElement();
+  }
+
+  /** The sum of the amounts, or {@code null} if they are in more than one currency. */
+  private static Money total(List<ClearingSubmission> submissions) {
+    Currency currency = submissions.get(0).getAmount().getCurrency();
+    BigDecimal sum = BigDecimal.ZERO;
+    for (ClearingSubmission submission : submissions) {
+      Money amount = submission.getAmount();
+      if (!amount.getCurrency().equals(currency)) {
+        return null;
+      }
+      sum = sum.add(amount.getAmount());
+    }
+    return Money.of(sum, currency);
+  }
+
+  private static void element(XMLStreamWriter xml, String name, String value)
+      throws XMLStreamException {
+    xml.writeStartElement(name);
+    xml.writeCharacters(value);
+    xml.writeEndElement();
+  }
+
+  private static void optionalElement(XMLStreamWriter xml, String name, String value)
+      throws XMLStreamException {
+    if (value != null) {
+      element(xml, name, value);
+    }
+  }
+
+  /** Structured parts first, then the address lines, in the schema's order. */
+  private static void postalAddress(XMLStreamWriter xml, PostalAddress address)
+      throws XMLStreamException {
+    xml.writeStartElement("PstlAdr");
+    optionalElement(xml, "PstCd", address.getPostalCode());
+    optionalElement(xml, "TwnNm", address.getCity());
+    optionalElement(xml, "CtrySubDvsn", address.getProvince());
+    optionalElement(xml, "Ctry", address.getCountry());
+    optionalElement(xml, "AdrLine", address.getAddressLine1());
+    optionalElement(xml, "AdrLine", address.getAddressLine2());
+    xml.writeEndElement();
+  }
+
+  private static void amount(XMLStreamWriter xml, String name, Money money)
+      throws XMLStreamException {
+    xml.writeStartElement(name);
+    xml.writeAttribute("Ccy", money.getCurrency().getCurrencyCode());
+    xml.writeCharacters(money.getAmount().toPlainString());
+    xml.writeEndElement();
+  }
+
+  private static void account(XMLStreamWriter xml, String name, AccountNumber account)
+      throws XMLStreamException {
+    xml.writeStartElement(name);
+    xml.writeStartElement("Id");
+    xml.writeStartElement("Othr");
+    element(xml, "Id", account.getValue());
+    xml.writeEndElement();
+    xml.writeEndElement();
+    xml.writeEndElement();
+  }
+
+  private static void agent(XMLStreamWriter xml, String name, String memberId)
+      throws XMLStreamException {
+    xml.writeStartElement(name);
+    xml.writeStartElement("FinInstnId");
+    xml.writeStartElement("ClrSysMmbId");
+    element(xml, "MmbId", memberId);
+    xml.writeEndElement();
+    xml.writeEndElement();
+    xml.writeEndElement();
+  }
+}
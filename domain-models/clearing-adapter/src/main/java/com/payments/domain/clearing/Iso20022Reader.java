@@ -0,0 +1,157 @@
+package com.payments.domain.clearing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.util.HexFormat;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Pull reader over an ISO 20022 document, one record at a time.
+ *
+ * <p>The document is streamed with StAX: only the element path, the text of the current element and
+ * the fields of the record being read are held, so memory does not grow with the file. Elements are
+ * matched by local name, whatever the message version's namespace. The input is hashed as it is
+ * read. DTDs and external entities are refused.
+ *
+ * @param <T> the record type
+ */
+abstract class Iso20022Reader<T> implements AutoCloseable {
+
+  private static final int MAX_DEPTH = 64;
+  private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+
+  private final DigestInputStream input;
+  private final XMLStreamReader xml;
+  private final String[] path = new String[MAX_DEPTH];
+  private final StringBuilder text = new StringBuilder();
+  private int depth;
+  private boolean ended;
+  private String payloadHash;
+
+  Iso20022Reader(InputStream in) {
+    this.input = new DigestInputStream(in, HashingOutputStream.sha256());
+    try {
+      this.xml = INPUT_FACTORY.createXMLStreamReader(input);
+    } catch (XMLStreamException e) {
+      throw new InvalidClearingMessageException("Cannot read message: " + e.getMessage(), e);
+    }
+  }
+
+  /** The next record, or {@code null} once the document has been read to the end. */
+  public T next() {
+    try {
+      while (!ended && xml.hasNext()) {
+        switch (xml.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            if (depth == MAX_DEPTH) {
+              throw new InvalidClearingMessageException("Message nests deeper than " + MAX_DEPTH);
+            }
+            path[depth++] = xml.getLocalName();
+            text.setLength(0);
+            onStart(path[depth - 1], xml);
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+            text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            T record = onEnd(path[depth - 1]);
+            path[--depth] = null;
+            text.setLength(0);
+            if (record != null) {
+              return record;
+            }
+            break;
+          default:
+            break;
+        }
+      }
+      end();
+      return null;
+    } catch (XMLStreamException e) {
+      throw new InvalidClearingMessageException("Malformed message: " + e.getMessage(), e);
+    }
+  }
+
+  /** Hex SHA-256 of the whole input; available once {@link #next} has returned {@code null}. */
+  public String getPayloadHash() {
+    if (!ended) {
+      throw new IllegalStateException("Message has not been read to the end");
+    }
+    return payloadHash;
+  }
+
+  @Override
+  public void close() {
+    try {
+      xml.close();
+      input.close();
+    } catch (XMLStreamException | IOException e) {
+      throw new InvalidClearingMessageException("Cannot close message: " + e.getMessage(), e);
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // FOR SUBCLASSES
+  // ─────────────────────────────────────────────────────────
+
+  /** An element opened; attributes are readable from {@code xml}. */
+  abstract void onStart(String name, XMLStreamReader xml);
+
+  /** An element closed; return the record it completes, if any. */
+  abstract T onEnd(String name);
+
+  /** Trimmed text of the element being closed; only meaningful for leaf elements. */
+  String text() {
+    return text.toString().trim();
+  }
+
+  /** Name of the enclosing element of the one being opened or closed. */
+  String parent() {
+    return depth >= 2 ? path[depth - 2] : null;
+  }
+
+  /** Whether the element being opened or closed is inside an element of this name. */
+  boolean within(String ancestor) {
+    for (int i = depth - 2; i >= 0; i--) {
+      if (ancestor.equals(path[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void end() {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    try {
+      // The parser may stop short of trailing whitespace; hash it too
+      byte[] rest = new byte[8 * 1024];
+      while (input.read(rest) >= 0) {
+        // Read only for the digest
+      }
+    } catch (IOException e) {
+      throw new InvalidClearingMessageException("Cannot read message: " + e.getMessage(), e);
+    }
+    payloadHash = HexFormat.of().formatHex(input.getMessageDigest().digest());
+  }
+
+  private static XMLInputFactory inputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    return factory;
+  }
+}
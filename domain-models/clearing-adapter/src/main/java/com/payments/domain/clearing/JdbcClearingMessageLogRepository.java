@@ -0,0 +1,58 @@
+package com.payments.domain.clearing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link ClearingMessageLogRepository} writing JDBC batch inserts into {@code clearing_message_log}
+ * (V13).
+ */
+public class JdbcClearingMessageLogRepository implements ClearingMessageLogRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO clearing_message_log (message_id, clearing_adapter_id, direction, message_type,"
+          + " payload_hash, status_code, message_count, logged_at, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+
+  public JdbcClearingMessageLogRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void saveAll(List<ClearingMessageLog> logs) {
+    if (logs.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (ClearingMessageLog log : logs) {
+        statement.setString(1, log.getId().getValue());
+        statement.setString(2, log.getAdapterId().getValue());
+        statement.setString(3, log.getDirection());
+        statement.setString(4, log.getMessageType());
+        statement.setString(5, log.getPayloadHash());
+        if (log.getStatusCode() == null) {
+          statement.setNull(6, Types.INTEGER);
+        } else {
+          statement.setInt(6, log.getStatusCode());
+        }
+        statement.setInt(7, log.getMessageCount());
+        statement.setTimestamp(8, Timestamp.from(log.getCreatedAt()));
+        statement.setString(9, log.getTenantContext().getTenantId());
+        statement.setString(10, log.getTenantContext().getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to persist " + logs.size() + " clearing message logs", e);
+    }
+  }
+}
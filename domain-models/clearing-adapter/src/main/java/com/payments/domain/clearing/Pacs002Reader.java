@@ -0,0 +1,112 @@
+package com.payments.domain.clearing;
+
+import java.io.InputStream;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads a pacs.002 payment status report, one {@link ClearingStatusReport} per {@code TxInfAndSts}.
+ * A report that only rejects or accepts the original message as a whole has no transactions; its
+ * {@link #getGroupStatus()} then applies to every payment of that message.
+ */
+public final class Pacs002Reader extends Iso20022Reader<ClearingStatusReport> {
+
+  private String messageId;
+  private String originalMessageId;
+  private String groupStatus;
+
+  // Transaction
+  private String transactionMessageId;
+  private String originalEndToEndId;
+  private String originalTransactionId;
+  private String status;
+  private String reasonCode;
+  private String clearingSystemReference;
+
+  Pacs002Reader(InputStream in) {
+    super(in);
+  }
+
+  /** {@code GrpHdr/MsgId} of the report itself. */
+  public String getMessageId() {
+    return messageId;
+  }
+
+  /** {@code OrgnlGrpInfAndSts/OrgnlMsgId}: the message being reported on. */
+  public String getOriginalMessageId() {
+    return originalMessageId;
+  }
+
+  /** {@code OrgnlGrpInfAndSts/GrpSts}, or {@code null} if the report only has transactions. */
+  public String getGroupStatus() {
+    return groupStatus;
+  }
+
+  @Override
+  void onStart(String name, XMLStreamReader xml) {
+    // Everything of interest is element text
+  }
+
+  @Override
+  ClearingStatusReport onEnd(String name) {
+    switch (name) {
+      case "MsgId":
+        if ("GrpHdr".equals(parent())) {
+          messageId = text();
+        }
+        return null;
+      case "OrgnlMsgId":
+        if (within("TxInfAndSts")) {
+          transactionMessageId = text();
+        } else {
+          originalMessageId = text();
+        }
+        return null;
+      case "GrpSts":
+        groupStatus = text();
+        return null;
+      case "OrgnlEndToEndId":
+        originalEndToEndId = text();
+        return null;
+      case "OrgnlTxId":
+        originalTransactionId = text();
+        return null;
+      case "TxSts":
+        status = text();
+        return null;
+      case "Cd":
+        if ("Rsn".equals(parent()) && within("TxInfAndSts") && reasonCode == null) {
+          reasonCode = text();
+        }
+        return null;
+      case "ClrSysRef":
+        clearingSystemReference = text();
+        return null;
+      case "TxInfAndSts":
+        return transaction();
+      default:
+        return null;
+    }
+  }
+
+  private ClearingStatusReport transaction() {
+    if (status == null) {
+      throw new InvalidClearingMessageException(
+          "pacs.002 " + messageId + ": Transaction " + originalEndToEndId + " has no status");
+    }
+    ClearingStatusReport report =
+        new ClearingStatusReport(
+            transactionMessageId != null ? transactionMessageId : originalMessageId,
+            originalEndToEndId,
+            originalTransactionId,
+            status,
+            reasonCode,
+            clearingSystemReference);
+    transactionMessageId = null;
+    originalEndToEndId = null;
+    originalTransactionId = null;
+    status = null;
+    reasonCode = null;
+    clearingSystemReference = null;
+    return report;
+  }
+}
@@ -0,0 +1,189 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Currency;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the credit transfers of a pain.001 customer credit transfer initiation, one {@link
+ * Pain001Transaction} per {@code CdtTrfTxInf}, in constant memory whatever the size of the file.
+ *
+ * <p>Accounts are read from {@code Othr/Id} or {@code IBAN} and must be valid {@link
+ * AccountNumber}s; agents from {@code ClrSysMmbId/MmbId} or the BIC. A transaction that does not
+ * map is reported with its end-to-end ID and stops the read.
+ */
+public final class Pain001Reader extends Iso20022Reader<Pain001Transaction> {
+
+  private String messageId;
+
+  // Payment information block
+  private String paymentInformationId;
+  private LocalDate requestedExecutionDate;
+  private AccountNumber debtorAccount;
+  private String debtorAgent;
+
+  // Transaction
+  private String endToEndId;
+  private String currency;
+  private BigDecimal amount;
+  private AccountNumber creditorAccount;
+  private String creditorAgent;
+  private String creditorName;
+  private String remittanceInformation;
+
+  Pain001Reader(InputStream in) {
+    super(in);
+  }
+
+  /** {@code GrpHdr/MsgId}, once read past the group header. */
+  public String getMessageId() {
+    return messageId;
+  }
+
+  @Override
+  void onStart(String name, XMLStreamReader xml) {
+    if ("InstdAmt".equals(name)) {
+      currency = xml.getAttributeValue(null, "Ccy");
+    }
+  }
+
+  @Override
+  Pain001Transaction onEnd(String name) {
+    switch (name) {
+      case "MsgId":
+        if ("GrpHdr".equals(parent())) {
+          messageId = text();
+        }
+        return null;
+      case "PmtInfId":
+        paymentInformationId = text();
+        return null;
+      case "ReqdExctnDt":
+        if (!text().isEmpty()) { // Before version 08 the date is not wrapped in Dt
+          requestedExecutionDate = date(text());
+        }
+        return null;
+      case "Dt":
+        if ("ReqdExctnDt".equals(parent())) {
+          requestedExecutionDate = date(text());
+        }
+        return null;
+      case "Id":
+      case "IBAN":
+        if ("IBAN".equals(name) || "Othr".equals(parent())) {
+          if (within("DbtrAcct")) {
+            debtorAccount = account(text());
+          } else if (within("CdtrAcct")) {
+            creditorAccount = account(text());
+          }
+        }
+        return null;
+      case "MmbId":
+      case "BICFI":
+      case "BIC":
+        if (within("DbtrAgt")) {
+          debtorAgent = text();
+        } else if (within("CdtrAgt")) {
+          creditorAgent = text();
+        }
+        return null;
+      case "EndToEndId":
+        endToEndId = text();
+        return null;
+      case "InstdAmt":
+        amount = decimal(text());
+        return null;
+      case "Nm":
+        if ("Cdtr".equals(parent())) {
+          creditorName = text();
+        }
+        return null;
+      case "Ustrd":
+        if (remittanceInformation == null) {
+          remittanceInformation = text();
+        }
+        return null;
+      case "CdtTrfTxInf":
+        return transaction();
+      case "PmtInf":
+        paymentInformationId = null;
+        requestedExecutionDate = null;
+        debtorAccount = null;
+        debtorAgent = null;
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private Pain001Transaction transaction() {
+    if (amount == null || currency == null || debtorAccount == null || creditorAccount == null) {
+      throw invalid("needs an instructed amount and currency, a debtor and a creditor account");
+    }
+    Money money;
+    try {
+      money = Money.of(amount, Currency.getInstance(currency));
+    } catch (IllegalArgumentException e) {
+      throw invalid("has unknown currency " + currency);
+    }
+    Pain001Transaction transaction =
+        new Pain001Transaction(
+            messageId,
+            paymentInformationId,
+            endToEndId,
+            requestedExecutionDate,
+            money,
+            debtorAccount,
+            debtorAgent,
+            creditorAccount,
+            creditorAgent,
+            creditorName,
+            remittanceInformation);
+    endToEndId = null;
+    currency = null;
+    amount = null;
+    creditorAccount = null;
+    creditorAgent = null;
+    creditorName = null;
+    remittanceInformation = null;
+    return transaction;
+  }
+
+  private AccountNumber account(String value) {
+    try {
+      return AccountNumber.of(value);
+    } catch (IllegalArgumentException e) {
+      throw invalid("has account " + value + ": " + e.getMessage());
+    }
+  }
+
+  private BigDecimal decimal(String value) {
+    try {
+      return new BigDecimal(value);
+    } catch (NumberFormatException e) {
+      throw invalid("has amount " + value + ", which is not a number");
+    }
+  }
+
+  private LocalDate date(String value) {
+    try {
+      return LocalDate.parse(value);
+    } catch (DateTimeParseException e) {
+      throw invalid("has execution date " + value + ", which is not a date");
+    }
+  }
+
+  private InvalidClearingMessageException invalid(String problem) {
+    String transaction = endToEndId != null ? "Transaction " + endToEndId : "Payment information";
+    return new InvalidClearingMessageException(
+        "pain.001 " + messageId + ": " + transaction + " " + problem);
+  }
+}
@@ -0,0 +1,25 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import java.time.LocalDate;
+import lombok.*;
+
+/**
+ * One credit transfer of an inbound pain.001 file, with the fields of its payment information
+ * block; the input for initiating a {@code Payment}.
+ */
+@Value
+@AllArgsConstructor
+public class Pain001Transaction {
+  String messageId;
+  String paymentInformationId;
+  String endToEndId;
+  LocalDate requestedExecutionDate;
+  Money amount;
+  AccountNumber debtorAccount;
+  String debtorAgent;
+  AccountNumber creditorAccount;
+  String creditorAgent;
+  String creditorName;
+  String remittanceInformation;
+}
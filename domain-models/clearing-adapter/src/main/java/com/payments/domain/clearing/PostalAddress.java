@@ -0,0 +1,20 @@
+package com.payments.domain.clearing;
+
+import lombok.*;
+
+/**
+ * Postal address of a party to a credit transfer, written as the ISO 20022 {@code PstlAdr}. Any
+ * part may be null and is then left out.
+ */
+@Value
+@AllArgsConstructor
+public class PostalAddress {
+  String addressLine1;
+  String addressLine2;
+  String city;
+  String province;
+  String postalCode;
+
+  /** ISO 3166 alpha-2 code, e.g. {@code ZA}. */
+  String country;
+}
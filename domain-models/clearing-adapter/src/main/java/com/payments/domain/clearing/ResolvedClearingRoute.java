@@ -0,0 +1,17 @@
+package com.payments.domain.clearing;
+
+import com.payments.domain.shared.*;
+import lombok.*;
+
+/** An active route of an active adapter, as chosen by {@link ClearingRouteIndex#resolve}. */
+@Value
+@AllArgsConstructor
+public class ResolvedClearingRoute {
+  ClearingRouteId routeId;
+  ClearingAdapterId adapterId;
+  ClearingNetwork network;
+  String routeName;
+  String source;
+  String destination;
+  int priority;
+}
@@ -0,0 +1,330 @@
+package com.payments.domain.clearing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ClearingBatcherTest {
+
+  private static final ZoneId SAST = ZoneId.of("Africa/Johannesburg");
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+  private static final Instant NINE_AM = Instant.parse("2024-03-01T07:00:00Z"); // 09:00 SAST
+
+  private final MutableClock clock = new MutableClock(NINE_AM);
+  private final RecordingGateway gateway = new RecordingGateway();
+  private final RecordingLogs logs = new RecordingLogs();
+  private final ClearingMessageLogWriter messageLog =
+      new ClearingMessageLogWriter(logs, 1_024, 100, Duration.ofMillis(5));
+
+  @Test
+  void full_batch_is_sent_as_one_logged_message() throws Exception {
+    ClearingAdapter adapter = adapter(ClearingNetwork.RTC);
+    ClearingBatchPolicy policy =
+        new ClearingBatchPolicy(
+            3, Duration.ofHours(1), 2, 16, "pacs.008", List.of(), SAST, Duration.ZERO);
+    List<CompletableFuture<String>> references = new ArrayList<>();
+    try (ClearingBatcher batcher =
+        new ClearingBatcher(adapter, gateway, messageLog, policy, clock)) {
+      gateway.rejected.add("PAY-2");
+      for (int i = 1; i <= 3; i++) {
+        references.add(batcher.submit(submission("PAY-" + i)));
+      }
+      assertEquals("CLR-PAY-1", references.get(0).get(5, TimeUnit.SECONDS));
+      assertEquals("CLR-PAY-3", references.get(2).get(5, TimeUnit.SECONDS));
+      assertThrows(ExecutionException.class, () -> references.get(1).get(5, TimeUnit.SECONDS));
+      assertEquals(1, batcher.getBatchCount());
+    }
+
+    assertEquals(List.of(3), gateway.batchSizes);
+    messageLog.close();
+    assertEquals(1, logs.saved.size());
+    ClearingMessageLog log = logs.saved.get(0);
+    assertEquals(Integer.valueOf(202), log.getStatusCode());
+    assertEquals(3, log.getMessageCount());
+    assertEquals(adapter.getId(), log.getAdapterId());
+    // Logging the batch registered no event on the adapter
+    assertInstanceOf(ClearingAdapterCreatedEvent.class, lastEvent(adapter));
+  }
+
+  @Test
+  void bulk_batch_is_sent_early_at_cycle_cut_off() throws Exception {
+    ClearingAdapter adapter = adapter(ClearingNetwork.BANKSERVAFRICA);
+    ClearingBatchPolicy policy =
+        new ClearingBatchPolicy(
+            5_000,
+            Duration.ofHours(4),
+            1,
+            1_024,
+            "pain.001",
+            List.of(LocalTime.of(10, 30)),
+            SAST,
+            Duration.ofMinutes(2));
+    try (ClearingBatcher batcher =
+        new ClearingBatcher(adapter, gateway, messageLog, policy, clock)) {
+      CompletableFuture<String> first = batcher.submit(submission("PAY-1"));
+      CompletableFuture<String> second = batcher.submit(submission("PAY-2"));
+      Thread.sleep(50);
+      assertTrue(gateway.batchSizes.isEmpty());
+
+      clock.advance(Duration.ofMinutes(88)); // 10:28, the cut-off less its margin
+      assertEquals("CLR-PAY-2", second.get(5, TimeUnit.SECONDS));
+      assertTrue(first.isDone());
+      assertEquals(1, batcher.getCutOffBatchCount());
+    }
+    assertEquals(List.of(2), gateway.batchSizes);
+  }
+
+  @Test
+  void cut_offs_skip_weekends_and_public_holidays() {
+    ClearingBatchPolicy policy = ClearingBatchPolicy.forNetwork(ClearingNetwork.BANKSERVAFRICA);
+    // Thursday 28 March 2024 after the last cycle; Good Friday and Family Day follow the weekend
+    Instant thursdayEvening = Instant.parse("2024-03-28T17:00:00Z");
+    assertEquals(Instant.parse("2024-04-02T06:00:00Z"), policy.nextCutOff(thursdayEvening));
+
+    // Youth Day 2024 falls on a Sunday and is observed on the Monday
+    Instant fridayEvening = Instant.parse("2024-06-14T17:00:00Z");
+    assertEquals(Instant.parse("2024-06-18T06:00:00Z"), policy.nextCutOff(fridayEvening));
+    assertEquals(
+        Instant.parse("2024-06-14T16:30:00Z"),
+        policy.nextCutOff(Instant.parse("2024-06-14T14:00:00Z")));
+  }
+
+  @Test
+  void saturated_adapter_pushes_back_on_submitters() throws Exception {
+    ClearingAdapter adapter = adapter(ClearingNetwork.SAMOS);
+    ClearingBatchPolicy policy =
+        new ClearingBatchPolicy(1, Duration.ZERO, 1, 1, "pacs.008", List.of(), SAST, Duration.ZERO);
+    CountDownLatch release = new CountDownLatch(1);
+    gateway.blockUntil = release;
+    try (ClearingBatcher batcher =
+        new ClearingBatcher(adapter, gateway, messageLog, policy, clock)) {
+      batcher.submit(submission("PAY-1"));
+      assertTrue(gateway.entered.await(5, TimeUnit.SECONDS));
+      batcher.submit(submission("PAY-2")); // Taken off the queue, waiting to be sent
+      awaitEmptyQueue(batcher);
+      CompletableFuture<String> third = batcher.submit(submission("PAY-3"));
+
+      assertThrows(
+          ClearingAdapterSaturatedException.class,
+          () -> batcher.submit(submission("PAY-4"), Duration.ofMillis(20)));
+      assertEquals(1, batcher.getSaturatedCount());
+
+      release.countDown();
+      assertEquals("CLR-PAY-3", third.get(5, TimeUnit.SECONDS));
+    }
+    messageLog.close();
+    assertEquals(3, logs.saved.size());
+  }
+
+  @Test
+  void open_circuit_fails_batches_without_sending_them() throws Exception {
+    ClearingAdapter adapter = adapter(ClearingNetwork.SAMOS);
+    adapter.addRoute(ClearingRouteId.generate(), "default", "*", "*", 100, "creator");
+    ClearingRouteIndex routes = ClearingRouteIndex.of(List.of(adapter));
+    ClearingBatchPolicy policy =
+        new ClearingBatchPolicy(
+            1, Duration.ZERO, 1, 16, "pacs.008", List.of(), SAST, Duration.ZERO);
+    // Opens after two failures
+    ResiliencePolicy resilience =
+        new ResiliencePolicy(
+            Duration.ofSeconds(30),
+            Duration.ofMinutes(1),
+            2,
+            50,
+            Duration.ofMinutes(1),
+            1,
+            4,
+            1,
+            8);
+    gateway.failure = new IllegalStateException("SAMOS unreachable");
+
+    try (BackendGuardRegistry guards = new BackendGuardRegistry(new NoCircuitStates(), clock)) {
+      routes.followCircuits(guards);
+      BackendGuard guard = guards.guard(adapter.getId(), TENANT, resilience);
+      try (ClearingBatcher batcher =
+          new ClearingBatcher(adapter, gateway, messageLog, policy, guard, clock)) {
+        for (int i = 1; i <= 2; i++) {
+          CompletableFuture<String> failed = batcher.submit(submission("PAY-" + i));
+          ExecutionException e =
+              assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+          assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(CircuitState.OPEN, guard.getState());
+        assertNull(routes.resolve("632005", "250655"));
+
+        CompletableFuture<String> shed = batcher.submit(submission("PAY-3"));
+        ExecutionException e =
+            assertThrows(ExecutionException.class, () -> shed.get(5, TimeUnit.SECONDS));
+        assertTrue(((BackendUnavailableException) e.getCause()).isCircuitOpen());
+        assertEquals(1, batcher.getShedBatchCount());
+        assertEquals(2, batcher.getFailedBatchCount());
+      }
+    }
+    messageLog.close();
+    assertEquals(2, logs.saved.size());
+  }
+
+  @Test
+  void batch_waits_for_room_under_the_concurrency_limit() throws Exception {
+    ClearingAdapter adapter = adapter(ClearingNetwork.SAMOS);
+    ClearingBatchPolicy policy =
+        new ClearingBatchPolicy(
+            1, Duration.ZERO, 1, 16, "pacs.008", List.of(), SAST, Duration.ZERO);
+    // One call at a time
+    ResiliencePolicy resilience =
+        new ResiliencePolicy(
+            Duration.ofSeconds(30),
+            Duration.ofMinutes(1),
+            5,
+            50,
+            Duration.ofMinutes(1),
+            1,
+            1,
+            1,
+            1);
+
+    try (BackendGuardRegistry guards = new BackendGuardRegistry(new NoCircuitStates(), clock)) {
+      BackendGuard guard = guards.guard(adapter.getId(), TENANT, resilience);
+      long held = guard.acquire();
+      try (ClearingBatcher batcher =
+          new ClearingBatcher(adapter, gateway, messageLog, policy, guard, clock)) {
+        CompletableFuture<String> reference = batcher.submit(submission("PAY-1"));
+        Thread.sleep(50);
+        assertFalse(reference.isDone());
+        assertTrue(gateway.batchSizes.isEmpty());
+
+        guard.release(held, CallOutcome.SUCCESS);
+        assertEquals("CLR-PAY-1", reference.get(5, TimeUnit.SECONDS));
+        assertEquals(0, batcher.getShedBatchCount());
+      }
+    }
+  }
+
+  private static ClearingAdapter adapter(ClearingNetwork network) {
+    return ClearingAdapter.create(
+        ClearingAdapterId.generate(),
+        TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments"),
+        network.name() + " adapter",
+        network,
+        "https://clearing.example.com",
+        "creator");
+  }
+
+  private static ClearingSubmission submission(String paymentId) {
+    return new ClearingSubmission(
+        PaymentId.of(paymentId),
+        TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments"),
+        Money.zar(new BigDecimal("100.00")),
+        AccountNumber.of("12345678901"),
+        AccountNumber.of("10987654321"),
+        "Creditor",
+        null,
+        "250655",
+        "Invoice 42");
+  }
+
+  private static DomainEvent lastEvent(ClearingAdapter adapter) {
+    List<DomainEvent> events = adapter.getDomainEvents();
+    return events.get(events.size() - 1);
+  }
+
+  private static void awaitEmptyQueue(ClearingBatcher batcher) throws InterruptedException {
+    for (int i = 0; i < 500 && batcher.getQueuedCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, batcher.getQueuedCount());
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private static final class RecordingLogs implements ClearingMessageLogRepository {
+    final List<ClearingMessageLog> saved = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void saveAll(List<ClearingMessageLog> batch) {
+      saved.addAll(batch);
+    }
+  }
+
+  private static final class NoCircuitStates implements CircuitBreakerStateRepository {
+    @Override
+    public List<CircuitBreakerStatus> findAll() {
+      return List.of();
+    }
+
+    @Override
+    public void saveAll(List<CircuitBreakerStatus> statuses) {}
+  }
+
+  private static final class RecordingGateway implements ClearingNetworkGateway {
+    final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    final List<String> rejected = new ArrayList<>();
+    final CountDownLatch entered = new CountDownLatch(1);
+    volatile CountDownLatch blockUntil;
+    volatile RuntimeException failure;
+
+    @Override
+    public ClearingBatchResponse send(
+        ClearingNetwork network, String messageType, List<ClearingSubmission> submissions) {
+      entered.countDown();
+      if (blockUntil != null) {
+        try {
+          blockUntil.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      batchSizes.add(submissions.size());
+      List<String> references = new ArrayList<>();
+      for (ClearingSubmission submission : submissions) {
+        String paymentId = submission.getPaymentId().getValue();
+        references.add(rejected.contains(paymentId) ? null : "CLR-" + paymentId);
+      }
+      return new ClearingBatchResponse(202, "hash-" + submissions.size(), references);
+    }
+  }
+}
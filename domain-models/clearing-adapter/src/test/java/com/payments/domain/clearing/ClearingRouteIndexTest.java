@@ -0,0 +1,126 @@
+package com.payments.domain.clearing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClearingRouteIndexTest {
+
+  @Test
+  void longest_destination_prefix_then_priority_then_source() {
+    ClearingAdapter eft = adapter(ClearingNetwork.BANKSERVAFRICA);
+    eft.addRoute(ClearingRouteId.of("RT-DEFAULT"), "Default EFT", "*", "*", 100, "ops");
+    eft.addRoute(ClearingRouteId.of("RT-25"), "Bank 25xxxx", "*", "25", 50, "ops");
+    ClearingAdapter rtc = adapter(ClearingNetwork.RTC);
+    rtc.addRoute(ClearingRouteId.of("RT-250655"), "Branch 250655", "*", "250655", 10, "ops");
+    rtc.addRoute(ClearingRouteId.of("RT-25-FAST"), "Bank 25 from 63", "63", "25", 50, "ops");
+    ClearingRouteIndex index = ClearingRouteIndex.of(List.of(eft, rtc));
+
+    assertEquals("RT-250655", routeId(index.resolve("632005", "250655")));
+    assertEquals("RT-25-FAST", routeId(index.resolve("632005", "251234")));
+    assertEquals("RT-25", routeId(index.resolve("470010", "251234")));
+    assertEquals("RT-DEFAULT", routeId(index.resolve("470010", "198765")));
+    assertEquals(ClearingNetwork.RTC, index.resolve("470010", "250655").getNetwork());
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  void unhealthy_adapter_falls_back_to_the_next_route() {
+    ClearingAdapter samos = adapter(ClearingNetwork.SAMOS);
+    samos.addRoute(ClearingRouteId.of("RT-SAMOS"), "SBZA high value", "*", "SBZAZAJJ", 1, "ops");
+    ClearingAdapter swift = adapter(ClearingNetwork.SWIFT);
+    swift.addRoute(ClearingRouteId.of("RT-SWIFT"), "SWIFT ZA", "*", "SBZA", 5, "ops");
+    ClearingRouteIndex index = ClearingRouteIndex.of(List.of(samos, swift));
+
+    assertEquals("RT-SAMOS", routeId(index.resolve("FIRNZAJJ", "sbzazajj")));
+    index.setHealthy(samos.getId(), false);
+    assertEquals("RT-SWIFT", routeId(index.resolve("FIRNZAJJ", "SBZAZAJJ")));
+    index.setHealthy(swift.getId(), false);
+    assertNull(index.resolve("FIRNZAJJ", "SBZAZAJJ"));
+  }
+
+  @Test
+  void adapter_whose_circuit_was_restored_open_is_passed_over() {
+    ClearingAdapter samos = adapter(ClearingNetwork.SAMOS);
+    samos.addRoute(ClearingRouteId.of("RT-SAMOS"), "SBZA high value", "*", "SBZA", 1, "ops");
+    ClearingAdapter swift = adapter(ClearingNetwork.SWIFT);
+    swift.addRoute(ClearingRouteId.of("RT-SWIFT"), "SWIFT ZA", "*", "SBZA", 5, "ops");
+    CircuitBreakerStateRepository states = new OpenCircuits(samos.getId(), swift.getId());
+    TenantContext owner = TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+    ResiliencePolicy policy = ResiliencePolicy.defaults(Duration.ofSeconds(30));
+
+    try (BackendGuardRegistry guards = new BackendGuardRegistry(states)) {
+      // Guarded before the index follows the circuits, and after
+      guards.guard(samos.getId(), owner, policy);
+      ClearingRouteIndex index = ClearingRouteIndex.of(List.of(samos, swift));
+      index.followCircuits(guards);
+      assertEquals("RT-SWIFT", routeId(index.resolve("FIRNZAJJ", "SBZAZAJJ")));
+      guards.guard(swift.getId(), owner, policy);
+      assertNull(index.resolve("FIRNZAJJ", "SBZAZAJJ"));
+    }
+  }
+
+  @Test
+  void index_follows_route_and_status_events() {
+    ClearingAdapter payShap = adapter(ClearingNetwork.PAYSHAP);
+    ClearingRouteIndex index = new ClearingRouteIndex();
+    payShap.addRoute(ClearingRouteId.of("RT-PS"), "PayShap all", "*", "*", 1, "ops");
+    payShap.deactivate("maintenance", "ops");
+    payShap.getDomainEvents().forEach(index::onEvent);
+    assertNull(index.resolve("632005", "250655"));
+
+    payShap.activate("ops");
+    payShap.getDomainEvents().forEach(index::onEvent); // Replayed events are ignored
+    assertEquals("RT-PS", routeId(index.resolve("632005", "250655")));
+    assertEquals(1, index.size());
+  }
+
+  private static ClearingAdapter adapter(ClearingNetwork network) {
+    return ClearingAdapter.create(
+        ClearingAdapterId.generate(),
+        TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments"),
+        network.name() + " adapter",
+        network,
+        "https://clearing.example.com",
+        "creator");
+  }
+
+  private static String routeId(ResolvedClearingRoute route) {
+    return route.getRouteId().getValue();
+  }
+
+  private static final class OpenCircuits implements CircuitBreakerStateRepository {
+    private final List<CircuitBreakerStatus> open = new ArrayList<>();
+
+    OpenCircuits(ClearingAdapterId... adapters) {
+      Instant now = Instant.now();
+      for (ClearingAdapterId adapter : adapters) {
+        open.add(
+            new CircuitBreakerStatus(
+                GuardedSystemType.CLEARING_ADAPTER,
+                adapter.getValue(),
+                CircuitState.OPEN,
+                5,
+                now,
+                null,
+                now,
+                now.plusSeconds(60),
+                "TNT-1",
+                "BU-1"));
+      }
+    }
+
+    @Override
+    public List<CircuitBreakerStatus> findAll() {
+      return open;
+    }
+
+    @Override
+    public void saveAll(List<CircuitBreakerStatus> statuses) {}
+  }
+}
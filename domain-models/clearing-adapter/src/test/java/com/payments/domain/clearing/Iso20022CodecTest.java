@@ -0,0 +1,228 @@
+package com.payments.domain.clearing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class Iso20022CodecTest {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+
+  private final Iso20022Codec codec =
+      new Iso20022Codec(
+          "632005", "BANKSERV", Clock.fixed(Instant.parse("2024-03-01T07:30:00Z"), ZoneOffset.UTC));
+
+  @Test
+  void pacs008_is_written_with_its_hash() {
+    List<ClearingSubmission> submissions =
+        List.of(
+            submission("PAY-1", "100.00", "Rent & levies"), submission("PAY-2", "250.50", null));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    EncodedClearingMessage encoded = codec.writePacs008("MSG-1", submissions, out);
+
+    byte[] bytes = out.toByteArray();
+    String xml = new String(bytes, StandardCharsets.UTF_8);
+    assertEquals(sha256(bytes), encoded.getPayloadHash());
+    assertEquals(bytes.length, encoded.getByteCount());
+    assertEquals(2, encoded.getTransactionCount());
+    assertTrue(xml.contains("<CreDtTm>2024-03-01T07:30:00Z</CreDtTm><NbOfTxs>2</NbOfTxs>"));
+    assertTrue(xml.contains("<TtlIntrBkSttlmAmt Ccy=\"ZAR\">350.50</TtlIntrBkSttlmAmt>"));
+    assertTrue(xml.contains("<EndToEndId>PAY-2</EndToEndId>"));
+    assertTrue(xml.contains("<Ustrd>Rent &amp; levies</Ustrd>"));
+    assertTrue(
+        xml.contains(
+            "<Cdtr><Nm>Acme Properties</Nm><PstlAdr><PstCd>8001</PstCd><TwnNm>Cape Town</TwnNm>"
+                + "<CtrySubDvsn>Western Cape</CtrySubDvsn><Ctry>ZA</Ctry>"
+                + "<AdrLine>12 Main Road</AdrLine></PstlAdr></Cdtr>"),
+        xml);
+  }
+
+  @Test
+  void pain001_transactions_are_read_one_by_one() {
+    String pain001 =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pain.001.001.09\">"
+            + "<CstmrCdtTrfInitn><GrpHdr><MsgId>PAIN-7</MsgId><NbOfTxs>2</NbOfTxs></GrpHdr>"
+            + paymentInformation("PMT-1", 2)
+            + "</CstmrCdtTrfInitn></Document>\n";
+    byte[] bytes = pain001.getBytes(StandardCharsets.UTF_8);
+
+    List<Pain001Transaction> transactions = new ArrayList<>();
+    try (Pain001Reader reader = Iso20022Codec.readPain001(new ByteArrayInputStream(bytes))) {
+      for (Pain001Transaction t = reader.next(); t != null; t = reader.next()) {
+        transactions.add(t);
+      }
+      assertEquals(sha256(bytes), reader.getPayloadHash());
+    }
+
+    assertEquals(2, transactions.size());
+    Pain001Transaction second = transactions.get(1);
+    assertEquals("PAIN-7", second.getMessageId());
+    assertEquals("PMT-1", second.getPaymentInformationId());
+    assertEquals("E2E-PMT-1-1", second.getEndToEndId());
+    assertEquals(LocalDate.of(2024, 3, 4), second.getRequestedExecutionDate());
+    assertEquals(Money.zar(new BigDecimal("11.00")), second.getAmount());
+    assertEquals(AccountNumber.of("12345678901"), second.getDebtorAccount());
+    assertEquals("632005", second.getDebtorAgent());
+    assertEquals(AccountNumber.of("20000000001"), second.getCreditorAccount());
+    assertEquals("250655", second.getCreditorAgent());
+    assertEquals("Creditor 1", second.getCreditorName());
+    assertEquals("Invoice 1", second.getRemittanceInformation());
+  }
+
+  @Test
+  void large_pain001_streams_without_holding_the_file() {
+    int blocks = 2_000;
+    int perBlock = 100; // 200,000 transactions, about 70 MB
+    Enumeration<InputStream> parts =
+        new Enumeration<>() {
+          int part = -1;
+
+          @Override
+          public boolean hasMoreElements() {
+            return part <= blocks;
+          }
+
+          @Override
+          public InputStream nextElement() {
+            String xml =
+                part == -1
+                    ? "<Document><CstmrCdtTrfInitn><GrpHdr><MsgId>BULK</MsgId></GrpHdr>"
+                    : part == blocks
+                        ? "</CstmrCdtTrfInitn></Document>"
+                        : paymentInformation("PMT-" + part, perBlock);
+            part++;
+            return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+          }
+        };
+
+    long count = 0;
+    long totalCents = 0;
+    try (Pain001Reader reader = Iso20022Codec.readPain001(new SequenceInputStream(parts))) {
+      for (Pain001Transaction t = reader.next(); t != null; t = reader.next()) {
+        count++;
+        totalCents += t.getAmount().toCompact().getMinorUnits();
+      }
+      assertNotNull(reader.getPayloadHash());
+    }
+    assertEquals((long) blocks * perBlock, count);
+    assertEquals(blocks * (perBlock * 1_000L + 100L * (perBlock - 1) * perBlock / 2), totalCents);
+  }
+
+  @Test
+  void pain001_with_an_unmappable_account_names_the_transaction() {
+    String pain001 =
+        "<Document><CstmrCdtTrfInitn><GrpHdr><MsgId>PAIN-8</MsgId></GrpHdr>"
+            + paymentInformation("PMT-1", 1).replace("20000000000", "ZA-NOT-AN-ACCOUNT")
+            + "</CstmrCdtTrfInitn></Document>";
+    try (Pain001Reader reader =
+        Iso20022Codec.readPain001(
+            new ByteArrayInputStream(pain001.getBytes(StandardCharsets.UTF_8)))) {
+      InvalidClearingMessageException e =
+          assertThrows(InvalidClearingMessageException.class, reader::next);
+      assertTrue(e.getMessage().contains("E2E-PMT-1-0"), e.getMessage());
+    }
+  }
+
+  @Test
+  void pacs002_reports_each_transaction_status() {
+    String pacs002 =
+        "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.002.001.10\"><FIToFIPmtStsRpt>"
+            + "<GrpHdr><MsgId>STS-1</MsgId></GrpHdr>"
+            + "<OrgnlGrpInfAndSts><OrgnlMsgId>MSG-1</OrgnlMsgId>"
+            + "<OrgnlMsgNmId>pacs.008.001.08</OrgnlMsgNmId><GrpSts>PART</GrpSts>"
+            + "</OrgnlGrpInfAndSts>"
+            + "<TxInfAndSts><OrgnlEndToEndId>PAY-1</OrgnlEndToEndId><TxSts>ACSC</TxSts>"
+            + "<ClrSysRef>BSV-0001</ClrSysRef></TxInfAndSts>"
+            + "<TxInfAndSts><OrgnlEndToEndId>PAY-2</OrgnlEndToEndId><TxSts>RJCT</TxSts>"
+            + "<StsRsnInf><Rsn><Cd>AC01</Cd></Rsn></StsRsnInf></TxInfAndSts>"
+            + "</FIToFIPmtStsRpt></Document>";
+
+    try (Pacs002Reader reader =
+        Iso20022Codec.readPacs002(
+            new ByteArrayInputStream(pacs002.getBytes(StandardCharsets.UTF_8)))) {
+      ClearingStatusReport settled = reader.next();
+      ClearingStatusReport rejected = reader.next();
+      assertNull(reader.next());
+
+      assertEquals("MSG-1", reader.getOriginalMessageId());
+      assertEquals("PART", reader.getGroupStatus());
+      assertTrue(settled.isSettled());
+      assertEquals("MSG-1", settled.getOriginalMessageId());
+      assertEquals("BSV-0001", settled.getClearingSystemReference());
+      assertTrue(rejected.isRejected());
+      assertEquals("PAY-2", rejected.getOriginalEndToEndId());
+      assertEquals("AC01", rejected.getReasonCode());
+    }
+  }
+
+  /** A PmtInf block whose transactions pay 10.00, 11.00, 12.00, ... */
+  private static String paymentInformation(String id, int transactions) {
+    StringBuilder xml = new StringBuilder();
+    xml.append("<PmtInf><PmtInfId>")
+        .append(id)
+        .append("</PmtInfId><PmtMtd>TRF</PmtMtd><ReqdExctnDt><Dt>2024-03-04</Dt></ReqdExctnDt>")
+        .append("<Dbtr><Nm>Debtor</Nm><Id><OrgId><Othr><Id>ORG-1</Id></Othr></OrgId></Id></Dbtr>")
+        .append("<DbtrAcct><Id><Othr><Id>12345678901</Id></Othr></Id></DbtrAcct>")
+        .append("<DbtrAgt><FinInstnId><ClrSysMmbId><MmbId>632005</MmbId></ClrSysMmbId>")
+        .append("</FinInstnId></DbtrAgt>");
+    for (int i = 0; i < transactions; i++) {
+      xml.append("<CdtTrfTxInf><PmtId><EndToEndId>E2E-")
+          .append(id)
+          .append('-')
+          .append(i)
+          .append("</EndToEndId></PmtId><Amt><InstdAmt Ccy=\"ZAR\">")
+          .append(10 + i)
+          .append(".00</InstdAmt></Amt>")
+          .append("<CdtrAgt><FinInstnId><ClrSysMmbId><MmbId>250655</MmbId></ClrSysMmbId>")
+          .append("</FinInstnId></CdtrAgt><Cdtr><Nm>Creditor ")
+          .append(i)
+          .append("</Nm></Cdtr><CdtrAcct><Id><Othr><Id>")
+          .append(20_000_000_000L + i)
+          .append("</Id></Othr></Id></CdtrAcct><RmtInf><Ustrd>Invoice ")
+          .append(i)
+          .append("</Ustrd></RmtInf></CdtTrfTxInf>");
+    }
+    return xml.append("</PmtInf>").toString();
+  }
+
+  private static ClearingSubmission submission(String paymentId, String amount, String ref) {
+    return new ClearingSubmission(
+        PaymentId.of(paymentId),
+        TENANT,
+        Money.zar(new BigDecimal(amount)),
+        AccountNumber.of("12345678901"),
+        AccountNumber.of("10987654321"),
+        "Acme Properties",
+        new PostalAddress("12 Main Road", null, "Cape Town", "Western Cape", "8001", "ZA"),
+        "250655",
+        ref);
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
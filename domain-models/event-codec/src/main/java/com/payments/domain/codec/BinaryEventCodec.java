@@ -0,0 +1,125 @@
+package com.payments.domain.codec;
+
+import com.payments.domain.outbox.DomainEventSerializer;
+import com.payments.domain.shared.DomainEvent;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary codec for domain events
+ *
+ * <p>Layout: magic byte, format version, the event's wire name, its schema version (major, minor),
+ * then the fields as {@code (tag << 3 | wireType)} keys followed by varints, fixed 64-bit values or
+ * length-delimited bytes (strings, decimals, instants, nested records). Lists repeat the field's
+ * tag per element.
+ *
+ * <p>Compatibility follows {@code event-schemas/versioning-strategy.md}: a reader skips tags it
+ * does not know (newer minor version) and leaves fields it does not receive unset (older minor
+ * version); a different major version is rejected with {@link IncompatibleEventSchemaException}.
+ *
+ * <p>{@link #encode(DomainEvent, BinaryEventWriter)} and {@link #decode(ByteBuffer,
+ * BinaryEventReader)} take caller-owned, reusable buffers; the other methods use per-thread ones.
+ */
+public class BinaryEventCodec implements DomainEventSerializer {
+
+  public static final String CONTENT_TYPE = "application/vnd.payments.event+binary;version=1";
+
+  static final int MAGIC = 0xE7;
+  static final int FORMAT_VERSION = 1;
+
+  private final EventSchemaRegistry registry;
+  private final ThreadLocal<BinaryEventWriter> writers =
+      ThreadLocal.withInitial(BinaryEventWriter::new);
+  private final ThreadLocal<BinaryEventReader> readers =
+      ThreadLocal.withInitial(BinaryEventReader::new);
+
+  public BinaryEventCodec(EventSchemaRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public String getContentType() {
+    return CONTENT_TYPE;
+  }
+
+  @Override
+  public byte[] serialize(DomainEvent event) {
+    BinaryEventWriter writer = writers.get().reset();
+    encode(event, writer);
+    return writer.toByteArray();
+  }
+
+  /** Append the encoded event to {@code writer}. */
+  public void encode(DomainEvent event, BinaryEventWriter writer) {
+    EventSchema schema = registry.forType(event.getClass());
+    writer.writeByte(MAGIC);
+    writer.writeByte(FORMAT_VERSION);
+    writer.writeBytes(schema.nameBytes);
+    writer.writeVarint(schema.major);
+    writer.writeVarint(schema.minor);
+    schema.record.writeFields(writer, event, 0);
+  }
+
+  public DomainEvent decode(byte[] bytes) {
+    return decode(ByteBuffer.wrap(bytes));
+  }
+
+  public DomainEvent decode(ByteBuffer buffer) {
+    return decode(buffer, readers.get());
+  }
+
+  /**
+   * Decode the event between the buffer's position and limit; the position is advanced to the
+   * limit.
+   */
+  public DomainEvent decode(ByteBuffer buffer, BinaryEventReader reader) {
+    reader.wrap(buffer);
+    try {
+      checkPreamble(reader);
+      int nameEnd = reader.readLengthEnd();
+      EventSchema schema = registry.forName(reader, nameEnd - reader.position());
+      if (schema == null) {
+        throw new IncompatibleEventSchemaException(
+            "Unknown event schema " + reader.readString() + "; register its type first");
+      }
+      reader.position(nameEnd);
+      int major = (int) reader.readVarint();
+      reader.readVarint();
+      if (major != schema.major) {
+        throw new IncompatibleEventSchemaException(
+            schema.name
+                + " arrived as major version "
+                + major
+                + ", this consumer reads "
+                + schema.major);
+      }
+      DomainEvent event = (DomainEvent) schema.record.read(reader, reader.limit(), 0);
+      buffer.position(buffer.limit());
+      return event;
+    } finally {
+      reader.release();
+    }
+  }
+
+  /** Read only the header, e.g. to route or filter; does not move the buffer's position. */
+  public EventHeader readHeader(ByteBuffer buffer) {
+    BinaryEventReader reader = readers.get().wrap(buffer);
+    try {
+      checkPreamble(reader);
+      String name = reader.readString();
+      int major = (int) reader.readVarint();
+      int minor = (int) reader.readVarint();
+      return new EventHeader(name, major, minor);
+    } finally {
+      reader.release();
+    }
+  }
+
+  private static void checkPreamble(BinaryEventReader reader) {
+    int magic = reader.readByte();
+    int format = reader.readByte();
+    if (magic != MAGIC || format != FORMAT_VERSION) {
+      throw new IncompatibleEventSchemaException(
+          "Not a binary event (magic " + magic + ", format " + format + ")");
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package com.payments.domain.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor over an encoded event for {@link BinaryEventCodec}.
+ *
+ * <p>Reads straight from the caller's {@link ByteBuffer} (heap or direct) with absolute gets; the
+ * payload is never copied as a whole. Strings from heap buffers are built directly from the backing
+ * array; from direct buffers they go through a scratch array that is kept and reused across events.
+ * Reuse one reader per thread. Not thread-safe.
+ */
+public final class BinaryEventReader {
+
+  private ByteBuffer buffer;
+  private byte[] array;
+  private int arrayOffset;
+  private int pos;
+  private int limit;
+  private byte[] scratch = new byte[64];
+
+  BinaryEventReader wrap(ByteBuffer source) {
+    this.buffer = source;
+    this.pos = source.position();
+    this.limit = source.limit();
+    if (source.hasArray()) {
+      this.array = source.array();
+      this.arrayOffset = source.arrayOffset();
+    } else {
+      this.array = null;
+      this.arrayOffset = 0;
+    }
+    return this;
+  }
+
+  /** Drop the reference to the last buffer so it can be collected. */
+  void release() {
+    buffer = null;
+    array = null;
+  }
+
+  int position() {
+    return pos;
+  }
+
+  void position(int newPosition) {
+    pos = newPosition;
+  }
+
+  int limit() {
+    return limit;
+  }
+
+  boolean hasRemaining(int end) {
+    return pos < end;
+  }
+
+  int readByte() {
+    require(1);
+    return byteAt(pos++) & 0xFF;
+  }
+
+  long readVarint() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IncompatibleEventSchemaException("Malformed varint at offset " + pos);
+  }
+
+  long readSignedVarint() {
+    long raw = readVarint();
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  long readFixed64() {
+    require(8);
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value |= (long) (byteAt(pos++) & 0xFF) << (8 * i);
+    }
+    return value;
+  }
+
+  /** Reads a length prefix and returns the end offset of the section it announces. */
+  int readLengthEnd() {
+    long length = readVarint();
+    if (length < 0 || length > limit - pos) {
+      throw new IncompatibleEventSchemaException("Truncated section at offset " + pos);
+    }
+    return pos + (int) length;
+  }
+
+  String readString() {
+    int end = readLengthEnd();
+    int length = end - pos;
+    String value;
+    if (array != null) {
+      value = new String(array, arrayOffset + pos, length, StandardCharsets.UTF_8);
+    } else {
+      if (scratch.length < length) {
+        scratch = new byte[Math.max(length, scratch.length * 2)];
+      }
+      buffer.get(pos, scratch, 0, length);
+      value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+    pos = end;
+    return value;
+  }
+
+  byte[] readBytes() {
+    int end = readLengthEnd();
+    byte[] bytes = new byte[end - pos];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = byteAt(pos + i);
+    }
+    pos = end;
+    return bytes;
+  }
+
+  /** Compare the next {@code expected.length} bytes without consuming them. */
+  boolean matches(byte[] expected, int length) {
+    if (expected.length != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (byteAt(pos + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  void skip(int wireType) {
+    switch (wireType) {
+      case WireType.VARINT:
+        readVarint();
+        break;
+      case WireType.FIXED64:
+        require(8);
+        pos += 8;
+        break;
+      case WireType.LENGTH_DELIMITED:
+        pos = readLengthEnd();
+        break;
+      default:
+        throw new IncompatibleEventSchemaException("Unknown wire type " + wireType);
+    }
+  }
+
+  byte byteAt(int index) {
+    return array != null ? array[arrayOffset + index] : buffer.get(index);
+  }
+
+  private void require(int bytes) {
+    if (pos + bytes > limit) {
+      throw new IncompatibleEventSchemaException("Truncated event at offset " + pos);
+    }
+  }
+}
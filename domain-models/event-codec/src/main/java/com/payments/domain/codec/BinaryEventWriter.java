@@ -0,0 +1,185 @@
+package com.payments.domain.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable output buffer for {@link BinaryEventCodec}.
+ *
+ * <p>Meant to be reused: {@link #reset()} keeps the backing array, so steady-state encoding does
+ * not allocate. Not thread-safe.
+ */
+public final class BinaryEventWriter {
+
+  private byte[] buf;
+  private int pos;
+
+  public BinaryEventWriter() {
+    this(256);
+  }
+
+  public BinaryEventWriter(int initialCapacity) {
+    this.buf = new byte[Math.max(16, initialCapacity)];
+  }
+
+  public BinaryEventWriter reset() {
+    pos = 0;
+    return this;
+  }
+
+  public int size() {
+    return pos;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buf, pos);
+  }
+
+  /** Read-only view of the encoded bytes; valid until the next reset or write. */
+  public ByteBuffer asByteBuffer() {
+    return ByteBuffer.wrap(buf, 0, pos).asReadOnlyBuffer();
+  }
+
+  public void writeTo(ByteBuffer target) {
+    target.put(buf, 0, pos);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIMITIVES (used by the schemas)
+  // ─────────────────────────────────────────────────────────
+
+  void writeByte(int b) {
+    ensure(1);
+    buf[pos++] = (byte) b;
+  }
+
+  void writeKey(int tag, int wireType) {
+    writeVarint(((long) tag << 3) | wireType);
+  }
+
+  void writeVarint(long value) {
+    ensure(10);
+    while ((value & ~0x7FL) != 0) {
+      buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buf[pos++] = (byte) value;
+  }
+
+  void writeSignedVarint(long value) {
+    writeVarint((value << 1) ^ (value >> 63));
+  }
+
+  void writeFixed64(long value) {
+    ensure(8);
+    for (int i = 0; i < 8; i++) {
+      buf[pos++] = (byte) (value >>> (8 * i));
+    }
+  }
+
+  void writeBytes(byte[] bytes) {
+    writeVarint(bytes.length);
+    ensure(bytes.length);
+    System.arraycopy(bytes, 0, buf, pos, bytes.length);
+    pos += bytes.length;
+  }
+
+  /** Length-prefixed UTF-8, encoded straight into the buffer. */
+  void writeString(String s) {
+    int length = s.length();
+    int utf8Length = utf8Length(s);
+    writeVarint(utf8Length);
+    ensure(utf8Length);
+    if (utf8Length == length) {
+      for (int i = 0; i < length; i++) {
+        buf[pos++] = (byte) s.charAt(i);
+      }
+      return;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        buf[pos++] = (byte) c;
+      } else if (c < 0x800) {
+        buf[pos++] = (byte) (0xC0 | (c >> 6));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        buf[pos++] = (byte) (0xF0 | (cp >> 18));
+        buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        buf[pos++] = (byte) '?';
+      } else {
+        buf[pos++] = (byte) (0xE0 | (c >> 12));
+        buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  /**
+   * Start a length-delimited section; returns the mark to pass to {@link #endLength}. One byte is
+   * reserved for the length, which covers sections under 128 bytes without moving anything.
+   */
+  int beginLength() {
+    ensure(1);
+    return pos++;
+  }
+
+  void endLength(int mark) {
+    int length = pos - mark - 1;
+    int prefix = varintSize(length);
+    if (prefix > 1) {
+      ensure(prefix - 1);
+      System.arraycopy(buf, mark + 1, buf, mark + prefix, length);
+    }
+    int end = mark + prefix + length;
+    pos = mark;
+    writeVarint(length);
+    pos = end;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void ensure(int extra) {
+    if (pos + extra > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+    }
+  }
+
+  private static int varintSize(int value) {
+    int size = 1;
+    while ((value & ~0x7F) != 0) {
+      size++;
+      value >>>= 7;
+    }
+    return size;
+  }
+
+  private static int utf8Length(String s) {
+    int length = s.length();
+    int bytes = length;
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          bytes += 1;
+        } else if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          bytes += 2;
+          i++;
+        } else if (!Character.isSurrogate(c)) {
+          bytes += 2;
+        }
+      }
+    }
+    return bytes;
+  }
+}
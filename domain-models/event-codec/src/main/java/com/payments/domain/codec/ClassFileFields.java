@@ -0,0 +1,103 @@
+package com.payments.domain.codec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field names of a class in the order of its class file, which javac writes in declaration order.
+ * {@link Class#getDeclaredFields} promises no order at all.
+ */
+final class ClassFileFields {
+
+  private ClassFileFields() {}
+
+  static List<String> namesOf(Class<?> type) {
+    String name = type.getName();
+    String resource = name.substring(name.lastIndexOf('.') + 1) + ".class";
+    try (InputStream stream = type.getResourceAsStream(resource)) {
+      if (stream == null) {
+        throw new IllegalArgumentException(
+            "No class file for "
+                + name
+                + " to match its constructor to its fields; compile it with -parameters");
+      }
+      return read(new DataInputStream(new BufferedInputStream(stream)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read the class file of " + name, e);
+    }
+  }
+
+  private static List<String> read(DataInputStream in) throws IOException {
+    if (in.readInt() != 0xCAFEBABE) {
+      throw new IOException("Not a class file");
+    }
+    skip(in, 4); // Minor and major version
+    int poolSize = in.readUnsignedShort();
+    String[] utf8 = new String[poolSize];
+    for (int i = 1; i < poolSize; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          utf8[i] = in.readUTF();
+          break;
+        case 7:
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          skip(in, 2);
+          break;
+        case 15:
+          skip(in, 3);
+          break;
+        case 3:
+        case 4:
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          skip(in, 4);
+          break;
+        case 5:
+        case 6:
+          skip(in, 8);
+          i++; // Longs and doubles take two entries
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    skip(in, 6); // Access flags, this and super class
+    skip(in, 2 * in.readUnsignedShort()); // Interfaces
+    int fieldCount = in.readUnsignedShort();
+    List<String> names = new ArrayList<>(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      skip(in, 2);
+      names.add(utf8[in.readUnsignedShort()]);
+      skip(in, 2);
+      int attributes = in.readUnsignedShort();
+      for (int a = 0; a < attributes; a++) {
+        skip(in, 2);
+        skip(in, in.readInt());
+      }
+    }
+    return names;
+  }
+
+  private static void skip(DataInputStream in, int bytes) throws IOException {
+    while (bytes > 0) {
+      int skipped = in.skipBytes(bytes);
+      if (skipped <= 0) {
+        throw new EOFException("Truncated class file");
+      }
+      bytes -= skipped;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.payments.domain.codec;
+
+import java.util.Currency;
+
+/** Currencies indexed by their three-letter code, so decoding a currency allocates nothing. */
+final class CurrencyTable {
+
+  private static final Currency[] BY_CODE = new Currency[26 * 26 * 26];
+
+  static {
+    for (Currency currency : Currency.getAvailableCurrencies()) {
+      String code = currency.getCurrencyCode();
+      int index = index((byte) code.charAt(0), (byte) code.charAt(1), (byte) code.charAt(2));
+      if (index >= 0) {
+        BY_CODE[index] = currency;
+      }
+    }
+  }
+
+  private CurrencyTable() {}
+
+  static Currency lookup(byte a, byte b, byte c) {
+    int index = index(a, b, c);
+    return index >= 0 ? BY_CODE[index] : null;
+  }
+
+  private static int index(byte a, byte b, byte c) {
+    if (a < 'A' || a > 'Z' || b < 'A' || b > 'Z' || c < 'A' || c > 'Z') {
+      return -1;
+    }
+    return ((a - 'A') * 26 + (b - 'A')) * 26 + (c - 'A');
+  }
+}
@@ -0,0 +1,15 @@
+package com.payments.domain.codec;
+
+import lombok.Value;
+
+/** Header of an encoded event: wire name and the producer's schema version. */
+@Value
+public class EventHeader {
+  String schemaName;
+  int major;
+  int minor;
+
+  public String getVersion() {
+    return major + "." + minor + ".0";
+  }
+}
@@ -0,0 +1,33 @@
+package com.payments.domain.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/** Registered event type: wire name, schema version and field layout. */
+final class EventSchema {
+
+  final Class<?> type;
+  final String name;
+  final byte[] nameBytes;
+  final int nameHash;
+  final int major;
+  final int minor;
+  final RecordSchema record;
+
+  EventSchema(Class<?> type, String name, int major, int minor, RecordSchema record) {
+    this.type = type;
+    this.name = name;
+    this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    this.nameHash = hash(nameBytes, 0, nameBytes.length);
+    this.major = major;
+    this.minor = minor;
+    this.record = record;
+  }
+
+  static int hash(byte[] bytes, int offset, int length) {
+    int h = 1;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + bytes[offset + i];
+    }
+    return h;
+  }
+}
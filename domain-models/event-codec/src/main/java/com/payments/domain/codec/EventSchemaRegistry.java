@@ -0,0 +1,151 @@
+package com.payments.domain.codec;
+
+import com.payments.domain.shared.DomainEvent;
+import com.payments.domain.shared.EventSchemaVersion;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Event schemas known to a {@link BinaryEventCodec}.
+ *
+ * <p>An event's wire name is {@code <context>.<EventType>}: the last segment of its package and its
+ * class name without the {@code Event} suffix, e.g. {@code payment.PaymentInitiated}. The context
+ * keeps same-named events of different services apart ({@code payment.PaymentValidated} vs {@code
+ * validation.PaymentValidated}). Register every type a consumer may decode, typically from the
+ * modules' {@code *EventTypes.ALL} lists; encoding registers unknown types on first use.
+ */
+public class EventSchemaRegistry {
+
+  // Nested record schemas, only used while building under the registry lock
+  private final Map<Class<?>, RecordSchema> records = new HashMap<>();
+  private final ConcurrentHashMap<Class<?>, EventSchema> byType = new ConcurrentHashMap<>();
+  private volatile EventSchema[] byName = new EventSchema[16];
+
+  public EventSchemaRegistry register(Class<? extends DomainEvent> type) {
+    forType(type);
+    return this;
+  }
+
+  public EventSchemaRegistry registerAll(Collection<Class<? extends DomainEvent>> types) {
+    for (Class<? extends DomainEvent> type : types) {
+      register(type);
+    }
+    return this;
+  }
+
+  public boolean isRegistered(String schemaName) {
+    for (EventSchema schema : byName) {
+      if (schema != null && schema.name.equals(schemaName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static String schemaNameOf(Class<?> type) {
+    String packageName = type.getPackageName();
+    String context = packageName.substring(packageName.lastIndexOf('.') + 1);
+    String simpleName = type.getSimpleName();
+    String eventType =
+        simpleName.endsWith("Event") && simpleName.length() > "Event".length()
+            ? simpleName.substring(0, simpleName.length() - "Event".length())
+            : simpleName;
+    return context + "." + eventType;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // LOOKUPS (codec)
+  // ─────────────────────────────────────────────────────────
+
+  EventSchema forType(Class<?> type) {
+    EventSchema schema = byType.get(type);
+    return schema != null ? schema : build(type);
+  }
+
+  /** Schema whose name equals the {@code length} bytes at the reader's position, or null. */
+  EventSchema forName(BinaryEventReader in, int length) {
+    EventSchema[] table = byName;
+    int start = in.position();
+    int h = 1;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + in.byteAt(start + i);
+    }
+    int mask = table.length - 1;
+    for (int i = spread(h) & mask; table[i] != null; i = (i + 1) & mask) {
+      EventSchema candidate = table[i];
+      if (candidate.nameHash == h && in.matches(candidate.nameBytes, length)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private synchronized EventSchema build(Class<?> type) {
+    EventSchema existing = byType.get(type);
+    if (existing != null) {
+      return existing;
+    }
+    if (!DomainEvent.class.isAssignableFrom(type)) {
+      throw new IllegalArgumentException(type.getName() + " is not a DomainEvent");
+    }
+    String name = schemaNameOf(type);
+    EventSchemaVersion version = type.getAnnotation(EventSchemaVersion.class);
+    EventSchema schema =
+        new EventSchema(
+            type,
+            name,
+            version != null ? version.major() : 1,
+            version != null ? version.minor() : 0,
+            RecordSchema.of(type, records));
+    for (EventSchema other : byName) {
+      if (other != null && other.name.equals(name)) {
+        throw new IllegalArgumentException(
+            "Event schema name " + name + " already taken by " + other.type.getName());
+      }
+    }
+    byName = insert(byName, schema);
+    byType.put(type, schema);
+    return schema;
+  }
+
+  /** Copy-on-write open-addressing table, kept at most half full. */
+  private static EventSchema[] insert(EventSchema[] table, EventSchema schema) {
+    int count = 1;
+    for (EventSchema existing : table) {
+      if (existing != null) {
+        count++;
+      }
+    }
+    int capacity = table.length;
+    while (count * 2 > capacity) {
+      capacity *= 2;
+    }
+    EventSchema[] copy = new EventSchema[capacity];
+    for (EventSchema existing : table) {
+      if (existing != null) {
+        place(copy, existing);
+      }
+    }
+    place(copy, schema);
+    return copy;
+  }
+
+  private static void place(EventSchema[] table, EventSchema schema) {
+    int mask = table.length - 1;
+    int i = spread(schema.nameHash) & mask;
+    while (table[i] != null) {
+      i = (i + 1) & mask;
+    }
+    table[i] = schema;
+  }
+
+  private static int spread(int h) {
+    return h ^ (h >>> 16);
+  }
+}
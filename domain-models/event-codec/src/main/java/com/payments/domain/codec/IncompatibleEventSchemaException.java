@@ -0,0 +1,12 @@
+package com.payments.domain.codec;
+
+/** Encoded event cannot be read with the locally registered schema. */
+public class IncompatibleEventSchemaException extends RuntimeException {
+  public IncompatibleEventSchemaException(String message) {
+    super(message);
+  }
+
+  public IncompatibleEventSchemaException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,710 @@
+package com.payments.domain.codec;
+
+import com.payments.domain.shared.DomainEvent;
+import com.payments.domain.shared.WireTag;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema of one record type (an event or a value object / entity nested in one), derived from its
+ * declared instance fields.
+ *
+ * <p>Fields are encoded under their {@link WireTag}s. A type of more than one field must tag every
+ * one, so the wire format never depends on field order; a type of a single field (the IDs) may
+ * leave it untagged, as tag 1. Static and {@code transient} fields are skipped, as are fields
+ * holding domain events (an aggregate's pending-event list is never part of a payload). Null
+ * values, empty lists and zero primitives are not written.
+ *
+ * <p>Records are rebuilt through a constructor taking every field when there is one (Lombok
+ * {@code @AllArgsConstructor}, or an ID's private constructor), otherwise through the no-arg
+ * constructor plus field writes (JPA entities). Arguments are matched to fields by parameter name
+ * where the class was compiled with {@code -parameters}, otherwise by position against the field
+ * order of the class file, which is the order Lombok declares them in.
+ */
+final class RecordSchema {
+
+  private static final int MAX_DEPTH = 16;
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Class<?> type;
+  // In tag order, and indexed by tag
+  private Slot[] slots;
+  private Slot[] slotsByTag;
+  // (Object[]) -> Object over the all-fields constructor, or () -> Object over the no-arg one
+  private MethodHandle allArgsConstructor;
+  private MethodHandle noArgsConstructor;
+
+  private RecordSchema(Class<?> type) {
+    this.type = type;
+  }
+
+  /** Schema for {@code type}; {@code cache} must only be touched under the registry lock. */
+  static RecordSchema of(Class<?> type, Map<Class<?>, RecordSchema> cache) {
+    RecordSchema existing = cache.get(type);
+    if (existing != null) {
+      return existing;
+    }
+    RecordSchema schema = new RecordSchema(type);
+    // Cached before the fields are resolved so self-referencing types terminate
+    cache.put(type, schema);
+    try {
+      schema.resolve(cache);
+    } catch (RuntimeException e) {
+      cache.remove(type);
+      throw e;
+    }
+    return schema;
+  }
+
+  Class<?> getType() {
+    return type;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // ENCODE
+  // ─────────────────────────────────────────────────────────
+
+  void writeFields(BinaryEventWriter out, Object record, int depth) {
+    if (depth > MAX_DEPTH) {
+      throw new IllegalArgumentException("Record nesting deeper than " + MAX_DEPTH + " at " + type);
+    }
+    for (Slot slot : slots) {
+      Object value = slot.get(record);
+      if (value == null || slot.isDefaultPrimitive(value)) {
+        continue;
+      }
+      if (slot.value.kind == Kind.LIST) {
+        for (Object element : (Collection<?>) value) {
+          if (element != null) {
+            writeValue(out, slot.tag, slot.value.element, element, depth);
+          }
+        }
+      } else {
+        writeValue(out, slot.tag, slot.value, value, depth);
+      }
+    }
+  }
+
+  private static void writeValue(
+      BinaryEventWriter out, int tag, ValueType valueType, Object value, int depth) {
+    out.writeKey(tag, valueType.wireType);
+    switch (valueType.kind) {
+      case STRING:
+        out.writeString((String) value);
+        break;
+      case BOOLEAN:
+        out.writeVarint((Boolean) value ? 1 : 0);
+        break;
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+        out.writeSignedVarint(((Number) value).longValue());
+        break;
+      case DOUBLE:
+        out.writeFixed64(Double.doubleToRawLongBits((Double) value));
+        break;
+      case BIG_DECIMAL:
+        writeBigDecimal(out, (BigDecimal) value);
+        break;
+      case CURRENCY:
+        out.writeString(((Currency) value).getCurrencyCode());
+        break;
+      case INSTANT:
+        {
+          Instant instant = (Instant) value;
+          int mark = out.beginLength();
+          out.writeSignedVarint(instant.getEpochSecond());
+          out.writeVarint(instant.getNano());
+          out.endLength(mark);
+          break;
+        }
+      case LOCAL_DATE:
+        out.writeSignedVarint(((LocalDate) value).toEpochDay());
+        break;
+      case BYTES:
+        out.writeBytes((byte[]) value);
+        break;
+      case ENUM:
+        out.writeBytes(valueType.enumNames[((Enum<?>) value).ordinal()]);
+        break;
+      case RECORD:
+        {
+          int mark = out.beginLength();
+          valueType.record.writeFields(out, value, depth + 1);
+          out.endLength(mark);
+          break;
+        }
+      default:
+        throw new IllegalStateException("Unexpected kind " + valueType.kind);
+    }
+  }
+
+  private static void writeBigDecimal(BinaryEventWriter out, BigDecimal value) {
+    int mark = out.beginLength();
+    long scale = value.scale();
+    BigInteger unscaled = value.unscaledValue();
+    long zigzagScale = (scale << 1) ^ (scale >> 63);
+    if (unscaled.bitLength() < 64) {
+      out.writeVarint(zigzagScale << 1);
+      out.writeSignedVarint(unscaled.longValue());
+    } else {
+      out.writeVarint((zigzagScale << 1) | 1);
+      byte[] magnitude = unscaled.toByteArray();
+      for (byte b : magnitude) {
+        out.writeByte(b);
+      }
+    }
+    out.endLength(mark);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // DECODE
+  // ─────────────────────────────────────────────────────────
+
+  /** Read fields up to offset {@code end}; unknown tags are skipped, missing fields stay unset. */
+  Object read(BinaryEventReader in, int end, int depth) {
+    if (depth > MAX_DEPTH) {
+      throw new IncompatibleEventSchemaException(
+          "Record nesting deeper than " + MAX_DEPTH + " at " + type.getName());
+    }
+    Object[] values = new Object[slots.length];
+    while (in.hasRemaining(end)) {
+      long key = in.readVarint();
+      int wireType = (int) (key & 0x7);
+      long tag = key >>> 3;
+      Slot slot = tag < slotsByTag.length ? slotsByTag[(int) tag] : null;
+      if (slot == null) {
+        in.skip(wireType);
+        continue;
+      }
+      ValueType valueType = slot.value.kind == Kind.LIST ? slot.value.element : slot.value;
+      if (wireType != valueType.wireType) {
+        throw new IncompatibleEventSchemaException(
+            type.getSimpleName()
+                + "."
+                + slot.field.getName()
+                + " arrived with wire type "
+                + wireType
+                + ", schema expects "
+                + valueType.wireType);
+      }
+      Object value = readValue(in, valueType, depth);
+      if (slot.value.kind == Kind.LIST) {
+        if (values[slot.index] == null) {
+          values[slot.index] = new ArrayList<>();
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) values[slot.index];
+        list.add(value);
+      } else {
+        values[slot.index] = value;
+      }
+    }
+    if (in.position() != end) {
+      throw new IncompatibleEventSchemaException("Field overruns record " + type.getName());
+    }
+    return instantiate(values);
+  }
+
+  private static Object readValue(BinaryEventReader in, ValueType valueType, int depth) {
+    switch (valueType.kind) {
+      case STRING:
+        return in.readString();
+      case BOOLEAN:
+        return in.readVarint() != 0;
+      case BYTE:
+        return (byte) in.readSignedVarint();
+      case SHORT:
+        return (short) in.readSignedVarint();
+      case INT:
+        return (int) in.readSignedVarint();
+      case LONG:
+        return in.readSignedVarint();
+      case DOUBLE:
+        return Double.longBitsToDouble(in.readFixed64());
+      case BIG_DECIMAL:
+        return readBigDecimal(in);
+      case CURRENCY:
+        return readCurrency(in);
+      case INSTANT:
+        {
+          int end = in.readLengthEnd();
+          long seconds = in.readSignedVarint();
+          long nanos = in.readVarint();
+          in.position(end);
+          return Instant.ofEpochSecond(seconds, nanos);
+        }
+      case LOCAL_DATE:
+        return LocalDate.ofEpochDay(in.readSignedVarint());
+      case BYTES:
+        return in.readBytes();
+      case ENUM:
+        return readEnum(in, valueType);
+      case RECORD:
+        {
+          int end = in.readLengthEnd();
+          return valueType.record.read(in, end, depth + 1);
+        }
+      default:
+        throw new IllegalStateException("Unexpected kind " + valueType.kind);
+    }
+  }
+
+  private static BigDecimal readBigDecimal(BinaryEventReader in) {
+    int end = in.readLengthEnd();
+    long header = in.readVarint();
+    long zigzagScale = header >>> 1;
+    int scale = (int) ((zigzagScale >>> 1) ^ -(zigzagScale & 1));
+    BigDecimal value;
+    if ((header & 1) == 0) {
+      value = BigDecimal.valueOf(in.readSignedVarint(), scale);
+    } else {
+      byte[] magnitude = new byte[end - in.position()];
+      for (int i = 0; i < magnitude.length; i++) {
+        magnitude[i] = (byte) in.readByte();
+      }
+      value = new BigDecimal(new BigInteger(magnitude), scale);
+    }
+    in.position(end);
+    return value;
+  }
+
+  private static Currency readCurrency(BinaryEventReader in) {
+    int start = in.position();
+    int end = in.readLengthEnd();
+    if (end - in.position() == 3) {
+      Currency currency =
+          CurrencyTable.lookup(
+              in.byteAt(in.position()), in.byteAt(in.position() + 1), in.byteAt(in.position() + 2));
+      if (currency != null) {
+        in.position(end);
+        return currency;
+      }
+    }
+    in.position(start);
+    return Currency.getInstance(in.readString());
+  }
+
+  private static Object readEnum(BinaryEventReader in, ValueType valueType) {
+    int end = in.readLengthEnd();
+    int length = end - in.position();
+    Object match = null;
+    for (int i = 0; i < valueType.enumNames.length; i++) {
+      if (in.matches(valueType.enumNames[i], length)) {
+        match = valueType.enumConstants[i];
+        break;
+      }
+    }
+    // A constant added by a newer producer decodes as null
+    in.position(end);
+    return match;
+  }
+
+  private Object instantiate(Object[] values) {
+    try {
+      if (allArgsConstructor != null) {
+        for (Slot slot : slots) {
+          if (values[slot.index] == null) {
+            values[slot.index] = slot.defaultValue();
+          }
+        }
+        return (Object) allArgsConstructor.invokeExact(values);
+      }
+      Object record = (Object) noArgsConstructor.invokeExact();
+      for (Slot slot : slots) {
+        Object value = values[slot.index] != null ? values[slot.index] : slot.defaultValue();
+        if (value != null) {
+          slot.set(record, value);
+        }
+      }
+      return record;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IncompatibleEventSchemaException(
+          "Cannot rebuild " + type.getName() + ": " + e.getMessage(), e);
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // SCHEMA RESOLUTION
+  // ─────────────────────────────────────────────────────────
+
+  private void resolve(Map<Class<?>, RecordSchema> cache) {
+    List<Field> fields = new ArrayList<>();
+    for (Field field : type.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (Modifier.isStatic(modifiers)
+          || Modifier.isTransient(modifiers)
+          || field.isSynthetic()
+          || carriesDomainEvents(field)) {
+        continue;
+      }
+      field.setAccessible(true);
+      fields.add(field);
+    }
+    int[] tags = tags(fields);
+    Constructor<?> allArgs = null;
+    int[] positions = null;
+    for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+      positions = parameterPositions(constructor, fields, type);
+      if (positions != null) {
+        allArgs = constructor;
+        break;
+      }
+    }
+    Slot[] resolved = new Slot[fields.size()];
+    int maxTag = 0;
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      int index = positions != null ? positions[i] : i;
+      ValueType valueType = ValueType.of(field.getType(), field.getGenericType(), cache);
+      resolved[i] = new Slot(index, tags[i], field, valueType);
+      maxTag = Math.max(maxTag, tags[i]);
+    }
+    Arrays.sort(resolved, Comparator.comparingInt(slot -> slot.tag));
+    Slot[] byTag = new Slot[maxTag + 1];
+    for (Slot slot : resolved) {
+      byTag[slot.tag] = slot;
+    }
+    this.slots = resolved;
+    this.slotsByTag = byTag;
+    this.allArgsConstructor =
+        allArgs != null
+            ? constructorHandle(allArgs, MethodType.methodType(Object.class, Object[].class))
+            : null;
+    Constructor<?> noArgs;
+    try {
+      noArgs = type.getDeclaredConstructor();
+    } catch (NoSuchMethodException e) {
+      noArgs = null;
+    }
+    this.noArgsConstructor =
+        noArgs != null ? constructorHandle(noArgs, MethodType.methodType(Object.class)) : null;
+    if (allArgsConstructor == null && noArgsConstructor == null) {
+      throw new IllegalArgumentException(
+          type.getName() + " needs an all-fields or a no-arg constructor to be decoded");
+    }
+  }
+
+  /**
+   * Tags of the fields: their {@link WireTag}s, or 1 for the untagged field of a one-field type.
+   */
+  private int[] tags(List<Field> fields) {
+    int tagged = 0;
+    for (Field field : fields) {
+      tagged += field.isAnnotationPresent(WireTag.class) ? 1 : 0;
+    }
+    int[] tags = new int[fields.size()];
+    if (tagged == 0 && fields.size() == 1) {
+      tags[0] = 1;
+      return tags;
+    }
+    if (tagged != fields.size()) {
+      throw new IllegalArgumentException(
+          type.getName()
+              + " tags "
+              + tagged
+              + " of its "
+              + fields.size()
+              + " fields with @WireTag; every field must have one");
+    }
+    boolean[] seen = new boolean[WireTag.MAX + 1];
+    for (int i = 0; i < tags.length; i++) {
+      int tag = fields.get(i).getAnnotation(WireTag.class).value();
+      if (tag < 1 || tag > WireTag.MAX || seen[tag]) {
+        throw new IllegalArgumentException(
+            "Invalid or repeated @WireTag(" + tag + ") on " + fields.get(i));
+      }
+      seen[tag] = true;
+      tags[i] = tag;
+    }
+    return tags;
+  }
+
+  /**
+   * For each field, the position of its argument in {@code constructor}, or null unless the
+   * constructor takes exactly one argument per field.
+   */
+  private static int[] parameterPositions(
+      Constructor<?> constructor, List<Field> fields, Class<?> type) {
+    Parameter[] parameters = constructor.getParameters();
+    if (parameters.length == 0 || parameters.length != fields.size()) {
+      return null;
+    }
+    List<Field> declared = parameters[0].isNamePresent() ? null : inClassFileOrder(fields, type);
+    int[] positions = new int[fields.size()];
+    Arrays.fill(positions, -1);
+    for (int p = 0; p < parameters.length; p++) {
+      Parameter parameter = parameters[p];
+      int field =
+          declared == null
+              ? fieldNamed(fields, parameter.getName())
+              : fields.indexOf(declared.get(p));
+      if (field < 0
+          || positions[field] >= 0
+          || fields.get(field).getType() != parameter.getType()) {
+        return null;
+      }
+      positions[field] = p;
+    }
+    return positions;
+  }
+
+  private static int fieldNamed(List<Field> fields, String name) {
+    for (int i = 0; i < fields.size(); i++) {
+      if (fields.get(i).getName().equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** The fields in the order javac wrote them, which is the order of the source. */
+  private static List<Field> inClassFileOrder(List<Field> fields, Class<?> type) {
+    if (fields.size() == 1) {
+      return fields;
+    }
+    List<String> declared = ClassFileFields.namesOf(type);
+    List<Field> ordered = new ArrayList<>(fields);
+    ordered.sort(Comparator.comparingInt(field -> declared.indexOf(field.getName())));
+    return ordered;
+  }
+
+  private MethodHandle constructorHandle(Constructor<?> constructor, MethodType shape) {
+    constructor.setAccessible(true);
+    try {
+      MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+      int arity = constructor.getParameterCount();
+      if (arity > 0) {
+        handle = handle.asSpreader(Object[].class, arity);
+      }
+      return handle.asType(shape);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Cannot access constructor of " + type.getName(), e);
+    }
+  }
+
+  private static boolean carriesDomainEvents(Field field) {
+    if (DomainEvent.class.isAssignableFrom(field.getType())) {
+      return true;
+    }
+    Type generic = field.getGenericType();
+    if (generic instanceof ParameterizedType) {
+      for (Type argument : ((ParameterizedType) generic).getActualTypeArguments()) {
+        if (argument instanceof Class && DomainEvent.class.isAssignableFrom((Class<?>) argument)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  enum Kind {
+    STRING,
+    BOOLEAN,
+    BYTE,
+    SHORT,
+    INT,
+    LONG,
+    DOUBLE,
+    BIG_DECIMAL,
+    CURRENCY,
+    INSTANT,
+    LOCAL_DATE,
+    BYTES,
+    ENUM,
+    RECORD,
+    LIST
+  }
+
+  /** How one field (or list element) is encoded. */
+  static final class ValueType {
+    final Kind kind;
+    final Class<?> type;
+    final int wireType;
+    RecordSchema record;
+    ValueType element;
+    Object[] enumConstants;
+    byte[][] enumNames;
+
+    private ValueType(Kind kind, Class<?> type, int wireType) {
+      this.kind = kind;
+      this.type = type;
+      this.wireType = wireType;
+    }
+
+    static ValueType of(Class<?> raw, Type generic, Map<Class<?>, RecordSchema> cache) {
+      if (raw == String.class) {
+        return new ValueType(Kind.STRING, raw, WireType.LENGTH_DELIMITED);
+      }
+      if (raw == boolean.class || raw == Boolean.class) {
+        return new ValueType(Kind.BOOLEAN, raw, WireType.VARINT);
+      }
+      if (raw == byte.class || raw == Byte.class) {
+        return new ValueType(Kind.BYTE, raw, WireType.VARINT);
+      }
+      if (raw == short.class || raw == Short.class) {
+        return new ValueType(Kind.SHORT, raw, WireType.VARINT);
+      }
+      if (raw == int.class || raw == Integer.class) {
+        return new ValueType(Kind.INT, raw, WireType.VARINT);
+      }
+      if (raw == long.class || raw == Long.class) {
+        return new ValueType(Kind.LONG, raw, WireType.VARINT);
+      }
+      if (raw == double.class || raw == Double.class) {
+        return new ValueType(Kind.DOUBLE, raw, WireType.FIXED64);
+      }
+      if (raw == BigDecimal.class) {
+        return new ValueType(Kind.BIG_DECIMAL, raw, WireType.LENGTH_DELIMITED);
+      }
+      if (raw == Currency.class) {
+        return new ValueType(Kind.CURRENCY, raw, WireType.LENGTH_DELIMITED);
+      }
+      if (raw == Instant.class) {
+        return new ValueType(Kind.INSTANT, raw, WireType.LENGTH_DELIMITED);
+      }
+      if (raw == LocalDate.class) {
+        return new ValueType(Kind.LOCAL_DATE, raw, WireType.VARINT);
+      }
+      if (raw == byte[].class) {
+        return new ValueType(Kind.BYTES, raw, WireType.LENGTH_DELIMITED);
+      }
+      if (raw.isEnum()) {
+        ValueType valueType = new ValueType(Kind.ENUM, raw, WireType.LENGTH_DELIMITED);
+        Object[] constants = raw.getEnumConstants();
+        valueType.enumConstants = constants;
+        valueType.enumNames = new byte[constants.length][];
+        for (int i = 0; i < constants.length; i++) {
+          valueType.enumNames[i] =
+              ((Enum<?>) constants[i]).name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return valueType;
+      }
+      if (raw == List.class) {
+        Type argument =
+            generic instanceof ParameterizedType
+                ? ((ParameterizedType) generic).getActualTypeArguments()[0]
+                : null;
+        if (!(argument instanceof Class) || argument == List.class) {
+          throw new IllegalArgumentException("Unsupported list element type " + generic);
+        }
+        ValueType valueType = new ValueType(Kind.LIST, raw, WireType.LENGTH_DELIMITED);
+        valueType.element = of((Class<?>) argument, argument, cache);
+        return valueType;
+      }
+      if (raw.isPrimitive()
+          || raw.isArray()
+          || raw.isInterface()
+          || Modifier.isAbstract(raw.getModifiers())
+          || raw.getName().startsWith("java.")) {
+        throw new IllegalArgumentException("Unsupported field type " + raw.getName());
+      }
+      ValueType valueType = new ValueType(Kind.RECORD, raw, WireType.LENGTH_DELIMITED);
+      valueType.record = RecordSchema.of(raw, cache);
+      return valueType;
+    }
+  }
+
+  private static final class Slot {
+    final int index;
+    final int tag;
+    final Field field;
+    final ValueType value;
+    // (Object) -> Object and (Object, Object) -> void over the (accessible) field
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    /** {@code index} is the field's position in the all-fields constructor, if any. */
+    Slot(int index, int tag, Field field, ValueType value) {
+      this.index = index;
+      this.tag = tag;
+      this.field = field;
+      this.value = value;
+      try {
+        this.getter =
+            LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+        this.setter =
+            LOOKUP
+                .unreflectSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+      } catch (IllegalAccessException e) {
+        throw new IllegalArgumentException("Cannot access " + field, e);
+      }
+    }
+
+    Object get(Object record) {
+      try {
+        return (Object) getter.invokeExact(record);
+      } catch (Throwable e) {
+        throw new IllegalStateException("Cannot read " + field, e);
+      }
+    }
+
+    void set(Object record, Object fieldValue) throws Throwable {
+      setter.invokeExact(record, fieldValue);
+    }
+
+    boolean isDefaultPrimitive(Object value) {
+      if (!field.getType().isPrimitive()) {
+        return false;
+      }
+      if (value instanceof Boolean) {
+        return !(Boolean) value;
+      }
+      if (value instanceof Double) {
+        return Double.doubleToRawLongBits((Double) value) == 0L;
+      }
+      return ((Number) value).longValue() == 0L;
+    }
+
+    /** Value for an absent field: empty list, primitive zero, otherwise null. */
+    Object defaultValue() {
+      if (value.kind == Kind.LIST) {
+        return new ArrayList<>();
+      }
+      Class<?> t = field.getType();
+      if (!t.isPrimitive()) {
+        return null;
+      }
+      if (t == boolean.class) {
+        return false;
+      }
+      if (t == byte.class) {
+        return (byte) 0;
+      }
+      if (t == short.class) {
+        return (short) 0;
+      }
+      if (t == int.class) {
+        return 0;
+      }
+      if (t == long.class) {
+        return 0L;
+      }
+      return 0.0d;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.payments.domain.codec;
+
+/** Wire types carried in the low three bits of every field key. */
+final class WireType {
+  static final int VARINT = 0;
+  static final int FIXED64 = 1;
+  static final int LENGTH_DELIMITED = 2;
+
+  private WireType() {}
+}
@@ -0,0 +1,258 @@
+package com.payments.domain.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.account.AccountEventTypes;
+import com.payments.domain.clearing.ClearingEventTypes;
+import com.payments.domain.payment.*;
+import com.payments.domain.saga.SagaEventTypes;
+import com.payments.domain.shared.*;
+import com.payments.domain.tenant.*;
+import com.payments.domain.transaction.TransactionEventTypes;
+import com.payments.domain.validation.ValidationEventTypes;
+import com.payments.domain.validation.ValidationId;
+import com.payments.domain.validation.ValidationResult;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BinaryEventCodecTest {
+
+  private final EventSchemaRegistry registry =
+      new EventSchemaRegistry()
+          .registerAll(AccountEventTypes.ALL)
+          .registerAll(ClearingEventTypes.ALL)
+          .registerAll(PaymentEventTypes.ALL)
+          .registerAll(SagaEventTypes.ALL)
+          .registerAll(TenantEventTypes.ALL)
+          .registerAll(TransactionEventTypes.ALL)
+          .registerAll(ValidationEventTypes.ALL);
+  private final BinaryEventCodec codec = new BinaryEventCodec(registry);
+
+  @Test
+  void every_production_event_tags_its_fields() {
+    List<Class<? extends DomainEvent>> events = new ArrayList<>();
+    events.addAll(AccountEventTypes.ALL);
+    events.addAll(ClearingEventTypes.ALL);
+    events.addAll(PaymentEventTypes.ALL);
+    events.addAll(SagaEventTypes.ALL);
+    events.addAll(TenantEventTypes.ALL);
+    events.addAll(TransactionEventTypes.ALL);
+    events.addAll(ValidationEventTypes.ALL);
+
+    for (Class<? extends DomainEvent> event : events) {
+      for (Field field : event.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+          assertTrue(field.isAnnotationPresent(WireTag.class), field + " has no @WireTag");
+        }
+      }
+    }
+  }
+
+  @Test
+  void untagged_event_of_several_fields_is_refused() {
+    EventSchemaRegistry empty = new EventSchemaRegistry();
+
+    IllegalArgumentException refused =
+        assertThrows(IllegalArgumentException.class, () -> empty.register(UntaggedEvent.class));
+    assertTrue(refused.getMessage().contains("tags 0 of its 2 fields"), refused.getMessage());
+  }
+
+  @Test
+  void same_named_events_of_different_contexts_get_distinct_schemas() {
+    assertTrue(registry.isRegistered("payment.PaymentValidated"));
+    assertTrue(registry.isRegistered("validation.PaymentValidated"));
+  }
+
+  @Test
+  void payment_lifecycle_events_round_trip() {
+    List<DomainEvent> events = paymentLifecycleEvents();
+    assertEquals(5, events.size());
+
+    for (DomainEvent event : events) {
+      byte[] encoded = codec.serialize(event);
+      DomainEvent decoded = codec.decode(encoded);
+
+      assertEquals(event.getClass(), decoded.getClass());
+      assertEquals(event.getEventType(), decoded.getEventType());
+      assertArrayEquals(encoded, codec.serialize(decoded));
+    }
+    DomainEvent initiated = events.get(0);
+    assertEquals(initiated, codec.decode(codec.serialize(initiated)));
+  }
+
+  @Test
+  void decodes_from_direct_buffer_with_reused_reader() {
+    BinaryEventReader reader = new BinaryEventReader();
+    BinaryEventWriter writer = new BinaryEventWriter();
+    for (DomainEvent event : tenantEvents()) {
+      codec.encode(event, writer.reset());
+      ByteBuffer direct = ByteBuffer.allocateDirect(writer.size());
+      writer.writeTo(direct);
+      direct.flip();
+
+      assertEquals(event, codec.decode(direct, reader));
+      assertFalse(direct.hasRemaining());
+    }
+  }
+
+  @Test
+  void header_names_schema_and_version() {
+    DomainEvent event = tenantEvents().get(0);
+
+    EventHeader header = codec.readHeader(ByteBuffer.wrap(codec.serialize(event)));
+
+    assertEquals("tenant." + event.getEventType(), header.getSchemaName());
+    assertEquals("1.0.0", header.getVersion());
+  }
+
+  @Test
+  void fields_unknown_to_an_older_reader_are_skipped() {
+    DomainEvent event = tenantEvents().get(0);
+    BinaryEventWriter writer = new BinaryEventWriter();
+    codec.encode(event, writer);
+    // A field appended by a newer minor version of the schema
+    writer.writeKey(60, WireType.LENGTH_DELIMITED);
+    writer.writeString("added in 1.1");
+    writer.writeKey(61, WireType.VARINT);
+    writer.writeVarint(42);
+
+    assertEquals(event, codec.decode(writer.toByteArray()));
+  }
+
+  @Test
+  void different_major_version_is_rejected() {
+    byte[] encoded = codec.serialize(tenantEvents().get(0));
+    int majorOffset = 3 + encoded[2];
+    encoded[majorOffset] = 2;
+
+    assertThrows(IncompatibleEventSchemaException.class, () -> codec.decode(encoded));
+  }
+
+  @Test
+  void unregistered_schema_is_rejected() {
+    byte[] encoded = codec.serialize(tenantEvents().get(0));
+    BinaryEventCodec other = new BinaryEventCodec(new EventSchemaRegistry());
+
+    assertThrows(IncompatibleEventSchemaException.class, () -> other.decode(encoded));
+  }
+
+  @Test
+  void same_typed_fields_are_rebuilt_by_constructor_parameter_name() {
+    TransferNotedEvent event =
+        new TransferNotedEvent(Instant.parse("2024-03-01T08:00:00Z"), "TO-2", "FROM-1");
+
+    TransferNotedEvent decoded = (TransferNotedEvent) codec.decode(codec.serialize(event));
+
+    assertEquals("FROM-1", decoded.fromAccount);
+    assertEquals("TO-2", decoded.toAccount);
+    assertEquals(event.occurredAt, decoded.occurredAt);
+  }
+
+  @Test
+  void tagged_fields_are_written_in_tag_order_under_their_tags() {
+    RecordSchema schema = RecordSchema.of(TaggedRecord.class, new HashMap<>());
+    BinaryEventWriter writer = new BinaryEventWriter();
+    TaggedRecord record = new TaggedRecord();
+    record.late = "seven";
+    record.early = "two";
+
+    schema.writeFields(writer, record, 0);
+    byte[] encoded = writer.toByteArray();
+    TaggedRecord decoded =
+        (TaggedRecord)
+            schema.read(new BinaryEventReader().wrap(ByteBuffer.wrap(encoded)), encoded.length, 0);
+
+    assertEquals(2 << 3 | WireType.LENGTH_DELIMITED, encoded[0]);
+    assertEquals("seven", decoded.late);
+    assertEquals("two", decoded.early);
+  }
+
+  private static List<DomainEvent> paymentLifecycleEvents() {
+    TenantContext tenant = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+    Payment payment =
+        Payment.initiate(
+            PaymentId.generate(),
+            tenant,
+            Money.zar(new BigDecimal("250.00")),
+            AccountNumber.of("12345678901"),
+            AccountNumber.of("10987654321"),
+            PaymentReference.of("REF-1"),
+            PaymentType.EFT,
+            Priority.NORMAL,
+            "tester",
+            "idem-1");
+    ValidationResult validation =
+        ValidationResult.create(ValidationId.generate(), tenant, payment.getId());
+    validation.completeValidation(true, "tester");
+    payment.validate(validation);
+    payment.submitToClearing(ClearingSystemReference.of("CLR-1"));
+    payment.markCleared(ClearingConfirmation.of("CONF-1"));
+    payment.complete();
+    return new ArrayList<>(payment.getDomainEvents());
+  }
+
+  private static List<DomainEvent> tenantEvents() {
+    Tenant tenant =
+        Tenant.create(
+            TenantId.generate(), "Tenant One", TenantType.BANK, "tenant@example.com", "creator");
+    return new ArrayList<>(tenant.getDomainEvents());
+  }
+
+  /** Takes its same-typed fields in another order than it declares them. */
+  static final class TransferNotedEvent implements DomainEvent {
+    @WireTag(1)
+    private final String fromAccount;
+
+    @WireTag(2)
+    private final String toAccount;
+
+    @WireTag(3)
+    private final Instant occurredAt;
+
+    TransferNotedEvent(Instant occurredAt, String toAccount, String fromAccount) {
+      this.fromAccount = fromAccount;
+      this.toAccount = toAccount;
+      this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public String getEventType() {
+      return "TransferNoted";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+      return occurredAt;
+    }
+  }
+
+  static final class UntaggedEvent implements DomainEvent {
+    String reference;
+    Instant occurredAt;
+
+    @Override
+    public String getEventType() {
+      return "Untagged";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+      return occurredAt;
+    }
+  }
+
+  static final class TaggedRecord {
+    @WireTag(7)
+    String late;
+
+    @WireTag(2)
+    String early;
+  }
+}
@@ -0,0 +1,12 @@
+package com.payments.domain.outbox;
+
+import com.payments.domain.shared.DomainEvent;
+
+/** Turns a domain event into the payload stored in the outbox. */
+public interface DomainEventSerializer {
+
+  /** Recorded with each message so consumers can pick the matching decoder. */
+  String getContentType();
+
+  byte[] serialize(DomainEvent event);
+}
@@ -0,0 +1,13 @@
+package com.payments.domain.outbox;
+
+import java.util.List;
+
+/** Destination the outbox relay publishes to (message broker, event bus, ...). */
+public interface EventSink {
+
+  /**
+   * Publish a batch, preserving list order. Return only once every message is accepted; throw if
+   * any is not, and the whole batch will be offered again.
+   */
+  void publish(List<OutboxMessage> batch);
+}
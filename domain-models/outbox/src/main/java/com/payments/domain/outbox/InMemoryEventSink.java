@@ -0,0 +1,30 @@
+package com.payments.domain.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** {@link EventSink} collecting published messages in memory; for tests and local runs. */
+public class InMemoryEventSink implements EventSink {
+
+  private final List<OutboxMessage> published = new ArrayList<>();
+  private int batchCount;
+
+  @Override
+  public synchronized void publish(List<OutboxMessage> batch) {
+    published.addAll(batch);
+    batchCount++;
+  }
+
+  public synchronized List<OutboxMessage> getPublished() {
+    return new ArrayList<>(published);
+  }
+
+  public synchronized int getBatchCount() {
+    return batchCount;
+  }
+
+  public synchronized void clear() {
+    published.clear();
+    batchCount = 0;
+  }
+}
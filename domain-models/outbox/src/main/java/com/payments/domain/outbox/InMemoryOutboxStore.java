@@ -0,0 +1,43 @@
+package com.payments.domain.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/** {@link OutboxStore} kept in memory; for tests and local runs. Not transactional. */
+public class InMemoryOutboxStore implements OutboxStore {
+
+  private final TreeMap<Long, OutboxMessage> pending = new TreeMap<>();
+  private long nextSequence = 1;
+
+  @Override
+  public synchronized void append(List<OutboxMessage> messages) {
+    for (OutboxMessage message : messages) {
+      long sequence = nextSequence++;
+      pending.put(sequence, message.withSequence(sequence));
+    }
+  }
+
+  @Override
+  public synchronized List<OutboxMessage> fetchUnpublished(int limit) {
+    List<OutboxMessage> batch = new ArrayList<>(Math.min(limit, pending.size()));
+    for (OutboxMessage message : pending.values()) {
+      if (batch.size() == limit) {
+        break;
+      }
+      batch.add(message);
+    }
+    return batch;
+  }
+
+  @Override
+  public synchronized void markPublished(List<OutboxMessage> messages) {
+    for (OutboxMessage message : messages) {
+      pending.remove(message.getSequence());
+    }
+  }
+
+  public synchronized int getPendingCount() {
+    return pending.size();
+  }
+}
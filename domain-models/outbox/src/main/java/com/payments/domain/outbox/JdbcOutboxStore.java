@@ -0,0 +1,121 @@
+package com.payments.domain.outbox;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link OutboxStore} over {@code outbox_events} (V6).
+ *
+ * <p>{@link #append} must run on the connection of the transaction that saves the aggregate, so
+ * pass a transaction-aware {@link DataSource} (one whose {@code getConnection()} returns the
+ * connection bound to the current transaction, and whose {@code close()} releases rather than
+ * closes it).
+ */
+public class JdbcOutboxStore implements OutboxStore {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO outbox_events (event_id, aggregate_type, aggregate_id, event_type,"
+          + " content_type, payload, occurred_at, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String SELECT_UNPUBLISHED_SQL =
+      "SELECT outbox_id, event_id, aggregate_type, aggregate_id, event_type, content_type,"
+          + " payload, occurred_at, tenant_id, business_unit_id FROM outbox_events"
+          + " WHERE published_at IS NULL ORDER BY outbox_id LIMIT ?";
+
+  private static final String MARK_PUBLISHED_SQL =
+      "UPDATE outbox_events SET published_at = ? WHERE outbox_id = ?";
+
+  private final DataSource dataSource;
+  private final Clock clock;
+
+  public JdbcOutboxStore(DataSource dataSource) {
+    this(dataSource, Clock.systemUTC());
+  }
+
+  public JdbcOutboxStore(DataSource dataSource, Clock clock) {
+    this.dataSource = dataSource;
+    this.clock = clock;
+  }
+
+  @Override
+  public void append(List<OutboxMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (OutboxMessage message : messages) {
+        statement.setString(1, message.getEventId());
+        statement.setString(2, message.getAggregateType());
+        statement.setString(3, message.getAggregateId());
+        statement.setString(4, message.getEventType());
+        statement.setString(5, message.getContentType());
+        statement.setBytes(6, message.getPayload());
+        statement.setTimestamp(7, Timestamp.from(message.getOccurredAt()));
+        statement.setString(8, message.getTenantId());
+        statement.setString(9, message.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to append " + messages.size() + " outbox messages", e);
+    }
+  }
+
+  @Override
+  public List<OutboxMessage> fetchUnpublished(int limit) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(SELECT_UNPUBLISHED_SQL)) {
+      statement.setInt(1, limit);
+      try (ResultSet rs = statement.executeQuery()) {
+        List<OutboxMessage> batch = new ArrayList<>(limit);
+        while (rs.next()) {
+          batch.add(
+              OutboxMessage.stored(
+                  rs.getLong(1),
+                  rs.getString(2),
+                  rs.getString(3),
+                  rs.getString(4),
+                  rs.getString(5),
+                  rs.getString(6),
+                  rs.getBytes(7),
+                  rs.getTimestamp(8).toInstant(),
+                  rs.getString(9),
+                  rs.getString(10)));
+        }
+        return batch;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to fetch unpublished outbox messages", e);
+    }
+  }
+
+  @Override
+  public void markPublished(List<OutboxMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.from(clock.instant());
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(MARK_PUBLISHED_SQL)) {
+      for (OutboxMessage message : messages) {
+        statement.setTimestamp(1, now);
+        statement.setLong(2, message.getSequence());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to mark " + messages.size() + " outbox messages published", e);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.payments.domain.outbox;
+
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * One serialized domain event in the outbox ({@code outbox_events}, V6).
+ *
+ * <p>{@code sequence} is assigned by the store on append and defines relay order; it is null on a
+ * message that has not been appended yet.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OutboxMessage {
+  Long sequence;
+  String eventId;
+  String aggregateType;
+  String aggregateId;
+  String eventType;
+  String contentType;
+  byte[] payload;
+  Instant occurredAt;
+  String tenantId;
+  String businessUnitId;
+
+  public static OutboxMessage pending(
+      String eventId,
+      String aggregateType,
+      String aggregateId,
+      String eventType,
+      String contentType,
+      byte[] payload,
+      Instant occurredAt,
+      String tenantId,
+      String businessUnitId) {
+    return new OutboxMessage(
+        null,
+        eventId,
+        aggregateType,
+        aggregateId,
+        eventType,
+        contentType,
+        payload,
+        occurredAt,
+        tenantId,
+        businessUnitId);
+  }
+
+  public static OutboxMessage stored(
+      long sequence,
+      String eventId,
+      String aggregateType,
+      String aggregateId,
+      String eventType,
+      String contentType,
+      byte[] payload,
+      Instant occurredAt,
+      String tenantId,
+      String businessUnitId) {
+    return new OutboxMessage(
+        sequence,
+        eventId,
+        aggregateType,
+        aggregateId,
+        eventType,
+        contentType,
+        payload,
+        occurredAt,
+        tenantId,
+        businessUnitId);
+  }
+
+  OutboxMessage withSequence(long sequence) {
+    return new OutboxMessage(
+        sequence,
+        eventId,
+        aggregateType,
+        aggregateId,
+        eventType,
+        contentType,
+        payload,
+        occurredAt,
+        tenantId,
+        businessUnitId);
+  }
+}
@@ -0,0 +1,149 @@
+package com.payments.domain.outbox;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox relay
+ *
+ * <p>Publishes pending outbox messages to an {@link EventSink} in batches of up to {@code
+ * batchSize}. When fewer are pending it waits up to {@code linger} once for the batch to fill
+ * before publishing what it has; an empty outbox is polled every {@code linger}.
+ *
+ * <p>Ordering: messages are published in sequence order, one batch at a time, and a batch is only
+ * marked published after the sink accepted all of it. A failed batch is retried from its first
+ * message, never skipped, so events of one aggregate reach the sink in the order they were staged.
+ * Delivery is at-least-once (a crash between publish and mark re-publishes the batch); consumers
+ * de-duplicate on event ID. Run a single relay per outbox table.
+ */
+public class OutboxRelay implements AutoCloseable {
+
+  private final OutboxStore store;
+  private final EventSink sink;
+  private final int batchSize;
+  private final long lingerMillis;
+  private final long retryBackoffMillis;
+
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong publishedBatches = new AtomicLong();
+  private final AtomicLong failedBatches = new AtomicLong();
+
+  private volatile boolean running;
+  private Thread worker;
+
+  public OutboxRelay(OutboxStore store, EventSink sink) {
+    this(store, sink, 500, Duration.ofMillis(50), Duration.ofSeconds(1));
+  }
+
+  public OutboxRelay(
+      OutboxStore store, EventSink sink, int batchSize, Duration linger, Duration retryBackoff) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.store = store;
+    this.sink = sink;
+    this.batchSize = batchSize;
+    this.lingerMillis = linger.toMillis();
+    this.retryBackoffMillis = retryBackoff.toMillis();
+  }
+
+  public synchronized void start() {
+    if (worker != null) {
+      throw new IllegalStateException("Outbox relay already started");
+    }
+    running = true;
+    worker = new Thread(this::run, "outbox-relay");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Publish at most one batch without lingering; returns the number of messages published. Lets
+   * callers (and tests) drive the relay without the background thread.
+   */
+  public int relayOnce() {
+    return publish(store.fetchUnpublished(batchSize));
+  }
+
+  public long getPublishedCount() {
+    return published.get();
+  }
+
+  public long getPublishedBatchCount() {
+    return publishedBatches.get();
+  }
+
+  public long getFailedBatchCount() {
+    return failedBatches.get();
+  }
+
+  /** Stops the relay after the batch in progress. Pending messages stay in the outbox. */
+  @Override
+  public void close() {
+    Thread current;
+    synchronized (this) {
+      running = false;
+      current = worker;
+    }
+    if (current == null) {
+      return;
+    }
+    current.interrupt();
+    try {
+      current.join(5_000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void run() {
+    while (running) {
+      try {
+        List<OutboxMessage> batch = store.fetchUnpublished(batchSize);
+        if (batch.isEmpty()) {
+          Thread.sleep(lingerMillis);
+          continue;
+        }
+        if (batch.size() < batchSize && lingerMillis > 0) {
+          Thread.sleep(lingerMillis);
+          batch = store.fetchUnpublished(batchSize);
+        }
+        publish(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        failedBatches.incrementAndGet();
+        if (!backOff()) {
+          return;
+        }
+      }
+    }
+  }
+
+  private int publish(List<OutboxMessage> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    sink.publish(batch);
+    store.markPublished(batch);
+    published.addAndGet(batch.size());
+    publishedBatches.incrementAndGet();
+    return batch.size();
+  }
+
+  private boolean backOff() {
+    try {
+      Thread.sleep(retryBackoffMillis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.payments.domain.outbox;
+
+import java.util.List;
+
+/** Port for the outbox table. */
+public interface OutboxStore {
+
+  /**
+   * Append messages in list order. Must join the caller's transaction so the messages commit or
+   * roll back together with the aggregate.
+   */
+  void append(List<OutboxMessage> messages);
+
+  /** Oldest unpublished messages, at most {@code limit}, in ascending sequence order. */
+  List<OutboxMessage> fetchUnpublished(int limit);
+
+  void markPublished(List<OutboxMessage> messages);
+}
@@ -0,0 +1,63 @@
+package com.payments.domain.outbox;
+
+import com.payments.domain.shared.DomainEvent;
+import com.payments.domain.shared.DomainEventSource;
+import com.payments.domain.shared.Ids;
+import com.payments.domain.shared.TenantContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox
+ *
+ * <p>Moves an aggregate's pending domain events into the outbox inside the transaction that saves
+ * the aggregate, then clears them from the aggregate. Call {@code stage} after the aggregate row
+ * has been written: the row lock serializes concurrent saves of the same aggregate, so their events
+ * get increasing sequences and the relay publishes them in order.
+ */
+public class TransactionalOutbox {
+
+  private final OutboxStore store;
+  private final DomainEventSerializer serializer;
+
+  public TransactionalOutbox(OutboxStore store, DomainEventSerializer serializer) {
+    this.store = store;
+    this.serializer = serializer;
+  }
+
+  /** Stage the aggregate's events; returns how many were written. */
+  public int stage(
+      String aggregateType, String aggregateId, TenantContext tenant, DomainEventSource aggregate) {
+    return stage(
+        aggregateType, aggregateId, tenant.getTenantId(), tenant.getBusinessUnitId(), aggregate);
+  }
+
+  public int stage(
+      String aggregateType,
+      String aggregateId,
+      String tenantId,
+      String businessUnitId,
+      DomainEventSource aggregate) {
+    List<DomainEvent> events = aggregate.getDomainEvents();
+    if (events.isEmpty()) {
+      return 0;
+    }
+    List<OutboxMessage> messages = new ArrayList<>(events.size());
+    for (DomainEvent event : events) {
+      messages.add(
+          OutboxMessage.pending(
+              Ids.next("EVT-"),
+              aggregateType,
+              aggregateId,
+              event.getEventType(),
+              serializer.getContentType(),
+              serializer.serialize(event),
+              event.getOccurredAt(),
+              tenantId,
+              businessUnitId));
+    }
+    store.append(messages);
+    aggregate.clearDomainEvents();
+    return messages.size();
+  }
+}
@@ -0,0 +1,128 @@
+package com.payments.domain.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class OutboxRelayTest {
+
+  private static final DomainEventSerializer SERIALIZER =
+      new DomainEventSerializer() {
+        @Override
+        public String getContentType() {
+          return "text/plain";
+        }
+
+        @Override
+        public byte[] serialize(DomainEvent event) {
+          return event.getEventType().getBytes(StandardCharsets.UTF_8);
+        }
+      };
+
+  private final InMemoryOutboxStore store = new InMemoryOutboxStore();
+  private final InMemoryEventSink sink = new InMemoryEventSink();
+  private final TransactionalOutbox outbox = new TransactionalOutbox(store, SERIALIZER);
+  private final TenantContext tenant = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+
+  @Test
+  void stage_moves_events_into_outbox_and_clears_aggregate() {
+    StubAggregate aggregate = new StubAggregate("A1", 3);
+
+    assertEquals(3, outbox.stage("Stub", "A1", tenant, aggregate));
+    assertTrue(aggregate.getDomainEvents().isEmpty());
+    assertEquals(3, store.getPendingCount());
+  }
+
+  @Test
+  void relay_publishes_in_batches_preserving_per_aggregate_order() {
+    outbox.stage("Stub", "A1", tenant, new StubAggregate("A1", 3));
+    outbox.stage("Stub", "A2", tenant, new StubAggregate("A2", 2));
+    outbox.stage("Stub", "A1", tenant, new StubAggregate("A1", 2, 3));
+    OutboxRelay relay = new OutboxRelay(store, sink, 3, Duration.ZERO, Duration.ZERO);
+
+    while (relay.relayOnce() > 0) {}
+
+    assertEquals(3, sink.getBatchCount());
+    assertEquals(0, store.getPendingCount());
+    assertEquals(
+        List.of("A1-0", "A1-1", "A1-2", "A1-3", "A1-4"), eventTypesOf(sink.getPublished(), "A1"));
+    assertEquals(List.of("A2-0", "A2-1"), eventTypesOf(sink.getPublished(), "A2"));
+  }
+
+  @Test
+  void failed_batch_is_retried_without_skipping() {
+    outbox.stage("Stub", "A1", tenant, new StubAggregate("A1", 4));
+    FailingOnceSink failing = new FailingOnceSink();
+    OutboxRelay relay = new OutboxRelay(store, failing, 2, Duration.ZERO, Duration.ZERO);
+
+    assertThrows(IllegalStateException.class, relay::relayOnce);
+    assertEquals(4, store.getPendingCount());
+    while (relay.relayOnce() > 0) {}
+
+    assertEquals(
+        List.of("A1-0", "A1-1", "A1-2", "A1-3"), eventTypesOf(failing.getPublished(), "A1"));
+  }
+
+  private static List<String> eventTypesOf(List<OutboxMessage> messages, String aggregateId) {
+    return messages.stream()
+        .filter(m -> m.getAggregateId().equals(aggregateId))
+        .map(OutboxMessage::getEventType)
+        .collect(Collectors.toList());
+  }
+
+  private static class FailingOnceSink extends InMemoryEventSink {
+    private boolean failed;
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+      if (!failed) {
+        failed = true;
+        throw new IllegalStateException("broker unavailable");
+      }
+      super.publish(batch);
+    }
+  }
+
+  private static class StubAggregate implements DomainEventSource {
+    private final List<DomainEvent> events = new ArrayList<>();
+
+    StubAggregate(String id, int count) {
+      this(id, count, 0);
+    }
+
+    StubAggregate(String id, int count, int offset) {
+      for (int i = 0; i < count; i++) {
+        String type = id + "-" + (offset + i);
+        events.add(
+            new DomainEvent() {
+              @Override
+              public String getEventType() {
+                return type;
+              }
+
+              @Override
+              public Instant getOccurredAt() {
+                return Instant.EPOCH;
+              }
+            });
+      }
+    }
+
+    @Override
+    public List<DomainEvent> getDomainEvents() {
+      return List.copyOf(events);
+    }
+
+    @Override
+    public void clearDomainEvents() {
+      events.clear();
+    }
+  }
+}
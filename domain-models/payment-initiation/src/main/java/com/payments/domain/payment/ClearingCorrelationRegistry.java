@@ -0,0 +1,433 @@
+package com.payments.domain.payment;
+
+import com.payments.domain.shared.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Payments in {@code CLEARING} by their {@link ClearingSystemReference}, until the network's
+ * asynchronous pacs.002 or callback arrives or the payment times out
+ *
+ * <ul>
+ *   <li>references are spread over shards, each an open-addressing table under its own lock; a
+ *       pending payment is one {@link PendingClearing}, which is also its future, so a million in
+ *       flight cost no map nodes, boxed keys or timer tasks
+ *   <li>each shard keeps its deadlines on a hashed timing wheel of {@code tickDuration} slots;
+ *       registering, confirming and rejecting are constant time, and a tick only visits the slots
+ *       it passes
+ *   <li>payments past their deadline are taken out every tick, their futures fail with {@link
+ *       ClearingNotConfirmedException}, and they are handed to the {@link ClearingTimeoutHandler}
+ *       in batches of {@code expiryBatchSize}. A batch the handler throws on is handed over again
+ *       on the next tick
+ * </ul>
+ *
+ * <p>A response that arrives after its payment expired, or twice, matches nothing and is counted as
+ * unmatched. Futures complete on the thread that confirms, rejects or expires them.
+ */
+public class ClearingCorrelationRegistry implements AutoCloseable {
+
+  private static final int SHARD_BITS = 6;
+  private static final int SHARDS = 1 << SHARD_BITS;
+  private static final int WHEEL_SLOTS = 512;
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final Shard[] shards = new Shard[SHARDS];
+  private final ClearingTimeoutHandler timeoutHandler;
+  private final long tickMillis;
+  private final int expiryBatchSize;
+  private final Clock clock;
+  // Batches the handler failed on, for the next tick
+  private final ConcurrentLinkedQueue<List<PendingClearing>> unhandled =
+      new ConcurrentLinkedQueue<>();
+  private final ScheduledExecutorService ticker;
+
+  private final LongAdder registered = new LongAdder();
+  private final LongAdder confirmed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+  private final LongAdder unmatched = new LongAdder();
+  private final LongAdder failedExpiryBatches = new LongAdder();
+
+  public ClearingCorrelationRegistry(ClearingTimeoutHandler timeoutHandler) {
+    this(timeoutHandler, Duration.ofMillis(100), 1_000, Clock.systemUTC());
+  }
+
+  /**
+   * @param tickDuration resolution of the deadlines, and how often expired payments are failed
+   * @param expiryBatchSize most payments handed to {@code timeoutHandler} at once
+   */
+  public ClearingCorrelationRegistry(
+      ClearingTimeoutHandler timeoutHandler,
+      Duration tickDuration,
+      int expiryBatchSize,
+      Clock clock) {
+    if (tickDuration.toMillis() < 1 || expiryBatchSize < 1) {
+      throw new IllegalArgumentException("Tick and expiry batch size must be positive");
+    }
+    this.timeoutHandler = timeoutHandler;
+    this.tickMillis = tickDuration.toMillis();
+    this.expiryBatchSize = expiryBatchSize;
+    this.clock = clock;
+    long tick = clock.millis() / tickMillis;
+    for (int i = 0; i < SHARDS; i++) {
+      shards[i] = new Shard(tick);
+    }
+    this.ticker =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "clearing-correlation-expiry");
+              thread.setDaemon(true);
+              return thread;
+            });
+    ticker.scheduleWithFixedDelay(
+        this::expireOverdueQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // CORRELATION
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Wait for the network's response to a payment just submitted with {@code reference}.
+   *
+   * @param timeout how long the network has to answer before the payment is failed
+   * @return completes with the confirmation, or exceptionally once rejected or expired
+   * @throws IllegalArgumentException if the reference is already pending
+   */
+  public PendingClearing register(
+      ClearingSystemReference reference,
+      PaymentId paymentId,
+      TenantContext tenantContext,
+      Duration timeout) {
+    long deadline = clock.millis() + timeout.toMillis();
+    int hash = hash(reference);
+    PendingClearing pending =
+        new PendingClearing(
+            reference,
+            paymentId,
+            tenantContext,
+            deadline,
+            hash,
+            Math.floorDiv(deadline + tickMillis - 1, tickMillis));
+    if (!shard(hash).add(pending)) {
+      throw new IllegalArgumentException(
+          "Clearing reference " + reference.getValue() + " is already pending");
+    }
+    registered.increment();
+    return pending;
+  }
+
+  /**
+   * The network confirmed the payment: complete its future with {@code confirmation}.
+   *
+   * @return the payment, to {@link Payment#markCleared}; null if nothing was pending for the
+   *     reference, because the payment expired or was answered already
+   */
+  public PendingClearing confirm(
+      ClearingSystemReference reference, ClearingConfirmation confirmation) {
+    PendingClearing pending = remove(reference);
+    if (pending != null) {
+      confirmed.increment();
+      pending.complete(confirmation);
+    }
+    return pending;
+  }
+
+  /**
+   * The network rejected the payment: fail its future with {@code reason}.
+   *
+   * @return the payment, to {@link Payment#fail}; null if nothing was pending for the reference
+   */
+  public PendingClearing reject(ClearingSystemReference reference, String reason) {
+    PendingClearing pending = remove(reference);
+    if (pending != null) {
+      rejected.increment();
+      pending.completeExceptionally(
+          new ClearingNotConfirmedException(
+              "Clearing rejected payment " + pending.getPaymentId().getValue() + ": " + reason,
+              false));
+    }
+    return pending;
+  }
+
+  /** Payments waiting for a response. */
+  public int size() {
+    int size = 0;
+    for (Shard shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  public long getRegisteredCount() {
+    return registered.sum();
+  }
+
+  public long getConfirmedCount() {
+    return confirmed.sum();
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  public long getExpiredCount() {
+    return expired.sum();
+  }
+
+  /** Responses for references that were not pending: late, repeated or unknown. */
+  public long getUnmatchedCount() {
+    return unmatched.sum();
+  }
+
+  public long getFailedExpiryBatchCount() {
+    return failedExpiryBatches.sum();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // EXPIRY
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Take out every payment past its deadline, fail its future and hand it to the timeout handler.
+   * Runs every tick; batches the handler failed on before are handed over first.
+   *
+   * @return the payments that expired
+   */
+  public synchronized int expireOverdue() {
+    for (int retries = unhandled.size(); retries > 0; retries--) {
+      List<PendingClearing> batch = unhandled.poll();
+      if (batch != null) {
+        handOver(batch);
+      }
+    }
+    long tick = clock.millis() / tickMillis;
+    List<PendingClearing> due = new ArrayList<>();
+    int count = 0;
+    for (Shard shard : shards) {
+      shard.advance(tick, due);
+      while (due.size() >= expiryBatchSize) {
+        count += expire(due.subList(0, expiryBatchSize));
+      }
+    }
+    if (!due.isEmpty()) {
+      count += expire(due);
+    }
+    return count;
+  }
+
+  /** Stop the ticker and hand over what is due; payments still pending stay in clearing. */
+  @Override
+  public void close() {
+    ticker.shutdown();
+    try {
+      ticker.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    expireOverdueQuietly();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private PendingClearing remove(ClearingSystemReference reference) {
+    int hash = hash(reference);
+    PendingClearing pending = shard(hash).remove(reference, hash);
+    if (pending == null) {
+      unmatched.increment();
+    }
+    return pending;
+  }
+
+  /** Fail and hand over the payments, then clear the list. */
+  private int expire(List<PendingClearing> due) {
+    List<PendingClearing> batch = new ArrayList<>(due);
+    due.clear();
+    for (PendingClearing pending : batch) {
+      pending.completeExceptionally(
+          new ClearingNotConfirmedException(
+              "No clearing response for payment "
+                  + pending.getPaymentId().getValue()
+                  + " by "
+                  + pending.getDeadline(),
+              true));
+    }
+    expired.add(batch.size());
+    handOver(batch);
+    return batch.size();
+  }
+
+  private void handOver(List<PendingClearing> batch) {
+    try {
+      timeoutHandler.onTimeout(batch);
+    } catch (RuntimeException e) {
+      failedExpiryBatches.increment();
+      unhandled.add(batch);
+    }
+  }
+
+  private void expireOverdueQuietly() {
+    try {
+      expireOverdue();
+    } catch (RuntimeException e) {
+      // Whatever is due is taken out on the next tick
+    }
+  }
+
+  private Shard shard(int hash) {
+    return shards[hash >>> (Integer.SIZE - SHARD_BITS)];
+  }
+
+  /** Top bits pick the shard, low bits the table slot. */
+  private static int hash(ClearingSystemReference reference) {
+    int h = reference.getValue().hashCode();
+    return (h ^ (h >>> 16)) * 0x9E3779B9;
+  }
+
+  /**
+   * Linear-probing table of the shard's pending payments, with backward-shift deletion so no
+   * tombstones build up, and the timing wheel: per slot a doubly linked list through the entries.
+   */
+  private static final class Shard {
+    private PendingClearing[] table = new PendingClearing[INITIAL_CAPACITY];
+    private final PendingClearing[] wheel = new PendingClearing[WHEEL_SLOTS];
+    private int size;
+    // Last tick expired
+    private long tick;
+
+    Shard(long tick) {
+      this.tick = tick;
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized boolean add(PendingClearing pending) {
+      int mask = table.length - 1;
+      int i = pending.hash & mask;
+      for (PendingClearing entry = table[i]; entry != null; entry = table[i]) {
+        if (entry.hash == pending.hash && entry.getReference().equals(pending.getReference())) {
+          return false;
+        }
+        i = (i + 1) & mask;
+      }
+      table[i] = pending;
+      if (++size * 2 > table.length) {
+        resize();
+      }
+      // Already due: expires on the next tick
+      link(pending, (int) (Math.max(pending.deadlineTick, tick + 1) & (WHEEL_SLOTS - 1)));
+      return true;
+    }
+
+    synchronized PendingClearing remove(ClearingSystemReference reference, int hash) {
+      int mask = table.length - 1;
+      int i = hash & mask;
+      for (PendingClearing entry = table[i]; entry != null; entry = table[i]) {
+        if (entry.hash == hash && entry.getReference().equals(reference)) {
+          delete(i);
+          unlink(entry);
+          return entry;
+        }
+        i = (i + 1) & mask;
+      }
+      return null;
+    }
+
+    /** Move the payments due by {@code now} to {@code due}. */
+    synchronized void advance(long now, List<PendingClearing> due) {
+      if (now <= tick) {
+        return;
+      }
+      // Past a whole revolution every slot is visited once
+      long from = Math.max(tick + 1, now - WHEEL_SLOTS + 1);
+      for (long t = from; t <= now; t++) {
+        PendingClearing entry = wheel[(int) (t & (WHEEL_SLOTS - 1))];
+        while (entry != null) {
+          PendingClearing next = entry.next;
+          if (entry.deadlineTick <= now) {
+            unlink(entry);
+            delete(indexOf(entry));
+            due.add(entry);
+          }
+          entry = next;
+        }
+      }
+      tick = now;
+    }
+
+    private int indexOf(PendingClearing pending) {
+      int mask = table.length - 1;
+      int i = pending.hash & mask;
+      while (table[i] != pending) {
+        i = (i + 1) & mask;
+      }
+      return i;
+    }
+
+    private void delete(int i) {
+      int mask = table.length - 1;
+      table[i] = null;
+      size--;
+      for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+        int home = table[j].hash & mask;
+        // Shift back unless the entry's home lies cyclically in (i, j]
+        boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+        if (!stays) {
+          table[i] = table[j];
+          table[j] = null;
+          i = j;
+        }
+      }
+    }
+
+    private void resize() {
+      PendingClearing[] old = table;
+      table = new PendingClearing[old.length * 2];
+      int mask = table.length - 1;
+      for (PendingClearing entry : old) {
+        if (entry != null) {
+          int i = entry.hash & mask;
+          while (table[i] != null) {
+            i = (i + 1) & mask;
+          }
+          table[i] = entry;
+        }
+      }
+    }
+
+    private void link(PendingClearing pending, int slot) {
+      PendingClearing head = wheel[slot];
+      pending.wheelSlot = slot;
+      pending.previous = null;
+      pending.next = head;
+      if (head != null) {
+        head.previous = pending;
+      }
+      wheel[slot] = pending;
+    }
+
+    private void unlink(PendingClearing pending) {
+      if (pending.previous != null) {
+        pending.previous.next = pending.next;
+      } else {
+        wheel[pending.wheelSlot] = pending.next;
+      }
+      if (pending.next != null) {
+        pending.next.previous = pending.previous;
+      }
+      pending.previous = null;
+      pending.next = null;
+    }
+  }
+}
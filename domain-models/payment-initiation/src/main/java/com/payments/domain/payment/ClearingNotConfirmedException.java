@@ -0,0 +1,20 @@
+package com.payments.domain.payment;
+
+/**
+ * The network rejected a payment in clearing, or did not answer before its deadline. Thrown in bulk
+ * on expiry, so it carries no stack trace.
+ */
+public class ClearingNotConfirmedException extends RuntimeException {
+
+  private final boolean timedOut;
+
+  public ClearingNotConfirmedException(String message, boolean timedOut) {
+    super(message, null, false, false);
+    this.timedOut = timedOut;
+  }
+
+  /** Whether the payment expired rather than being rejected by the network. */
+  public boolean isTimedOut() {
+    return timedOut;
+  }
+}
@@ -0,0 +1,13 @@
+package com.payments.domain.payment;
+
+import java.util.List;
+
+/** Fails the payments whose clearing response did not arrive in time, a batch at a time. */
+public interface ClearingTimeoutHandler {
+
+  /**
+   * Load the payments, {@link Payment#fail} them and save them. Throw to have the whole batch
+   * handed over again on the next tick; failing a payment must therefore be idempotent.
+   */
+  void onTimeout(List<PendingClearing> expired);
+}
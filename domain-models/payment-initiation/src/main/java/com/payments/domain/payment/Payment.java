@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Currency;
 import java.util.List;
 import lombok.*;
 
@@ -25,7 +26,7 @@ import lombok.*;
           columnNames = {"tenant_id", "idempotency_key"})
     })
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // For JPA
-public class Payment {
+public class Payment implements DomainEventSource {
 
   @EmbeddedId
   @AttributeOverride(name = "value", column = @Column(name = "payment_id"))
@@ -38,12 +39,13 @@ public class Payment {
   })
   private TenantContext tenantContext;
 
-  @Embedded
-  @AttributeOverrides({
-    @AttributeOverride(name = "amount", column = @Column(name = "amount")),
-    @AttributeOverride(name = "currency", column = @Column(name = "currency"))
-  })
-  private Money amount;
+  // Minor units of the currency, as CompactMoney holds them
+  @Convert(converter = MinorUnitsConverter.class)
+  @Column(name = "amount")
+  private long amount;
+
+  @Column(name = "currency")
+  private Currency currency;
 
   @Embedded
   @AttributeOverride(name = "value", column = @Column(name = "source_account"))
@@ -102,6 +104,12 @@ public class Payment {
     if (amount.isNegativeOrZero()) {
       throw new InvalidPaymentException("Amount must be positive");
     }
+    CompactMoney compact;
+    try {
+      compact = amount.toCompact();
+    } catch (ArithmeticException e) {
+      throw new InvalidPaymentException("Amount out of range: " + amount.getAmount());
+    }
 
     if (sourceAccount.equals(destinationAccount)) {
       throw new InvalidPaymentException("Source and destination accounts must be different");
@@ -115,7 +123,8 @@ public class Payment {
     Payment payment = new Payment();
     payment.id = id;
     payment.tenantContext = tenantContext;
-    payment.amount = amount;
+    payment.amount = compact.getMinorUnits();
+    payment.currency = compact.getCurrency();
     payment.sourceAccount = sourceAccount;
     payment.destinationAccount = destinationAccount;
     payment.reference = reference;
@@ -134,7 +143,7 @@ public class Payment {
         new PaymentInitiatedEvent(
             payment.id,
             payment.tenantContext,
-            payment.amount,
+            payment.getAmount(),
             payment.sourceAccount,
             payment.destinationAccount,
             payment.paymentType,
@@ -214,7 +223,7 @@ public class Payment {
         PaymentStatus.CLEARED, PaymentStatus.COMPLETED, "Payment completed successfully");
 
     registerEvent(
-        new PaymentCompletedEvent(this.id, this.tenantContext, this.amount, this.completedAt));
+        new PaymentCompletedEvent(this.id, this.tenantContext, getAmount(), this.completedAt));
   }
 
   /** Fail the payment Can be called from any non-final state */
@@ -253,7 +262,12 @@ public class Payment {
   }
 
   public Money getAmount() {
-    return amount; // Money is immutable, safe to return
+    return Money.ofMinorUnits(amount, currency);
+  }
+
+  /** The amount without a BigDecimal, for hot paths. */
+  public CompactMoney getCompactAmount() {
+    return CompactMoney.ofMinor(amount, currency);
   }
 
   public PaymentStatus getStatus() {
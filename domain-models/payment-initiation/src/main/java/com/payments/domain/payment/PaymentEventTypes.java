@@ -0,0 +1,19 @@
+package com.payments.domain.payment;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Payment aggregate, for event codec registration. */
+public final class PaymentEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(
+          PaymentInitiatedEvent.class,
+          PaymentValidatedEvent.class,
+          PaymentSubmittedToClearingEvent.class,
+          PaymentClearedEvent.class,
+          PaymentCompletedEvent.class,
+          PaymentFailedEvent.class);
+
+  private PaymentEventTypes() {}
+}
@@ -3,6 +3,7 @@ package com.payments.domain.payment;
 import com.payments.domain.shared.DomainEvent;
 import com.payments.domain.shared.PaymentId;
 import com.payments.domain.shared.TenantContext;
+import com.payments.domain.shared.WireTag;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Value;
@@ -10,12 +11,25 @@ import lombok.Value;
 @Value
 @AllArgsConstructor
 class PaymentInitiatedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   com.payments.domain.shared.Money amount;
+
+  @WireTag(4)
   com.payments.domain.shared.AccountNumber sourceAccount;
+
+  @WireTag(5)
   com.payments.domain.shared.AccountNumber destinationAccount;
+
+  @WireTag(6)
   PaymentType paymentType;
+
+  @WireTag(7)
   Instant initiatedAt;
 
   @Override
@@ -32,8 +46,13 @@ class PaymentInitiatedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class PaymentValidatedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   com.payments.domain.validation.ValidationResult validationResult;
 
   @Override
@@ -50,8 +69,13 @@ class PaymentValidatedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class PaymentSubmittedToClearingEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   ClearingSystemReference clearingSystemReference;
 
   @Override
@@ -68,8 +92,13 @@ class PaymentSubmittedToClearingEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class PaymentClearedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   ClearingConfirmation clearingConfirmation;
 
   @Override
@@ -86,9 +115,16 @@ class PaymentClearedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class PaymentCompletedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   com.payments.domain.shared.Money amount;
+
+  @WireTag(4)
   Instant completedAt;
 
   @Override
@@ -105,9 +141,16 @@ class PaymentCompletedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class PaymentFailedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   String reason;
+
+  @WireTag(4)
   PaymentStatus previousStatus;
 
   @Override
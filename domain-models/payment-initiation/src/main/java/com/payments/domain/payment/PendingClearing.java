@@ -0,0 +1,60 @@
+package com.payments.domain.payment;
+
+import com.payments.domain.shared.*;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A payment in {@code CLEARING} waiting for the network's response, as held by {@link
+ * ClearingCorrelationRegistry}.
+ *
+ * <p>Completes with the confirmation, or exceptionally with {@link ClearingNotConfirmedException}
+ * when the network rejects the payment or does not answer in time. The entry is its own future, so
+ * a pending payment costs one object besides the registry's table slot.
+ */
+public final class PendingClearing extends CompletableFuture<ClearingConfirmation> {
+
+  private final ClearingSystemReference reference;
+  private final PaymentId paymentId;
+  private final TenantContext tenantContext;
+  private final long deadlineMillis;
+
+  // Owned by the registry shard, under its lock
+  final int hash;
+  final long deadlineTick;
+  int wheelSlot;
+  PendingClearing previous;
+  PendingClearing next;
+
+  PendingClearing(
+      ClearingSystemReference reference,
+      PaymentId paymentId,
+      TenantContext tenantContext,
+      long deadlineMillis,
+      int hash,
+      long deadlineTick) {
+    this.reference = reference;
+    this.paymentId = paymentId;
+    this.tenantContext = tenantContext;
+    this.deadlineMillis = deadlineMillis;
+    this.hash = hash;
+    this.deadlineTick = deadlineTick;
+  }
+
+  public ClearingSystemReference getReference() {
+    return reference;
+  }
+
+  public PaymentId getPaymentId() {
+    return paymentId;
+  }
+
+  public TenantContext getTenantContext() {
+    return tenantContext;
+  }
+
+  /** When the payment times out if the network has not answered. */
+  public Instant getDeadline() {
+    return Instant.ofEpochMilli(deadlineMillis);
+  }
+}
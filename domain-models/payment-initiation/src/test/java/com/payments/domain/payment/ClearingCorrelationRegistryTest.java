@@ -0,0 +1,183 @@
+package com.payments.domain.payment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.Test;
+
+class ClearingCorrelationRegistryTest {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-03-01T08:00:00Z"));
+  private final RecordingTimeoutHandler handler = new RecordingTimeoutHandler();
+
+  @Test
+  void confirmation_completes_the_pending_payment_once() throws Exception {
+    try (ClearingCorrelationRegistry registry = registry(100)) {
+      PaymentId paymentId = PaymentId.generate();
+      PendingClearing pending =
+          registry.register(
+              ClearingSystemReference.of("RTC-1"), paymentId, TENANT, Duration.ofSeconds(30));
+
+      assertThrows(
+          IllegalArgumentException.class,
+          () ->
+              registry.register(
+                  ClearingSystemReference.of("RTC-1"),
+                  PaymentId.generate(),
+                  TENANT,
+                  Duration.ofSeconds(30)));
+      assertSame(
+          pending,
+          registry.confirm(ClearingSystemReference.of("RTC-1"), ClearingConfirmation.of("C-1")));
+      assertEquals("C-1", pending.get().getConfirmationNumber());
+      assertEquals(paymentId, pending.getPaymentId());
+
+      assertNull(
+          registry.confirm(ClearingSystemReference.of("RTC-1"), ClearingConfirmation.of("C-1")));
+      assertEquals(0, registry.size());
+      assertEquals(1, registry.getConfirmedCount());
+      assertEquals(1, registry.getUnmatchedCount());
+    }
+  }
+
+  @Test
+  void overdue_payments_expire_in_batches() {
+    try (ClearingCorrelationRegistry registry = registry(2)) {
+      List<PendingClearing> early = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        early.add(register(registry, "EFT-" + i, Duration.ofSeconds(10)));
+      }
+      PendingClearing later = register(registry, "EFT-LATER", Duration.ofMinutes(5));
+      PendingClearing rejected = register(registry, "EFT-REJECTED", Duration.ofSeconds(10));
+      registry.reject(ClearingSystemReference.of("EFT-REJECTED"), "AC01");
+
+      clock.advance(Duration.ofMillis(9_999));
+      registry.expireOverdue();
+      assertTrue(handler.expired.isEmpty());
+      clock.advance(Duration.ofMillis(1));
+      registry.expireOverdue();
+
+      assertEquals(List.of(2, 2, 1), handler.batchSizes);
+      assertEquals(Set.copyOf(early), Set.copyOf(handler.expired));
+      ExecutionException timedOut = assertThrows(ExecutionException.class, early.get(0)::get);
+      assertTrue(((ClearingNotConfirmedException) timedOut.getCause()).isTimedOut());
+      ExecutionException refused = assertThrows(ExecutionException.class, rejected::get);
+      assertFalse(((ClearingNotConfirmedException) refused.getCause()).isTimedOut());
+      assertNull(
+          registry.confirm(ClearingSystemReference.of("EFT-0"), ClearingConfirmation.of("LATE")));
+      assertFalse(later.isDone());
+      assertEquals(1, registry.size());
+    }
+  }
+
+  @Test
+  void a_failed_expiry_batch_is_handed_over_again() {
+    try (ClearingCorrelationRegistry registry = registry(100)) {
+      register(registry, "PSH-1", Duration.ofSeconds(1));
+      handler.failures = 1;
+
+      clock.advance(Duration.ofSeconds(1));
+      registry.expireOverdue();
+      registry.expireOverdue();
+
+      assertEquals(1, registry.getFailedExpiryBatchCount());
+      assertEquals(1, handler.expired.size());
+      assertEquals(1, registry.getExpiredCount());
+    }
+  }
+
+  @Test
+  void many_payments_across_wheel_revolutions_all_resolve() {
+    int payments = 200_000;
+    try (ClearingCorrelationRegistry registry = registry(1_000)) {
+      // Deadlines up to 20 minutes out: several revolutions of the 512 tick wheel
+      for (int i = 0; i < payments; i++) {
+        register(registry, "REF-" + i, Duration.ofMillis(100L * (i % 12_000)));
+      }
+      for (int i = 0; i < payments; i += 2) {
+        assertNotNull(
+            registry.confirm(ClearingSystemReference.of("REF-" + i), ClearingConfirmation.of("C")));
+      }
+      assertEquals(payments / 2, registry.size());
+
+      for (int minute = 0; minute <= 20; minute++) {
+        registry.expireOverdue();
+        clock.advance(Duration.ofMinutes(1));
+      }
+      registry.expireOverdue();
+
+      assertEquals(payments / 2, handler.expired.size());
+      assertEquals(0, registry.size());
+      for (PendingClearing pending : handler.expired) {
+        assertFalse(pending.getDeadline().isAfter(clock.instant()));
+      }
+    }
+  }
+
+  private ClearingCorrelationRegistry registry(int expiryBatchSize) {
+    return new ClearingCorrelationRegistry(handler, Duration.ofMillis(100), expiryBatchSize, clock);
+  }
+
+  private PendingClearing register(
+      ClearingCorrelationRegistry registry, String reference, Duration timeout) {
+    return registry.register(
+        ClearingSystemReference.of(reference), PaymentId.generate(), TENANT, timeout);
+  }
+
+  private static final class RecordingTimeoutHandler implements ClearingTimeoutHandler {
+    // Also called by the registry's own ticker
+    final List<PendingClearing> expired = new CopyOnWriteArrayList<>();
+    final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    volatile int failures;
+
+    @Override
+    public synchronized void onTimeout(List<PendingClearing> batch) {
+      if (failures > 0) {
+        failures--;
+        throw new IllegalStateException("Payment store unavailable");
+      }
+      batchSizes.add(batch.size());
+      expired.addAll(batch);
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
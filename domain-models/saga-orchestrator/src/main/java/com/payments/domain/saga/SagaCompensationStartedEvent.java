@@ -8,8 +8,13 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class SagaCompensationStartedEvent implements DomainEvent {
+  @WireTag(1)
   SagaId sagaId;
+
+  @WireTag(2)
   SagaStepId stepId;
+
+  @WireTag(3)
   String stepName;
 
   @Override
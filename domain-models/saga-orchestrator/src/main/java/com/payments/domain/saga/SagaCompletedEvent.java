@@ -8,8 +8,13 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class SagaCompletedEvent implements DomainEvent {
+  @WireTag(1)
   SagaId sagaId;
+
+  @WireTag(2)
   String sagaName;
+
+  @WireTag(3)
   Instant completedAt;
 
   @Override
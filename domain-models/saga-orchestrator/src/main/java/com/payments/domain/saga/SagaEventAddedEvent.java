@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class SagaEventAddedEvent implements DomainEvent {
+  @WireTag(1)
   SagaId sagaId;
+
+  @WireTag(2)
   SagaEventId eventId;
+
+  @WireTag(3)
   String eventType;
+
+  @WireTag(4)
   String eventSource;
 
   @Override
@@ -0,0 +1,23 @@
+package com.payments.domain.saga;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Saga Orchestrator aggregate, for event codec registration. */
+public final class SagaEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(
+          SagaStartedEvent.class,
+          SagaStepAddedEvent.class,
+          SagaStepExecutedEvent.class,
+          SagaStepCompletedEvent.class,
+          SagaStepFailedEvent.class,
+          SagaEventAddedEvent.class,
+          SagaCompletedEvent.class,
+          SagaCompensationStartedEvent.class,
+          SagaStepCompensatedEvent.class,
+          SagaCompensatedEvent.class);
+
+  private SagaEventTypes() {}
+}
@@ -17,7 +17,7 @@ import lombok.*;
 @Entity
 @Table(name = "saga_orchestrators")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class SagaOrchestrator {
+public class SagaOrchestrator implements DomainEventSource {
 
   @EmbeddedId private SagaId id;
 
@@ -68,6 +68,9 @@ public class SagaOrchestrator {
 
   @Transient private List<DomainEvent> domainEvents = new ArrayList<>();
 
+  // Built lazily so sagas loaded by JPA get indexed on first use
+  @Transient private SagaStepIndex stepIndex;
+
   // ─────────────────────────────────────────────────────────
   // FACTORY METHOD
   // ─────────────────────────────────────────────────────────
@@ -129,6 +132,7 @@ public class SagaOrchestrator {
             stepId, this.id, stepName, serviceName, action, compensationAction, order, addedBy);
 
     this.steps.add(step);
+    stepIndex().add(step);
     this.totalSteps = this.steps.size();
     this.lastUpdatedAt = Instant.now();
 
@@ -167,7 +171,9 @@ public class SagaOrchestrator {
       throw new InvalidSagaException("Step not found: " + stepId);
     }
 
+    StepStatus previous = step.getStatus();
     step.markCompleted(result, completedBy);
+    stepIndex().onStatusChange(step, previous);
     this.completedSteps++;
     this.lastUpdatedAt = Instant.now();
 
@@ -190,7 +196,9 @@ public class SagaOrchestrator {
       throw new InvalidSagaException("Step not found: " + stepId);
     }
 
+    StepStatus previous = step.getStatus();
     step.markFailed(failureReason, failedBy);
+    stepIndex().onStatusChange(step, previous);
     this.status = SagaStatus.COMPENSATING;
     this.failureReason = failureReason;
     this.lastUpdatedAt = Instant.now();
@@ -209,7 +217,9 @@ public class SagaOrchestrator {
       throw new InvalidSagaException("Step not found: " + stepId);
     }
 
+    StepStatus previous = step.getStatus();
     step.markCompensated(compensationResult, compensatedBy);
+    stepIndex().onStatusChange(step, previous);
     this.lastUpdatedAt = Instant.now();
 
     registerEvent(
@@ -266,10 +276,7 @@ public class SagaOrchestrator {
   }
 
   public SagaStep getNextStep() {
-    return steps.stream()
-        .filter(step -> step.getStatus() == StepStatus.PENDING)
-        .min((s1, s2) -> Integer.compare(s1.getOrder(), s2.getOrder()))
-        .orElse(null);
+    return stepIndex().nextPending();
   }
 
   public List<SagaStep> getCompletedSteps() {
@@ -334,24 +341,28 @@ public class SagaOrchestrator {
   // PRIVATE HELPERS
   // ─────────────────────────────────────────────────────────
 
+  private SagaStepIndex stepIndex() {
+    if (stepIndex == null) {
+      stepIndex = SagaStepIndex.build(steps);
+    }
+    return stepIndex;
+  }
+
   private SagaStep findStep(SagaStepId stepId) {
-    return steps.stream().filter(step -> step.getId().equals(stepId)).findFirst().orElse(null);
+    return stepIndex().find(stepId);
   }
 
   private boolean allStepsCompensated() {
-    return steps.stream().allMatch(step -> step.getStatus() == StepStatus.COMPENSATED);
+    return stepIndex().allIn(StepStatus.COMPENSATED);
   }
 
   private void startCompensation() {
     // Find the last completed step and start compensation
-    SagaStep lastCompletedStep =
-        steps.stream()
-            .filter(step -> step.getStatus() == StepStatus.COMPLETED)
-            .max((s1, s2) -> Integer.compare(s1.getOrder(), s2.getOrder()))
-            .orElse(null);
+    SagaStep lastCompletedStep = stepIndex().lastCompleted();
 
     if (lastCompletedStep != null) {
       lastCompletedStep.markCompensating();
+      stepIndex().onStatusChange(lastCompletedStep, StepStatus.COMPLETED);
       registerEvent(
           new SagaCompensationStartedEvent(
               this.id, lastCompletedStep.getId(), lastCompletedStep.getStepName()));
@@ -363,11 +374,16 @@ public class SagaOrchestrator {
   }
 }
 
-/** Saga Step (Entity within SagaOrchestrator Aggregate) */
+/**
+ * Saga Step (Entity within SagaOrchestrator Aggregate)
+ *
+ * <p>Read-only outside its mark methods: the orchestrator's {@link SagaStepIndex} is told of every
+ * status change, so nothing else may set a step's status or order.
+ */
 @Entity
 @Table(name = "saga_steps")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Data
+@Getter
 class SagaStep {
 
   @EmbeddedId private SagaStepId id;
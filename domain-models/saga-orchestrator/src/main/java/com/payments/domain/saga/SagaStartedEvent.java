@@ -8,10 +8,19 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class SagaStartedEvent implements DomainEvent {
+  @WireTag(1)
   SagaId sagaId;
+
+  @WireTag(2)
   String sagaName;
+
+  @WireTag(3)
   SagaType sagaType;
+
+  @WireTag(4)
   String businessKey;
+
+  @WireTag(5)
   Instant startedAt;
 
   @Override
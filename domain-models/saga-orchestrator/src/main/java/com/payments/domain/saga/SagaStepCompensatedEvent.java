@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class SagaStepCompensatedEvent implements DomainEvent {
+  @WireTag(1)
   SagaId sagaId;
+
+  @WireTag(2)
   SagaStepId stepId;
+
+  @WireTag(3)
   String stepName;
+
+  @WireTag(4)
   String compensationResult;
 
   @Override
@@ -0,0 +1,124 @@
+package com.payments.domain.saga;
+
+import com.payments.domain.shared.SagaStepId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Saga Step Index (transient, owned by SagaOrchestrator)
+ *
+ * <p>Keeps the saga's steps sorted by {@code order}, keyed by {@link SagaStepId}, and counted per
+ * {@link StepStatus} so the orchestrator never has to stream the whole step list.
+ *
+ * <ul>
+ *   <li>find by id: O(1)
+ *   <li>next pending step: amortised O(1) (steps never return to PENDING, so a cursor only moves
+ *       forward except when a lower-ordered step is added)
+ *   <li>last completed step: O(log n)
+ *   <li>"all steps in status X": O(1)
+ * </ul>
+ *
+ * <p>Ties on {@code order} resolve to the step added first, as the previous stream-based lookups
+ * did. Every status change of a step must be reported through {@link #onStatusChange}.
+ */
+final class SagaStepIndex {
+
+  private static final Comparator<Slot> BY_ORDER =
+      Comparator.<Slot>comparingInt(slot -> slot.step.getOrder())
+          .thenComparingInt(slot -> slot.position);
+
+  // Highest order last; among equal orders the earliest added step sorts last.
+  private static final Comparator<Slot> BY_ORDER_EARLIEST_LAST =
+      Comparator.<Slot>comparingInt(slot -> slot.step.getOrder())
+          .thenComparing(Comparator.<Slot>comparingInt(slot -> slot.position).reversed());
+
+  private final Map<SagaStepId, Slot> byId = new HashMap<>();
+  private final List<Slot> byOrder = new ArrayList<>();
+  private final TreeSet<Slot> completed = new TreeSet<>(BY_ORDER_EARLIEST_LAST);
+  private final int[] statusCounts = new int[StepStatus.values().length];
+  private int pendingCursor;
+
+  static SagaStepIndex build(List<SagaStep> steps) {
+    SagaStepIndex index = new SagaStepIndex();
+    for (SagaStep step : steps) {
+      index.add(step);
+    }
+    return index;
+  }
+
+  void add(SagaStep step) {
+    Slot slot = new Slot(step, byOrder.size());
+    byId.putIfAbsent(step.getId(), slot);
+
+    int insertAt = -Collections.binarySearch(byOrder, slot, BY_ORDER) - 1;
+    byOrder.add(insertAt, slot);
+    if (insertAt <= pendingCursor && step.getStatus() == StepStatus.PENDING) {
+      pendingCursor = insertAt;
+    } else if (insertAt <= pendingCursor) {
+      pendingCursor++;
+    }
+
+    statusCounts[step.getStatus().ordinal()]++;
+    if (step.getStatus() == StepStatus.COMPLETED) {
+      completed.add(slot);
+    }
+  }
+
+  SagaStep find(SagaStepId stepId) {
+    Slot slot = byId.get(stepId);
+    return slot == null ? null : slot.step;
+  }
+
+  /** Lowest-ordered PENDING step, or null when none is left. */
+  SagaStep nextPending() {
+    while (pendingCursor < byOrder.size()
+        && byOrder.get(pendingCursor).step.getStatus() != StepStatus.PENDING) {
+      pendingCursor++;
+    }
+    return pendingCursor < byOrder.size() ? byOrder.get(pendingCursor).step : null;
+  }
+
+  /** Highest-ordered COMPLETED step, or null when none is completed. */
+  SagaStep lastCompleted() {
+    return completed.isEmpty() ? null : completed.last().step;
+  }
+
+  int count(StepStatus status) {
+    return statusCounts[status.ordinal()];
+  }
+
+  boolean allIn(StepStatus status) {
+    return count(status) == byOrder.size();
+  }
+
+  /** Must be called after {@code step} moved from {@code previous} to its current status. */
+  void onStatusChange(SagaStep step, StepStatus previous) {
+    StepStatus current = step.getStatus();
+    if (previous == current) {
+      return;
+    }
+    Slot slot = byId.get(step.getId());
+    statusCounts[previous.ordinal()]--;
+    statusCounts[current.ordinal()]++;
+    if (previous == StepStatus.COMPLETED) {
+      completed.remove(slot);
+    } else if (current == StepStatus.COMPLETED) {
+      completed.add(slot);
+    }
+  }
+
+  private static final class Slot {
+    final SagaStep step;
+    final int position;
+
+    Slot(SagaStep step, int position) {
+      this.step = step;
+      this.position = position;
+    }
+  }
+}
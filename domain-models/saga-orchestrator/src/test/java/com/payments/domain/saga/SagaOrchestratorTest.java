@@ -0,0 +1,101 @@
+package com.payments.domain.saga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SagaOrchestratorTest {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+
+  @Test
+  void next_step_follows_order_and_rewinds_for_a_lower_ordered_step() {
+    SagaOrchestrator saga = saga();
+    SagaStepId debit = step(saga, "debit", 2);
+    SagaStepId validate = step(saga, "validate", 1);
+    SagaStepId clear = step(saga, "clear", 3);
+
+    assertEquals(validate, saga.getNextStep().getId());
+    saga.executeNextStep("engine");
+    saga.completeStep(validate, "ok", "engine");
+    assertEquals(debit, saga.getNextStep().getId());
+    saga.completeStep(debit, "ok", "engine");
+
+    SagaStepId reserve = step(saga, "reserve", 0);
+    assertEquals(reserve, saga.getNextStep().getId());
+    saga.completeStep(reserve, "ok", "engine");
+    assertEquals(clear, saga.getNextStep().getId());
+    saga.completeStep(clear, "ok", "engine");
+    assertNull(saga.getNextStep());
+    assertTrue(saga.isCompleted());
+  }
+
+  @Test
+  void compensation_starts_with_the_highest_ordered_completed_step() {
+    SagaOrchestrator saga = saga();
+    SagaStepId validate = step(saga, "validate", 1);
+    SagaStepId debitFirst = step(saga, "debit", 2);
+    SagaStepId debitSecond = step(saga, "debit fees", 2);
+    SagaStepId clear = step(saga, "clear", 3);
+    saga.completeStep(validate, "ok", "engine");
+    saga.completeStep(debitSecond, "ok", "engine");
+    saga.completeStep(debitFirst, "ok", "engine");
+
+    saga.failStep(clear, "network down", "engine");
+
+    assertTrue(saga.isCompensating());
+    SagaCompensationStartedEvent started = lastEvent(saga, SagaCompensationStartedEvent.class);
+    // Equal orders: the step added first is compensated first
+    assertEquals(debitFirst, started.getStepId());
+    assertEquals(StepStatus.COMPENSATING, find(saga, debitFirst).getStatus());
+    assertEquals(2, saga.getCompletedSteps().size());
+  }
+
+  @Test
+  void index_rebuilt_from_loaded_steps_matches_the_live_one() {
+    SagaOrchestrator saga = saga();
+    SagaStepId first = step(saga, "first", 1);
+    SagaStepId second = step(saga, "second", 2);
+    step(saga, "third", 3);
+    saga.completeStep(first, "ok", "engine");
+    saga.completeStep(second, "ok", "engine");
+
+    // As after a JPA load: the steps come back in storage order and the index is rebuilt
+    List<SagaStep> loaded = List.of(saga.getSteps().get(2), find(saga, second), find(saga, first));
+    SagaStepIndex rebuilt = SagaStepIndex.build(loaded);
+
+    assertEquals(saga.getNextStep().getId(), rebuilt.nextPending().getId());
+    assertEquals(second, rebuilt.lastCompleted().getId());
+    assertEquals(2, rebuilt.count(StepStatus.COMPLETED));
+    assertEquals(1, rebuilt.count(StepStatus.PENDING));
+    assertSame(find(saga, first), rebuilt.find(first));
+  }
+
+  private static SagaOrchestrator saga() {
+    return SagaOrchestrator.create(
+        SagaId.generate(), TENANT, "Payment", SagaType.PAYMENT_PROCESSING, "PAY-1", "creator");
+  }
+
+  private static SagaStepId step(SagaOrchestrator saga, String name, int order) {
+    SagaStepId id = SagaStepId.generate();
+    saga.addStep(id, name, "service", "do", "undo", order, "creator");
+    return id;
+  }
+
+  private static SagaStep find(SagaOrchestrator saga, SagaStepId id) {
+    return saga.getSteps().stream().filter(step -> step.getId().equals(id)).findFirst().get();
+  }
+
+  private static <T extends DomainEvent> T lastEvent(SagaOrchestrator saga, Class<T> type) {
+    List<DomainEvent> events = saga.getDomainEvents();
+    for (int i = events.size() - 1; i >= 0; i--) {
+      if (type.isInstance(events.get(i))) {
+        return type.cast(events.get(i));
+      }
+    }
+    throw new AssertionError("No " + type.getSimpleName());
+  }
+}
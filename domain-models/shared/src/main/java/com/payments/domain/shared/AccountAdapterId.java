@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** AccountAdapterId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class AccountAdapterId {
   }
 
   public static AccountAdapterId generate() {
-    return new AccountAdapterId("AA-" + UUID.randomUUID().toString());
+    return new AccountAdapterId(Ids.next("AA-"));
   }
 }
@@ -0,0 +1,108 @@
+package com.payments.domain.shared;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive concurrency limit of one {@link BackendGuard}
+ *
+ * <p>Each call's latency is compared with the long-term average. While calls are no slower than
+ * usual, the limit grows by about its square root per call. When latency rises, the backend has
+ * started queueing and the limit shrinks by the same ratio. A failed or timed-out call cuts it by a
+ * tenth. Calls past the limit are refused, so load is shed before the backend collapses rather than
+ * after. The limit only grows while at least half of it is in use.
+ *
+ * <p>Lock-free: the estimate and the long-term average are doubles updated by compare-and-set, so a
+ * release never waits for another. The limit is the estimate rounded down.
+ */
+final class AdaptiveConcurrencyLimit {
+
+  private static final double SMOOTHING = 0.2;
+  private static final double BACKOFF = 0.9;
+  private static final double MIN_GRADIENT = 0.5;
+  // Calls averaged into the long-term latency
+  private static final int LONG_WINDOW = 600;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong samples = new AtomicLong();
+  // Doubles, held as their raw long bits
+  private final AtomicLong estimate;
+  private final AtomicLong longNanos = new AtomicLong(Double.doubleToRawLongBits(0));
+
+  AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+    if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+      throw new IllegalArgumentException(
+          "Limits must satisfy 1 <= min <= initial <= max: "
+              + minLimit
+              + ", "
+              + initialLimit
+              + ", "
+              + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimate = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+  }
+
+  boolean tryAcquire() {
+    for (int current = inFlight.get(); current < getLimit(); current = inFlight.get()) {
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Give back a call that was not made. */
+  void cancel() {
+    inFlight.decrementAndGet();
+  }
+
+  /** A call ended after {@code latencyNanos}; {@code dropped} if it failed or timed out. */
+  void release(long latencyNanos, boolean dropped) {
+    int used = inFlight.getAndDecrement();
+    if (dropped) {
+      for (; ; ) {
+        long bits = estimate.get();
+        double next = Math.max(minLimit, Double.longBitsToDouble(bits) * BACKOFF);
+        if (estimate.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+          return;
+        }
+      }
+    }
+    long window = Math.min(samples.incrementAndGet(), LONG_WINDOW);
+    double average;
+    for (; ; ) {
+      long bits = longNanos.get();
+      double current = Double.longBitsToDouble(bits);
+      average = current + (latencyNanos - current) / window;
+      if (longNanos.compareAndSet(bits, Double.doubleToRawLongBits(average))) {
+        break;
+      }
+    }
+    double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, average / Math.max(latencyNanos, 1)));
+    for (; ; ) {
+      long bits = estimate.get();
+      double current = Double.longBitsToDouble(bits);
+      if (used * 2 < current) {
+        return; // Not enough load to tell whether the backend could take more
+      }
+      double target = current * gradient + Math.sqrt(current);
+      double next = current + (target - current) * SMOOTHING;
+      next = Math.min(maxLimit, Math.max(minLimit, next));
+      if (estimate.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+        return;
+      }
+    }
+  }
+
+  int getLimit() {
+    return (int) Double.longBitsToDouble(estimate.get());
+  }
+
+  int getInFlight() {
+    return inFlight.get();
+  }
+}
@@ -6,7 +6,7 @@ import java.util.Collections;
 import java.util.List;
 
 /** AggregateRoot - base class providing domain event recording. */
-public abstract class AggregateRoot {
+public abstract class AggregateRoot implements DomainEventSource {
 
   @Transient private final List<DomainEvent> domainEvents = new ArrayList<>();
 
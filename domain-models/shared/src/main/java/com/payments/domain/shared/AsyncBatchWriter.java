@@ -0,0 +1,174 @@
+package com.payments.domain.shared;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous batch writer (write-behind)
+ *
+ * <p>Producers hand items over with a non-blocking {@link #offer}; a single daemon thread groups
+ * them into batches of at most {@code batchSize}, waiting at most {@code linger} for a batch to
+ * fill, and passes each batch to the sink (typically a JDBC batch insert). Item order is preserved
+ * per writer. When the bounded queue is full the item is dropped and counted instead of blocking
+ * the caller; use {@link #put} where losing an item is not acceptable.
+ *
+ * <p>A sink failure drops that batch and is counted; the writer keeps running. Once {@link #close}
+ * has begun, items are refused; every item accepted is written out before it returns. Producers
+ * take no lock: one whose {@code offer} raced with close either has its item written by close or
+ * takes it back out and reports a drop.
+ */
+public class AsyncBatchWriter<T> implements AutoCloseable {
+
+  /** Longest single wait of the worker, so close is noticed promptly. */
+  private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final BlockingQueue<T> queue;
+  private final int batchSize;
+  private final long lingerNanos;
+  private final Consumer<List<T>> sink;
+  private final Thread worker;
+
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong failedBatches = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  private volatile boolean running = true;
+
+  public AsyncBatchWriter(
+      String name, int queueCapacity, int batchSize, Duration linger, Consumer<List<T>> sink) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.lingerNanos = linger.toNanos();
+    this.sink = sink;
+    this.worker = new Thread(this::run, name);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Enqueue without waiting for space; returns false (and counts a drop) if the queue is full or
+   * the writer is closing.
+   */
+  public boolean offer(T item) {
+    if (!running || !queue.offer(item) || withdrawnAfterClose(item)) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  /** Enqueue, waiting for space if the queue is full. */
+  public void put(T item) throws InterruptedException {
+    if (!running) {
+      throw new IllegalStateException("Writer is closed");
+    }
+    queue.put(item);
+    if (withdrawnAfterClose(item)) {
+      throw new IllegalStateException("Writer is closed");
+    }
+  }
+
+  public int getPendingCount() {
+    return queue.size();
+  }
+
+  public long getWrittenCount() {
+    return written.get();
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  public long getFailedBatchCount() {
+    return failedBatches.get();
+  }
+
+  /** Items lost because the sink failed on their batch. */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /** Stop accepting items, write out everything already queued and stop the worker. */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Items of producers that saw the writer running but enqueued after the worker stopped
+    List<T> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      write(batch);
+      batch = new ArrayList<>(batchSize);
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Whether the item, enqueued while the writer may have been closing, was taken back out. While
+   * {@code running} still reads true after the enqueue, close is yet to drain the queue and will
+   * write the item; otherwise it is removed here unless close drained it first.
+   */
+  private boolean withdrawnAfterClose(T item) {
+    return !running && queue.remove(item);
+  }
+
+  private void run() {
+    while (running || !queue.isEmpty()) {
+      try {
+        T first = queue.poll(POLL_NANOS, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        List<T> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        fill(batch);
+        write(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  }
+
+  private void fill(List<T> batch) throws InterruptedException {
+    long deadline = System.nanoTime() + lingerNanos;
+    while (batch.size() < batchSize) {
+      queue.drainTo(batch, batchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= batchSize || remaining <= 0 || !running) {
+        return;
+      }
+      T next = queue.poll(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+      if (next != null) {
+        batch.add(next);
+      }
+    }
+  }
+
+  private void write(List<T> batch) {
+    try {
+      sink.accept(batch);
+      written.addAndGet(batch.size());
+    } catch (RuntimeException e) {
+      failedBatches.incrementAndGet();
+      failed.addAndGet(batch.size());
+    }
+  }
+}
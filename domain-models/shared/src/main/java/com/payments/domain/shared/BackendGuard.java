@@ -0,0 +1,227 @@
+package com.payments.domain.shared;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Protection of one backend system or clearing network: a sliding-window circuit breaker in front
+ * of an adaptive concurrency limit, both as set by a {@link ResiliencePolicy}
+ *
+ * <pre>{@code
+ * long permit = guard.acquire(); // or BackendUnavailableException, without calling
+ * try {
+ *   ... call the backend ...
+ *   guard.release(permit, CallOutcome.SUCCESS);
+ * } catch (RuntimeException e) {
+ *   guard.release(permit, CallOutcome.FAILURE);
+ *   throw e;
+ * }
+ * }</pre>
+ *
+ * <p>A successful call slower than the policy's {@code timeout} counts as timed out. Release every
+ * permit exactly once. Calls are not retried here: a retry is a new call, and takes a new permit.
+ * Obtained from {@link BackendGuardRegistry}. Thread-safe.
+ */
+public class BackendGuard {
+
+  private static final long PROBE_ROUND_MASK = CircuitBreaker.MAX_PROBE_ROUND;
+
+  private final GuardedSystemType systemType;
+  private final String backendSystem;
+  private final long timeoutNanos;
+  private final Clock clock;
+  private final CircuitBreaker breaker;
+  private final AdaptiveConcurrencyLimit limit;
+
+  private final LongAdder shedByCircuit = new LongAdder();
+  private final LongAdder shedByLimit = new LongAdder();
+
+  // Callers of acquire(Duration) waiting for a call to end; released calls signal them
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final ReentrantLock waitLock = new ReentrantLock();
+  private final Condition callEnded = waitLock.newCondition();
+
+  BackendGuard(
+      GuardedSystemType systemType,
+      String backendSystem,
+      TenantContext owner,
+      ResiliencePolicy policy,
+      Clock clock,
+      Consumer<CircuitBreakerStatus> onTransition) {
+    this.systemType = systemType;
+    this.backendSystem = backendSystem;
+    this.timeoutNanos = policy.getTimeout().toNanos();
+    this.clock = clock;
+    this.breaker = new CircuitBreaker(systemType, backendSystem, owner, policy, onTransition);
+    this.limit =
+        new AdaptiveConcurrencyLimit(
+            policy.getInitialLimit(), policy.getMinLimit(), policy.getMaxLimit());
+  }
+
+  /**
+   * Take a permit for one call.
+   *
+   * @return the permit, to pass to {@link #release}
+   * @throws BackendUnavailableException if the circuit is open or the limit is reached
+   */
+  public long acquire() {
+    if (!limit.tryAcquire()) {
+      throw limitReached();
+    }
+    return admit();
+  }
+
+  /**
+   * Take a permit for one call, waiting up to {@code maxWait} for a call in flight to end while the
+   * concurrency limit is reached. An open circuit fails at once, and a wait ends as soon as the
+   * circuit opens.
+   *
+   * @throws BackendUnavailableException if the circuit is open, or the limit is still reached
+   */
+  public long acquire(Duration maxWait) throws InterruptedException {
+    if (breaker.refuses(clock.millis())) {
+      throw circuitOpen();
+    }
+    if (!limit.tryAcquire()) {
+      awaitPermit(System.nanoTime() + maxWait.toNanos());
+    }
+    return admit();
+  }
+
+  /** The call made with {@code permit} ended. */
+  public void release(long permit, CallOutcome outcome) {
+    long latency = System.nanoTime() - (permit & ~PROBE_ROUND_MASK);
+    boolean failed = outcome != CallOutcome.SUCCESS || latency > timeoutNanos;
+    limit.release(latency, failed);
+    breaker.record(clock.millis(), failed, (int) (permit & PROBE_ROUND_MASK));
+    signalWaiter();
+  }
+
+  /** Make the call under a permit; any exception it throws counts as a failure. */
+  public <T> T call(Supplier<T> call) {
+    long permit = acquire();
+    T result;
+    try {
+      result = call.get();
+    } catch (RuntimeException e) {
+      release(permit, CallOutcome.FAILURE);
+      throw e;
+    }
+    release(permit, CallOutcome.SUCCESS);
+    return result;
+  }
+
+  void restore(CircuitBreakerStatus status, long now) {
+    breaker.restore(status, now);
+  }
+
+  /** Longest a successful call may take before it counts as timed out. */
+  public Duration getTimeout() {
+    return Duration.ofNanos(timeoutNanos);
+  }
+
+  public GuardedSystemType getSystemType() {
+    return systemType;
+  }
+
+  /** ID of the backend system or clearing adapter, per {@link #getSystemType}. */
+  public String getBackendSystem() {
+    return backendSystem;
+  }
+
+  public CircuitState getState() {
+    return breaker.getState();
+  }
+
+  /** Calls currently allowed in flight at once. */
+  public int getLimit() {
+    return limit.getLimit();
+  }
+
+  public int getInFlight() {
+    return limit.getInFlight();
+  }
+
+  /** Calls refused because the circuit was open. */
+  public long getShedByCircuitCount() {
+    return shedByCircuit.sum();
+  }
+
+  /** Calls refused because the concurrency limit was reached. */
+  public long getShedByLimitCount() {
+    return shedByLimit.sum();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private BackendUnavailableException limitReached() {
+    shedByLimit.increment();
+    return new BackendUnavailableException(
+        backendSystem,
+        false,
+        backendSystem + " already has its limit of " + limit.getLimit() + " calls in flight");
+  }
+
+  private BackendUnavailableException circuitOpen() {
+    shedByCircuit.increment();
+    return new BackendUnavailableException(
+        backendSystem, true, "Circuit of " + backendSystem + " is " + breaker.getState());
+  }
+
+  /**
+   * Wait until the limit admits the caller. The waiter is counted before each try, so a call that
+   * ends after a failed try sees it and signals. A waiter that gives up passes its signal on.
+   */
+  private void awaitPermit(long deadline) throws InterruptedException {
+    waiters.incrementAndGet();
+    waitLock.lockInterruptibly();
+    try {
+      while (!limit.tryAcquire()) {
+        if (breaker.refuses(clock.millis())) {
+          callEnded.signal();
+          throw circuitOpen();
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          callEnded.signal();
+          throw limitReached();
+        }
+        callEnded.awaitNanos(remaining);
+      }
+    } finally {
+      waitLock.unlock();
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void signalWaiter() {
+    if (waiters.get() > 0) {
+      waitLock.lock();
+      try {
+        callEnded.signal();
+      } finally {
+        waitLock.unlock();
+      }
+    }
+  }
+
+  /** A call within the limit: the circuit decides. */
+  private long admit() {
+    int round = breaker.allow(clock.millis());
+    if (round == CircuitBreaker.REFUSED) {
+      limit.cancel();
+      signalWaiter();
+      throw circuitOpen();
+    }
+    // The start time, less its low byte, which carries the probe round
+    return (System.nanoTime() & ~PROBE_ROUND_MASK) | round;
+  }
+}
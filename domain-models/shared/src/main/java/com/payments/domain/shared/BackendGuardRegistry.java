@@ -0,0 +1,137 @@
+package com.payments.domain.shared;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The {@link BackendGuard}s of the process, one per backend system or clearing adapter
+ *
+ * <p>Backend systems and clearing adapters are separate ID spaces, told apart by {@link
+ * GuardedSystemType} here and in {@code circuit_breaker_state}. Every circuit transition is written
+ * to {@code circuit_breaker_state} in the background and passed to the transition listeners, e.g.
+ * to take a clearing adapter's routes out of use while its circuit is open. A guard created for a
+ * system whose persisted circuit was not closed starts open, until the persisted retry time, so a
+ * restart does not hammer a backend that was down; the listeners see it open as a transition.
+ */
+public class BackendGuardRegistry implements AutoCloseable {
+
+  // Keyed by system type and ID
+  private final ConcurrentHashMap<String, BackendGuard> guards = new ConcurrentHashMap<>();
+  private final Map<String, CircuitBreakerStatus> persisted = new HashMap<>();
+  private final List<Consumer<CircuitBreakerStatus>> listeners = new CopyOnWriteArrayList<>();
+  private final AsyncBatchWriter<CircuitBreakerStatus> writer;
+  private final Clock clock;
+
+  public BackendGuardRegistry(CircuitBreakerStateRepository repository) {
+    this(repository, Clock.systemUTC());
+  }
+
+  public BackendGuardRegistry(CircuitBreakerStateRepository repository, Clock clock) {
+    this.clock = clock;
+    for (CircuitBreakerStatus status : repository.findAll()) {
+      persisted.put(key(status.getSystemType(), status.getBackendSystem()), status);
+    }
+    this.writer =
+        new AsyncBatchWriter<>(
+            "circuit-breaker-state-writer", 1_024, 100, Duration.ofMillis(50), repository::saveAll);
+  }
+
+  /**
+   * The guard of a backend system, created with {@code policy} on first use.
+   *
+   * @param owner the tenant and business unit owning the system's {@code circuit_breaker_state}
+   */
+  public BackendGuard guard(
+      BackendSystemId backendSystem, TenantContext owner, ResiliencePolicy policy) {
+    return guard(GuardedSystemType.BACKEND_SYSTEM, backendSystem.getValue(), owner, policy);
+  }
+
+  /** The guard of a clearing adapter's network, created with {@code policy} on first use. */
+  public BackendGuard guard(
+      ClearingAdapterId adapter, TenantContext owner, ResiliencePolicy policy) {
+    return guard(GuardedSystemType.CLEARING_ADAPTER, adapter.getValue(), owner, policy);
+  }
+
+  /** The guard of a backend system, or null if none was created. */
+  public BackendGuard get(BackendSystemId backendSystem) {
+    return guards.get(key(GuardedSystemType.BACKEND_SYSTEM, backendSystem.getValue()));
+  }
+
+  /** The guard of a clearing adapter, or null if none was created. */
+  public BackendGuard get(ClearingAdapterId adapter) {
+    return guards.get(key(GuardedSystemType.CLEARING_ADAPTER, adapter.getValue()));
+  }
+
+  /** State of a backend system's circuit, or null if it is not guarded. */
+  public CircuitState getCircuitState(BackendSystemId backendSystem) {
+    BackendGuard guard = get(backendSystem);
+    return guard != null ? guard.getState() : null;
+  }
+
+  /** State of a clearing adapter's circuit, or null if it is not guarded. */
+  public CircuitState getCircuitState(ClearingAdapterId adapter) {
+    BackendGuard guard = get(adapter);
+    return guard != null ? guard.getState() : null;
+  }
+
+  /** Called on every transition, under the guard's lock: keep it quick. */
+  public void addTransitionListener(Consumer<CircuitBreakerStatus> listener) {
+    listeners.add(listener);
+  }
+
+  /** Transitions not written because the writer was saturated. */
+  public long getDroppedTransitionCount() {
+    return writer.getDroppedCount();
+  }
+
+  @Override
+  public void close() {
+    writer.close();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private BackendGuard guard(
+      GuardedSystemType type, String id, TenantContext owner, ResiliencePolicy policy) {
+    String key = key(type, id);
+    BackendGuard guard = guards.get(key);
+    if (guard == null) {
+      guard =
+          guards.computeIfAbsent(
+              key,
+              k -> {
+                BackendGuard created =
+                    new BackendGuard(type, id, owner, policy, clock, this::onTransition);
+                CircuitBreakerStatus status = persisted.get(k);
+                if (status != null) {
+                  created.restore(status, clock.millis());
+                }
+                return created;
+              });
+    }
+    return guard;
+  }
+
+  private static String key(GuardedSystemType type, String id) {
+    return type.name() + '/' + id;
+  }
+
+  private void onTransition(CircuitBreakerStatus status) {
+    writer.offer(status);
+    for (Consumer<CircuitBreakerStatus> listener : listeners) {
+      try {
+        listener.accept(status);
+      } catch (RuntimeException e) {
+        // A failing listener must not fail the call that caused the transition
+      }
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** BackendSystemId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class BackendSystemId {
   }
 
   public static BackendSystemId generate() {
-    return new BackendSystemId("BS-" + UUID.randomUUID().toString());
+    return new BackendSystemId(Ids.next("BS-"));
   }
 }
@@ -0,0 +1,26 @@
+package com.payments.domain.shared;
+
+/**
+ * A call to a backend system or clearing network was refused before being made, because its circuit
+ * is open or its concurrency limit is reached.
+ */
+public class BackendUnavailableException extends RuntimeException {
+
+  private final String backendSystem;
+  private final boolean circuitOpen;
+
+  public BackendUnavailableException(String backendSystem, boolean circuitOpen, String message) {
+    super(message);
+    this.backendSystem = backendSystem;
+    this.circuitOpen = circuitOpen;
+  }
+
+  public String getBackendSystem() {
+    return backendSystem;
+  }
+
+  /** True if the circuit was open; false if the call was shed by the concurrency limit. */
+  public boolean isCircuitOpen() {
+    return circuitOpen;
+  }
+}
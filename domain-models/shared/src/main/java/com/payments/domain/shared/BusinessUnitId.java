@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.Value;
@@ -25,11 +24,7 @@ public class BusinessUnitId {
   }
 
   public static BusinessUnitId generate() {
-    String raw = "BU-" + UUID.randomUUID().toString().replace("-", "");
-    // Ensure length <= 30
-    if (raw.length() > 30) {
-      raw = raw.substring(0, 30);
-    }
-    return new BusinessUnitId(raw);
+    // 29 characters, within business_unit_id VARCHAR(30)
+    return new BusinessUnitId(Ids.next("BU-"));
   }
 }
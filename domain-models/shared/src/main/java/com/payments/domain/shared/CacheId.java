@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** CacheId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class CacheId {
   }
 
   public static CacheId generate() {
-    return new CacheId("CACHE-" + UUID.randomUUID().toString());
+    return new CacheId(Ids.next("CACHE-"));
   }
 }
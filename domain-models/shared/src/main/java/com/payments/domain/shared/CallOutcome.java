@@ -0,0 +1,8 @@
+package com.payments.domain.shared;
+
+/** How a call to a remote system ended, as counted by {@link LatencyMetrics}. */
+public enum CallOutcome {
+  SUCCESS,
+  FAILURE,
+  TIMEOUT
+}
@@ -0,0 +1,203 @@
+package com.payments.domain.shared;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Sliding-window circuit breaker of one {@link BackendGuard}
+ *
+ * <p>The window is ten buckets of calls and failures, and a bucket is reset when time comes back
+ * round to it. A closed circuit is checked without locking. Every transition is passed to the
+ * listener under the breaker's lock, so transitions are seen in order.
+ *
+ * <p>Each half-open spell is a numbered probe round, and {@link #allow} hands its probes the round
+ * number. Only their outcomes decide the round: calls admitted while the circuit was closed, or in
+ * an earlier round, may still end while it is half-open, and are ignored then.
+ */
+final class CircuitBreaker {
+
+  private static final int BUCKETS = 10;
+
+  /** Returned by {@link #allow} for a refused call. */
+  static final int REFUSED = -1;
+
+  /** Returned by {@link #allow} for a call that is not a probe. */
+  static final int NOT_A_PROBE = 0;
+
+  /** Probe rounds are numbered 1 to this, then wrap. */
+  static final int MAX_PROBE_ROUND = 0xFF;
+
+  private final GuardedSystemType systemType;
+  private final String backendSystem;
+  private final TenantContext owner;
+  private final ResiliencePolicy policy;
+  private final long bucketMillis;
+  private final Consumer<CircuitBreakerStatus> onTransition;
+
+  private final long[] bucketEpochs = new long[BUCKETS];
+  private final int[] calls = new int[BUCKETS];
+  private final int[] failures = new int[BUCKETS];
+  private volatile CircuitState state = CircuitState.CLOSED;
+  private long nextRetryAt;
+  private int probeRound;
+  private int probesAllowed;
+  private int probesSucceeded;
+  private long lastFailure = -1;
+  private long lastSuccess = -1;
+
+  CircuitBreaker(
+      GuardedSystemType systemType,
+      String backendSystem,
+      TenantContext owner,
+      ResiliencePolicy policy,
+      Consumer<CircuitBreakerStatus> onTransition) {
+    this.systemType = systemType;
+    this.backendSystem = backendSystem;
+    this.owner = owner;
+    this.policy = policy;
+    this.bucketMillis = Math.max(1, policy.getWindow().toMillis() / BUCKETS);
+    this.onTransition = onTransition;
+    Arrays.fill(bucketEpochs, -1);
+  }
+
+  /**
+   * Start from a persisted state: a circuit that was not closed stays open until its retry. The
+   * listener sees it open like any other transition.
+   */
+  synchronized void restore(CircuitBreakerStatus status, long now) {
+    if (status.getState() != CircuitState.CLOSED) {
+      Instant retry = status.getNextRetryAt();
+      nextRetryAt = retry != null ? Math.max(now, retry.toEpochMilli()) : now;
+      if (status.getLastFailure() != null) {
+        lastFailure = status.getLastFailure().toEpochMilli();
+      }
+      if (status.getLastSuccess() != null) {
+        lastSuccess = status.getLastSuccess().toEpochMilli();
+      }
+      transition(CircuitState.OPEN, now, status.getFailureCount());
+    }
+  }
+
+  /** Whether {@link #allow} would refuse a call now, without starting a probe round. */
+  boolean refuses(long now) {
+    if (state == CircuitState.CLOSED) {
+      return false;
+    }
+    synchronized (this) {
+      return state == CircuitState.OPEN && now < nextRetryAt;
+    }
+  }
+
+  /**
+   * Whether a call may be made now; a half-open circuit lets only its probes through.
+   *
+   * @return {@link #REFUSED}, {@link #NOT_A_PROBE}, or the probe round, to pass to {@link #record}
+   */
+  int allow(long now) {
+    if (state == CircuitState.CLOSED) {
+      return NOT_A_PROBE;
+    }
+    synchronized (this) {
+      if (state == CircuitState.OPEN) {
+        if (now < nextRetryAt) {
+          return REFUSED;
+        }
+        probeRound = probeRound % MAX_PROBE_ROUND + 1;
+        probesAllowed = 0;
+        probesSucceeded = 0;
+        transition(CircuitState.HALF_OPEN, now, 0);
+      }
+      if (state == CircuitState.HALF_OPEN) {
+        if (probesAllowed >= policy.getHalfOpenProbes()) {
+          return REFUSED;
+        }
+        probesAllowed++;
+        return probeRound;
+      }
+      return NOT_A_PROBE;
+    }
+  }
+
+  /** A call ended; {@code round} is what {@link #allow} returned for it. */
+  synchronized void record(long now, boolean failed, int round) {
+    if (failed) {
+      lastFailure = now;
+    } else {
+      lastSuccess = now;
+    }
+    switch (state) {
+      case CLOSED:
+        long epoch = now / bucketMillis;
+        int bucket = (int) (epoch % BUCKETS);
+        if (bucketEpochs[bucket] != epoch) {
+          bucketEpochs[bucket] = epoch;
+          calls[bucket] = 0;
+          failures[bucket] = 0;
+        }
+        calls[bucket]++;
+        if (failed) {
+          failures[bucket]++;
+          tripIfOverThreshold(now, epoch);
+        }
+        break;
+      case HALF_OPEN:
+        if (round != probeRound) {
+          break; // Not one of this round's probes
+        }
+        if (failed) {
+          open(now, 1);
+        } else if (++probesSucceeded >= policy.getHalfOpenProbes()) {
+          Arrays.fill(bucketEpochs, -1);
+          transition(CircuitState.CLOSED, now, 0);
+        }
+        break;
+      default:
+        break; // A call made before the circuit opened
+    }
+  }
+
+  CircuitState getState() {
+    return state;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void tripIfOverThreshold(long now, long epoch) {
+    int windowCalls = 0;
+    int windowFailures = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      if (bucketEpochs[i] > epoch - BUCKETS) {
+        windowCalls += calls[i];
+        windowFailures += failures[i];
+      }
+    }
+    if (windowFailures >= policy.getFailureThreshold()
+        && windowFailures * 100L >= (long) policy.getFailureRatePercent() * windowCalls) {
+      open(now, windowFailures);
+    }
+  }
+
+  private void open(long now, int failureCount) {
+    nextRetryAt = now + policy.getOpenDuration().toMillis();
+    transition(CircuitState.OPEN, now, failureCount);
+  }
+
+  private void transition(CircuitState to, long now, int failureCount) {
+    state = to;
+    onTransition.accept(
+        new CircuitBreakerStatus(
+            systemType,
+            backendSystem,
+            to,
+            failureCount,
+            lastFailure >= 0 ? Instant.ofEpochMilli(lastFailure) : null,
+            lastSuccess >= 0 ? Instant.ofEpochMilli(lastSuccess) : null,
+            Instant.ofEpochMilli(now),
+            to == CircuitState.OPEN ? Instant.ofEpochMilli(nextRetryAt) : null,
+            owner.getTenantId(),
+            owner.getBusinessUnitId()));
+  }
+}
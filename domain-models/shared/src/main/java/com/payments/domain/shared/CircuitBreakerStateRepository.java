@@ -0,0 +1,12 @@
+package com.payments.domain.shared;
+
+import java.util.List;
+
+/** Repository port: the {@code circuit_breaker_state} table, one row per backend system. */
+public interface CircuitBreakerStateRepository {
+
+  List<CircuitBreakerStatus> findAll();
+
+  /** Insert or replace the row of each status's backend system. */
+  void saveAll(List<CircuitBreakerStatus> statuses);
+}
@@ -0,0 +1,26 @@
+package com.payments.domain.shared;
+
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * A {@code circuit_breaker_state} row: a backend system's or clearing adapter's circuit as of its
+ * last transition.
+ */
+@Value
+@AllArgsConstructor
+public class CircuitBreakerStatus {
+  GuardedSystemType systemType;
+
+  /** ID of the backend system or clearing adapter, per {@link #systemType}. */
+  String backendSystem;
+
+  CircuitState state;
+  int failureCount;
+  Instant lastFailure;
+  Instant lastSuccess;
+  Instant stateChangedAt;
+  Instant nextRetryAt;
+  String tenantId;
+  String businessUnitId;
+}
@@ -0,0 +1,11 @@
+package com.payments.domain.shared;
+
+/** State of a {@link BackendGuard}'s circuit breaker, as in {@code circuit_breaker_state}. */
+public enum CircuitState {
+  /** Calls go through. */
+  CLOSED,
+  /** Calls are refused until the wait is over. */
+  OPEN,
+  /** A few probe calls decide whether to close or open again. */
+  HALF_OPEN
+}
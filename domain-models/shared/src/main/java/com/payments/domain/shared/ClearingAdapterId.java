@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +19,6 @@ public class ClearingAdapterId {
   }
 
   public static ClearingAdapterId generate() {
-    return new ClearingAdapterId("CLAD-" + UUID.randomUUID());
+    return new ClearingAdapterId(Ids.next("CLAD-"));
   }
 }
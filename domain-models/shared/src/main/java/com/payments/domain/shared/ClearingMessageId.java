@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +19,6 @@ public class ClearingMessageId {
   }
 
   public static ClearingMessageId generate() {
-    return new ClearingMessageId("CLM-" + UUID.randomUUID());
+    return new ClearingMessageId(Ids.next("CLM-"));
   }
 }
@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +19,6 @@ public class ClearingRouteId {
   }
 
   public static ClearingRouteId generate() {
-    return new ClearingRouteId("CLR-" + UUID.randomUUID());
+    return new ClearingRouteId(Ids.next("CLR-"));
   }
 }
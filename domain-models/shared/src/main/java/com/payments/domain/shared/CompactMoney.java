@@ -0,0 +1,162 @@
+package com.payments.domain.shared;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import lombok.Value;
+
+/**
+ * CompactMoney - Value Object (Immutable, primitive-backed)
+ *
+ * <p>Hot-path counterpart of {@link Money}. The amount is held as a {@code long} count of minor
+ * units (hundredths, the same fixed scale Money stores) and the currency as its ISO 4217 numeric
+ * code, so arithmetic never touches BigDecimal. All arithmetic is overflow-checked.
+ *
+ * <p>Convert at the aggregate boundary with {@link #from(Money)} / {@link #toMoney()}.
+ */
+@Value
+public class CompactMoney implements Comparable<CompactMoney> {
+
+  /** Minor units per major unit; mirrors the scale of {@link Money}. */
+  public static final int SCALE = 2;
+
+  private static final Currency[] CURRENCIES_BY_CODE = new Currency[1000];
+
+  static {
+    for (Currency currency : Currency.getAvailableCurrencies()) {
+      int code = currency.getNumericCode();
+      if (code > 0 && code < CURRENCIES_BY_CODE.length && CURRENCIES_BY_CODE[code] == null) {
+        CURRENCIES_BY_CODE[code] = currency;
+      }
+    }
+  }
+
+  private static final short ZAR_CODE = codeOf(Currency.getInstance("ZAR"));
+
+  long minorUnits;
+
+  short currencyCode;
+
+  private CompactMoney(long minorUnits, short currencyCode) {
+    this.minorUnits = minorUnits;
+    this.currencyCode = currencyCode;
+  }
+
+  // Factory methods
+  public static CompactMoney ofMinor(long minorUnits, Currency currency) {
+    return new CompactMoney(minorUnits, codeOf(currency));
+  }
+
+  public static CompactMoney ofMinor(long minorUnits, short currencyCode) {
+    if (currencyCode <= 0
+        || currencyCode >= CURRENCIES_BY_CODE.length
+        || CURRENCIES_BY_CODE[currencyCode] == null) {
+      throw new IllegalArgumentException("Unknown ISO 4217 numeric currency code: " + currencyCode);
+    }
+    return new CompactMoney(minorUnits, currencyCode);
+  }
+
+  public static CompactMoney zar(long minorUnits) {
+    return new CompactMoney(minorUnits, ZAR_CODE);
+  }
+
+  public static CompactMoney zero(Currency currency) {
+    return new CompactMoney(0L, codeOf(currency));
+  }
+
+  /** Bridge from {@link Money}; fails if the amount does not fit in a long of minor units. */
+  public static CompactMoney from(Money money) {
+    if (money == null) {
+      throw new IllegalArgumentException("Money cannot be null");
+    }
+    long minor;
+    try {
+      minor = money.getAmount().movePointRight(SCALE).longValueExact();
+    } catch (ArithmeticException e) {
+      throw new ArithmeticException("Amount out of range for CompactMoney: " + money.getAmount());
+    }
+    return new CompactMoney(minor, codeOf(money.getCurrency()));
+  }
+
+  /** Bridge back to {@link Money}; the BigDecimal is created directly at scale 2. */
+  public Money toMoney() {
+    return Money.ofMinorUnits(minorUnits, getCurrency());
+  }
+
+  // Business methods
+  public CompactMoney add(CompactMoney other) {
+    assertSameCurrency(other);
+    return new CompactMoney(Math.addExact(this.minorUnits, other.minorUnits), currencyCode);
+  }
+
+  public CompactMoney subtract(CompactMoney other) {
+    assertSameCurrency(other);
+    return new CompactMoney(Math.subtractExact(this.minorUnits, other.minorUnits), currencyCode);
+  }
+
+  public CompactMoney multiply(long multiplier) {
+    return new CompactMoney(Math.multiplyExact(this.minorUnits, multiplier), currencyCode);
+  }
+
+  public CompactMoney negate() {
+    return new CompactMoney(Math.negateExact(this.minorUnits), currencyCode);
+  }
+
+  public boolean isGreaterThan(CompactMoney other) {
+    assertSameCurrency(other);
+    return this.minorUnits > other.minorUnits;
+  }
+
+  public boolean isLessThan(CompactMoney other) {
+    assertSameCurrency(other);
+    return this.minorUnits < other.minorUnits;
+  }
+
+  public boolean isNegativeOrZero() {
+    return this.minorUnits <= 0;
+  }
+
+  public boolean isZero() {
+    return this.minorUnits == 0;
+  }
+
+  public Currency getCurrency() {
+    return CURRENCIES_BY_CODE[currencyCode];
+  }
+
+  @Override
+  public int compareTo(CompactMoney other) {
+    assertSameCurrency(other);
+    return Long.compare(this.minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public String toString() {
+    return BigDecimal.valueOf(minorUnits, SCALE).toPlainString() + " " + getCurrency();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static short codeOf(Currency currency) {
+    if (currency == null) {
+      throw new IllegalArgumentException("Currency cannot be null");
+    }
+    int code = currency.getNumericCode();
+    if (code <= 0 || code >= CURRENCIES_BY_CODE.length || CURRENCIES_BY_CODE[code] != currency) {
+      throw new IllegalArgumentException(
+          "Currency has no unique ISO 4217 numeric code: " + currency);
+    }
+    return (short) code;
+  }
+
+  private void assertSameCurrency(CompactMoney other) {
+    if (this.currencyCode != other.currencyCode) {
+      throw new IllegalArgumentException(
+          "Cannot operate on different currencies: "
+              + getCurrency()
+              + " and "
+              + other.getCurrency());
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** ConfigurationId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class ConfigurationId {
   }
 
   public static ConfigurationId generate() {
-    return new ConfigurationId("CFG-" + UUID.randomUUID().toString());
+    return new ConfigurationId(Ids.next("CFG-"));
   }
 }
@@ -0,0 +1,10 @@
+package com.payments.domain.shared;
+
+import java.util.List;
+
+/** DomainEventSource - an aggregate that records domain events until they are shipped. */
+public interface DomainEventSource {
+  List<DomainEvent> getDomainEvents();
+
+  void clearDomainEvents();
+}
@@ -0,0 +1,20 @@
+package com.payments.domain.shared;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Schema version of a domain event payload (see {@code event-schemas/versioning-strategy.md}).
+ *
+ * <p>Bump {@code minor} when fields are appended; bump {@code major} for any change consumers
+ * cannot ignore (removing, reordering or retyping fields). Events without the annotation are 1.0.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EventSchemaVersion {
+  int major() default 1;
+
+  int minor() default 0;
+}
@@ -0,0 +1,9 @@
+package com.payments.domain.shared;
+
+/** The ID space of a {@link BackendGuard}'s system, as in {@code circuit_breaker_state}. */
+public enum GuardedSystemType {
+  /** A {@link BackendSystemId}: a row of {@code backend_systems}. */
+  BACKEND_SYSTEM,
+  /** A {@link ClearingAdapterId}. */
+  CLEARING_ADAPTER
+}
@@ -0,0 +1,17 @@
+package com.payments.domain.shared;
+
+/** Source of entity IDs behind the value objects' {@code generate()} factories; see {@link Ids}. */
+public interface IdGenerator {
+
+  /** {@code prefix} followed by a new, unique ID. */
+  String nextId(String prefix);
+
+  /** {@code count} new IDs with the same prefix, in the order {@link #nextId} would return them. */
+  default String[] nextIds(String prefix, int count) {
+    String[] ids = new String[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = nextId(prefix);
+    }
+    return ids;
+  }
+}
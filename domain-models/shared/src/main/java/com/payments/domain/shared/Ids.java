@@ -0,0 +1,34 @@
+package com.payments.domain.shared;
+
+/**
+ * Process-wide {@link IdGenerator} used by every {@code XxxId.generate()}
+ *
+ * <p>Defaults to {@link TimeOrderedIdGenerator}. Replace it once at startup, or in tests that need
+ * predictable IDs.
+ */
+public final class Ids {
+
+  private static volatile IdGenerator generator = new TimeOrderedIdGenerator();
+
+  private Ids() {}
+
+  public static String next(String prefix) {
+    return generator.nextId(prefix);
+  }
+
+  /** A block of {@code count} IDs, for bulk creation; see {@link IdGenerator#nextIds}. */
+  public static String[] nextBlock(String prefix, int count) {
+    return generator.nextIds(prefix, count);
+  }
+
+  public static IdGenerator getGenerator() {
+    return generator;
+  }
+
+  public static void setGenerator(IdGenerator generator) {
+    if (generator == null) {
+      throw new IllegalArgumentException("IdGenerator cannot be null");
+    }
+    Ids.generator = generator;
+  }
+}
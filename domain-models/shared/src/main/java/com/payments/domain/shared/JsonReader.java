@@ -0,0 +1,225 @@
+package com.payments.domain.shared;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal strict JSON reader for stored configuration such as rule conditions and API key
+ * permissions: objects become {@link LinkedHashMap}s, arrays {@link ArrayList}s, numbers {@link
+ * BigDecimal}s. Meant for values read once and cached, not for per-payment parsing.
+ *
+ * <p>Only what RFC 8259 allows is accepted: an unknown or malformed escape, a raw control character
+ * in a string or trailing content fails the whole document rather than being skipped over.
+ */
+public final class JsonReader {
+
+  private final String json;
+  private int pos;
+
+  private JsonReader(String json) {
+    this.json = json;
+  }
+
+  /**
+   * The value of a JSON document.
+   *
+   * @throws IllegalArgumentException if {@code json} is not a single well-formed JSON value
+   */
+  public static Object parse(String json) {
+    if (json == null) {
+      throw new IllegalArgumentException("No JSON to parse");
+    }
+    JsonReader reader = new JsonReader(json);
+    Object value = reader.value();
+    reader.skipWhitespace();
+    if (reader.pos != json.length()) {
+      throw reader.error("Unexpected trailing content");
+    }
+    return value;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private Object value() {
+    skipWhitespace();
+    if (pos >= json.length()) {
+      throw error("Unexpected end of input");
+    }
+    char c = json.charAt(pos);
+    switch (c) {
+      case '{':
+        return object();
+      case '[':
+        return array();
+      case '"':
+        return string();
+      case 't':
+        return literal("true", Boolean.TRUE);
+      case 'f':
+        return literal("false", Boolean.FALSE);
+      case 'n':
+        return literal("null", null);
+      default:
+        return number();
+    }
+  }
+
+  private Map<String, Object> object() {
+    Map<String, Object> object = new LinkedHashMap<>();
+    pos++;
+    if (peek() == '}') {
+      pos++;
+      return object;
+    }
+    while (true) {
+      skipWhitespace();
+      if (peek() != '"') {
+        throw error("Expected a field name");
+      }
+      String name = string();
+      expect(':');
+      object.put(name, value());
+      char next = next();
+      if (next == '}') {
+        return object;
+      }
+      if (next != ',') {
+        throw error("Expected ',' or '}'");
+      }
+    }
+  }
+
+  private List<Object> array() {
+    List<Object> array = new ArrayList<>();
+    pos++;
+    if (peek() == ']') {
+      pos++;
+      return array;
+    }
+    while (true) {
+      array.add(value());
+      char next = next();
+      if (next == ']') {
+        return array;
+      }
+      if (next != ',') {
+        throw error("Expected ',' or ']'");
+      }
+    }
+  }
+
+  private String string() {
+    StringBuilder sb = new StringBuilder();
+    pos++;
+    while (pos < json.length()) {
+      char c = json.charAt(pos++);
+      if (c == '"') {
+        return sb.toString();
+      }
+      if (c < ' ') {
+        pos--;
+        throw error("Control character in string");
+      }
+      if (c != '\\') {
+        sb.append(c);
+        continue;
+      }
+      if (pos >= json.length()) {
+        break;
+      }
+      char escaped = json.charAt(pos++);
+      switch (escaped) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          if (pos + 4 > json.length()) {
+            throw error("Truncated unicode escape");
+          }
+          try {
+            sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+          } catch (NumberFormatException e) {
+            throw error("Malformed unicode escape");
+          }
+          pos += 4;
+          break;
+        case '"':
+        case '\\':
+        case '/':
+          sb.append(escaped);
+          break;
+        default:
+          pos--;
+          throw error("Unknown escape '\\" + escaped + "'");
+      }
+    }
+    throw error("Unterminated string");
+  }
+
+  private BigDecimal number() {
+    int start = pos;
+    while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) >= 0) {
+      pos++;
+    }
+    try {
+      return new BigDecimal(json.substring(start, pos));
+    } catch (NumberFormatException e) {
+      pos = start;
+      throw error("Expected a value");
+    }
+  }
+
+  private Object literal(String text, Object value) {
+    if (!json.startsWith(text, pos)) {
+      throw error("Expected a value");
+    }
+    pos += text.length();
+    return value;
+  }
+
+  private void expect(char expected) {
+    if (next() != expected) {
+      throw error("Expected '" + expected + "'");
+    }
+  }
+
+  private char next() {
+    skipWhitespace();
+    if (pos >= json.length()) {
+      throw error("Unexpected end of input");
+    }
+    return json.charAt(pos++);
+  }
+
+  private char peek() {
+    skipWhitespace();
+    return pos < json.length() ? json.charAt(pos) : 0;
+  }
+
+  private void skipWhitespace() {
+    while (pos < json.length() && " \t\n\r".indexOf(json.charAt(pos)) >= 0) {
+      pos++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at offset " + pos + " of " + json);
+  }
+}
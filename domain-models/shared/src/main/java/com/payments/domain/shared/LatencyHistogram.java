@@ -0,0 +1,103 @@
+package com.payments.domain.shared;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram (immutable snapshot)
+ *
+ * <p>Log-linear buckets in the manner of HdrHistogram: values below 64µs have a bucket each, and
+ * every power of two above is split into 32 buckets, so a recorded value is off by at most 1/32
+ * (about 3%). Values from 0 to {@link #MAX_MICROS} (over an hour) take 896 buckets; larger values
+ * are counted as the maximum. Percentiles report the top of their bucket, so they never understate.
+ */
+public final class LatencyHistogram {
+
+  /** Largest value told apart; larger values are recorded as this. */
+  public static final long MAX_MICROS = (1L << 32) - 1;
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+
+  static final int BUCKETS = bucketOf(MAX_MICROS) + 1;
+
+  static final LatencyHistogram EMPTY = new LatencyHistogram(new long[BUCKETS], 0, 0);
+
+  private final long[] counts;
+  private final long totalCount;
+  private final long totalMicros;
+
+  LatencyHistogram(long[] counts, long totalCount, long totalMicros) {
+    this.counts = counts;
+    this.totalCount = totalCount;
+    this.totalMicros = totalMicros;
+  }
+
+  public long getCount() {
+    return totalCount;
+  }
+
+  public double getMeanMicros() {
+    return totalCount == 0 ? 0 : (double) totalMicros / totalCount;
+  }
+
+  /**
+   * The value at or below which {@code percentile} percent of the samples lie, e.g. 99 for p99; 0
+   * when empty.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+    long seen = 0;
+    for (int bucket = 0; bucket < counts.length; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        return highestValueOf(bucket);
+      }
+    }
+    return highestValueOf(counts.length - 1);
+  }
+
+  public long getMaxMicros() {
+    for (int bucket = counts.length - 1; bucket >= 0; bucket--) {
+      if (counts[bucket] != 0) {
+        return highestValueOf(bucket);
+      }
+    }
+    return 0;
+  }
+
+  /** Both histograms' samples together, e.g. to roll windows up for a dashboard. */
+  public LatencyHistogram merge(LatencyHistogram other) {
+    long[] merged = Arrays.copyOf(counts, counts.length);
+    for (int bucket = 0; bucket < merged.length; bucket++) {
+      merged[bucket] += other.counts[bucket];
+    }
+    return new LatencyHistogram(
+        merged, totalCount + other.totalCount, totalMicros + other.totalMicros);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // BUCKETS
+  // ─────────────────────────────────────────────────────────
+
+  static int bucketOf(long micros) {
+    long value = Math.min(Math.max(micros, 0), MAX_MICROS);
+    if (value < 2 * HALF_SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS + 1;
+    return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+  }
+
+  static long highestValueOf(int bucket) {
+    if (bucket < 2 * HALF_SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket >>> (SUB_BUCKET_BITS - 1)) - 1;
+    long subBucket = bucket - ((long) shift << (SUB_BUCKET_BITS - 1));
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
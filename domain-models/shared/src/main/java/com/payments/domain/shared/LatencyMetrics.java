@@ -0,0 +1,172 @@
+package com.payments.domain.shared;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Call latencies and outcomes per key (e.g. backend system and tenant), aggregated in fixed
+ * intervals
+ *
+ * <p>Calls are recorded lock-free into a {@link LatencyRecorder} per key. Every {@code interval} a
+ * background thread rotates all keys: each key's samples become a {@link LatencyWindow}, the
+ * windows of keys that saw calls go to the sink (typically a metrics table insert), and the latest
+ * window per key stays available to dashboards in-process. A sink failure is counted; the windows
+ * are not retried.
+ *
+ * <p>A key with no calls for {@link #IDLE_INTERVALS_BEFORE_EVICTION} intervals is forgotten, with
+ * its latest window, and starts afresh on its next call. Its recorder is drained once more at the
+ * next rotation, so a call recorded as it was evicted is still counted.
+ */
+public class LatencyMetrics<K> implements AutoCloseable {
+
+  public static final int IDLE_INTERVALS_BEFORE_EVICTION = 5;
+
+  private final ConcurrentHashMap<K, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+  // Evicted at the last rotation, drained at the next
+  private Map<K, LatencyRecorder> evicted = new HashMap<>();
+  private final Consumer<List<LatencyWindow<K>>> sink;
+  private final Clock clock;
+  private final ScheduledExecutorService rotator;
+  private volatile Map<K, LatencyWindow<K>> latest = Map.of();
+  private Instant windowStart;
+
+  private final LongAdder sinkFailures = new LongAdder();
+
+  public LatencyMetrics(String name, Duration interval, Consumer<List<LatencyWindow<K>>> sink) {
+    this(name, interval, sink, Clock.systemUTC());
+  }
+
+  public LatencyMetrics(
+      String name, Duration interval, Consumer<List<LatencyWindow<K>>> sink, Clock clock) {
+    this.sink = sink;
+    this.clock = clock;
+    this.windowStart = clock.instant();
+    this.rotator =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, name + "-latency-rotator");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long millis = interval.toMillis();
+    rotator.scheduleWithFixedDelay(this::rotateQuietly, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  /** Record one call; never blocks. */
+  public void record(K key, long latencyMicros, CallOutcome outcome) {
+    LatencyRecorder recorder = recorders.get(key);
+    if (recorder == null) {
+      recorder = recorders.computeIfAbsent(key, k -> new LatencyRecorder());
+    }
+    recorder.record(latencyMicros, outcome);
+  }
+
+  /** The key's most recent window that saw calls, or null. */
+  public LatencyWindow<K> getLatest(K key) {
+    return latest.get(key);
+  }
+
+  /** The most recent window that saw calls of every key. */
+  public Map<K, LatencyWindow<K>> getLatestWindows() {
+    return latest;
+  }
+
+  public long getSinkFailureCount() {
+    return sinkFailures.sum();
+  }
+
+  /** End the current interval now and pass its windows to the sink. */
+  public synchronized void rotate() {
+    Instant start = windowStart;
+    Instant end = clock.instant();
+    windowStart = end;
+    List<LatencyWindow<K>> windows = new ArrayList<>();
+    long[] outcomes = new long[CallOutcome.values().length];
+    Map<K, LatencyRecorder> lastEvicted = evicted;
+    evicted = new HashMap<>();
+    for (Map.Entry<K, LatencyRecorder> entry : recorders.entrySet()) {
+      Arrays.fill(outcomes, 0);
+      LatencyRecorder recorder = entry.getValue();
+      LatencyHistogram histogram = recorder.drain(outcomes);
+      LatencyRecorder late = lastEvicted.remove(entry.getKey());
+      if (late != null) {
+        histogram = histogram.merge(late.drain(outcomes));
+      }
+      if (histogram.getCount() > 0) {
+        recorder.idleDrains = 0;
+        windows.add(window(entry.getKey(), start, end, histogram, outcomes));
+      } else if (++recorder.idleDrains >= IDLE_INTERVALS_BEFORE_EVICTION
+          && recorders.remove(entry.getKey(), recorder)) {
+        evicted.put(entry.getKey(), recorder);
+      }
+    }
+    for (Map.Entry<K, LatencyRecorder> entry : lastEvicted.entrySet()) {
+      Arrays.fill(outcomes, 0);
+      LatencyHistogram histogram = entry.getValue().drain(outcomes);
+      if (histogram.getCount() > 0) {
+        windows.add(window(entry.getKey(), start, end, histogram, outcomes));
+      }
+    }
+    if (windows.isEmpty() && evicted.isEmpty()) {
+      return;
+    }
+    Map<K, LatencyWindow<K>> updated = new HashMap<>(latest);
+    updated.keySet().removeAll(evicted.keySet());
+    for (LatencyWindow<K> window : windows) {
+      updated.put(window.getKey(), window);
+    }
+    latest = Collections.unmodifiableMap(updated);
+    if (!windows.isEmpty()) {
+      sink.accept(windows);
+    }
+  }
+
+  @Override
+  public void close() {
+    rotator.shutdown();
+    try {
+      rotator.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    rotate();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static <K> LatencyWindow<K> window(
+      K key, Instant start, Instant end, LatencyHistogram histogram, long[] outcomes) {
+    return new LatencyWindow<>(
+        key,
+        start,
+        end,
+        histogram,
+        outcomes[CallOutcome.SUCCESS.ordinal()],
+        outcomes[CallOutcome.FAILURE.ordinal()],
+        outcomes[CallOutcome.TIMEOUT.ordinal()]);
+  }
+
+  private void rotateQuietly() {
+    try {
+      rotate();
+    } catch (RuntimeException e) {
+      // The interval's windows are lost; dashboards still see them
+      sinkFailures.increment();
+    }
+  }
+}
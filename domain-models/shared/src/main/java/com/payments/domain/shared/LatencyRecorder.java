@@ -0,0 +1,71 @@
+package com.payments.domain.shared;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free latency recorder of one {@link LatencyMetrics} key
+ *
+ * <p>Counters are striped by recording thread, so threads on different stripes never write the same
+ * cache lines. {@link #drain} takes the counts recorded so far and zeroes them; a sample recorded
+ * while draining lands in this interval or the next, never in neither. A stripe (about 7 KB) is
+ * allocated when a thread first records on it, so a key called from few threads stays small.
+ */
+final class LatencyRecorder {
+
+  private static final int STRIPES =
+      Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+  private static final CallOutcome[] OUTCOMES = CallOutcome.values();
+
+  // Slots of a stripe: the histogram buckets, then the calls per outcome, then the sum
+  private static final int OUTCOME_SLOT = LatencyHistogram.BUCKETS;
+  private static final int SUM_SLOT = OUTCOME_SLOT + OUTCOMES.length;
+
+  private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+  // Consecutive drains that found no calls; used by the rotating thread only
+  int idleDrains;
+
+  void record(long micros, CallOutcome outcome) {
+    int index = (int) Thread.currentThread().getId() & (STRIPES - 1);
+    AtomicLongArray stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new AtomicLongArray(SUM_SLOT + 1));
+      stripe = stripes.get(index);
+    }
+    stripe.incrementAndGet(LatencyHistogram.bucketOf(micros));
+    stripe.incrementAndGet(OUTCOME_SLOT + outcome.ordinal());
+    stripe.addAndGet(SUM_SLOT, Math.min(Math.max(micros, 0), LatencyHistogram.MAX_MICROS));
+  }
+
+  /**
+   * Take the samples recorded since the last drain.
+   *
+   * @param outcomeCounts filled with the calls per {@link CallOutcome} ordinal
+   */
+  LatencyHistogram drain(long[] outcomeCounts) {
+    long[] counts = new long[LatencyHistogram.BUCKETS];
+    long totalCount = 0;
+    long totalMicros = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe == null) {
+        continue;
+      }
+      for (int bucket = 0; bucket < counts.length; bucket++) {
+        if (stripe.get(bucket) != 0) {
+          long count = stripe.getAndSet(bucket, 0);
+          counts[bucket] += count;
+          totalCount += count;
+        }
+      }
+      for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+        outcomeCounts[outcome] += stripe.getAndSet(OUTCOME_SLOT + outcome, 0);
+      }
+      totalMicros += stripe.getAndSet(SUM_SLOT, 0);
+    }
+    return totalCount == 0
+        ? LatencyHistogram.EMPTY
+        : new LatencyHistogram(counts, totalCount, totalMicros);
+  }
+}
@@ -0,0 +1,40 @@
+package com.payments.domain.shared;
+
+import java.time.Instant;
+import lombok.*;
+
+/** The calls of one {@link LatencyMetrics} key in one interval. */
+@Value
+@AllArgsConstructor
+public class LatencyWindow<K> {
+  K key;
+  Instant start;
+  Instant end;
+  LatencyHistogram histogram;
+  long successCount;
+  long failureCount;
+  long timeoutCount;
+
+  public long getCallCount() {
+    return successCount + failureCount + timeoutCount;
+  }
+
+  /** Failed and timed-out calls as a percentage of all calls. */
+  public double getErrorRatePercent() {
+    long calls = getCallCount();
+    return calls == 0 ? 0 : 100.0 * (failureCount + timeoutCount) / calls;
+  }
+
+  /** {@code p} percent of the calls took at most this many milliseconds, to the nearest one. */
+  public int getPercentileMillis(double p) {
+    return toMillis(histogram.getValueAtPercentile(p));
+  }
+
+  public int getMeanMillis() {
+    return toMillis(Math.round(histogram.getMeanMicros()));
+  }
+
+  private static int toMillis(long micros) {
+    return (int) Math.min((micros + 500) / 1000, Integer.MAX_VALUE);
+  }
+}
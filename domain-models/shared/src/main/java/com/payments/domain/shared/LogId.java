@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** LogId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class LogId {
   }
 
   public static LogId generate() {
-    return new LogId("LOG-" + UUID.randomUUID().toString());
+    return new LogId(Ids.next("LOG-"));
   }
 }
@@ -0,0 +1,34 @@
+package com.payments.domain.shared;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Maps an amount held as a {@code long} count of minor units, as in {@link CompactMoney}, onto a
+ * decimal amount column of the same scale as {@link Money}.
+ */
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+  @Override
+  public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+    return minorUnits == null ? null : BigDecimal.valueOf(minorUnits, CompactMoney.SCALE);
+  }
+
+  @Override
+  public Long convertToEntityAttribute(BigDecimal amount) {
+    if (amount == null) {
+      return null;
+    }
+    try {
+      return amount
+          .setScale(CompactMoney.SCALE, RoundingMode.HALF_UP)
+          .unscaledValue()
+          .longValueExact();
+    } catch (ArithmeticException e) {
+      throw new ArithmeticException("Amount out of range for minor units: " + amount);
+    }
+  }
+}
@@ -15,8 +15,10 @@ import lombok.Value;
 @Value // Lombok: Immutable, equals/hashCode based on fields
 public class Money {
 
+  @WireTag(1)
   BigDecimal amount;
 
+  @WireTag(2)
   Currency currency;
 
   // Private constructor - use factory methods
@@ -46,6 +48,16 @@ public class Money {
     return new Money(BigDecimal.ZERO, currency);
   }
 
+  /** Build from a count of minor units (hundredths); no rescaling is needed. */
+  public static Money ofMinorUnits(long minorUnits, Currency currency) {
+    return new Money(BigDecimal.valueOf(minorUnits, 2), currency);
+  }
+
+  /** Bridge to the primitive-backed representation used on hot paths. */
+  public CompactMoney toCompact() {
+    return CompactMoney.from(this);
+  }
+
   // Business methods
   public Money add(Money other) {
     assertSameCurrency(other);
@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** PaymentId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class PaymentId {
   }
 
   public static PaymentId generate() {
-    return new PaymentId("PAY-" + UUID.randomUUID().toString());
+    return new PaymentId(Ids.next("PAY-"));
   }
 }
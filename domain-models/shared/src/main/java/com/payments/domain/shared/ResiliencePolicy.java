@@ -0,0 +1,40 @@
+package com.payments.domain.shared;
+
+import java.time.Duration;
+import lombok.*;
+
+/**
+ * Settings of a {@link BackendGuard}
+ *
+ * <p>The circuit opens once the last {@code window} holds at least {@code failureThreshold} failed
+ * calls and they are at least {@code failureRatePercent} of its calls; a call slower than {@code
+ * timeout} counts as failed. After {@code openDuration} up to {@code halfOpenProbes} calls are let
+ * through, and the circuit closes once they all succeed.
+ *
+ * <p>The concurrency limit starts at {@code initialLimit} and adapts between {@code minLimit} and
+ * {@code maxLimit} to the observed latency.
+ */
+@Value
+@AllArgsConstructor
+public class ResiliencePolicy {
+  Duration timeout;
+  Duration window;
+  int failureThreshold;
+  int failureRatePercent;
+  Duration openDuration;
+  int halfOpenProbes;
+  int initialLimit;
+  int minLimit;
+  int maxLimit;
+
+  /**
+   * The {@code backend_systems} defaults (5 failures, 60 seconds open) over a one minute window,
+   * with a limit of 20 calls in flight to start with.
+   *
+   * @param timeout the adapter's {@code timeoutSeconds}
+   */
+  public static ResiliencePolicy defaults(Duration timeout) {
+    return new ResiliencePolicy(
+        timeout, Duration.ofMinutes(1), 5, 50, Duration.ofSeconds(60), 3, 20, 1, 200);
+  }
+}
@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** RoutingRuleId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class RoutingRuleId {
   }
 
   public static RoutingRuleId generate() {
-    return new RoutingRuleId("RR-" + UUID.randomUUID().toString());
+    return new RoutingRuleId(Ids.next("RR-"));
   }
 }
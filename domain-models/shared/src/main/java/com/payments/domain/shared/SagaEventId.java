@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** SagaEventId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class SagaEventId {
   }
 
   public static SagaEventId generate() {
-    return new SagaEventId("EVENT-" + UUID.randomUUID().toString());
+    return new SagaEventId(Ids.next("EVENT-"));
   }
 }
@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** SagaId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class SagaId {
   }
 
   public static SagaId generate() {
-    return new SagaId("SAGA-" + UUID.randomUUID().toString());
+    return new SagaId(Ids.next("SAGA-"));
   }
 }
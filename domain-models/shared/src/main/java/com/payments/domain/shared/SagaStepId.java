@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 /** SagaStepId - Value Object (Entity ID) */
@@ -22,6 +21,6 @@ public class SagaStepId {
   }
 
   public static SagaStepId generate() {
-    return new SagaStepId("STEP-" + UUID.randomUUID().toString());
+    return new SagaStepId(Ids.next("STEP-"));
   }
 }
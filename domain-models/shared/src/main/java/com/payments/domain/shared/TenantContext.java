@@ -13,10 +13,19 @@ import lombok.Value;
 @AllArgsConstructor
 @NoArgsConstructor(force = true, access = AccessLevel.PROTECTED)
 public class TenantContext {
+  @WireTag(1)
   String tenantId;
-  @Transient String tenantName;
+
+  @Transient
+  @WireTag(2)
+  String tenantName;
+
+  @WireTag(3)
   String businessUnitId;
-  @Transient String businessUnitName;
+
+  @Transient
+  @WireTag(4)
+  String businessUnitName;
 
   public static TenantContext of(
       String tenantId, String tenantName, String businessUnitId, String businessUnitName) {
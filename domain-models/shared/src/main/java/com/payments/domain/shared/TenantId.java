@@ -1,7 +1,6 @@
 package com.payments.domain.shared;
 
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.Value;
@@ -25,6 +24,6 @@ public class TenantId {
   }
 
   public static TenantId generate() {
-    return new TenantId("TNT-" + UUID.randomUUID().toString());
+    return new TenantId(Ids.next("TNT-"));
   }
 }
@@ -0,0 +1,121 @@
+package com.payments.domain.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * ULID-style, time-ordered IDs
+ *
+ * <p>Each ID is 128 bits written as 26 Crockford base32 characters: a 48-bit millisecond timestamp
+ * followed by 80 random bits. IDs therefore sort by creation time, and inserts into the {@code
+ * VARCHAR} primary key indexes append at the right-hand edge instead of splitting pages all over
+ * the tree. {@code PAY-} plus an ID is 30 characters, against 40 for a random UUID.
+ *
+ * <p>State is per thread, so generation never contends. Within one thread IDs are strictly
+ * increasing: in the same millisecond (or if the clock steps back) the random part is incremented
+ * instead of redrawn. The random bits come from {@link ThreadLocalRandom}; IDs identify entities
+ * and are not secrets.
+ *
+ * <p>{@link #nextIds} allocates a block: the clock is read once and the block's IDs are consecutive
+ * values of the random part, so bulk creation pays neither a clock read nor a random draw per ID.
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+  /** Length of an ID without prefix. */
+  public static final int LENGTH = 26;
+
+  private static final byte[] ALPHABET =
+      "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+  private final LongSupplier currentMillis;
+  private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+  public TimeOrderedIdGenerator() {
+    this(System::currentTimeMillis);
+  }
+
+  TimeOrderedIdGenerator(LongSupplier currentMillis) {
+    this.currentMillis = currentMillis;
+  }
+
+  @Override
+  public String nextId(String prefix) {
+    State state = states.get();
+    advance(state, currentMillis.getAsLong());
+    byte[] id = prefixed(prefix);
+    encodeMillis(id, prefix.length(), state);
+    return encodeRandom(id, prefix.length(), state);
+  }
+
+  @Override
+  public String[] nextIds(String prefix, int count) {
+    String[] ids = new String[count];
+    if (count == 0) {
+      return ids;
+    }
+    State state = states.get();
+    long now = currentMillis.getAsLong();
+    int prefixLength = prefix.length();
+    byte[] id = prefixed(prefix);
+    long encodedMillis = Long.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      advance(state, now);
+      if (state.millis != encodedMillis) {
+        encodeMillis(id, prefixLength, state);
+        encodedMillis = state.millis;
+      }
+      ids[i] = encodeRandom(id, prefixLength, state);
+    }
+    return ids;
+  }
+
+  /** Move to the next value: a fresh random part in a new millisecond, else the next one. */
+  private static void advance(State state, long now) {
+    if (now > state.millis) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      state.millis = now;
+      state.randomHigh = random.nextInt() & 0xFFFF;
+      state.randomLow = random.nextLong();
+    } else if (++state.randomLow == 0) {
+      state.randomHigh = (state.randomHigh + 1) & 0xFFFF;
+      if (state.randomHigh == 0) {
+        // 80-bit increment overflowed: borrow the next millisecond
+        state.millis++;
+      }
+    }
+  }
+
+  private static byte[] prefixed(String prefix) {
+    int prefixLength = prefix.length();
+    byte[] id = new byte[prefixLength + LENGTH];
+    for (int i = 0; i < prefixLength; i++) {
+      id[i] = (byte) prefix.charAt(i);
+    }
+    return id;
+  }
+
+  private static void encodeMillis(byte[] id, int offset, State state) {
+    encode(id, offset, 10, state.millis);
+  }
+
+  private static String encodeRandom(byte[] id, int offset, State state) {
+    encode(id, offset + 10, 8, ((long) state.randomHigh << 24) | (state.randomLow >>> 40));
+    encode(id, offset + 18, 8, state.randomLow & 0xFF_FFFF_FFFFL);
+    return new String(id, StandardCharsets.ISO_8859_1);
+  }
+
+  /** Write the low {@code 5 * chars} bits of {@code value}, most significant first. */
+  private static void encode(byte[] target, int offset, int chars, long value) {
+    for (int i = offset + chars - 1; i >= offset; i--) {
+      target[i] = ALPHABET[(int) (value & 31)];
+      value >>>= 5;
+    }
+  }
+
+  private static final class State {
+    long millis = Long.MIN_VALUE;
+    int randomHigh;
+    long randomLow;
+  }
+}
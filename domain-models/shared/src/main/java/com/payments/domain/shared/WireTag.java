@@ -0,0 +1,22 @@
+package com.payments.domain.shared;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binary wire tag of a field of an event payload or of a record nested in one.
+ *
+ * <p>Every field of a type of more than one field must carry a tag; the codec refuses the type
+ * otherwise. Fields may then be reordered freely, and added under new tags; a removed field's tag
+ * must never be reused. The field of a one-field type may go untagged, as tag 1.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface WireTag {
+  int MAX = 4095;
+
+  /** From 1 to {@value #MAX}. */
+  int value();
+}
@@ -0,0 +1,134 @@
+package com.payments.domain.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AsyncBatchWriterTest {
+
+  private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  void close_writes_out_everything_queued_in_order() {
+    AsyncBatchWriter<Integer> writer =
+        new AsyncBatchWriter<>("test-writer", 16, 2, Duration.ofHours(1), batches::add);
+    for (int i = 1; i <= 5; i++) {
+      assertTrue(writer.offer(i));
+    }
+    writer.close();
+
+    List<Integer> written = new ArrayList<>();
+    batches.forEach(written::addAll);
+    assertEquals(List.of(1, 2, 3, 4, 5), written);
+    assertTrue(batches.stream().allMatch(batch -> batch.size() <= 2));
+    assertEquals(5, writer.getWrittenCount());
+  }
+
+  @Test
+  void full_queue_drops_and_counts_instead_of_blocking() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    AsyncBatchWriter<Integer> writer =
+        new AsyncBatchWriter<>(
+            "test-writer",
+            2,
+            1,
+            Duration.ofMillis(1),
+            batch -> {
+              entered.countDown();
+              await(proceed);
+              batches.add(batch);
+            });
+    assertTrue(writer.offer(1));
+    assertTrue(entered.await(5, TimeUnit.SECONDS)); // The worker holds 1 in the sink
+    assertTrue(writer.offer(2));
+    assertTrue(writer.offer(3));
+    assertFalse(writer.offer(4));
+    assertEquals(1, writer.getDroppedCount());
+
+    proceed.countDown();
+    writer.close();
+    assertEquals(3, writer.getWrittenCount());
+  }
+
+  @Test
+  void failing_sink_counts_the_lost_batch_and_keeps_writing() {
+    AsyncBatchWriter<Integer> writer =
+        new AsyncBatchWriter<>(
+            "test-writer",
+            16,
+            3,
+            Duration.ofHours(1),
+            batch -> {
+              if (batch.contains(2)) {
+                throw new IllegalStateException("insert failed");
+              }
+              batches.add(batch);
+            });
+    for (int i = 1; i <= 4; i++) {
+      writer.offer(i);
+    }
+    writer.close();
+
+    assertEquals(1, writer.getFailedBatchCount());
+    assertEquals(3, writer.getFailedCount());
+    assertEquals(1, writer.getWrittenCount());
+    assertEquals(List.of(List.of(4)), batches);
+  }
+
+  @Test
+  void items_offered_while_closing_are_written_or_refused() throws Exception {
+    AtomicLong accepted = new AtomicLong();
+    AtomicLong written = new AtomicLong();
+    AtomicBoolean stop = new AtomicBoolean();
+    AsyncBatchWriter<Integer> writer =
+        new AsyncBatchWriter<>(
+            "test-writer",
+            1_024,
+            64,
+            Duration.ofMillis(1),
+            batch -> written.addAndGet(batch.size()));
+    List<Thread> producers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread producer =
+          new Thread(
+              () -> {
+                while (!stop.get()) {
+                  if (writer.offer(1)) {
+                    accepted.incrementAndGet();
+                  }
+                }
+              });
+      producer.start();
+      producers.add(producer);
+    }
+    Thread.sleep(20);
+    writer.close();
+    Thread.sleep(20); // Producers keep offering after close
+    stop.set(true);
+    for (Thread producer : producers) {
+      producer.join(5_000);
+    }
+
+    assertFalse(writer.offer(1));
+    assertThrows(IllegalStateException.class, () -> writer.put(1));
+    assertEquals(accepted.get(), written.get());
+    assertEquals(0, writer.getPendingCount());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
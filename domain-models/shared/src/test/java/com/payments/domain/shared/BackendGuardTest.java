@@ -0,0 +1,260 @@
+package com.payments.domain.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BackendGuardTest {
+
+  private static final TenantContext OWNER =
+      TenantContext.of("TNT-1", "Tenant One", "BU-1", "Payments");
+  private static final BackendSystemId CBS = BackendSystemId.of("CBS");
+  private static final ClearingAdapterId SAMOS = ClearingAdapterId.of("CLAD-SAMOS");
+  private static final ResiliencePolicy POLICY = ResiliencePolicy.defaults(Duration.ofSeconds(30));
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-03-01T08:00:00Z"));
+  private final InMemoryStateRepository repository = new InMemoryStateRepository();
+
+  @Test
+  void circuit_opens_on_failures_and_closes_after_successful_probes() {
+    List<CircuitState> seen = new ArrayList<>();
+    try (BackendGuardRegistry registry = new BackendGuardRegistry(repository, clock)) {
+      registry.addTransitionListener(status -> seen.add(status.getState()));
+      BackendGuard guard = registry.guard(CBS, OWNER, POLICY);
+      for (int i = 0; i < 4; i++) {
+        guard.release(guard.acquire(), CallOutcome.SUCCESS);
+        guard.release(guard.acquire(), CallOutcome.FAILURE);
+      }
+      assertEquals(CircuitState.CLOSED, guard.getState());
+      guard.release(guard.acquire(), CallOutcome.TIMEOUT);
+      assertEquals(CircuitState.OPEN, registry.getCircuitState(CBS));
+
+      BackendUnavailableException refused =
+          assertThrows(BackendUnavailableException.class, guard::acquire);
+      assertTrue(refused.isCircuitOpen());
+      assertEquals(0, guard.getInFlight());
+
+      clock.advance(Duration.ofSeconds(60));
+      long[] probes = {guard.acquire(), guard.acquire(), guard.acquire()};
+      assertEquals(CircuitState.HALF_OPEN, guard.getState());
+      assertThrows(BackendUnavailableException.class, guard::acquire);
+      for (long probe : probes) {
+        guard.release(probe, CallOutcome.SUCCESS);
+      }
+      assertEquals(CircuitState.CLOSED, guard.getState());
+      assertEquals(2, guard.getShedByCircuitCount());
+    }
+
+    assertEquals(List.of(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED), seen);
+    CircuitBreakerStatus opened = repository.saved.get(0);
+    assertEquals(5, opened.getFailureCount());
+    assertEquals(Instant.parse("2024-03-01T08:01:00Z"), opened.getNextRetryAt());
+    assertEquals("TNT-1", opened.getTenantId());
+  }
+
+  @Test
+  void only_probes_decide_a_half_open_circuit() {
+    try (BackendGuardRegistry registry = new BackendGuardRegistry(repository, clock)) {
+      BackendGuard guard = registry.guard(CBS, OWNER, POLICY);
+      long slowSuccess = guard.acquire();
+      long slowFailure = guard.acquire();
+      for (int i = 0; i < 5; i++) {
+        guard.release(guard.acquire(), CallOutcome.FAILURE);
+      }
+      clock.advance(Duration.ofSeconds(60));
+      long[] probes = {guard.acquire(), guard.acquire(), guard.acquire()};
+
+      // Started while the circuit was closed: neither closes nor reopens it
+      guard.release(slowFailure, CallOutcome.FAILURE);
+      guard.release(slowSuccess, CallOutcome.SUCCESS);
+      guard.release(probes[0], CallOutcome.SUCCESS);
+      guard.release(probes[1], CallOutcome.SUCCESS);
+      assertEquals(CircuitState.HALF_OPEN, guard.getState());
+      guard.release(probes[2], CallOutcome.SUCCESS);
+      assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+  }
+
+  @Test
+  void failures_below_the_failure_rate_keep_the_circuit_closed() {
+    try (BackendGuardRegistry registry = new BackendGuardRegistry(repository, clock)) {
+      BackendGuard guard = registry.guard(CBS, OWNER, POLICY);
+      for (int i = 0; i < 100; i++) {
+        guard.release(guard.acquire(), i % 10 == 0 ? CallOutcome.FAILURE : CallOutcome.SUCCESS);
+      }
+      assertEquals(CircuitState.CLOSED, guard.getState());
+
+      // The failures age out of the window
+      clock.advance(Duration.ofMinutes(1));
+      for (int i = 0; i < 4; i++) {
+        guard.release(guard.acquire(), CallOutcome.FAILURE);
+      }
+      assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+  }
+
+  @Test
+  void a_persisted_open_circuit_stays_open_until_its_retry() {
+    repository.saved.add(
+        new CircuitBreakerStatus(
+            GuardedSystemType.CLEARING_ADAPTER,
+            SAMOS.getValue(),
+            CircuitState.OPEN,
+            5,
+            null,
+            null,
+            clock.instant(),
+            clock.instant().plusSeconds(30),
+            "TNT-1",
+            "BU-1"));
+    List<CircuitBreakerStatus> seen = new ArrayList<>();
+    try (BackendGuardRegistry registry = new BackendGuardRegistry(repository, clock)) {
+      registry.addTransitionListener(seen::add);
+      BackendGuard guard = registry.guard(SAMOS, OWNER, POLICY);
+      assertEquals(1, seen.size());
+      assertEquals(CircuitState.OPEN, seen.get(0).getState());
+      assertEquals(clock.instant().plusSeconds(30), seen.get(0).getNextRetryAt());
+      assertThrows(BackendUnavailableException.class, guard::acquire);
+      clock.advance(Duration.ofSeconds(30));
+      guard.release(guard.acquire(), CallOutcome.SUCCESS);
+      assertEquals(CircuitState.HALF_OPEN, guard.getState());
+    }
+  }
+
+  @Test
+  void waiting_caller_takes_the_permit_of_the_call_that_ends_but_not_past_an_open_circuit()
+      throws Exception {
+    ResiliencePolicy single =
+        new ResiliencePolicy(
+            Duration.ofSeconds(30),
+            Duration.ofMinutes(1),
+            5,
+            50,
+            Duration.ofSeconds(60),
+            3,
+            1,
+            1,
+            1);
+    try (BackendGuardRegistry registry = new BackendGuardRegistry(repository, clock)) {
+      BackendGuard guard = registry.guard(CBS, OWNER, single);
+      long held = guard.acquire();
+      long[] waited = new long[1];
+      Thread waiter =
+          new Thread(
+              () -> {
+                try {
+                  waited[0] = guard.acquire(Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      waiter.start();
+      while (waiter.getState() != Thread.State.TIMED_WAITING) {
+        Thread.onSpinWait();
+      }
+      guard.release(held, CallOutcome.SUCCESS);
+      waiter.join(5_000);
+      assertFalse(waiter.isAlive());
+      assertEquals(1, guard.getInFlight());
+      guard.release(waited[0], CallOutcome.SUCCESS);
+
+      for (int i = 0; i < 5; i++) {
+        guard.release(guard.acquire(), CallOutcome.FAILURE);
+      }
+      long started = System.nanoTime();
+      BackendUnavailableException refused =
+          assertThrows(
+              BackendUnavailableException.class, () -> guard.acquire(Duration.ofSeconds(30)));
+      assertTrue(refused.isCircuitOpen());
+      assertTrue(System.nanoTime() - started < Duration.ofSeconds(5).toNanos());
+      assertEquals(0, guard.getInFlight());
+    }
+  }
+
+  @Test
+  void limit_grows_under_load_and_shrinks_as_latency_rises() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 200);
+    for (int i = 0; i < 200; i++) {
+      fill(limit, limit.getLimit());
+      limit.release(10_000_000, false); // 10ms with the limit in use
+      drain(limit);
+    }
+    int grown = limit.getLimit();
+    assertTrue(grown > 40, "limit " + grown);
+
+    for (int i = 0; i < 20; i++) {
+      fill(limit, limit.getLimit());
+      limit.release(40_000_000, false); // Queueing: four times as slow
+      drain(limit);
+    }
+    int queueing = limit.getLimit();
+    assertTrue(queueing < grown / 2, "limit " + queueing + " after " + grown);
+
+    assertTrue(limit.tryAcquire());
+    limit.release(10_000_000, true);
+    assertEquals((int) (queueing * 0.9), limit.getLimit(), 1);
+
+    fill(limit, limit.getLimit());
+    assertFalse(limit.tryAcquire());
+  }
+
+  private static void fill(AdaptiveConcurrencyLimit limit, int calls) {
+    for (int i = limit.getInFlight(); i < calls; i++) {
+      assertTrue(limit.tryAcquire());
+    }
+  }
+
+  private static void drain(AdaptiveConcurrencyLimit limit) {
+    while (limit.getInFlight() > 0) {
+      limit.cancel();
+    }
+  }
+
+  private static final class InMemoryStateRepository implements CircuitBreakerStateRepository {
+    final List<CircuitBreakerStatus> saved = new ArrayList<>();
+
+    @Override
+    public synchronized List<CircuitBreakerStatus> findAll() {
+      return new ArrayList<>(saved);
+    }
+
+    @Override
+    public synchronized void saveAll(List<CircuitBreakerStatus> statuses) {
+      saved.addAll(statuses);
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
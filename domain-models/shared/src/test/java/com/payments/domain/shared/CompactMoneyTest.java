@@ -0,0 +1,59 @@
+package com.payments.domain.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import org.junit.jupiter.api.Test;
+
+class CompactMoneyTest {
+
+  @Test
+  void bridges_to_and_from_money_without_loss() {
+    Money money = Money.zar(new BigDecimal("1234.56"));
+
+    CompactMoney compact = CompactMoney.from(money);
+
+    assertEquals(123456L, compact.getMinorUnits());
+    assertEquals(Currency.getInstance("ZAR"), compact.getCurrency());
+    assertEquals(money, compact.toMoney());
+  }
+
+  @Test
+  void arithmetic_matches_money() {
+    Money a = Money.zar(new BigDecimal("10.25"));
+    Money b = Money.zar(new BigDecimal("0.75"));
+
+    assertEquals(a.add(b), a.toCompact().add(b.toCompact()).toMoney());
+    assertEquals(a.subtract(b), a.toCompact().subtract(b.toCompact()).toMoney());
+    assertEquals(a.multiply(BigDecimal.valueOf(3)), a.toCompact().multiply(3).toMoney());
+    assertTrue(a.toCompact().isGreaterThan(b.toCompact()));
+    assertTrue(CompactMoney.zar(0).isNegativeOrZero());
+  }
+
+  @Test
+  void overflow_is_detected() {
+    CompactMoney max = CompactMoney.zar(Long.MAX_VALUE);
+
+    assertThrows(ArithmeticException.class, () -> max.add(CompactMoney.zar(1)));
+    assertThrows(ArithmeticException.class, () -> max.multiply(2));
+  }
+
+  @Test
+  void minor_units_map_onto_the_decimal_amount_column() {
+    MinorUnitsConverter converter = new MinorUnitsConverter();
+
+    assertEquals(new BigDecimal("1234.56"), converter.convertToDatabaseColumn(123456L));
+    assertEquals(123456L, converter.convertToEntityAttribute(new BigDecimal("1234.56")));
+    assertEquals(500L, converter.convertToEntityAttribute(new BigDecimal("5")));
+    assertNull(converter.convertToDatabaseColumn(null));
+  }
+
+  @Test
+  void rejects_mixed_currencies() {
+    CompactMoney zar = CompactMoney.zar(100);
+    CompactMoney usd = CompactMoney.ofMinor(100, Currency.getInstance("USD"));
+
+    assertThrows(IllegalArgumentException.class, () -> zar.add(usd));
+  }
+}
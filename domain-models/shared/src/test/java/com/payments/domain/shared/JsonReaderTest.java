@@ -0,0 +1,37 @@
+package com.payments.domain.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonReaderTest {
+
+  @Test
+  void reads_objects_arrays_and_scalars() {
+    Object value =
+        JsonReader.parse(" {\"all\": [\"a\\u002a\\n\", 12.50, true, null], \"any\": {}} ");
+
+    Map<?, ?> object = (Map<?, ?>) value;
+    assertEquals(List.of("all", "any"), List.copyOf(object.keySet()));
+    List<?> all = (List<?>) object.get("all");
+    assertEquals("a*\n", all.get(0));
+    assertEquals(new BigDecimal("12.50"), all.get(1));
+    assertEquals(Boolean.TRUE, all.get(2));
+    assertNull(all.get(3));
+    assertEquals(Map.of(), object.get("any"));
+  }
+
+  @Test
+  void rejects_what_json_does_not_allow() {
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[\"a\\x\"]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[\"\\u00zz\"]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[\"a\tb\"]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[1] [2]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("[\"open"));
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse("{\"a\" 1}"));
+    assertThrows(IllegalArgumentException.class, () -> JsonReader.parse(null));
+  }
+}
@@ -0,0 +1,94 @@
+package com.payments.domain.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LatencyMetricsTest {
+
+  @Test
+  void percentiles_are_within_the_bucket_precision_and_never_understated() {
+    List<LatencyWindow<String>> written = new ArrayList<>();
+    try (LatencyMetrics<String> metrics =
+        new LatencyMetrics<>("test", Duration.ofHours(1), written::addAll)) {
+      // 1ms .. 100ms, one sample each
+      for (long millis = 1; millis <= 100; millis++) {
+        metrics.record("EFT", millis * 1000, CallOutcome.SUCCESS);
+      }
+      metrics.rotate();
+    }
+
+    LatencyHistogram histogram = written.get(0).getHistogram();
+    assertEquals(100, histogram.getCount());
+    assertBetween(95_000, 95_000 * 33 / 32, histogram.getValueAtPercentile(95));
+    assertBetween(99_000, 99_000 * 33 / 32, histogram.getValueAtPercentile(99));
+    assertBetween(100_000, 100_000 * 33 / 32, histogram.getMaxMicros());
+    assertEquals(50_500, histogram.getMeanMicros(), 0.001);
+  }
+
+  @Test
+  void rotation_starts_a_new_window_per_key_and_keeps_the_latest() throws InterruptedException {
+    List<LatencyWindow<String>> written = new ArrayList<>();
+    try (LatencyMetrics<String> metrics =
+        new LatencyMetrics<>("test", Duration.ofHours(1), written::addAll)) {
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        Thread thread =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < 10_000; i++) {
+                    metrics.record("SAMOS", 2_000, CallOutcome.SUCCESS);
+                  }
+                  metrics.record("SAMOS", 5_000_000, CallOutcome.TIMEOUT);
+                });
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      metrics.record("BANKSERV", 1_000, CallOutcome.FAILURE);
+      metrics.rotate();
+
+      LatencyWindow<String> samos = metrics.getLatest("SAMOS");
+      assertEquals(40_004, samos.getCallCount());
+      assertEquals(4, samos.getTimeoutCount());
+      assertEquals(2, samos.getPercentileMillis(99));
+      assertEquals(100.0, metrics.getLatest("BANKSERV").getErrorRatePercent());
+
+      metrics.record("BANKSERV", 1_000, CallOutcome.SUCCESS);
+      metrics.rotate();
+      assertEquals(0.0, metrics.getLatest("BANKSERV").getErrorRatePercent());
+      assertSame(samos, metrics.getLatest("SAMOS"));
+    }
+    assertEquals(3, written.size());
+  }
+
+  @Test
+  void idle_keys_are_forgotten_and_start_afresh() {
+    List<LatencyWindow<String>> written = new ArrayList<>();
+    try (LatencyMetrics<String> metrics =
+        new LatencyMetrics<>("test", Duration.ofHours(1), written::addAll)) {
+      metrics.record("PAYSHAP", 3_000, CallOutcome.SUCCESS);
+      metrics.rotate();
+      for (int i = 1; i < LatencyMetrics.IDLE_INTERVALS_BEFORE_EVICTION; i++) {
+        metrics.rotate();
+      }
+      assertNotNull(metrics.getLatest("PAYSHAP"));
+      metrics.rotate();
+      assertNull(metrics.getLatest("PAYSHAP"));
+
+      metrics.record("PAYSHAP", 4_000, CallOutcome.FAILURE);
+      metrics.rotate();
+      assertEquals(1, metrics.getLatest("PAYSHAP").getFailureCount());
+    }
+    assertEquals(2, written.size());
+  }
+
+  private static void assertBetween(long low, long high, long actual) {
+    assertTrue(actual >= low && actual <= high, actual + " not in [" + low + ", " + high + "]");
+  }
+}
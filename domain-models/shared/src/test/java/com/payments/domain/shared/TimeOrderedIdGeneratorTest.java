@@ -0,0 +1,87 @@
+package com.payments.domain.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdGeneratorTest {
+
+  @Test
+  void ids_are_prefixed_crockford_base32_with_the_timestamp_first() {
+    TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 1_700_000_000_000L);
+
+    String id = generator.nextId("PAY-");
+
+    assertEquals(4 + TimeOrderedIdGenerator.LENGTH, id.length());
+    assertTrue(id.matches("PAY-[0-9A-HJKMNP-TV-Z]{26}"));
+    assertEquals("01HF7YAT00", id.substring(4, 14));
+  }
+
+  @Test
+  void ids_increase_within_a_millisecond_and_when_the_clock_steps_back() {
+    AtomicLong clock = new AtomicLong(1_000_000L);
+    TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+    String previous = generator.nextId("X-");
+    for (int i = 0; i < 10_000; i++) {
+      if (i == 5_000) {
+        clock.set(999_000L);
+      } else if (i % 100 == 0) {
+        clock.addAndGet(1);
+      }
+      String next = generator.nextId("X-");
+      assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+      previous = next;
+    }
+  }
+
+  @Test
+  void block_ids_share_one_clock_read_and_continue_the_sequence() {
+    AtomicLong reads = new AtomicLong();
+    TimeOrderedIdGenerator generator =
+        new TimeOrderedIdGenerator(
+            () -> {
+              reads.incrementAndGet();
+              return 1_700_000_000_000L;
+            });
+
+    String[] block = generator.nextIds("TXN-", 1_000);
+
+    assertEquals(1, reads.get());
+    assertEquals(1_000, block.length);
+    for (int i = 1; i < block.length; i++) {
+      assertTrue(block[i].compareTo(block[i - 1]) > 0, block[i - 1] + " >= " + block[i]);
+      assertEquals("TXN-01HF7YAT00", block[i].substring(0, 14));
+    }
+    assertTrue(generator.nextId("TXN-").compareTo(block[999]) > 0);
+    assertEquals(0, generator.nextIds("TXN-", 0).length);
+  }
+
+  @Test
+  void ids_are_unique_across_threads() throws InterruptedException {
+    TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 20_000; i++) {
+                  ids.add(generator.nextId("TXN-"));
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(160_000, ids.size());
+  }
+}
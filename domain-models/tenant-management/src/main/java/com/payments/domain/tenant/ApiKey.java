@@ -0,0 +1,31 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.*;
+import java.time.Instant;
+import lombok.*;
+
+/** Row of {@code tenant_api_keys}, its permissions parsed into an {@link ApiPermission} mask. */
+@Value
+@AllArgsConstructor
+public class ApiKey {
+  String apiKeyId;
+  TenantId tenantId;
+  BusinessUnitId businessUnitId;
+  String apiKeyName;
+  String apiKeyHash;
+  long permissionMask;
+  // 0 means no limit
+  int rateLimitPerMinute;
+  int rateLimitPerHour;
+  int rateLimitPerDay;
+  boolean active;
+  Instant expiresAt;
+
+  public boolean hasPermission(ApiPermission permission) {
+    return (permissionMask & permission.mask()) != 0;
+  }
+
+  public boolean isExpiredAt(Instant now) {
+    return expiresAt != null && !expiresAt.isAfter(now);
+  }
+}
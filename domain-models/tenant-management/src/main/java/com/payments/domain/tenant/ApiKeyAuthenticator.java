@@ -0,0 +1,541 @@
+package com.payments.domain.tenant;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies API keys against {@code tenant_api_keys} and enforces their rate limits.
+ *
+ * <ul>
+ *   <li>keys are looked up by SHA-256 hash in lock-striped, access-ordered segments (LRU eviction
+ *       per segment once the size bound is reached)
+ *   <li>a hash with no key is remembered for {@code unknownKeyTtl} so guessed keys do not reach the
+ *       database. Those hashes have segments of their own, bounded by {@code maximumUnknownSize},
+ *       so a flood of guesses cannot evict real keys
+ *   <li>permissions are checked against the mask parsed when the key was loaded
+ *   <li>the per-minute, per-hour and per-day limits are token buckets by key id, outside the LRU
+ *       segments: an evicted or reloaded key keeps its buckets while their limits are unchanged.
+ *       Buckets that have filled up again are dropped every {@code lastUsedFlushInterval}; a new
+ *       one is just as full
+ *   <li>cached keys are reloaded after {@code keyTtl}
+ *   <li>{@code last_used_at} is written back in batches every {@code lastUsedFlushInterval},
+ *       including the last use of keys evicted or reloaded since the previous flush
+ *   <li>{@link #revoke} rejects a key at once; every {@code revocationCheckInterval} the cached
+ *       keys are checked against the table and those no longer usable are revoked
+ * </ul>
+ *
+ * <p>Buckets live in this instance only: with several instances behind a load balancer each
+ * enforces the limits on the requests it serves.
+ */
+public class ApiKeyAuthenticator implements AutoCloseable {
+
+  private static final int SEGMENTS = 16;
+  private static final int REVOCATION_CHECK_BATCH = 500;
+  private static final long[] RATE_PERIOD_MILLIS = {60_000L, 3_600_000L, 86_400_000L};
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+              throw new IllegalStateException("SHA-256 is not available", e);
+            }
+          });
+
+  private final Segment[] segments = new Segment[SEGMENTS];
+  private final Segment[] unknownSegments = new Segment[SEGMENTS];
+  private final ConcurrentHashMap<String, RateLimits> rateLimits = new ConcurrentHashMap<>();
+  // Cached keys by id, to find their entry on revocation
+  private final ConcurrentHashMap<String, String> hashesById = new ConcurrentHashMap<>();
+  private final ApiKeyRepository repository;
+  private final long keyTtlMillis;
+  private final long unknownKeyTtlMillis;
+  private final Clock clock;
+  private final ScheduledExecutorService maintenance;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder rateLimited = new LongAdder();
+  private final LongAdder revocations = new LongAdder();
+
+  public ApiKeyAuthenticator(ApiKeyRepository repository) {
+    this(
+        repository,
+        10_000,
+        10_000,
+        Duration.ofMinutes(5),
+        Duration.ofSeconds(30),
+        Duration.ofSeconds(10),
+        Duration.ofSeconds(30),
+        Clock.systemUTC());
+  }
+
+  public ApiKeyAuthenticator(
+      ApiKeyRepository repository,
+      int maximumSize,
+      int maximumUnknownSize,
+      Duration keyTtl,
+      Duration unknownKeyTtl,
+      Duration revocationCheckInterval,
+      Duration lastUsedFlushInterval,
+      Clock clock) {
+    if (maximumSize < SEGMENTS || maximumUnknownSize < SEGMENTS) {
+      throw new IllegalArgumentException("Maximum sizes must be at least " + SEGMENTS);
+    }
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(maximumSize / SEGMENTS);
+      unknownSegments[i] = new Segment(maximumUnknownSize / SEGMENTS);
+    }
+    this.repository = repository;
+    this.keyTtlMillis = keyTtl.toMillis();
+    this.unknownKeyTtlMillis = unknownKeyTtl.toMillis();
+    this.clock = clock;
+    this.maintenance =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "api-key-maintenance");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long revocationMillis = revocationCheckInterval.toMillis();
+    maintenance.scheduleWithFixedDelay(
+        this::checkRevocationsQuietly, revocationMillis, revocationMillis, TimeUnit.MILLISECONDS);
+    long flushMillis = lastUsedFlushInterval.toMillis();
+    maintenance.scheduleWithFixedDelay(
+        this::flushLastUsedQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    maintenance.scheduleWithFixedDelay(
+        this::dropFullRateLimits, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // AUTHENTICATION
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * The key's row if it is active, grants {@code permission} and is within its rate limits; the
+   * request is counted against the limits.
+   *
+   * @throws ApiKeyRejectedException otherwise
+   */
+  public ApiKey authenticate(String apiKey, ApiPermission permission) {
+    if (apiKey == null || apiKey.isEmpty()) {
+      rejections.increment();
+      throw new ApiKeyRejectedException(ApiKeyRejectionReason.UNKNOWN_KEY, "No API key given");
+    }
+    String hash = hash(apiKey);
+    int index = segmentIndex(hash);
+    long now = clock.millis();
+    Entry entry = segments[index].get(hash);
+    if (entry == null) {
+      Entry unknown = unknownSegments[index].get(hash);
+      if (unknown == null || unknown.staleAt(now)) {
+        entry = load(index, hash, null, unknown, now);
+      } else {
+        hits.increment();
+        entry = unknown;
+      }
+    } else if (entry.staleAt(now)) {
+      entry = load(index, hash, entry, null, now);
+    } else {
+      hits.increment();
+    }
+
+    ApiKeyRejectionReason reason = segments[index].admit(entry, permission, now);
+    if (reason == null) {
+      return entry.key;
+    }
+    rejections.increment();
+    if (reason == ApiKeyRejectionReason.RATE_LIMITED) {
+      rateLimited.increment();
+    }
+    throw new ApiKeyRejectedException(reason, describe(reason, entry.key, permission));
+  }
+
+  /** Reject the key from now on, without waiting for the next revocation check. */
+  public void revoke(String apiKeyId) {
+    String hash = hashesById.get(apiKeyId);
+    if (hash != null
+        && segments[segmentIndex(hash)].revoke(hash, clock.millis() + unknownKeyTtlMillis)) {
+      revocations.increment();
+    }
+  }
+
+  /** Revoke the cached keys that are no longer active, have expired or were deleted. */
+  public void checkRevocations() {
+    List<String> apiKeyIds = new ArrayList<>(hashesById.keySet());
+    Instant now = clock.instant();
+    for (int from = 0; from < apiKeyIds.size(); from += REVOCATION_CHECK_BATCH) {
+      List<String> batch =
+          apiKeyIds.subList(from, Math.min(from + REVOCATION_CHECK_BATCH, apiKeyIds.size()));
+      Set<String> usable = repository.findUsable(batch, now);
+      for (String apiKeyId : batch) {
+        if (!usable.contains(apiKeyId)) {
+          revoke(apiKeyId);
+        }
+      }
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // LAST-USED WRITE-BACK
+  // ─────────────────────────────────────────────────────────
+
+  /** Write the latest use of every key used since the last flush to {@code last_used_at} now. */
+  public void flushLastUsed() {
+    List<ApiKeyUsage> pending = new ArrayList<>();
+    for (Segment segment : segments) {
+      segment.drainUsage(pending);
+    }
+    if (!pending.isEmpty()) {
+      repository.updateLastUsed(pending);
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** Lookups that went to {@code tenant_api_keys}. */
+  public long getLoadCount() {
+    return loads.sum();
+  }
+
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  public long getRateLimitedCount() {
+    return rateLimited.sum();
+  }
+
+  public long getRevocationCount() {
+    return revocations.sum();
+  }
+
+  @Override
+  public void close() {
+    maintenance.shutdown();
+    try {
+      maintenance.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flushLastUsedQuietly();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private Entry load(int index, String hash, Entry stale, Entry staleUnknown, long now) {
+    loads.increment();
+    ApiKey key = repository.findByHash(hash);
+    if (key != null) {
+      return segments[index].install(hash, stale, new Entry(key, now + keyTtlMillis));
+    }
+    if (stale != null) {
+      segments[index].remove(hash, stale); // Deleted from the table
+    }
+    return unknownSegments[index].install(
+        hash, staleUnknown, new Entry(null, now + unknownKeyTtlMillis));
+  }
+
+  /** Take a token from the key's buckets, created full if it has none with its limits. */
+  private boolean tryAcquire(ApiKey key, long now) {
+    while (true) {
+      RateLimits limits = rateLimits.get(key.getApiKeyId());
+      if (limits == null || !limits.sameLimits(key)) {
+        limits =
+            rateLimits.compute(
+                key.getApiKeyId(),
+                (id, current) ->
+                    current != null && current.sameLimits(key)
+                        ? current
+                        : new RateLimits(key, now));
+      }
+      Boolean acquired = limits.tryAcquire(now);
+      if (acquired != null) {
+        return acquired;
+      }
+      // Dropped as full meanwhile; its replacement is just as full
+    }
+  }
+
+  private void dropFullRateLimits() {
+    long now = clock.millis();
+    for (Map.Entry<String, RateLimits> entry : rateLimits.entrySet()) {
+      if (entry.getValue().retireIfFull(now)) {
+        rateLimits.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private void checkRevocationsQuietly() {
+    try {
+      checkRevocations();
+    } catch (RuntimeException e) {
+      // Retried at the next interval; revoke() still applies meanwhile
+    }
+  }
+
+  private void flushLastUsedQuietly() {
+    try {
+      flushLastUsed();
+    } catch (RuntimeException e) {
+      // last_used_at is advisory; the next use of the key writes it again
+    }
+  }
+
+  private static int segmentIndex(String hash) {
+    int h = hash.hashCode();
+    return (h ^ (h >>> 16)) & (SEGMENTS - 1);
+  }
+
+  private static String hash(String apiKey) {
+    MessageDigest digest = SHA_256.get();
+    return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String describe(ApiKeyRejectionReason reason, ApiKey key, ApiPermission perm) {
+    switch (reason) {
+      case UNKNOWN_KEY:
+        return "Unknown API key";
+      case INACTIVE:
+        return "API key " + key.getApiKeyId() + " has been revoked";
+      case EXPIRED:
+        return "API key " + key.getApiKeyId() + " expired at " + key.getExpiresAt();
+      case PERMISSION_DENIED:
+        return "API key " + key.getApiKeyId() + " does not grant " + perm.getCode();
+      default:
+        return "API key "
+            + key.getApiKeyId()
+            + " is over its rate limit of "
+            + key.getRateLimitPerMinute()
+            + "/minute, "
+            + key.getRateLimitPerHour()
+            + "/hour, "
+            + key.getRateLimitPerDay()
+            + "/day";
+    }
+  }
+
+  /** A cached lookup: the key, or a hash with no key ({@code key} null). */
+  private static final class Entry {
+    final ApiKey key;
+    long staleAtMillis;
+    boolean revoked;
+    long lastUsedMillis;
+    boolean usedSinceFlush;
+
+    Entry(ApiKey key, long staleAtMillis) {
+      this.key = key;
+      this.staleAtMillis = staleAtMillis;
+    }
+
+    // Read without the segment lock; a late view only delays the reload by one request
+    boolean staleAt(long nowMillis) {
+      return staleAtMillis <= nowMillis;
+    }
+  }
+
+  /** Token buckets for the per-minute, per-hour and per-day limits; 0 means no limit. */
+  private static final class RateLimits {
+    final int[] limits;
+    final double[] tokens;
+    long refilledAtMillis;
+    boolean retired;
+
+    RateLimits(ApiKey key, long nowMillis) {
+      this.limits =
+          new int[] {
+            key.getRateLimitPerMinute(), key.getRateLimitPerHour(), key.getRateLimitPerDay()
+          };
+      this.tokens = new double[limits.length];
+      for (int i = 0; i < limits.length; i++) {
+        tokens[i] = limits[i];
+      }
+      this.refilledAtMillis = nowMillis;
+    }
+
+    boolean sameLimits(ApiKey key) {
+      return limits[0] == key.getRateLimitPerMinute()
+          && limits[1] == key.getRateLimitPerHour()
+          && limits[2] == key.getRateLimitPerDay();
+    }
+
+    /**
+     * Take a token from every limited bucket, or none if one of them is empty; null if the buckets
+     * were dropped.
+     */
+    synchronized Boolean tryAcquire(long nowMillis) {
+      if (retired) {
+        return null;
+      }
+      refill(nowMillis);
+      for (int i = 0; i < limits.length; i++) {
+        if (limits[i] > 0 && tokens[i] < 1) {
+          return false;
+        }
+      }
+      for (int i = 0; i < limits.length; i++) {
+        if (limits[i] > 0) {
+          tokens[i] -= 1;
+        }
+      }
+      return true;
+    }
+
+    /** Stop handing out tokens if every bucket is full again; true if so. */
+    synchronized boolean retireIfFull(long nowMillis) {
+      refill(nowMillis);
+      for (int i = 0; i < limits.length; i++) {
+        if (tokens[i] < limits[i]) {
+          return false;
+        }
+      }
+      retired = true;
+      return true;
+    }
+
+    private void refill(long nowMillis) {
+      long elapsed = nowMillis - refilledAtMillis;
+      if (elapsed > 0) {
+        for (int i = 0; i < limits.length; i++) {
+          double refill = elapsed * (double) limits[i] / RATE_PERIOD_MILLIS[i];
+          tokens[i] = Math.min(limits[i], tokens[i] + refill);
+        }
+        refilledAtMillis = nowMillis;
+      }
+    }
+  }
+
+  /** One lock stripe: an access-ordered LinkedHashMap evicting its least recently used entry. */
+  private final class Segment {
+    private final LinkedHashMap<String, Entry> map;
+
+    /** Unwritten uses of keys no longer in the map, until the next flush. */
+    private final List<ApiKeyUsage> releasedUsage = new ArrayList<>();
+
+    Segment(int capacity) {
+      this.map =
+          new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+              if (size() > capacity) {
+                release(eldest.getKey(), eldest.getValue());
+                return true;
+              }
+              return false;
+            }
+          };
+    }
+
+    synchronized Entry get(String hash) {
+      return map.get(hash);
+    }
+
+    /** Cache {@code fresh} unless another caller already replaced {@code stale}. */
+    synchronized Entry install(String hash, Entry stale, Entry fresh) {
+      Entry current = map.get(hash);
+      if (current != null && current != stale) {
+        return current;
+      }
+      if (stale != null) {
+        if (stale.usedSinceFlush && stale.key.getApiKeyId().equals(fresh.key.getApiKeyId())) {
+          // Same key reloaded: keep its unwritten use
+          fresh.lastUsedMillis = stale.lastUsedMillis;
+          fresh.usedSinceFlush = true;
+          stale.usedSinceFlush = false;
+        }
+        release(hash, stale);
+      }
+      map.put(hash, fresh);
+      if (fresh.key != null) {
+        hashesById.put(fresh.key.getApiKeyId(), hash);
+      }
+      return fresh;
+    }
+
+    synchronized ApiKeyRejectionReason admit(Entry entry, ApiPermission permission, long now) {
+      ApiKey key = entry.key;
+      if (key == null) {
+        return ApiKeyRejectionReason.UNKNOWN_KEY;
+      }
+      if (entry.revoked || !key.isActive()) {
+        return ApiKeyRejectionReason.INACTIVE;
+      }
+      if (key.isExpiredAt(Instant.ofEpochMilli(now))) {
+        return ApiKeyRejectionReason.EXPIRED;
+      }
+      if (!key.hasPermission(permission)) {
+        return ApiKeyRejectionReason.PERMISSION_DENIED;
+      }
+      if (!tryAcquire(key, now)) {
+        return ApiKeyRejectionReason.RATE_LIMITED;
+      }
+      entry.lastUsedMillis = now;
+      entry.usedSinceFlush = true;
+      return null;
+    }
+
+    synchronized void remove(String hash, Entry stale) {
+      if (map.remove(hash, stale)) {
+        release(hash, stale);
+      }
+    }
+
+    /** Mark the key revoked until {@code staleAtMillis}; false if it already was. */
+    synchronized boolean revoke(String hash, long staleAtMillis) {
+      Entry entry = map.get(hash);
+      if (entry == null || entry.revoked) {
+        return false;
+      }
+      entry.revoked = true;
+      entry.staleAtMillis = staleAtMillis;
+      return true;
+    }
+
+    synchronized void drainUsage(List<ApiKeyUsage> sink) {
+      sink.addAll(releasedUsage);
+      releasedUsage.clear();
+      for (Entry entry : map.values()) {
+        if (entry.usedSinceFlush) {
+          sink.add(usage(entry));
+          entry.usedSinceFlush = false;
+        }
+      }
+    }
+
+    /** The entry left the map: forget its id and queue its unwritten use for the next flush. */
+    private void release(String hash, Entry entry) {
+      if (entry.key != null) {
+        hashesById.remove(entry.key.getApiKeyId(), hash);
+      }
+      if (entry.usedSinceFlush) {
+        releasedUsage.add(usage(entry));
+        entry.usedSinceFlush = false;
+      }
+    }
+
+    private ApiKeyUsage usage(Entry entry) {
+      return new ApiKeyUsage(entry.key.getApiKeyId(), Instant.ofEpochMilli(entry.lastUsedMillis));
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.payments.domain.tenant;
+
+import lombok.Getter;
+
+/** A request's API key is unknown, revoked, lacks the permission or is over a rate limit. */
+public class ApiKeyRejectedException extends RuntimeException {
+
+  @Getter private final ApiKeyRejectionReason reason;
+
+  public ApiKeyRejectedException(ApiKeyRejectionReason reason, String message) {
+    super(message);
+    this.reason = reason;
+  }
+}
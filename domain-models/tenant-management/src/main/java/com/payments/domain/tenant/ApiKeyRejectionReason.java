@@ -0,0 +1,10 @@
+package com.payments.domain.tenant;
+
+/** Why a request's API key was not accepted. */
+public enum ApiKeyRejectionReason {
+  UNKNOWN_KEY,
+  INACTIVE,
+  EXPIRED,
+  PERMISSION_DENIED,
+  RATE_LIMITED
+}
@@ -0,0 +1,19 @@
+package com.payments.domain.tenant;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/** Repository port: the {@code tenant_api_keys} table. */
+public interface ApiKeyRepository {
+
+  /** Key whose {@code api_key_hash} is the given SHA-256 hex digest, or null. */
+  ApiKey findByHash(String apiKeyHash);
+
+  /** Those of the given keys that still exist, are active and have not expired at {@code now}. */
+  Set<String> findUsable(Collection<String> apiKeyIds, Instant now);
+
+  /** Move {@code last_used_at} forward to the given times. */
+  void updateLastUsed(List<ApiKeyUsage> usage);
+}
@@ -0,0 +1,12 @@
+package com.payments.domain.tenant;
+
+import java.time.Instant;
+import lombok.*;
+
+/** Latest use of an API key since the last write-back. */
+@Value
+@AllArgsConstructor
+public class ApiKeyUsage {
+  String apiKeyId;
+  Instant lastUsedAt;
+}
@@ -0,0 +1,62 @@
+package com.payments.domain.tenant;
+
+import java.util.Collection;
+
+/** Permission an API key may grant, by its code in {@code tenant_api_keys.permissions}. */
+public enum ApiPermission {
+  PAYMENT_CREATE("payment:create"),
+  PAYMENT_READ("payment:read"),
+  PAYMENT_UPDATE("payment:update"),
+  PAYMENT_APPROVE("payment:approve"),
+  PAYMENT_REVERSE("payment:reverse"),
+  ACCOUNT_READ("account:read"),
+  CUSTOMER_VIEW("customer:view"),
+  LIMIT_CONFIGURE("limit:configure"),
+  TENANT_CONFIGURE("tenant:configure"),
+  USER_MANAGE("user:manage"),
+  NOTIFICATION_READ("notification:read"),
+  NOTIFICATION_SEND("notification:send"),
+  REPORT_READ("report:read"),
+  REPORT_GENERATE("report:generate"),
+  ALERT_ACKNOWLEDGE("alert:acknowledge");
+
+  private final String code;
+
+  ApiPermission(String code) {
+    this.code = code;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  /** Bit of this permission in a permission mask. */
+  public long mask() {
+    return 1L << ordinal();
+  }
+
+  /**
+   * Mask of the given codes. {@code *} grants everything and {@code payment:*} everything on
+   * payments; unknown codes grant nothing.
+   */
+  public static long maskOf(Collection<String> codes) {
+    long mask = 0;
+    for (String code : codes) {
+      if (code.equals("*")) {
+        return allMask();
+      }
+      boolean wildcard = code.endsWith(":*");
+      String resource = wildcard ? code.substring(0, code.length() - 1) : null;
+      for (ApiPermission permission : values()) {
+        if (wildcard ? permission.code.startsWith(resource) : permission.code.equals(code)) {
+          mask |= permission.mask();
+        }
+      }
+    }
+    return mask;
+  }
+
+  private static long allMask() {
+    return (1L << values().length) - 1;
+  }
+}
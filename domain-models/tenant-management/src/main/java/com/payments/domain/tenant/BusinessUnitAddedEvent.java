@@ -5,14 +5,26 @@ import java.time.Instant;
 import lombok.*;
 
 /** Domain Event: Business Unit Added */
+@EventSchemaVersion(minor = 1)
 @Value
 @AllArgsConstructor
 public class BusinessUnitAddedEvent implements DomainEvent {
+  @WireTag(1)
   TenantId tenantId;
+
+  @WireTag(2)
   BusinessUnitId businessUnitId;
+
+  @WireTag(3)
   String businessUnitName;
+
+  @WireTag(4)
   BusinessUnitType businessUnitType;
 
+  // Since 1.1; null for a top-level unit
+  @WireTag(5)
+  BusinessUnitId parentBusinessUnitId;
+
   @Override
   public String getEventType() {
     return "BusinessUnitAdded";
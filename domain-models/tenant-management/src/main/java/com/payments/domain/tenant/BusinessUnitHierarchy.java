@@ -0,0 +1,239 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Index of a tenant's business-unit tree for inheritance lookups.
+ *
+ * <p>Every unit keeps its path from the root, a row of the closure table, so whether one unit is an
+ * ancestor of another is a single array read at the ancestor's depth. Looking up the nearest unit
+ * with a value of its own walks that path, one hash lookup per level, and enumerating the
+ * descendants visits only the subtree.
+ *
+ * <p>Units are only ever added, and adding one touches its parent alone, so the index is kept up to
+ * date from {@link BusinessUnitAddedEvent}s rather than rebuilt. Reads take no locks and may run
+ * alongside an add.
+ */
+public final class BusinessUnitHierarchy {
+
+  private static final Node[] NO_CHILDREN = new Node[0];
+
+  private final TenantId tenantId;
+  private final Map<BusinessUnitId, Node> nodes = new ConcurrentHashMap<>();
+
+  private BusinessUnitHierarchy(TenantId tenantId) {
+    this.tenantId = tenantId;
+  }
+
+  public static BusinessUnitHierarchy empty(TenantId tenantId) {
+    return new BusinessUnitHierarchy(tenantId);
+  }
+
+  /**
+   * Index of the given units in any order. A unit whose parent is not among them becomes a root.
+   */
+  static BusinessUnitHierarchy of(TenantId tenantId, Collection<BusinessUnit> businessUnits) {
+    BusinessUnitHierarchy hierarchy = new BusinessUnitHierarchy(tenantId);
+    List<BusinessUnit> pending = new ArrayList<>(businessUnits);
+    int added = -1;
+    while (!pending.isEmpty() && added != 0) {
+      List<BusinessUnit> waiting = new ArrayList<>();
+      for (BusinessUnit unit : pending) {
+        BusinessUnitId parentId = parentOf(unit);
+        if (parentId == null || hierarchy.contains(parentId)) {
+          hierarchy.add(unit.getId(), parentId);
+        } else {
+          waiting.add(unit); // Parent comes later in the list
+        }
+      }
+      added = pending.size() - waiting.size();
+      pending = waiting;
+    }
+    for (BusinessUnit orphan : pending) {
+      hierarchy.add(orphan.getId(), null);
+    }
+    return hierarchy;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // UPDATES
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Add a unit under {@code parentId}, or as a root when it is null. Adding a unit again under the
+   * same parent does nothing, so events may be replayed.
+   *
+   * @throws InvalidTenantException if the parent is unknown or the unit exists under another parent
+   */
+  public synchronized void add(BusinessUnitId businessUnitId, BusinessUnitId parentId) {
+    Node parent = null;
+    if (parentId != null) {
+      parent = nodes.get(parentId);
+      if (parent == null) {
+        throw new InvalidTenantException("Parent business unit " + parentId + " does not exist");
+      }
+    }
+    Node existing = nodes.get(businessUnitId);
+    if (existing != null) {
+      if (existing.parent() != parent) {
+        throw new InvalidTenantException(
+            "Business unit " + businessUnitId + " already exists under another parent");
+      }
+      return;
+    }
+
+    Node node = new Node(businessUnitId, parent);
+    nodes.put(businessUnitId, node);
+    if (parent != null) {
+      Node[] children = Arrays.copyOf(parent.children, parent.children.length + 1);
+      children[children.length - 1] = node;
+      parent.children = children;
+    }
+  }
+
+  /** Apply a {@link BusinessUnitAddedEvent} of this tenant; other events are ignored. */
+  public void onEvent(DomainEvent event) {
+    if (event instanceof BusinessUnitAddedEvent) {
+      BusinessUnitAddedEvent added = (BusinessUnitAddedEvent) event;
+      if (tenantId.equals(added.getTenantId())) {
+        add(added.getBusinessUnitId(), added.getParentBusinessUnitId());
+      }
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // QUERIES
+  // ─────────────────────────────────────────────────────────
+
+  public boolean contains(BusinessUnitId businessUnitId) {
+    return nodes.containsKey(businessUnitId);
+  }
+
+  /** Whether {@code ancestorId} is a strict ancestor of {@code businessUnitId}. */
+  public boolean isAncestor(BusinessUnitId ancestorId, BusinessUnitId businessUnitId) {
+    Node ancestor = nodes.get(ancestorId);
+    Node node = nodes.get(businessUnitId);
+    if (ancestor == null || node == null) {
+      return false;
+    }
+    int depth = ancestor.path.length - 1;
+    return depth < node.path.length - 1 && node.path[depth] == ancestor;
+  }
+
+  /** Parent of the unit, or null for a root or an unknown unit. */
+  public BusinessUnitId getParent(BusinessUnitId businessUnitId) {
+    Node node = nodes.get(businessUnitId);
+    Node parent = node != null ? node.parent() : null;
+    return parent != null ? parent.id : null;
+  }
+
+  /** Depth of the unit, 0 for a root. */
+  public int getDepth(BusinessUnitId businessUnitId) {
+    return node(businessUnitId).path.length - 1;
+  }
+
+  /** Ancestors of the unit, nearest first. */
+  public List<BusinessUnitId> getAncestors(BusinessUnitId businessUnitId) {
+    Node[] path = node(businessUnitId).path;
+    List<BusinessUnitId> ancestors = new ArrayList<>(path.length - 1);
+    for (int i = path.length - 2; i >= 0; i--) {
+      ancestors.add(path[i].id);
+    }
+    return ancestors;
+  }
+
+  /** All units below the unit, parents before their children. */
+  public List<BusinessUnitId> getDescendants(BusinessUnitId businessUnitId) {
+    List<BusinessUnitId> descendants = new ArrayList<>();
+    List<Node> queue = new ArrayList<>();
+    queue.add(node(businessUnitId));
+    for (int i = 0; i < queue.size(); i++) {
+      for (Node child : queue.get(i).children) {
+        descendants.add(child.id);
+        queue.add(child);
+      }
+    }
+    return descendants;
+  }
+
+  /** The unit itself or its nearest ancestor matching {@code predicate}, or null if none does. */
+  public BusinessUnitId findNearest(
+      BusinessUnitId businessUnitId, Predicate<BusinessUnitId> predicate) {
+    Node[] path = node(businessUnitId).path;
+    for (int i = path.length - 1; i >= 0; i--) {
+      if (predicate.test(path[i].id)) {
+        return path[i].id;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Value the unit inherits: its own from {@code values}, else that of its nearest ancestor which
+   * has one, else null.
+   */
+  public <V> V resolve(BusinessUnitId businessUnitId, Map<BusinessUnitId, V> values) {
+    Node[] path = node(businessUnitId).path;
+    for (int i = path.length - 1; i >= 0; i--) {
+      V value = values.get(path[i].id);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  public TenantId getTenantId() {
+    return tenantId;
+  }
+
+  public int size() {
+    return nodes.size();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private Node node(BusinessUnitId businessUnitId) {
+    Node node = nodes.get(businessUnitId);
+    if (node == null) {
+      throw new InvalidTenantException("Business unit " + businessUnitId + " does not exist");
+    }
+    return node;
+  }
+
+  private static BusinessUnitId parentOf(BusinessUnit unit) {
+    String parentId = unit.getParentBusinessUnitId();
+    return parentId != null ? BusinessUnitId.of(parentId) : null;
+  }
+
+  /** A unit with its path from the root, itself last. */
+  private static final class Node {
+    final BusinessUnitId id;
+    final Node[] path;
+    // Replaced, never changed in place, so readers see a complete array
+    volatile Node[] children = NO_CHILDREN;
+
+    Node(BusinessUnitId id, Node parent) {
+      this.id = id;
+      if (parent == null) {
+        this.path = new Node[] {this};
+      } else {
+        this.path = Arrays.copyOf(parent.path, parent.path.length + 1);
+        this.path[parent.path.length] = this;
+      }
+    }
+
+    Node parent() {
+      return path.length > 1 ? path[path.length - 2] : null;
+    }
+  }
+}
@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class ConfigurationUpdatedEvent implements DomainEvent {
+  @WireTag(1)
   TenantId tenantId;
+
+  @WireTag(2)
   String configKey;
+
+  @WireTag(3)
   String configValue;
+
+  @WireTag(4)
   ConfigurationType configType;
 
   @Override
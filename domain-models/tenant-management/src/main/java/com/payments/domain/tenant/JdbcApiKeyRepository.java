@@ -0,0 +1,167 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.*;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * {@link ApiKeyRepository} over {@code tenant_api_keys} (V1). {@code permissions} is read as a JSON
+ * array of permission codes, e.g. {@code ["payment:create", "payment:read"]}; a key whose {@code
+ * permissions} hold anything else is granted none, and counted.
+ */
+public class JdbcApiKeyRepository implements ApiKeyRepository {
+
+  private static final String FIND_BY_HASH_SQL =
+      "SELECT api_key_id, tenant_id, business_unit_id, api_key_name, api_key_hash,"
+          + " permissions::text AS permissions, rate_limit_per_minute, rate_limit_per_hour,"
+          + " rate_limit_per_day, is_active, expires_at FROM tenant_api_keys"
+          + " WHERE api_key_hash = ?";
+
+  private static final String FIND_USABLE_SQL =
+      "SELECT api_key_id FROM tenant_api_keys WHERE api_key_id = ANY(?)"
+          + " AND is_active = TRUE AND (expires_at IS NULL OR expires_at > ?)";
+
+  private static final String UPDATE_LAST_USED_SQL =
+      "UPDATE tenant_api_keys SET last_used_at = ?"
+          + " WHERE api_key_id = ? AND (last_used_at IS NULL OR last_used_at < ?)";
+
+  private final DataSource dataSource;
+  private final LongAdder malformedPermissions = new LongAdder();
+
+  public JdbcApiKeyRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /** Keys read whose {@code permissions} were not a JSON array of strings; they got none. */
+  public long getMalformedPermissionsCount() {
+    return malformedPermissions.sum();
+  }
+
+  @Override
+  public ApiKey findByHash(String apiKeyHash) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_BY_HASH_SQL)) {
+      statement.setString(1, apiKeyHash);
+      try (ResultSet rs = statement.executeQuery()) {
+        if (!rs.next()) {
+          return null;
+        }
+        String businessUnitId = rs.getString("business_unit_id");
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        return new ApiKey(
+            rs.getString("api_key_id"),
+            TenantId.of(rs.getString("tenant_id")),
+            businessUnitId != null ? BusinessUnitId.of(businessUnitId) : null,
+            rs.getString("api_key_name"),
+            rs.getString("api_key_hash"),
+            permissionMask(rs.getString("permissions")),
+            rs.getInt("rate_limit_per_minute"),
+            rs.getInt("rate_limit_per_hour"),
+            rs.getInt("rate_limit_per_day"),
+            rs.getBoolean("is_active"),
+            expiresAt != null ? expiresAt.toInstant() : null);
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to look up API key", e);
+    }
+  }
+
+  @Override
+  public Set<String> findUsable(Collection<String> apiKeyIds, Instant now) {
+    Set<String> usable = new HashSet<>();
+    if (apiKeyIds.isEmpty()) {
+      return usable;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_USABLE_SQL)) {
+      Array ids = connection.createArrayOf("varchar", apiKeyIds.toArray());
+      statement.setArray(1, ids);
+      statement.setTimestamp(2, Timestamp.from(now));
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          usable.add(rs.getString(1));
+        }
+      }
+      ids.free();
+      return usable;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to check " + apiKeyIds.size() + " API keys", e);
+    }
+  }
+
+  @Override
+  public void updateLastUsed(List<ApiKeyUsage> usage) {
+    if (usage.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPDATE_LAST_USED_SQL)) {
+      for (ApiKeyUsage entry : usage) {
+        Timestamp lastUsedAt = Timestamp.from(entry.getLastUsedAt());
+        statement.setTimestamp(1, lastUsedAt);
+        statement.setString(2, entry.getApiKeyId());
+        statement.setTimestamp(3, lastUsedAt);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to update last use of " + usage.size() + " API keys", e);
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  /** No permissions unless {@code permissions} is a JSON array of strings. */
+  private long permissionMask(String permissions) {
+    List<String> codes = parseCodes(permissions);
+    if (codes == null) {
+      if (permissions != null) {
+        malformedPermissions.increment();
+      }
+      return 0L;
+    }
+    return ApiPermission.maskOf(codes);
+  }
+
+  /**
+   * The elements of a top-level JSON array of strings, or null if {@code json} is anything else,
+   * e.g. an object or an array holding other values.
+   */
+  static List<String> parseCodes(String json) {
+    if (json == null) {
+      return null;
+    }
+    Object node;
+    try {
+      node = JsonReader.parse(json);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (!(node instanceof List)) {
+      return null;
+    }
+    List<String> codes = new ArrayList<>();
+    for (Object element : (List<?>) node) {
+      if (!(element instanceof String)) {
+        return null;
+      }
+      codes.add((String) element);
+    }
+    return codes;
+  }
+}
@@ -0,0 +1,78 @@
+package com.payments.domain.tenant;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/** {@link TenantMetricsRepository} over {@code tenant_metrics} (V1, V10). */
+public class JdbcTenantMetricsRepository implements TenantMetricsRepository {
+
+  private static final String ADD_SQL =
+      "INSERT INTO tenant_metrics (tenant_id, business_unit_id, metric_date, metric_type,"
+          + " metric_value, metric_unit) VALUES (?, NULL, ?, ?, ?, ?)"
+          + " ON CONFLICT (tenant_id, metric_date, metric_type) WHERE business_unit_id IS NULL"
+          + " DO UPDATE SET metric_value = tenant_metrics.metric_value + EXCLUDED.metric_value";
+
+  private static final String FIND_SQL =
+      "SELECT metric_type, metric_value, metric_unit FROM tenant_metrics"
+          + " WHERE tenant_id = ? AND metric_date = ? AND business_unit_id IS NULL";
+
+  private final DataSource dataSource;
+
+  public JdbcTenantMetricsRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void addTenantTotals(List<TenantMetric> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(ADD_SQL)) {
+      for (TenantMetric delta : deltas) {
+        statement.setString(1, delta.getTenantId());
+        statement.setDate(2, Date.valueOf(delta.getMetricDate()));
+        statement.setString(3, delta.getMetricType().name());
+        statement.setBigDecimal(4, delta.getMetricValue());
+        statement.setString(5, delta.getMetricUnit());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to add " + deltas.size() + " tenant metrics", e);
+    }
+  }
+
+  @Override
+  public List<TenantMetric> findTenantTotals(String tenantId, LocalDate date) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_SQL)) {
+      statement.setString(1, tenantId);
+      statement.setDate(2, Date.valueOf(date));
+      try (ResultSet rs = statement.executeQuery()) {
+        List<TenantMetric> metrics = new ArrayList<>();
+        while (rs.next()) {
+          metrics.add(
+              new TenantMetric(
+                  tenantId,
+                  null,
+                  date,
+                  TenantMetricType.valueOf(rs.getString("metric_type")),
+                  rs.getBigDecimal("metric_value"),
+                  rs.getString("metric_unit")));
+        }
+        return metrics;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to load tenant metrics of " + tenantId + " for " + date, e);
+    }
+  }
+}
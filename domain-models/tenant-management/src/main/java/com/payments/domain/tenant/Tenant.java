@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.*;
 
 /**
@@ -17,7 +19,7 @@ import lombok.*;
 @Entity
 @Table(name = "tenants")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Tenant {
+public class Tenant implements DomainEventSource {
 
   @EmbeddedId
   @AttributeOverride(name = "value", column = @Column(name = "tenant_id"))
@@ -96,6 +98,11 @@ public class Tenant {
 
   @Transient private List<DomainEvent> domainEvents = new ArrayList<>();
 
+  // Built from configurations on first use; JPA fills the list without going through this class
+  @Transient private Map<String, TenantConfiguration> configurationsByKey;
+  @Transient private TenantConfigSnapshot configSnapshot;
+  @Transient private BusinessUnitHierarchy businessUnitHierarchy;
+
   // ─────────────────────────────────────────────────────────
   // FACTORY METHOD
   // ─────────────────────────────────────────────────────────
@@ -154,39 +161,53 @@ public class Tenant {
   // BUSINESS METHODS
   // ─────────────────────────────────────────────────────────
 
-  /** Add a business unit to the tenant */
+  /** Add a top-level business unit to the tenant */
   public void addBusinessUnit(
       BusinessUnitId businessUnitId,
       String businessUnitName,
       BusinessUnitType businessUnitType,
       Integer hierarchyLevel,
       String createdBy) {
-    // Business validation
-    if (businessUnitName == null || businessUnitName.isBlank()) {
-      throw new InvalidTenantException("Business unit name cannot be null or blank");
-    }
-
-    BusinessUnit businessUnit =
-        BusinessUnit.create(
-            businessUnitId, this.id, businessUnitName, businessUnitType, hierarchyLevel, createdBy);
-
-    this.businessUnits.add(businessUnit);
-    this.updatedAt = Instant.now();
-    this.updatedBy = createdBy;
+    addBusinessUnit(
+        businessUnitId, null, businessUnitName, businessUnitType, hierarchyLevel, createdBy);
+  }
 
-    registerEvent(
-        new BusinessUnitAddedEvent(this.id, businessUnitId, businessUnitName, businessUnitType));
+  /** Add a business unit below an existing one, one hierarchy level down */
+  public void addChildBusinessUnit(
+      BusinessUnitId parentBusinessUnitId,
+      BusinessUnitId businessUnitId,
+      String businessUnitName,
+      BusinessUnitType businessUnitType,
+      String createdBy) {
+    BusinessUnit parent =
+        businessUnits.stream()
+            .filter(bu -> bu.getId().equals(parentBusinessUnitId))
+            .findFirst()
+            .orElseThrow(
+                () ->
+                    new InvalidTenantException(
+                        "Parent business unit " + parentBusinessUnitId + " does not exist"));
+    int hierarchyLevel = parent.getHierarchyLevel() != null ? parent.getHierarchyLevel() + 1 : 1;
+    addBusinessUnit(
+        businessUnitId,
+        parentBusinessUnitId,
+        businessUnitName,
+        businessUnitType,
+        hierarchyLevel,
+        createdBy);
   }
 
-  /** Update tenant configuration */
+  /**
+   * Update tenant configuration. An existing key keeps its type.
+   *
+   * @throws InvalidTenantException if the value does not parse as its type
+   */
   public void updateConfiguration(
       String configKey, String configValue, ConfigurationType configType, String updatedBy) {
-    // Find existing configuration or create new one
-    TenantConfiguration existingConfig =
-        configurations.stream()
-            .filter(config -> config.getConfigKey().equals(configKey))
-            .findFirst()
-            .orElse(null);
+    // Parse first so that an invalid value leaves the configuration untouched
+    TenantConfigSnapshot updatedSnapshot =
+        getConfigSnapshot().with(configKey, configValue, configType);
+    TenantConfiguration existingConfig = configurationsByKey().get(configKey);
 
     if (existingConfig != null) {
       existingConfig.updateValue(configValue, updatedBy);
@@ -194,12 +215,16 @@ public class Tenant {
       TenantConfiguration newConfig =
           TenantConfiguration.create(this.id, configKey, configValue, configType, updatedBy);
       this.configurations.add(newConfig);
+      this.configurationsByKey.put(configKey, newConfig);
     }
+    this.configSnapshot = updatedSnapshot;
 
     this.updatedAt = Instant.now();
     this.updatedBy = updatedBy;
 
-    registerEvent(new ConfigurationUpdatedEvent(this.id, configKey, configValue, configType));
+    registerEvent(
+        new ConfigurationUpdatedEvent(
+            this.id, configKey, configValue, updatedSnapshot.getType(configKey)));
   }
 
   /** Add user to tenant */
@@ -261,7 +286,15 @@ public class Tenant {
   }
 
   public boolean hasBusinessUnit(BusinessUnitId businessUnitId) {
-    return businessUnits.stream().anyMatch(bu -> bu.getId().equals(businessUnitId));
+    return getBusinessUnitHierarchy().contains(businessUnitId);
+  }
+
+  /** Index of the business-unit tree; kept up to date as units are added. */
+  public BusinessUnitHierarchy getBusinessUnitHierarchy() {
+    if (businessUnitHierarchy == null) {
+      businessUnitHierarchy = BusinessUnitHierarchy.of(this.id, businessUnits);
+    }
+    return businessUnitHierarchy;
   }
 
   public boolean hasUser(UserId userId) {
@@ -269,11 +302,15 @@ public class Tenant {
   }
 
   public String getConfigurationValue(String configKey) {
-    return configurations.stream()
-        .filter(config -> config.getConfigKey().equals(configKey))
-        .map(TenantConfiguration::getConfigValue)
-        .findFirst()
-        .orElse(null);
+    return getConfigSnapshot().getString(configKey);
+  }
+
+  /** Immutable view of the configuration with typed values; replaced on every update. */
+  public TenantConfigSnapshot getConfigSnapshot() {
+    if (configSnapshot == null) {
+      configSnapshot = TenantConfigSnapshot.of(this.id, configurations);
+    }
+    return configSnapshot;
   }
 
   public TenantId getId() {
@@ -322,6 +359,48 @@ public class Tenant {
     updateConfiguration("audit_retention_days", "2555", ConfigurationType.NUMBER, createdBy);
   }
 
+  private void addBusinessUnit(
+      BusinessUnitId businessUnitId,
+      BusinessUnitId parentBusinessUnitId,
+      String businessUnitName,
+      BusinessUnitType businessUnitType,
+      Integer hierarchyLevel,
+      String createdBy) {
+    // Business validation
+    if (businessUnitName == null || businessUnitName.isBlank()) {
+      throw new InvalidTenantException("Business unit name cannot be null or blank");
+    }
+    if (hasBusinessUnit(businessUnitId)) {
+      throw new InvalidTenantException("Business unit " + businessUnitId + " already exists");
+    }
+
+    BusinessUnit businessUnit =
+        BusinessUnit.create(
+            businessUnitId, this.id, businessUnitName, businessUnitType, hierarchyLevel, createdBy);
+    if (parentBusinessUnitId != null) {
+      businessUnit.setParentBusinessUnitId(parentBusinessUnitId.getValue());
+    }
+
+    getBusinessUnitHierarchy().add(businessUnitId, parentBusinessUnitId);
+    this.businessUnits.add(businessUnit);
+    this.updatedAt = Instant.now();
+    this.updatedBy = createdBy;
+
+    registerEvent(
+        new BusinessUnitAddedEvent(
+            this.id, businessUnitId, businessUnitName, businessUnitType, parentBusinessUnitId));
+  }
+
+  private Map<String, TenantConfiguration> configurationsByKey() {
+    if (configurationsByKey == null) {
+      configurationsByKey = new HashMap<>();
+      for (TenantConfiguration config : configurations) {
+        configurationsByKey.put(config.getConfigKey(), config);
+      }
+    }
+    return configurationsByKey;
+  }
+
   private void registerEvent(DomainEvent event) {
     this.domainEvents.add(event);
   }
@@ -8,7 +8,10 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class TenantActivatedEvent implements DomainEvent {
+  @WireTag(1)
   TenantId tenantId;
+
+  @WireTag(2)
   String activatedBy;
 
   @Override
@@ -0,0 +1,114 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Publishes the current {@link TenantConfigSnapshot} of every tenant.
+ *
+ * <p>The snapshots sit in an immutable map behind a volatile field: a read is one volatile load and
+ * a hash lookup, with no locking. Publishing copies the map under a lock, which is cheap because
+ * configuration changes are rare next to reads.
+ *
+ * <p>A tenant is loaded on its first read. {@link ConfigurationUpdatedEvent}s passed to {@link
+ * #onEvent} replace the tenant's snapshot with the next version; events for tenants not loaded yet
+ * are ignored, as the load will see the change.
+ */
+public class TenantConfigRegistry {
+
+  private final Function<TenantId, TenantConfigSnapshot> loader;
+  private final Object publishLock = new Object();
+
+  private volatile Map<TenantId, TenantConfigSnapshot> snapshots = Collections.emptyMap();
+  // Bumped on every change so that a load racing a change is not published over it
+  private long generation;
+
+  /**
+   * @param loader reads a tenant's snapshot from the store, e.g. {@link Tenant#getConfigSnapshot}
+   */
+  public TenantConfigRegistry(Function<TenantId, TenantConfigSnapshot> loader) {
+    this.loader = loader;
+  }
+
+  /** Current snapshot of the tenant, loading it if it is not published yet. */
+  public TenantConfigSnapshot get(TenantId tenantId) {
+    TenantConfigSnapshot snapshot = snapshots.get(tenantId);
+    if (snapshot != null) {
+      return snapshot;
+    }
+    long loadGeneration;
+    synchronized (publishLock) {
+      loadGeneration = generation;
+    }
+    TenantConfigSnapshot loaded = loader.apply(tenantId);
+    synchronized (publishLock) {
+      TenantConfigSnapshot current = snapshots.get(tenantId);
+      if (current != null) {
+        return current;
+      }
+      if (generation == loadGeneration) {
+        publish(tenantId, loaded);
+      }
+    }
+    return loaded;
+  }
+
+  /** Apply a {@link ConfigurationUpdatedEvent}; other events are ignored. */
+  public void onEvent(DomainEvent event) {
+    if (!(event instanceof ConfigurationUpdatedEvent)) {
+      return;
+    }
+    ConfigurationUpdatedEvent updated = (ConfigurationUpdatedEvent) event;
+    synchronized (publishLock) {
+      generation++;
+      TenantConfigSnapshot current = snapshots.get(updated.getTenantId());
+      if (current != null) {
+        try {
+          publish(
+              updated.getTenantId(),
+              current.with(
+                  updated.getConfigKey(), updated.getConfigValue(), updated.getConfigType()));
+        } catch (InvalidTenantException e) {
+          // The aggregate rejects such values; reload rather than serve a guess
+          remove(updated.getTenantId());
+        }
+      }
+    }
+  }
+
+  /** Drop the tenant's snapshot so the next read loads it again. */
+  public void invalidate(TenantId tenantId) {
+    synchronized (publishLock) {
+      generation++;
+      remove(tenantId);
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (publishLock) {
+      generation++;
+      snapshots = Collections.emptyMap();
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void publish(TenantId tenantId, TenantConfigSnapshot snapshot) {
+    Map<TenantId, TenantConfigSnapshot> copy = new HashMap<>(snapshots);
+    copy.put(tenantId, snapshot);
+    snapshots = Collections.unmodifiableMap(copy);
+  }
+
+  private void remove(TenantId tenantId) {
+    if (snapshots.containsKey(tenantId)) {
+      Map<TenantId, TenantConfigSnapshot> copy = new HashMap<>(snapshots);
+      copy.remove(tenantId);
+      snapshots = Collections.unmodifiableMap(copy);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of a tenant's configuration.
+ *
+ * <p>Values are looked up by key in a hash map and parsed once, by their {@link ConfigurationType},
+ * when the snapshot is built, so reading {@code max_daily_amount} on every payment costs a map
+ * lookup. A change produces a new snapshot with the next version; snapshots already handed out
+ * never change.
+ *
+ * <p>A stored value that does not parse does not fail the whole tenant: its raw string is kept for
+ * {@link #getString}, only the typed accessors of that key fail, and it is reported by {@link
+ * #getInvalidEntries()}.
+ */
+public final class TenantConfigSnapshot {
+
+  public static final String MAX_DAILY_TRANSACTIONS = "max_daily_transactions";
+  public static final String MAX_DAILY_AMOUNT = "max_daily_amount";
+  public static final String TIMEZONE = "timezone";
+  public static final String CURRENCY = "currency";
+  public static final String FRAUD_DETECTION_ENABLED = "fraud_detection_enabled";
+  public static final String AUDIT_RETENTION_DAYS = "audit_retention_days";
+
+  private final TenantId tenantId;
+  private final long version;
+  private final Map<String, Entry> entries;
+  private final List<String> invalidEntries;
+
+  private TenantConfigSnapshot(
+      TenantId tenantId, long version, Map<String, Entry> entries, List<String> invalidEntries) {
+    this.tenantId = tenantId;
+    this.version = version;
+    this.entries = entries;
+    this.invalidEntries = invalidEntries;
+  }
+
+  /**
+   * Snapshot of the given stored configurations. Its version is the epoch millisecond of their
+   * latest change, so reloading a tenant never goes back to an earlier version.
+   */
+  public static TenantConfigSnapshot of(
+      TenantId tenantId, Collection<TenantConfiguration> configurations) {
+    Map<String, Entry> entries = new HashMap<>();
+    List<String> invalidEntries = new ArrayList<>();
+    long version = 1;
+    for (TenantConfiguration config : configurations) {
+      Instant changedAt =
+          config.getUpdatedAt() != null ? config.getUpdatedAt() : config.getCreatedAt();
+      if (changedAt != null) {
+        version = Math.max(version, changedAt.toEpochMilli());
+      }
+      Entry entry;
+      try {
+        entry = Entry.parse(config.getConfigKey(), config.getConfigValue(), config.getConfigType());
+      } catch (InvalidTenantException e) {
+        entry = Entry.unparsable(config.getConfigValue(), config.getConfigType(), e.getMessage());
+        invalidEntries.add(e.getMessage());
+      }
+      entries.put(config.getConfigKey(), entry);
+    }
+    return new TenantConfigSnapshot(
+        tenantId, version, entries, Collections.unmodifiableList(invalidEntries));
+  }
+
+  /**
+   * Copy of this snapshot with one value set, at the next version. A key that already exists keeps
+   * its type.
+   *
+   * @throws InvalidTenantException if the value does not parse as its type
+   */
+  public TenantConfigSnapshot with(String configKey, String configValue, ConfigurationType type) {
+    Entry existing = entries.get(configKey);
+    ConfigurationType effectiveType = existing != null ? existing.type : type;
+    Map<String, Entry> copy = new HashMap<>(entries);
+    copy.put(configKey, Entry.parse(configKey, configValue, effectiveType));
+    List<String> stillInvalid = invalidEntries;
+    if (!invalidEntries.isEmpty()) {
+      String prefix = "Configuration " + configKey + " ";
+      stillInvalid = new ArrayList<>(invalidEntries);
+      stillInvalid.removeIf(invalid -> invalid.startsWith(prefix));
+      stillInvalid = Collections.unmodifiableList(stillInvalid);
+    }
+    return new TenantConfigSnapshot(tenantId, version + 1, copy, stillInvalid);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // TYPED ACCESSORS
+  // ─────────────────────────────────────────────────────────
+
+  public boolean contains(String configKey) {
+    return entries.containsKey(configKey);
+  }
+
+  /** Type of the value, or null if the key is not configured. */
+  public ConfigurationType getType(String configKey) {
+    Entry entry = entries.get(configKey);
+    return entry != null ? entry.type : null;
+  }
+
+  /** Raw value of any type, or null if the key is not configured. */
+  public String getString(String configKey) {
+    Entry entry = entries.get(configKey);
+    return entry != null ? entry.raw : null;
+  }
+
+  /**
+   * Value of a NUMBER key, or null if the key is not configured.
+   *
+   * @throws InvalidTenantException if the stored value does not parse
+   */
+  public BigDecimal getDecimal(String configKey) {
+    Entry entry = entries.get(configKey);
+    if (entry == null) {
+      return null;
+    }
+    entry.require(configKey, ConfigurationType.NUMBER);
+    return entry.number;
+  }
+
+  /**
+   * Value of a whole NUMBER key, or {@code defaultValue} if the key is not configured.
+   *
+   * @throws InvalidTenantException if the stored value does not parse, or the number has a fraction
+   *     or does not fit a long
+   */
+  public long getLong(String configKey, long defaultValue) {
+    Entry entry = entries.get(configKey);
+    if (entry == null) {
+      return defaultValue;
+    }
+    entry.require(configKey, ConfigurationType.NUMBER);
+    if (entry.wholeNumber == null) {
+      throw new InvalidTenantException(
+          "Configuration " + configKey + " is not a whole number: " + entry.raw);
+    }
+    return entry.wholeNumber;
+  }
+
+  /**
+   * Value of a BOOLEAN key, or {@code defaultValue} if the key is not configured.
+   *
+   * @throws InvalidTenantException if the stored value does not parse
+   */
+  public boolean getBoolean(String configKey, boolean defaultValue) {
+    Entry entry = entries.get(configKey);
+    if (entry == null) {
+      return defaultValue;
+    }
+    entry.require(configKey, ConfigurationType.BOOLEAN);
+    return entry.bool;
+  }
+
+  public BigDecimal getMaxDailyAmount() {
+    return getDecimal(MAX_DAILY_AMOUNT);
+  }
+
+  public long getMaxDailyTransactions() {
+    return getLong(MAX_DAILY_TRANSACTIONS, Long.MAX_VALUE);
+  }
+
+  /** Fraud detection stays on unless the tenant switched it off. */
+  public boolean isFraudDetectionEnabled() {
+    return getBoolean(FRAUD_DETECTION_ENABLED, true);
+  }
+
+  public TenantId getTenantId() {
+    return tenantId;
+  }
+
+  /** Goes up by one with every change applied to the snapshot. */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Stored values that do not parse as their type, e.g. "Configuration max_daily_amount is not a
+   * number: lots", until a change sets them again.
+   */
+  public List<String> getInvalidEntries() {
+    return invalidEntries;
+  }
+
+  public Map<String, String> asMap() {
+    Map<String, String> values = new HashMap<>();
+    entries.forEach((key, entry) -> values.put(key, entry.raw));
+    return Collections.unmodifiableMap(values);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * A value with its parsed form; only the field for its type is set, none if the value does not
+   * parse.
+   */
+  private static final class Entry {
+    final String raw;
+    final ConfigurationType type;
+    final BigDecimal number;
+    final Long wholeNumber;
+    final Boolean bool;
+    // Why the value does not parse, or null
+    final String invalid;
+
+    private Entry(
+        String raw,
+        ConfigurationType type,
+        BigDecimal number,
+        Long wholeNumber,
+        Boolean bool,
+        String invalid) {
+      this.raw = raw;
+      this.type = type;
+      this.number = number;
+      this.wholeNumber = wholeNumber;
+      this.bool = bool;
+      this.invalid = invalid;
+    }
+
+    private Entry(
+        String raw, ConfigurationType type, BigDecimal number, Long wholeNumber, Boolean bool) {
+      this(raw, type, number, wholeNumber, bool, null);
+    }
+
+    static Entry unparsable(String raw, ConfigurationType type, String invalid) {
+      return new Entry(raw, type, null, null, null, invalid);
+    }
+
+    static Entry parse(String key, String raw, ConfigurationType type) {
+      if (raw == null || type == null) {
+        return new Entry(raw, type, null, null, null);
+      }
+      switch (type) {
+        case NUMBER:
+          BigDecimal number;
+          try {
+            number = new BigDecimal(raw.trim());
+          } catch (NumberFormatException e) {
+            throw new InvalidTenantException(
+                "Configuration " + key + " is not a number: " + raw, e);
+          }
+          Long wholeNumber;
+          try {
+            wholeNumber = number.longValueExact();
+          } catch (ArithmeticException e) {
+            wholeNumber = null;
+          }
+          return new Entry(raw, type, number, wholeNumber, null);
+        case BOOLEAN:
+          String trimmed = raw.trim();
+          if (!trimmed.equalsIgnoreCase("true") && !trimmed.equalsIgnoreCase("false")) {
+            throw new InvalidTenantException("Configuration " + key + " is not a boolean: " + raw);
+          }
+          return new Entry(raw, type, null, null, Boolean.parseBoolean(trimmed));
+        default:
+          return new Entry(raw, type, null, null, null);
+      }
+    }
+
+    void require(String key, ConfigurationType expected) {
+      if (type != expected) {
+        throw new InvalidTenantException(
+            "Configuration " + key + " is " + type + ", not " + expected);
+      }
+      if (raw == null) {
+        throw new InvalidTenantException("Configuration " + key + " has no value");
+      }
+      if (invalid != null) {
+        throw new InvalidTenantException(invalid);
+      }
+    }
+  }
+}
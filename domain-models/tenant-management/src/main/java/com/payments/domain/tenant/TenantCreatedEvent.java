@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class TenantCreatedEvent implements DomainEvent {
+  @WireTag(1)
   TenantId tenantId;
+
+  @WireTag(2)
   String tenantName;
+
+  @WireTag(3)
   TenantType tenantType;
+
+  @WireTag(4)
   Instant createdAt;
 
   @Override
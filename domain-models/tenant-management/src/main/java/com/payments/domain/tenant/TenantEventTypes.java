@@ -0,0 +1,19 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Tenant aggregate, for event codec registration. */
+public final class TenantEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(
+          TenantCreatedEvent.class,
+          TenantActivatedEvent.class,
+          TenantSuspendedEvent.class,
+          BusinessUnitAddedEvent.class,
+          UserAddedEvent.class,
+          ConfigurationUpdatedEvent.class);
+
+  private TenantEventTypes() {}
+}
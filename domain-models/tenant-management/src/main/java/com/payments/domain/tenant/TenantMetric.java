@@ -0,0 +1,17 @@
+package com.payments.domain.tenant;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.*;
+
+/** Row of {@code tenant_metrics}; {@code businessUnitId} is null for tenant-wide figures. */
+@Value
+@AllArgsConstructor
+public class TenantMetric {
+  String tenantId;
+  String businessUnitId;
+  LocalDate metricDate;
+  TenantMetricType metricType;
+  BigDecimal metricValue;
+  String metricUnit;
+}
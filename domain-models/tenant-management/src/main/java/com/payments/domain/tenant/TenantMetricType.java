@@ -0,0 +1,10 @@
+package com.payments.domain.tenant;
+
+/** Metric type of a {@code tenant_metrics} row. */
+public enum TenantMetricType {
+  API_CALLS,
+  PAYMENTS,
+  TRANSACTIONS,
+  STORAGE_GB,
+  COMPUTE_HOURS
+}
@@ -0,0 +1,14 @@
+package com.payments.domain.tenant;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Repository port: the {@code tenant_metrics} table. */
+public interface TenantMetricsRepository {
+
+  /** Add the given values to the tenant-wide rows of their date and type, creating missing rows. */
+  void addTenantTotals(List<TenantMetric> deltas);
+
+  /** The tenant-wide rows of the tenant for the date. */
+  List<TenantMetric> findTenantTotals(String tenantId, LocalDate date);
+}
@@ -0,0 +1,15 @@
+package com.payments.domain.tenant;
+
+import lombok.Getter;
+
+/** A payment would take a tenant over its daily transaction count or amount. */
+public class TenantQuotaExceededException extends RuntimeException {
+
+  /** {@code max_daily_transactions} or {@code max_daily_amount} */
+  @Getter private final String quotaName;
+
+  public TenantQuotaExceededException(String quotaName, String message) {
+    super(message);
+    this.quotaName = quotaName;
+  }
+}
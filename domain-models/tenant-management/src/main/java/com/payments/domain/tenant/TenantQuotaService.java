@@ -0,0 +1,475 @@
+package com.payments.domain.tenant;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enforces every tenant's {@code max_daily_transactions} and {@code max_daily_amount}.
+ *
+ * <ul>
+ *   <li>a tenant's payments and amount for the day are counters striped by thread, so payments of
+ *       one tenant on different threads rarely write the same cache line
+ *   <li>{@link #tryAdmit} allocates nothing. It sums the stripes and rejects a payment that does
+ *       not fit without writing anything. Otherwise it adds the payment, sums again and takes the
+ *       payment back out if concurrent ones filled the quota first, so a quota is never exceeded
+ *   <li>the day ends at midnight in the tenant's {@code timezone}; limits and timezone come from
+ *       the tenant's current {@link TenantConfigSnapshot}. An admitted payment's reservation is the
+ *       day it was counted on, and {@link #release} takes it back only from that day
+ *   <li>the counts are added to {@code tenant_metrics} every {@code metricsInterval}, {@code
+ *       TRANSACTIONS} as a count and {@code PAYMENTS} as an amount in the tenant's currency. A
+ *       tenant's day starts from those rows, and each flush reads them back, so payments admitted
+ *       before a restart or by other instances count too, up to two intervals late
+ *   <li>{@code tenant_metrics} is read outside any lock: a tenant's first payment and the first
+ *       after its midnight wait for the read, other payments of the tenant do not
+ * </ul>
+ */
+public class TenantQuotaService implements AutoCloseable {
+
+  /** Returned by {@link #reserve} for a payment that would exceed a quota. */
+  public static final long NOT_ADMITTED = -1;
+
+  private static final int STRIPES =
+      Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+  // Slots of a stripe; stripes are a 64-byte cache line apart
+  private static final int COUNT_SLOT = 0;
+  private static final int AMOUNT_SLOT = 1;
+  private static final int STRIDE = 8;
+  private static final String COUNT_UNIT = "COUNT";
+  // Results of acquire() other than a reservation
+  private static final long OVER_MAX_TRANSACTIONS = -1;
+  private static final long OVER_MAX_AMOUNT = -2;
+
+  private final TenantConfigRegistry configs;
+  private final TenantMetricsRepository metricsRepository;
+  private final Clock clock;
+  private final ConcurrentHashMap<String, TenantQuota> quotas = new ConcurrentHashMap<>();
+  // Counters of days that have ended, until their last counts are written
+  private final ConcurrentLinkedQueue<Counters> endedDays = new ConcurrentLinkedQueue<>();
+  private final Object flushLock = new Object();
+  private final ScheduledExecutorService metricsFlusher;
+
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder staleReleases = new LongAdder();
+
+  public TenantQuotaService(
+      TenantConfigRegistry configs, TenantMetricsRepository metricsRepository) {
+    this(configs, metricsRepository, Duration.ofMinutes(1), Clock.systemUTC());
+  }
+
+  public TenantQuotaService(
+      TenantConfigRegistry configs,
+      TenantMetricsRepository metricsRepository,
+      Duration metricsInterval,
+      Clock clock) {
+    this.configs = configs;
+    this.metricsRepository = metricsRepository;
+    this.clock = clock;
+    this.metricsFlusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "tenant-quota-metrics");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = metricsInterval.toMillis();
+    metricsFlusher.scheduleWithFixedDelay(
+        this::flushMetricsQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // ADMISSION
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Count a payment against its tenant's quotas if it fits in both.
+   *
+   * @param amountMinorUnits amount in cents of the tenant's currency, as held by {@link
+   *     CompactMoney}
+   * @return false, counting nothing, if the payment would exceed either quota
+   */
+  public boolean tryAdmit(String tenantId, long amountMinorUnits) {
+    return acquire(tenantId, null, amountMinorUnits) >= 0;
+  }
+
+  /**
+   * Count a payment against its tenant's quotas if it fits in both, like {@link #tryAdmit}.
+   *
+   * @return the reservation to {@link #release} the payment with, or {@link #NOT_ADMITTED}
+   */
+  public long reserve(String tenantId, long amountMinorUnits) {
+    long reservation = acquire(tenantId, null, amountMinorUnits);
+    return reservation >= 0 ? reservation : NOT_ADMITTED;
+  }
+
+  /**
+   * Count a payment being initiated against its tenant's quotas.
+   *
+   * @return the reservation to {@link #release} the payment with
+   * @throws TenantQuotaExceededException if it would exceed either quota
+   * @throws IllegalArgumentException if the amount is not in the tenant's currency
+   */
+  public long admit(TenantContext tenantContext, Money amount) {
+    String tenantId = tenantContext.getTenantId();
+    long reservation =
+        acquire(
+            tenantId,
+            amount.getCurrency().getCurrencyCode(),
+            CompactMoney.from(amount).getMinorUnits());
+    if (reservation < 0) {
+      String exceeded =
+          reservation == OVER_MAX_TRANSACTIONS
+              ? TenantConfigSnapshot.MAX_DAILY_TRANSACTIONS
+              : TenantConfigSnapshot.MAX_DAILY_AMOUNT;
+      throw new TenantQuotaExceededException(
+          exceeded, "Tenant " + tenantId + " has reached its " + exceeded + " for today");
+    }
+    return reservation;
+  }
+
+  /**
+   * Take back a payment that was not initiated after all. A payment admitted on a tenant day that
+   * has since ended stays counted on that day; the release is ignored and counted.
+   */
+  public void release(String tenantId, long reservation, long amountMinorUnits) {
+    TenantQuota quota = quotas.get(tenantId);
+    if (quota == null) {
+      return;
+    }
+    Counters counters = quota.current(clock.millis()).counters;
+    if (counters.date.toEpochDay() != reservation) {
+      staleReleases.increment();
+      return;
+    }
+    counters.add(stripe(), -1, -amountMinorUnits);
+  }
+
+  /** Payments admitted today, including those written to {@code tenant_metrics} by others. */
+  public long getTransactionCount(String tenantId) {
+    TenantQuota quota = quotas.get(tenantId);
+    return quota != null ? quota.current(clock.millis()).counters.count() : 0;
+  }
+
+  /** Amount admitted today in cents, including that written to {@code tenant_metrics} by others. */
+  public long getAmountMinorUnits(String tenantId) {
+    TenantQuota quota = quotas.get(tenantId);
+    return quota != null ? quota.current(clock.millis()).counters.amount() : 0;
+  }
+
+  public long getAdmittedCount() {
+    return admitted.sum();
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /** Releases ignored because the day the payment was admitted on had ended. */
+  public long getStaleReleaseCount() {
+    return staleReleases.sum();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // METRICS
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Add the payments counted since the last flush to {@code tenant_metrics} now, then read back
+   * what the tenants' rows hold for today, including what other instances added.
+   */
+  public void flushMetrics() {
+    synchronized (flushLock) {
+      List<Counters> flushed = new ArrayList<>();
+      List<Counters> ended = new ArrayList<>();
+      for (Counters counters; (counters = endedDays.poll()) != null; ) {
+        ended.add(counters);
+      }
+      flushed.addAll(ended);
+      for (TenantQuota quota : quotas.values()) {
+        flushed.add(quota.day.counters);
+      }
+      List<Counters> today = flushed.subList(ended.size(), flushed.size());
+
+      List<TenantMetric> deltas = new ArrayList<>();
+      long[] counts = new long[flushed.size()];
+      long[] amounts = new long[flushed.size()];
+      for (int i = 0; i < flushed.size(); i++) {
+        Counters counters = flushed.get(i);
+        counts[i] = counters.sum(COUNT_SLOT);
+        amounts[i] = counters.sum(AMOUNT_SLOT);
+        counters.addDeltas(counts[i], amounts[i], deltas);
+      }
+      try {
+        if (!deltas.isEmpty()) {
+          metricsRepository.addTenantTotals(deltas);
+        }
+      } catch (RuntimeException e) {
+        endedDays.addAll(ended); // Retried with the next flush
+        throw e;
+      }
+      for (int i = 0; i < flushed.size(); i++) {
+        flushed.get(i).flushedCount = counts[i];
+        flushed.get(i).flushedAmount = amounts[i];
+      }
+      for (Counters counters : today) {
+        long[] totals = totals(counters.tenantId, counters.date);
+        // What others added: everything admitted here is either in the rows or not yet flushed
+        counters.baseCount = totals[COUNT_SLOT] - counters.flushedCount;
+        counters.baseAmount = totals[AMOUNT_SLOT] - counters.flushedAmount;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    metricsFlusher.shutdown();
+    try {
+      metricsFlusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flushMetricsQuietly();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * The tenant day the payment was counted on, as its epoch day, or the negative code of the quota
+   * it would exceed.
+   */
+  private long acquire(String tenantId, String currency, long amountMinorUnits) {
+    TenantQuota quota = quotas.get(tenantId);
+    if (quota == null) {
+      // Loaded outside the map's locks; a concurrent loader may win the insert
+      TenantQuota loaded = new TenantQuota(TenantId.of(tenantId));
+      quota = quotas.putIfAbsent(tenantId, loaded);
+      if (quota == null) {
+        quota = loaded;
+      }
+    }
+    Day day = quota.current(clock.millis());
+    Counters counters = day.counters;
+    if (currency != null && !currency.equals(counters.currency)) {
+      throw new IllegalArgumentException(
+          "Tenant " + tenantId + " quotas are in " + counters.currency + ", not " + currency);
+    }
+    String exceeded = exceeded(day, counters.count() + 1, counters.amount() + amountMinorUnits);
+    if (exceeded == null) {
+      int stripe = stripe();
+      counters.add(stripe, 1, amountMinorUnits);
+      exceeded = exceeded(day, counters.count(), counters.amount());
+      if (exceeded != null) {
+        counters.add(stripe, -1, -amountMinorUnits);
+      }
+    }
+    if (exceeded != null) {
+      rejected.increment();
+      return exceeded.equals(TenantConfigSnapshot.MAX_DAILY_TRANSACTIONS)
+          ? OVER_MAX_TRANSACTIONS
+          : OVER_MAX_AMOUNT;
+    }
+    admitted.increment();
+    return counters.date.toEpochDay();
+  }
+
+  private static String exceeded(Day day, long count, long amount) {
+    if (count > day.maxCount) {
+      return TenantConfigSnapshot.MAX_DAILY_TRANSACTIONS;
+    }
+    if (amount > day.maxAmount) {
+      return TenantConfigSnapshot.MAX_DAILY_AMOUNT;
+    }
+    return null;
+  }
+
+  /** Count and amount in cents of the tenant-wide rows of the date. */
+  private long[] totals(String tenantId, LocalDate date) {
+    long[] totals = new long[2];
+    for (TenantMetric row : metricsRepository.findTenantTotals(tenantId, date)) {
+      if (row.getMetricType() == TenantMetricType.TRANSACTIONS) {
+        totals[COUNT_SLOT] += row.getMetricValue().longValue();
+      } else if (row.getMetricType() == TenantMetricType.PAYMENTS) {
+        totals[AMOUNT_SLOT] += row.getMetricValue().movePointRight(CompactMoney.SCALE).longValue();
+      }
+    }
+    return totals;
+  }
+
+  private void flushMetricsQuietly() {
+    try {
+      flushMetrics();
+    } catch (RuntimeException e) {
+      // The counts stay unflushed and are written with the next flush
+    }
+  }
+
+  private static int stripe() {
+    return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+  }
+
+  /** A tenant's current day; replaced at midnight and when its configuration changes. */
+  private final class TenantQuota {
+    final TenantId tenantId;
+    volatile Day day;
+
+    TenantQuota(TenantId tenantId) {
+      this.tenantId = tenantId;
+      TenantConfigSnapshot snapshot = configs.get(tenantId);
+      this.day = openDay(snapshot, zoneOf(snapshot), clock.millis());
+    }
+
+    Day current(long now) {
+      Day current = day;
+      TenantConfigSnapshot snapshot = configs.get(tenantId);
+      if (now < current.endMillis) {
+        return snapshot == current.snapshot ? current : reconfigure(snapshot);
+      }
+      // The next day is opened outside the lock; a concurrent roll may install its own first
+      return roll(current.counters, openDay(snapshot, zoneOf(snapshot), now));
+    }
+
+    private synchronized Day reconfigure(TenantConfigSnapshot snapshot) {
+      Day current = day;
+      if (snapshot != current.snapshot) {
+        // New limits apply to the payments already counted today
+        day = new Day(snapshot, current.endMillis, current.counters);
+      }
+      return day;
+    }
+
+    private synchronized Day roll(Counters ended, Day next) {
+      if (day.counters == ended) {
+        endedDays.add(ended);
+        day = next;
+      }
+      return day;
+    }
+
+    private Day openDay(TenantConfigSnapshot snapshot, ZoneId zone, long now) {
+      LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+      long endMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+      String currency = snapshot.getString(TenantConfigSnapshot.CURRENCY);
+      Counters counters =
+          new Counters(tenantId.getValue(), date, currency != null ? currency : "ZAR");
+      long[] totals = totals(tenantId.getValue(), date);
+      counters.baseCount = totals[COUNT_SLOT];
+      counters.baseAmount = totals[AMOUNT_SLOT];
+      return new Day(snapshot, endMillis, counters);
+    }
+
+    private ZoneId zoneOf(TenantConfigSnapshot snapshot) {
+      String timezone = snapshot.getString(TenantConfigSnapshot.TIMEZONE);
+      try {
+        return timezone != null ? ZoneId.of(timezone) : ZoneOffset.UTC;
+      } catch (DateTimeException e) {
+        return ZoneOffset.UTC;
+      }
+    }
+  }
+
+  /** Quotas of one tenant day, read from a configuration snapshot. */
+  private static final class Day {
+    final TenantConfigSnapshot snapshot;
+    final long endMillis;
+    final Counters counters;
+    final long maxCount;
+    final long maxAmount;
+
+    Day(TenantConfigSnapshot snapshot, long endMillis, Counters counters) {
+      this.snapshot = snapshot;
+      this.endMillis = endMillis;
+      this.counters = counters;
+      this.maxCount = snapshot.getMaxDailyTransactions();
+      BigDecimal maxDailyAmount = snapshot.getMaxDailyAmount();
+      this.maxAmount =
+          maxDailyAmount != null
+              ? maxDailyAmount.movePointRight(CompactMoney.SCALE).longValue()
+              : Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Payments and amount of a tenant day: what others added to {@code tenant_metrics} as of the last
+   * flush, plus the striped counts admitted here.
+   */
+  private static final class Counters {
+    final String tenantId;
+    final LocalDate date;
+    final String currency;
+    final AtomicLongArray cells = new AtomicLongArray(STRIPES * STRIDE);
+    // Written by the flusher, read by admissions
+    volatile long baseCount;
+    volatile long baseAmount;
+    // Guarded by flushLock
+    long flushedCount;
+    long flushedAmount;
+
+    Counters(String tenantId, LocalDate date, String currency) {
+      this.tenantId = tenantId;
+      this.date = date;
+      this.currency = currency;
+    }
+
+    void add(int stripe, long count, long amount) {
+      cells.addAndGet(stripe + COUNT_SLOT, count);
+      cells.addAndGet(stripe + AMOUNT_SLOT, amount);
+    }
+
+    long count() {
+      return baseCount + sum(COUNT_SLOT);
+    }
+
+    long amount() {
+      return baseAmount + sum(AMOUNT_SLOT);
+    }
+
+    long sum(int slot) {
+      long sum = 0;
+      for (int stripe = 0; stripe < STRIPES * STRIDE; stripe += STRIDE) {
+        sum += cells.get(stripe + slot);
+      }
+      return sum;
+    }
+
+    void addDeltas(long count, long amount, List<TenantMetric> deltas) {
+      if (count != flushedCount) {
+        deltas.add(
+            new TenantMetric(
+                tenantId,
+                null,
+                date,
+                TenantMetricType.TRANSACTIONS,
+                BigDecimal.valueOf(count - flushedCount),
+                COUNT_UNIT));
+      }
+      if (amount != flushedAmount) {
+        deltas.add(
+            new TenantMetric(
+                tenantId,
+                null,
+                date,
+                TenantMetricType.PAYMENTS,
+                BigDecimal.valueOf(amount - flushedAmount, CompactMoney.SCALE),
+                currency));
+      }
+    }
+  }
+}
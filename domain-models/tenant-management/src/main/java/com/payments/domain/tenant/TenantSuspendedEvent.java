@@ -8,8 +8,13 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class TenantSuspendedEvent implements DomainEvent {
+  @WireTag(1)
   TenantId tenantId;
+
+  @WireTag(2)
   String reason;
+
+  @WireTag(3)
   String suspendedBy;
 
   @Override
@@ -8,9 +8,16 @@ import lombok.*;
 @Value
 @AllArgsConstructor
 public class UserAddedEvent implements DomainEvent {
+  @WireTag(1)
   TenantId tenantId;
+
+  @WireTag(2)
   UserId userId;
+
+  @WireTag(3)
   String username;
+
+  @WireTag(4)
   String role;
 
   @Override
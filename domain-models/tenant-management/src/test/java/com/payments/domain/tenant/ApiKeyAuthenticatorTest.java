@@ -0,0 +1,271 @@
+package com.payments.domain.tenant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ApiKeyAuthenticatorTest {
+
+  private static final String RAW_KEY = "pk_live_0123456789abcdef";
+  private static final Instant START = Instant.parse("2024-03-01T10:00:00Z");
+
+  private final MutableClock clock = new MutableClock(START);
+  private final FakeRepository repository = new FakeRepository();
+
+  @Test
+  void verified_key_is_served_from_cache_and_checked_for_permission() {
+    repository.add(key("KEY-1", 100, true));
+    try (ApiKeyAuthenticator authenticator = authenticator()) {
+      ApiKey key = authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_CREATE);
+      assertEquals("KEY-1", key.getApiKeyId());
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+
+      ApiKeyRejectedException denied =
+          assertThrows(
+              ApiKeyRejectedException.class,
+              () -> authenticator.authenticate(RAW_KEY, ApiPermission.USER_MANAGE));
+      assertEquals(ApiKeyRejectionReason.PERMISSION_DENIED, denied.getReason());
+
+      ApiKeyRejectedException unknown =
+          assertThrows(
+              ApiKeyRejectedException.class,
+              () -> authenticator.authenticate("guess", ApiPermission.PAYMENT_READ));
+      assertEquals(ApiKeyRejectionReason.UNKNOWN_KEY, unknown.getReason());
+      assertThrows(
+          ApiKeyRejectedException.class,
+          () -> authenticator.authenticate("guess", ApiPermission.PAYMENT_READ));
+
+      assertEquals(2, repository.lookups);
+    }
+  }
+
+  @Test
+  void per_minute_limit_refills_over_time() {
+    repository.add(key("KEY-1", 3, true));
+    try (ApiKeyAuthenticator authenticator = authenticator()) {
+      for (int i = 0; i < 3; i++) {
+        authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      }
+      ApiKeyRejectedException limited =
+          assertThrows(
+              ApiKeyRejectedException.class,
+              () -> authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ));
+      assertEquals(ApiKeyRejectionReason.RATE_LIMITED, limited.getReason());
+
+      clock.advance(Duration.ofSeconds(20)); // One token back at 3 a minute
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      assertEquals(1, authenticator.getRateLimitedCount());
+    }
+  }
+
+  @Test
+  void guessed_keys_do_not_evict_real_ones() {
+    repository.add(key("KEY-1", 100, true));
+    try (ApiKeyAuthenticator authenticator = authenticator(16)) {
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      for (int i = 0; i < 100; i++) {
+        String guess = "guess-" + i;
+        assertThrows(
+            ApiKeyRejectedException.class,
+            () -> authenticator.authenticate(guess, ApiPermission.PAYMENT_READ));
+      }
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      assertEquals(101, repository.lookups);
+    }
+  }
+
+  @Test
+  void evicted_key_keeps_its_rate_limit_buckets() {
+    repository.add(key("KEY-1", 3, true));
+    for (int i = 0; i < 200; i++) {
+      repository.add(key("OTHER-" + i, "pk_live_other_" + i, 100, true));
+    }
+    try (ApiKeyAuthenticator authenticator = authenticator(16)) {
+      for (int i = 0; i < 3; i++) {
+        authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      }
+      for (int i = 0; i < 200; i++) {
+        authenticator.authenticate("pk_live_other_" + i, ApiPermission.PAYMENT_READ);
+      }
+      ApiKeyRejectedException limited =
+          assertThrows(
+              ApiKeyRejectedException.class,
+              () -> authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ));
+      assertEquals(ApiKeyRejectionReason.RATE_LIMITED, limited.getReason());
+      assertEquals(202, repository.lookups); // Reloaded after its eviction
+    }
+  }
+
+  @Test
+  void revocation_check_rejects_keys_deactivated_in_the_table() {
+    repository.add(key("KEY-1", 100, true));
+    try (ApiKeyAuthenticator authenticator = authenticator()) {
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+
+      repository.add(key("KEY-1", 100, false));
+      authenticator.checkRevocations();
+
+      ApiKeyRejectedException revoked =
+          assertThrows(
+              ApiKeyRejectedException.class,
+              () -> authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ));
+      assertEquals(ApiKeyRejectionReason.INACTIVE, revoked.getReason());
+      assertEquals(1, authenticator.getRevocationCount());
+      assertEquals(1, repository.lookups);
+    }
+  }
+
+  @Test
+  void last_use_is_written_back_in_one_batch() {
+    repository.add(key("KEY-1", 100, true));
+    try (ApiKeyAuthenticator authenticator = authenticator()) {
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      clock.advance(Duration.ofSeconds(5));
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      authenticator.flushLastUsed();
+      authenticator.flushLastUsed();
+    }
+    assertEquals(1, repository.usageBatches.size());
+    assertEquals(
+        List.of(new ApiKeyUsage("KEY-1", START.plusSeconds(5))), repository.usageBatches.get(0));
+  }
+
+  @Test
+  void last_use_of_an_evicted_key_is_still_written_back() {
+    repository.add(key("KEY-1", 100, true));
+    for (int i = 0; i < 200; i++) {
+      repository.add(key("OTHER-" + i, "pk_live_other_" + i, 100, true));
+    }
+    try (ApiKeyAuthenticator authenticator = authenticator(16)) {
+      authenticator.authenticate(RAW_KEY, ApiPermission.PAYMENT_READ);
+      clock.advance(Duration.ofSeconds(5));
+      for (int i = 0; i < 200; i++) {
+        authenticator.authenticate("pk_live_other_" + i, ApiPermission.PAYMENT_READ);
+      }
+      authenticator.flushLastUsed();
+    }
+    List<ApiKeyUsage> written = repository.usageBatches.get(0);
+    assertEquals(201, written.size());
+    assertTrue(written.contains(new ApiKeyUsage("KEY-1", START)));
+  }
+
+  private ApiKeyAuthenticator authenticator() {
+    return authenticator(1_000);
+  }
+
+  private ApiKeyAuthenticator authenticator(int maximumSize) {
+    return new ApiKeyAuthenticator(
+        repository,
+        maximumSize,
+        maximumSize,
+        Duration.ofMinutes(5),
+        Duration.ofSeconds(30),
+        Duration.ofHours(1),
+        Duration.ofHours(1),
+        clock);
+  }
+
+  private static ApiKey key(String apiKeyId, int perMinute, boolean active) {
+    return key(apiKeyId, RAW_KEY, perMinute, active);
+  }
+
+  private static ApiKey key(String apiKeyId, String rawKey, int perMinute, boolean active) {
+    return new ApiKey(
+        apiKeyId,
+        TenantId.of("TNT-1"),
+        null,
+        "Integration",
+        sha256(rawKey),
+        ApiPermission.maskOf(List.of("payment:*")),
+        perMinute,
+        10_000,
+        100_000,
+        active,
+        null);
+  }
+
+  private static String sha256(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private static final class FakeRepository implements ApiKeyRepository {
+    final Map<String, ApiKey> byHash = new HashMap<>();
+    final List<List<ApiKeyUsage>> usageBatches = new ArrayList<>();
+    int lookups;
+
+    void add(ApiKey key) {
+      byHash.put(key.getApiKeyHash(), key);
+    }
+
+    @Override
+    public ApiKey findByHash(String apiKeyHash) {
+      lookups++;
+      return byHash.get(apiKeyHash);
+    }
+
+    @Override
+    public Set<String> findUsable(Collection<String> apiKeyIds, Instant now) {
+      Set<String> usable = new HashSet<>();
+      for (ApiKey key : byHash.values()) {
+        if (apiKeyIds.contains(key.getApiKeyId()) && key.isActive() && !key.isExpiredAt(now)) {
+          usable.add(key.getApiKeyId());
+        }
+      }
+      return usable;
+    }
+
+    @Override
+    public void updateLastUsed(List<ApiKeyUsage> usage) {
+      usageBatches.add(usage);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.payments.domain.tenant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class BusinessUnitHierarchyTest {
+
+  private static final BusinessUnitId REGION = BusinessUnitId.of("BU-REGION");
+  private static final BusinessUnitId BRANCH = BusinessUnitId.of("BU-BRANCH");
+  private static final BusinessUnitId DESK = BusinessUnitId.of("BU-DESK");
+  private static final BusinessUnitId OTHER = BusinessUnitId.of("BU-OTHER");
+
+  @Test
+  void ancestors_descendants_and_inherited_values() {
+    Tenant tenant = newTenant();
+    BusinessUnitHierarchy hierarchy = tenant.getBusinessUnitHierarchy();
+
+    assertTrue(hierarchy.isAncestor(REGION, DESK));
+    assertTrue(hierarchy.isAncestor(BRANCH, DESK));
+    assertFalse(hierarchy.isAncestor(DESK, REGION));
+    assertFalse(hierarchy.isAncestor(DESK, DESK));
+    assertFalse(hierarchy.isAncestor(OTHER, DESK));
+    assertEquals(List.of(BRANCH, REGION), hierarchy.getAncestors(DESK));
+    assertEquals(List.of(BRANCH, DESK), hierarchy.getDescendants(REGION));
+    assertEquals(2, hierarchy.getDepth(DESK));
+
+    Map<BusinessUnitId, BigDecimal> limits =
+        Map.of(REGION, new BigDecimal("5000"), OTHER, new BigDecimal("100"));
+    assertEquals(new BigDecimal("5000"), hierarchy.resolve(DESK, limits));
+    assertNull(hierarchy.findNearest(DESK, id -> id.equals(OTHER)));
+  }
+
+  @Test
+  void index_built_from_events_matches_the_aggregate() {
+    Tenant tenant = newTenant();
+    BusinessUnitHierarchy fromEvents = BusinessUnitHierarchy.empty(tenant.getId());
+    tenant.getDomainEvents().forEach(fromEvents::onEvent);
+    tenant.getDomainEvents().forEach(fromEvents::onEvent); // Replay is harmless
+
+    assertEquals(4, fromEvents.size());
+    assertEquals(BRANCH, fromEvents.getParent(DESK));
+    assertTrue(fromEvents.isAncestor(REGION, DESK));
+
+    // An aggregate loaded from its rows rebuilds the same tree
+    List<BusinessUnit> rows = new ArrayList<>(tenant.getBusinessUnits());
+    Collections.reverse(rows);
+    BusinessUnitHierarchy fromRows = BusinessUnitHierarchy.of(tenant.getId(), rows);
+    assertEquals(List.of(BRANCH, REGION), fromRows.getAncestors(DESK));
+  }
+
+  @Test
+  void child_of_an_unknown_unit_is_rejected() {
+    Tenant tenant = newTenant();
+    assertThrows(
+        InvalidTenantException.class,
+        () ->
+            tenant.addChildBusinessUnit(
+                BusinessUnitId.of("BU-MISSING"),
+                BusinessUnitId.generate(),
+                "Orphan",
+                BusinessUnitType.OPERATIONS,
+                "creator"));
+  }
+
+  private static Tenant newTenant() {
+    Tenant tenant =
+        Tenant.create(
+            TenantId.generate(), "Tenant One", TenantType.BANK, "tenant@example.com", "creator");
+    tenant.addBusinessUnit(REGION, "Region", BusinessUnitType.OPERATIONS, 1, "creator");
+    tenant.addChildBusinessUnit(REGION, BRANCH, "Branch", BusinessUnitType.OPERATIONS, "creator");
+    tenant.addChildBusinessUnit(BRANCH, DESK, "Desk", BusinessUnitType.TREASURY, "creator");
+    tenant.addBusinessUnit(OTHER, "Other", BusinessUnitType.OPERATIONS, 1, "creator");
+    return tenant;
+  }
+}
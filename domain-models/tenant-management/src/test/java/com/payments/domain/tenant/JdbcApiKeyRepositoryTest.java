@@ -0,0 +1,28 @@
+package com.payments.domain.tenant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class JdbcApiKeyRepositoryTest {
+
+  @Test
+  void permissions_are_read_from_a_top_level_array_of_strings() {
+    assertEquals(
+        List.of("payment:create", "payment:*"),
+        JdbcApiKeyRepository.parseCodes(" [\"payment:create\", \"payment:\\u002a\"] "));
+    assertEquals(List.of(), JdbcApiKeyRepository.parseCodes("[]"));
+  }
+
+  @Test
+  void anything_but_an_array_of_strings_grants_nothing() {
+    assertNull(JdbcApiKeyRepository.parseCodes("{\"payment:create\": false}"));
+    assertNull(JdbcApiKeyRepository.parseCodes("{\"denied\": [\"payment:create\"]}"));
+    assertNull(JdbcApiKeyRepository.parseCodes("[[\"payment:create\"]]"));
+    assertNull(JdbcApiKeyRepository.parseCodes("[\"payment:read\", true]"));
+    assertNull(JdbcApiKeyRepository.parseCodes("[\"payment:read\"] [\"payment:create\"]"));
+    assertNull(JdbcApiKeyRepository.parseCodes("[\"payment:read\""));
+    assertNull(JdbcApiKeyRepository.parseCodes("\"payment:create\""));
+  }
+}
@@ -0,0 +1,101 @@
+package com.payments.domain.tenant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TenantConfigRegistryTest {
+
+  @Test
+  void snapshot_parses_values_by_type() {
+    TenantConfigSnapshot snapshot = newTenant().getConfigSnapshot();
+
+    assertEquals(new BigDecimal("1000000000.00"), snapshot.getMaxDailyAmount());
+    assertEquals(1_000_000L, snapshot.getMaxDailyTransactions());
+    assertTrue(snapshot.isFraudDetectionEnabled());
+    assertEquals("ZAR", snapshot.getString("currency"));
+    assertEquals(7L, snapshot.getLong("not_configured", 7L));
+    assertThrows(InvalidTenantException.class, () -> snapshot.getDecimal("currency"));
+  }
+
+  @Test
+  void invalid_value_is_rejected_and_leaves_the_configuration_untouched() {
+    Tenant tenant = newTenant();
+    TenantConfigSnapshot before = tenant.getConfigSnapshot();
+
+    assertThrows(
+        InvalidTenantException.class,
+        () ->
+            tenant.updateConfiguration(
+                "max_daily_amount", "lots", ConfigurationType.NUMBER, "admin"));
+    assertSame(before, tenant.getConfigSnapshot());
+    assertEquals("1000000000.00", tenant.getConfigurationValue("max_daily_amount"));
+  }
+
+  @Test
+  void configuration_updated_event_publishes_the_next_version() {
+    Tenant tenant = newTenant();
+    AtomicInteger loads = new AtomicInteger();
+    TenantConfigRegistry registry =
+        new TenantConfigRegistry(
+            id -> {
+              loads.incrementAndGet();
+              return tenant.getConfigSnapshot();
+            });
+    TenantConfigSnapshot first = registry.get(tenant.getId());
+    assertSame(first, registry.get(tenant.getId()));
+
+    tenant.clearDomainEvents();
+    tenant.updateConfiguration("fraud_detection_enabled", "false", ConfigurationType.STRING, "ops");
+    tenant.getDomainEvents().forEach(registry::onEvent);
+
+    TenantConfigSnapshot second = registry.get(tenant.getId());
+    assertEquals(first.getVersion() + 1, second.getVersion());
+    assertFalse(second.isFraudDetectionEnabled());
+    assertTrue(first.isFraudDetectionEnabled());
+    assertEquals(1, loads.get());
+
+    registry.invalidate(tenant.getId());
+    assertFalse(registry.get(tenant.getId()).isFraudDetectionEnabled());
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void unparsable_stored_value_keeps_its_raw_string_and_the_version_follows_the_rows() {
+    TenantId id = TenantId.generate();
+    TenantConfiguration amount =
+        TenantConfiguration.create(
+            id, "max_daily_amount", "lots", ConfigurationType.NUMBER, "migration");
+    amount.setUpdatedAt(Instant.parse("2024-03-01T08:00:00Z"));
+    TenantConfiguration transactions =
+        TenantConfiguration.create(
+            id, "max_daily_transactions", "500", ConfigurationType.NUMBER, "migration");
+    transactions.setUpdatedAt(Instant.parse("2024-03-02T08:00:00Z"));
+
+    TenantConfigSnapshot snapshot = TenantConfigSnapshot.of(id, List.of(amount, transactions));
+
+    assertEquals(500L, snapshot.getMaxDailyTransactions());
+    assertEquals("lots", snapshot.getString("max_daily_amount"));
+    assertThrows(InvalidTenantException.class, snapshot::getMaxDailyAmount);
+    assertEquals(
+        List.of("Configuration max_daily_amount is not a number: lots"),
+        snapshot.getInvalidEntries());
+    assertEquals(Instant.parse("2024-03-02T08:00:00Z").toEpochMilli(), snapshot.getVersion());
+
+    TenantConfigSnapshot fixed =
+        snapshot.with("max_daily_amount", "100.00", ConfigurationType.NUMBER);
+    assertEquals(new BigDecimal("100.00"), fixed.getMaxDailyAmount());
+    assertEquals(snapshot.getVersion() + 1, fixed.getVersion());
+    assertTrue(fixed.getInvalidEntries().isEmpty());
+  }
+
+  private static Tenant newTenant() {
+    return Tenant.create(
+        TenantId.generate(), "Tenant One", TenantType.BANK, "tenant@example.com", "creator");
+  }
+}
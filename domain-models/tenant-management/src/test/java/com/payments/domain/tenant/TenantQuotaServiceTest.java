@@ -0,0 +1,232 @@
+package com.payments.domain.tenant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TenantQuotaServiceTest {
+
+  // 21:30 UTC is 23:30 in Johannesburg, half an hour before the tenant's midnight
+  private static final Instant START = Instant.parse("2024-03-01T21:30:00Z");
+
+  private final MutableClock clock = new MutableClock(START);
+  private final FakeRepository repository = new FakeRepository();
+  private final Tenant tenant =
+      Tenant.create(
+          TenantId.of("TNT-Q"), "Quota Bank", TenantType.BANK, "ops@bank.test", "creator");
+  private final TenantConfigRegistry configs =
+      new TenantConfigRegistry(id -> tenant.getConfigSnapshot());
+
+  @Test
+  void quotas_reject_once_exhausted_and_reset_at_tenant_midnight() {
+    setQuota("3", "1000.00");
+    try (TenantQuotaService quotas = service()) {
+      assertTrue(quotas.tryAdmit("TNT-Q", 40_000));
+      assertTrue(quotas.tryAdmit("TNT-Q", 60_000));
+      assertFalse(quotas.tryAdmit("TNT-Q", 1)); // Amount exhausted
+      assertTrue(quotas.tryAdmit("TNT-Q", 0));
+
+      TenantContext context = TenantContext.of("TNT-Q", "Quota Bank", "BU-1", "Ops");
+      TenantQuotaExceededException exceeded =
+          assertThrows(
+              TenantQuotaExceededException.class,
+              () -> quotas.admit(context, Money.zar(BigDecimal.ZERO)));
+      assertEquals("max_daily_transactions", exceeded.getQuotaName());
+
+      clock.advance(Duration.ofMinutes(31));
+      assertTrue(quotas.tryAdmit("TNT-Q", 10_000));
+      assertEquals(1, quotas.getTransactionCount("TNT-Q"));
+      assertEquals(2, quotas.getRejectedCount());
+    }
+    assertEquals(
+        List.of(
+            "2024-03-01 TRANSACTIONS 3 COUNT",
+            "2024-03-01 PAYMENTS 1000.00 ZAR",
+            "2024-03-02 TRANSACTIONS 1 COUNT",
+            "2024-03-02 PAYMENTS 100.00 ZAR"),
+        repository.lines());
+  }
+
+  @Test
+  void release_after_the_tenant_midnight_leaves_the_new_day_alone() {
+    setQuota("2", "1000.00");
+    try (TenantQuotaService quotas = service()) {
+      long yesterday = quotas.reserve("TNT-Q", 10_000);
+      long before = quotas.reserve("TNT-Q", 10_000);
+      quotas.release("TNT-Q", before, 10_000);
+      assertEquals(1, quotas.getTransactionCount("TNT-Q"));
+
+      clock.advance(Duration.ofMinutes(31));
+      long today = quotas.reserve("TNT-Q", 20_000);
+      assertEquals(yesterday + 1, today);
+      quotas.release("TNT-Q", yesterday, 10_000);
+
+      assertEquals(1, quotas.getTransactionCount("TNT-Q"));
+      assertEquals(20_000, quotas.getAmountMinorUnits("TNT-Q"));
+      assertEquals(1, quotas.getStaleReleaseCount());
+      assertEquals(TenantQuotaService.NOT_ADMITTED, quotas.reserve("TNT-Q", 90_000));
+    }
+  }
+
+  @Test
+  void day_starts_from_metrics_already_written() {
+    setQuota("5", "1000000.00");
+    repository.rows.add(
+        new TenantMetric(
+            "TNT-Q",
+            null,
+            LocalDate.of(2024, 3, 1),
+            TenantMetricType.TRANSACTIONS,
+            new BigDecimal("4"),
+            "COUNT"));
+    try (TenantQuotaService quotas = service()) {
+      assertTrue(quotas.tryAdmit("TNT-Q", 100));
+      assertFalse(quotas.tryAdmit("TNT-Q", 100));
+      quotas.flushMetrics();
+    }
+    assertEquals(
+        List.of(
+            "2024-03-01 TRANSACTIONS 4 COUNT",
+            "2024-03-01 TRANSACTIONS 1 COUNT",
+            "2024-03-01 PAYMENTS 1.00 ZAR"),
+        repository.lines());
+  }
+
+  @Test
+  void each_flush_picks_up_what_other_instances_admitted() {
+    setQuota("5", "1000000.00");
+    try (TenantQuotaService first = service();
+        TenantQuotaService second = service()) {
+      assertTrue(second.tryAdmit("TNT-Q", 100));
+      for (int i = 0; i < 3; i++) {
+        assertTrue(first.tryAdmit("TNT-Q", 100));
+      }
+      first.flushMetrics();
+      second.flushMetrics();
+
+      assertEquals(4, second.getTransactionCount("TNT-Q"));
+      assertEquals(400, second.getAmountMinorUnits("TNT-Q"));
+      assertTrue(second.tryAdmit("TNT-Q", 100));
+      assertFalse(second.tryAdmit("TNT-Q", 100));
+    }
+  }
+
+  @Test
+  void payment_in_another_currency_is_refused() {
+    setQuota("5", "1000.00");
+    try (TenantQuotaService quotas = service()) {
+      TenantContext context = TenantContext.of("TNT-Q", "Quota Bank", "BU-1", "Ops");
+      Money dollars = Money.of(new BigDecimal("10.00"), Currency.getInstance("USD"));
+      assertThrows(IllegalArgumentException.class, () -> quotas.admit(context, dollars));
+      assertEquals(0, quotas.getTransactionCount("TNT-Q"));
+    }
+  }
+
+  @Test
+  void concurrent_admissions_never_exceed_the_quota() throws InterruptedException {
+    setQuota("1000", "1000000000.00");
+    try (TenantQuotaService quotas = service()) {
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        Thread thread =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < 500; i++) {
+                    quotas.tryAdmit("TNT-Q", 100);
+                  }
+                });
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertEquals(1000, quotas.getTransactionCount("TNT-Q"));
+      assertEquals(1000, quotas.getAdmittedCount());
+    }
+  }
+
+  private void setQuota(String transactions, String amount) {
+    tenant.updateConfiguration(
+        "max_daily_transactions", transactions, ConfigurationType.NUMBER, "ops");
+    tenant.updateConfiguration("max_daily_amount", amount, ConfigurationType.NUMBER, "ops");
+  }
+
+  private TenantQuotaService service() {
+    return new TenantQuotaService(configs, repository, Duration.ofHours(1), clock);
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  /** Keeps every added delta as a row, in order. */
+  private static final class FakeRepository implements TenantMetricsRepository {
+    final List<TenantMetric> rows = new ArrayList<>();
+
+    @Override
+    public synchronized void addTenantTotals(List<TenantMetric> deltas) {
+      rows.addAll(deltas);
+    }
+
+    @Override
+    public synchronized List<TenantMetric> findTenantTotals(String tenantId, LocalDate date) {
+      List<TenantMetric> found = new ArrayList<>();
+      for (TenantMetric row : rows) {
+        if (row.getTenantId().equals(tenantId) && row.getMetricDate().equals(date)) {
+          found.add(row);
+        }
+      }
+      return found;
+    }
+
+    synchronized List<String> lines() {
+      List<String> lines = new ArrayList<>();
+      for (TenantMetric row : rows) {
+        lines.add(
+            row.getMetricDate()
+                + " "
+                + row.getMetricType()
+                + " "
+                + row.getMetricValue()
+                + " "
+                + row.getMetricUnit());
+      }
+      return lines;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+import lombok.*;
+
+/** Balance of one account as stored in {@code account_balances}. */
+@Value
+@AllArgsConstructor
+public class AccountBalance {
+  AccountNumber accountNumber;
+  String tenantId;
+  String businessUnitId;
+  Currency currency;
+  BigDecimal currentBalance;
+  String lastTransactionId;
+  Instant lastUpdated;
+  // Posting sequence of the last ledger entry included in the balance
+  long lastPostingSequence;
+}
@@ -0,0 +1,786 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory account balances, the system of record for postings
+ *
+ * <p>Replaces the {@code update_account_balance} trigger, which read and rewrote the {@code
+ * account_balances} row of both accounts for every ledger entry and so serialized all postings to a
+ * hot account on that row lock:
+ *
+ * <ul>
+ *   <li>balances live in memory as {@code long} minor units, sharded over lock stripes by account
+ *       number; a posting locks only the stripes of its accounts, in stripe order
+ *   <li>{@link #post(List)} applies a batch of transactions, e.g. those saved together by {@link
+ *       TransactionRepository#saveAll}, atomically and stamps {@code balanceBefore}/{@code
+ *       balanceAfter} and a per-account {@code postingSequence} on the ledger entries before they
+ *       are saved
+ *   <li>the batch stays pending until the caller reports that its ledger entries were saved ({@link
+ *       #commit}) or not ({@link #revert}, which takes it back out of the balances); later batches
+ *       do not wait for it but stack on the live balance, and each account's postings are settled
+ *       in posting order, so a committed batch counts towards the checkpoint only once every batch
+ *       before it on the same accounts is settled too
+ *   <li>a reverted batch re-stamps only the pending batches stacked after it on its accounts, by
+ *       the amount it took back; one of those already saved keeps the stamps it was saved with, but
+ *       its amount and posting sequence, from which balances are rebuilt, stay right
+ *   <li>a batch neither committed nor reverted within the pending timeout, e.g. because its caller
+ *       died between saving and reporting, is settled against the saved ledger by {@link
+ *       #settleAbandoned()}
+ *   <li>the committed balances changed since the last checkpoint are written to {@code
+ *       account_balances} in one batch, with the posting sequence they include, periodically and on
+ *       {@link #close()}
+ * </ul>
+ *
+ * <p>An account is loaded on first use from its checkpoint plus the ledger entries posted after it,
+ * so postings saved but not yet checkpointed survive a restart. Each account must be posted to by
+ * exactly one engine instance, e.g. by routing on account number; the checkpoint overwrites the
+ * stored balance.
+ */
+public class AccountBalanceEngine implements AutoCloseable {
+
+  private final Stripe[] stripes;
+  private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+  // Batch of each posted transaction not yet committed or reverted, by transaction ID
+  private final ConcurrentHashMap<String, Batch> pending = new ConcurrentHashMap<>();
+  private final AccountBalanceRepository repository;
+  private final Clock clock;
+  private final long pendingTimeoutMillis;
+  private final ScheduledExecutorService checkpointer;
+
+  private final LongAdder postings = new LongAdder();
+  private final LongAdder reverts = new LongAdder();
+  private final LongAdder restamped = new LongAdder();
+  private final LongAdder abandoned = new LongAdder();
+  private final LongAdder checkpointFailures = new LongAdder();
+
+  public AccountBalanceEngine(AccountBalanceRepository repository) {
+    this(repository, 64, Duration.ofSeconds(1), Clock.systemUTC());
+  }
+
+  public AccountBalanceEngine(
+      AccountBalanceRepository repository,
+      int stripeCount,
+      Duration checkpointInterval,
+      Clock clock) {
+    this(repository, stripeCount, checkpointInterval, Duration.ofMinutes(5), clock);
+  }
+
+  /**
+   * @param pendingTimeout how long a posted batch may stay pending before {@link
+   *     #settleAbandoned()} settles it against the saved ledger; keep it well above the longest
+   *     save, since a batch still being saved when it expires is taken for unsaved
+   */
+  public AccountBalanceEngine(
+      AccountBalanceRepository repository,
+      int stripeCount,
+      Duration checkpointInterval,
+      Duration pendingTimeout,
+      Clock clock) {
+    if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+      throw new IllegalArgumentException("Stripe count must be a power of two: " + stripeCount);
+    }
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe(i);
+    }
+    this.repository = repository;
+    this.clock = clock;
+    this.pendingTimeoutMillis = pendingTimeout.toMillis();
+    this.checkpointer =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "account-balance-checkpointer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = checkpointInterval.toMillis();
+    checkpointer.scheduleWithFixedDelay(
+        this::checkpointQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // POSTING
+  // ─────────────────────────────────────────────────────────
+
+  /** Post one transaction; see {@link #post(List)}. */
+  public void post(Transaction transaction) {
+    post(List.of(transaction));
+  }
+
+  /**
+   * Apply the transactions' ledger entries, in order, to the balances of their accounts and stamp
+   * each entry with the balance before and after it. Either all entries are applied or none is. The
+   * batch is pending until {@link #commit} or {@link #revert}, which take the same transactions.
+   * This does not wait for other pending batches on the same accounts: it stamps on the live
+   * balance, theirs included.
+   *
+   * @throws InvalidTransactionException if the entries were already posted, or an account belongs
+   *     to another tenant or holds another currency
+   */
+  public void post(List<Transaction> transactions) {
+    int count = 0;
+    for (Transaction transaction : transactions) {
+      count += transaction.getLedgerEntries().size();
+    }
+    LedgerEntry[] entries = new LedgerEntry[count];
+    String[] transactionIds = new String[count];
+    long[] deltas = new long[count];
+    int[] slots = new int[count];
+    Map<Account, Integer> slotOf = new IdentityHashMap<>();
+    List<Account> targets = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    int n = 0;
+    for (Transaction transaction : transactions) {
+      TenantContext tenant = transaction.getTenantContext();
+      Currency currency = transaction.getCurrency();
+      String transactionId = transaction.getId().getValue();
+      if (!seen.add(transactionId)) {
+        throw new InvalidTransactionException("Transaction " + transactionId + " posted twice");
+      }
+      for (LedgerEntry entry : transaction.getLedgerEntries()) {
+        if (entry.getBalanceAfter() != null) {
+          throw new InvalidTransactionException("Transaction " + transactionId + " already posted");
+        }
+        Account account = account(entry.getAccountNumber(), tenant, currency);
+        if (!account.tenantId.equals(tenant.getTenantId()) || !account.currency.equals(currency)) {
+          throw new InvalidTransactionException(
+              "Account "
+                  + entry.getAccountNumber().getValue()
+                  + " is a "
+                  + account.currency
+                  + " account of tenant "
+                  + account.tenantId);
+        }
+        Integer slot = slotOf.get(account);
+        if (slot == null) {
+          slot = targets.size();
+          slotOf.put(account, slot);
+          targets.add(account);
+        }
+        entries[n] = entry;
+        transactionIds[n] = transactionId;
+        deltas[n] = delta(entry);
+        slots[n] = slot;
+        n++;
+      }
+    }
+
+    Account[] accounts = targets.toArray(new Account[0]);
+    Stripe[] locked = stripesOf(accounts);
+    long nowMillis = clock.millis();
+    Batch batch = new Batch(transactions, accounts, nowMillis);
+    lock(locked);
+    try {
+      // Compute everything first so an overflow leaves all balances untouched
+      long[] running = new long[accounts.length];
+      for (int i = 0; i < accounts.length; i++) {
+        running[i] = accounts[i].balance;
+      }
+      long[] after = new long[count];
+      for (int i = 0; i < count; i++) {
+        after[i] = running[slots[i]] = Math.addExact(running[slots[i]], deltas[i]);
+      }
+      Posting[] postingsOf = new Posting[accounts.length];
+      for (int i = 0; i < accounts.length; i++) {
+        postingsOf[i] = new Posting(batch);
+      }
+      for (int i = 0; i < count; i++) {
+        Account account = accounts[slots[i]];
+        LedgerEntry entry = entries[i];
+        entry.setBalanceBefore(account.balance);
+        entry.setBalanceAfter(after[i]);
+        entry.setPostingSequence(++account.sequence);
+        account.balance = after[i];
+        account.lastTransactionId = transactionIds[i];
+        account.lastUpdatedMillis = nowMillis;
+        postingsOf[slots[i]].add(entry, deltas[i]);
+      }
+      for (int i = 0; i < accounts.length; i++) {
+        postingsOf[i].stack(accounts[i]);
+      }
+    } finally {
+      unlock(locked);
+    }
+    for (String transactionId : seen) {
+      pending.put(transactionId, batch);
+    }
+    postings.add(transactions.size());
+  }
+
+  /** Commit one posted transaction; see {@link #commit(List)}. */
+  public void commit(Transaction transaction) {
+    commit(List.of(transaction));
+  }
+
+  /**
+   * The posted batch's ledger entries were saved. Its balances may be checkpointed once the batches
+   * posted before it to the same accounts are settled as well; committing it settles those already
+   * committed behind it.
+   *
+   * @throws InvalidTransactionException if the transactions are not exactly one pending batch
+   */
+  public void commit(List<Transaction> transactions) {
+    Batch batch = takePending(transactions);
+    Stripe[] locked = stripesOf(batch.accounts);
+    lock(locked);
+    try {
+      batch.committed = true;
+      for (Account account : batch.accounts) {
+        settleInOrder(account);
+      }
+    } finally {
+      unlock(locked);
+    }
+  }
+
+  /** Revert one posted transaction; see {@link #revert(List)}. */
+  public void revert(Transaction transaction) {
+    revert(List.of(transaction));
+  }
+
+  /**
+   * The posted batch's ledger entries were not saved: take it back out of the balances and clear
+   * its stamps, so it can be posted again. The pending batches posted after it to the same accounts
+   * stay posted and are re-stamped without its amounts; their posting sequences keep the gap it
+   * leaves, unless it was the last posting to the account.
+   *
+   * @throws InvalidTransactionException if the transactions are not exactly one pending batch
+   */
+  public void revert(List<Transaction> transactions) {
+    Batch batch = takePending(transactions);
+    Stripe[] locked = stripesOf(batch.accounts);
+    lock(locked);
+    try {
+      for (Account account : batch.accounts) {
+        restamped.add(account.takeBack(batch));
+        settleInOrder(account);
+      }
+      for (Transaction transaction : transactions) {
+        for (LedgerEntry entry : transaction.getLedgerEntries()) {
+          entry.setBalanceBefore(null);
+          entry.setBalanceAfter(null);
+          entry.setPostingSequence(null);
+        }
+      }
+    } finally {
+      unlock(locked);
+    }
+    reverts.add(transactions.size());
+  }
+
+  /**
+   * Balance held here, pending postings included; else the checkpointed one with the ledger entries
+   * posted after it, without caching it. Null if the account has no checkpoint.
+   */
+  public AccountBalance getBalance(AccountNumber accountNumber) {
+    Account account = accounts.get(accountNumber.getValue());
+    if (account == null) {
+      AccountBalance stored = repository.find(accountNumber);
+      return stored != null ? replay(fromCheckpoint(stored)).snapshot() : null;
+    }
+    account.stripe.lock.lock();
+    try {
+      return account.snapshot();
+    } finally {
+      account.stripe.lock.unlock();
+    }
+  }
+
+  public long getPostingCount() {
+    return postings.sum();
+  }
+
+  public long getRevertCount() {
+    return reverts.sum();
+  }
+
+  /** Postings of pending batches re-stamped because a batch before them was reverted. */
+  public long getRestampedCount() {
+    return restamped.sum();
+  }
+
+  /** Batches settled by {@link #settleAbandoned()} rather than by their caller. */
+  public long getAbandonedCount() {
+    return abandoned.sum();
+  }
+
+  public long getCheckpointFailureCount() {
+    return checkpointFailures.sum();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // CHECKPOINT
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Write the committed balances changed since the last checkpoint to {@code account_balances} now.
+   * Pending postings are not included, nor committed ones posted after a pending one; the balance
+   * and sequence written are those before them. Synchronized so that an older checkpoint can never
+   * overwrite a newer one.
+   */
+  public synchronized void checkpoint() {
+    List<Account> changed = new ArrayList<>();
+    List<AccountBalance> snapshots = new ArrayList<>();
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        for (Account account : stripe.dirty) {
+          account.dirty = false;
+          changed.add(account);
+          snapshots.add(account.committedSnapshot());
+        }
+        stripe.dirty.clear();
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    if (snapshots.isEmpty()) {
+      return;
+    }
+    try {
+      repository.saveAll(snapshots);
+    } catch (RuntimeException e) {
+      // Re-queue; the next checkpoint writes whatever the balances are by then
+      for (Account account : changed) {
+        account.stripe.lock.lock();
+        try {
+          markDirty(account);
+        } finally {
+          account.stripe.lock.unlock();
+        }
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Settle the batches pending for longer than the pending timeout: commit one whose ledger entries
+   * are in the saved ledger, revert the others. Runs before every scheduled checkpoint.
+   */
+  public void settleAbandoned() {
+    long postedBefore = clock.millis() - pendingTimeoutMillis;
+    Set<Batch> expired = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Batch batch : pending.values()) {
+      if (batch.postedAtMillis <= postedBefore) {
+        expired.add(batch);
+      }
+    }
+    for (Batch batch : expired) {
+      try {
+        if (saved(batch)) {
+          commit(batch.transactions);
+        } else {
+          revert(batch.transactions);
+        }
+        abandoned.increment();
+      } catch (InvalidTransactionException e) {
+        // Its caller settled it meanwhile
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    checkpointer.shutdown();
+    try {
+      checkpointer.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    checkpoint();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void checkpointQuietly() {
+    try {
+      settleAbandoned();
+      checkpoint();
+    } catch (RuntimeException e) {
+      checkpointFailures.increment();
+    }
+  }
+
+  private Account account(AccountNumber accountNumber, TenantContext tenant, Currency currency) {
+    String key = accountNumber.getValue();
+    Account account = accounts.get(key);
+    if (account != null) {
+      return account;
+    }
+    // Load outside any lock; a concurrent loader of the same account may win the insert
+    AccountBalance stored = repository.find(accountNumber);
+    Account loaded =
+        replay(
+            stored != null
+                ? fromCheckpoint(stored)
+                : new Account(
+                    accountNumber,
+                    tenant.getTenantId(),
+                    tenant.getBusinessUnitId(),
+                    currency,
+                    0L,
+                    null,
+                    clock.millis(),
+                    0L,
+                    stripeFor(key)));
+    Account existing = accounts.putIfAbsent(key, loaded);
+    if (existing != null) {
+      return existing;
+    }
+    if (loaded.sequence != (stored != null ? stored.getLastPostingSequence() : 0L)) {
+      // Entries were replayed; checkpoint them
+      loaded.stripe.lock.lock();
+      try {
+        markDirty(loaded);
+      } finally {
+        loaded.stripe.lock.unlock();
+      }
+    }
+    return loaded;
+  }
+
+  private Account fromCheckpoint(AccountBalance stored) {
+    return new Account(
+        stored.getAccountNumber(),
+        stored.getTenantId(),
+        stored.getBusinessUnitId(),
+        stored.getCurrency(),
+        toMinorUnits(stored.getCurrentBalance()),
+        stored.getLastTransactionId(),
+        stored.getLastUpdated().toEpochMilli(),
+        stored.getLastPostingSequence(),
+        stripeFor(stored.getAccountNumber().getValue()));
+  }
+
+  /** Apply the ledger entries saved after the account's checkpoint. */
+  private Account replay(Account account) {
+    for (PostedEntry entry : repository.findPostedAfter(account.accountNumber, account.sequence)) {
+      account.balance = Math.addExact(account.balance, toMinorUnits(entry.getChange()));
+      account.sequence = entry.getPostingSequence();
+      account.lastTransactionId = entry.getTransactionId();
+      account.lastUpdatedMillis = entry.getCreatedAt().toEpochMilli();
+    }
+    account.settle();
+    return account;
+  }
+
+  /** Whether the batch's first ledger entry is in the saved ledger, so the whole batch is. */
+  private boolean saved(Batch batch) {
+    for (PostedEntry entry :
+        repository.findPostedAfter(batch.firstAccount, batch.firstSequence - 1)) {
+      if (entry.getPostingSequence() == batch.firstSequence) {
+        return entry.getTransactionId().equals(id(batch.transactions.get(0)));
+      }
+    }
+    return false;
+  }
+
+  private Batch takePending(List<Transaction> transactions) {
+    Batch batch = transactions.isEmpty() ? null : pending.get(id(transactions.get(0)));
+    if (batch == null || batch.transactions.size() != transactions.size()) {
+      throw new InvalidTransactionException(notPending(transactions));
+    }
+    for (Transaction transaction : transactions) {
+      if (pending.get(id(transaction)) != batch) {
+        throw new InvalidTransactionException(notPending(transactions));
+      }
+    }
+    for (Transaction transaction : transactions) {
+      if (!pending.remove(id(transaction), batch)) {
+        // A concurrent commit or revert of the same batch got there first
+        throw new InvalidTransactionException(notPending(transactions));
+      }
+    }
+    return batch;
+  }
+
+  private static String id(Transaction transaction) {
+    return transaction.getId().getValue();
+  }
+
+  private static String notPending(List<Transaction> transactions) {
+    return transactions.size() == 1
+        ? "Transaction " + id(transactions.get(0)) + " is not pending"
+        : "Transactions are not one pending batch: " + transactions.size() + " transactions";
+  }
+
+  /** Call with the account's stripe locked. */
+  private static void settleInOrder(Account account) {
+    if (account.settleCommitted()) {
+      markDirty(account);
+    }
+  }
+
+  /** Call with the account's stripe locked. */
+  private static void markDirty(Account account) {
+    if (!account.dirty) {
+      account.dirty = true;
+      account.stripe.dirty.add(account);
+    }
+  }
+
+  private static void lock(Stripe[] locked) {
+    for (Stripe stripe : locked) {
+      stripe.lock.lock();
+    }
+  }
+
+  private static void unlock(Stripe[] locked) {
+    for (int i = locked.length - 1; i >= 0; i--) {
+      locked[i].lock.unlock();
+    }
+  }
+
+  private Stripe stripeFor(String accountNumber) {
+    int h = accountNumber.hashCode();
+    return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+  }
+
+  /** Distinct stripes of the accounts in stripe order; locking in that order cannot deadlock. */
+  private static Stripe[] stripesOf(Account[] targets) {
+    Stripe[] ordered = new Stripe[targets.length];
+    int n = 0;
+    for (Account target : targets) {
+      Stripe stripe = target.stripe;
+      int i = 0;
+      while (i < n && ordered[i].index < stripe.index) {
+        i++;
+      }
+      if (i < n && ordered[i] == stripe) {
+        continue;
+      }
+      System.arraycopy(ordered, i, ordered, i + 1, n - i);
+      ordered[i] = stripe;
+      n++;
+    }
+    return n == ordered.length ? ordered : Arrays.copyOf(ordered, n);
+  }
+
+  private static long delta(LedgerEntry entry) {
+    return entry.getEntryType() == LedgerEntryType.DEBIT ? -entry.getAmount() : entry.getAmount();
+  }
+
+  private static long toMinorUnits(BigDecimal amount) {
+    try {
+      return amount.movePointRight(CompactMoney.SCALE).longValueExact();
+    } catch (ArithmeticException e) {
+      throw new InvalidTransactionException("Amount out of range for posting: " + amount);
+    }
+  }
+
+  /** Transactions of a posted batch, its distinct accounts and where its first entry was posted. */
+  private static final class Batch {
+    final List<Transaction> transactions;
+    final Account[] accounts;
+    final long postedAtMillis;
+    AccountNumber firstAccount;
+    long firstSequence;
+    // Guarded by the stripes of its accounts
+    boolean committed;
+
+    Batch(List<Transaction> transactions, Account[] accounts, long postedAtMillis) {
+      this.transactions = List.copyOf(transactions);
+      this.accounts = accounts;
+      this.postedAtMillis = postedAtMillis;
+    }
+  }
+
+  /** Entries of one batch on one account, and the account's live state after them. */
+  private static final class Posting {
+    final Batch batch;
+    final List<LedgerEntry> entries = new ArrayList<>();
+    long delta;
+    long balanceAfter;
+    String transactionId;
+    long updatedMillis;
+    long sequence;
+
+    Posting(Batch batch) {
+      this.batch = batch;
+    }
+
+    void add(LedgerEntry entry, long entryDelta) {
+      if (batch.firstAccount == null) {
+        batch.firstAccount = entry.getAccountNumber();
+        batch.firstSequence = entry.getPostingSequence();
+      }
+      entries.add(entry);
+      delta += entryDelta;
+    }
+
+    /** Record the account's live state after this posting and queue it to be settled. */
+    void stack(Account account) {
+      balanceAfter = account.balance;
+      transactionId = account.lastTransactionId;
+      updatedMillis = account.lastUpdatedMillis;
+      sequence = account.sequence;
+      account.postings.addLast(this);
+    }
+
+    /** Take an earlier posting's amount back out of the stamps. */
+    void rebase(long takenBack) {
+      balanceAfter -= takenBack;
+      for (LedgerEntry entry : entries) {
+        entry.setBalanceBefore(entry.getBalanceBefore() - takenBack);
+        entry.setBalanceAfter(entry.getBalanceAfter() - takenBack);
+      }
+    }
+  }
+
+  /** One lock stripe and the accounts in it changed since the last checkpoint. */
+  private static final class Stripe {
+    final int index;
+    final ReentrantLock lock = new ReentrantLock();
+    final List<Account> dirty = new ArrayList<>();
+
+    Stripe(int index) {
+      this.index = index;
+    }
+  }
+
+  /**
+   * Mutable balance of one account; every field but the identity is guarded by its stripe. The live
+   * fields include the pending postings; the committed ones are what the saved ledger holds, and
+   * what is checkpointed.
+   */
+  private static final class Account {
+    final AccountNumber accountNumber;
+    final String tenantId;
+    final String businessUnitId;
+    final Currency currency;
+    final Stripe stripe;
+    long balance;
+    String lastTransactionId;
+    long lastUpdatedMillis;
+    // Of the last entry posted; the first is 1
+    long sequence;
+    // Pending postings in posting order, each stamped on the live state after those before it
+    final ArrayDeque<Posting> postings = new ArrayDeque<>();
+    long committedBalance;
+    String committedTransactionId;
+    long committedUpdatedMillis;
+    long committedSequence;
+    boolean dirty;
+
+    Account(
+        AccountNumber accountNumber,
+        String tenantId,
+        String businessUnitId,
+        Currency currency,
+        long balance,
+        String lastTransactionId,
+        long lastUpdatedMillis,
+        long sequence,
+        Stripe stripe) {
+      this.accountNumber = accountNumber;
+      this.tenantId = tenantId;
+      this.businessUnitId = businessUnitId;
+      this.currency = currency;
+      this.balance = balance;
+      this.lastTransactionId = lastTransactionId;
+      this.lastUpdatedMillis = lastUpdatedMillis;
+      this.sequence = sequence;
+      this.stripe = stripe;
+      settle();
+    }
+
+    /** The live state becomes the committed one; only while no posting is pending. */
+    void settle() {
+      committedBalance = balance;
+      committedTransactionId = lastTransactionId;
+      committedUpdatedMillis = lastUpdatedMillis;
+      committedSequence = sequence;
+    }
+
+    /**
+     * Move the committed state past the postings of committed batches at the head of the queue;
+     * true if it moved.
+     */
+    boolean settleCommitted() {
+      boolean moved = false;
+      while (!postings.isEmpty() && postings.peekFirst().batch.committed) {
+        Posting posting = postings.pollFirst();
+        committedBalance = posting.balanceAfter;
+        committedTransactionId = posting.transactionId;
+        committedUpdatedMillis = posting.updatedMillis;
+        committedSequence = posting.sequence;
+        moved = true;
+      }
+      return moved;
+    }
+
+    /**
+     * Drop the batch's posting from the live state and re-stamp the postings after it; returns how
+     * many were re-stamped.
+     */
+    int takeBack(Batch batch) {
+      Posting previous = null;
+      Posting reverted = null;
+      int later = 0;
+      for (Posting posting : postings) {
+        if (reverted != null) {
+          posting.rebase(reverted.delta);
+          later++;
+        } else if (posting.batch == batch) {
+          reverted = posting;
+        } else {
+          previous = posting;
+        }
+      }
+      postings.remove(reverted);
+      balance -= reverted.delta;
+      if (later == 0) {
+        // It was the last posting; the live state is the one before it
+        lastTransactionId = previous != null ? previous.transactionId : committedTransactionId;
+        lastUpdatedMillis = previous != null ? previous.updatedMillis : committedUpdatedMillis;
+        sequence = previous != null ? previous.sequence : committedSequence;
+      }
+      return later;
+    }
+
+    AccountBalance snapshot() {
+      return snapshot(balance, lastTransactionId, lastUpdatedMillis, sequence);
+    }
+
+    AccountBalance committedSnapshot() {
+      return snapshot(
+          committedBalance, committedTransactionId, committedUpdatedMillis, committedSequence);
+    }
+
+    private AccountBalance snapshot(
+        long balance, String lastTransactionId, long lastUpdatedMillis, long sequence) {
+      return new AccountBalance(
+          accountNumber,
+          tenantId,
+          businessUnitId,
+          currency,
+          BigDecimal.valueOf(balance, CompactMoney.SCALE),
+          lastTransactionId,
+          Instant.ofEpochMilli(lastUpdatedMillis),
+          sequence);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.*;
+import java.util.List;
+
+/** Repository port: the {@code account_balances} table and the ledger entries posted after it. */
+public interface AccountBalanceRepository {
+
+  /** Stored balance of the account, or null if it has never been posted to. */
+  AccountBalance find(AccountNumber accountNumber);
+
+  /** Ledger entries of the account posted after {@code afterSequence}, in posting order. */
+  List<PostedEntry> findPostedAfter(AccountNumber accountNumber, long afterSequence);
+
+  /** Insert or overwrite the current balance of each account. */
+  void saveAll(List<AccountBalance> balances);
+}
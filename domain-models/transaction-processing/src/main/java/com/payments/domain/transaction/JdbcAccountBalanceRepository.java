@@ -0,0 +1,124 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link AccountBalanceRepository} over {@code account_balances} and {@code ledger_entries} (V4,
+ * V12).
+ *
+ * <p>Checkpoints span tenants, so the DataSource must connect as a role that is not subject to the
+ * table's row-level security policy. The available balance is derived from the stored reserved
+ * balance, which this repository never changes.
+ */
+public class JdbcAccountBalanceRepository implements AccountBalanceRepository {
+
+  private static final String FIND_SQL =
+      "SELECT current_balance, currency, last_transaction_id, last_updated,"
+          + " last_posting_sequence, tenant_id, business_unit_id"
+          + " FROM account_balances WHERE account_number = ?";
+
+  private static final String FIND_POSTED_AFTER_SQL =
+      "SELECT posting_sequence, transaction_id,"
+          + " CASE WHEN entry_type = 'CREDIT' THEN amount ELSE -amount END AS change, created_at"
+          + " FROM ledger_entries WHERE account_number = ? AND posting_sequence > ?"
+          + " ORDER BY posting_sequence";
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO account_balances (account_number, current_balance, available_balance,"
+          + " currency, last_updated, last_transaction_id, last_posting_sequence, tenant_id,"
+          + " business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (account_number) DO UPDATE SET"
+          + " current_balance = EXCLUDED.current_balance,"
+          + " available_balance = EXCLUDED.current_balance - account_balances.reserved_balance,"
+          + " last_updated = EXCLUDED.last_updated,"
+          + " last_transaction_id = EXCLUDED.last_transaction_id,"
+          + " last_posting_sequence = EXCLUDED.last_posting_sequence";
+
+  private final DataSource dataSource;
+
+  public JdbcAccountBalanceRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public AccountBalance find(AccountNumber accountNumber) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_SQL)) {
+      statement.setString(1, accountNumber.getValue());
+      try (ResultSet rs = statement.executeQuery()) {
+        if (!rs.next()) {
+          return null;
+        }
+        return new AccountBalance(
+            accountNumber,
+            rs.getString("tenant_id"),
+            rs.getString("business_unit_id"),
+            Currency.getInstance(rs.getString("currency")),
+            rs.getBigDecimal("current_balance"),
+            rs.getString("last_transaction_id"),
+            rs.getTimestamp("last_updated").toInstant(),
+            rs.getLong("last_posting_sequence"));
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to load balance of " + accountNumber.getValue(), e);
+    }
+  }
+
+  @Override
+  public List<PostedEntry> findPostedAfter(AccountNumber accountNumber, long afterSequence) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_POSTED_AFTER_SQL)) {
+      statement.setString(1, accountNumber.getValue());
+      statement.setLong(2, afterSequence);
+      try (ResultSet rs = statement.executeQuery()) {
+        List<PostedEntry> entries = new ArrayList<>();
+        while (rs.next()) {
+          entries.add(
+              new PostedEntry(
+                  rs.getLong("posting_sequence"),
+                  rs.getString("transaction_id"),
+                  rs.getBigDecimal("change"),
+                  rs.getTimestamp("created_at").toInstant()));
+        }
+        return entries;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to load the ledger entries of " + accountNumber.getValue(), e);
+    }
+  }
+
+  @Override
+  public void saveAll(List<AccountBalance> balances) {
+    if (balances.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+      for (AccountBalance balance : balances) {
+        statement.setString(1, balance.getAccountNumber().getValue());
+        statement.setBigDecimal(2, balance.getCurrentBalance());
+        statement.setBigDecimal(3, balance.getCurrentBalance());
+        statement.setString(4, balance.getCurrency().getCurrencyCode());
+        statement.setTimestamp(5, Timestamp.from(balance.getLastUpdated()));
+        statement.setString(6, balance.getLastTransactionId());
+        statement.setLong(7, balance.getLastPostingSequence());
+        statement.setString(8, balance.getTenantId());
+        statement.setString(9, balance.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to checkpoint " + balances.size() + " balances", e);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.CompactMoney;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link TransactionRepository} issuing JDBC batch inserts against the V4 tables.
+ *
+ * <p>Transactions are written in chunks: each chunk inserts its transactions, then their ledger
+ * entries, then their events, so foreign keys hold without deferring constraints. Run it inside the
+ * caller's transaction with a transaction-aware {@link DataSource} (see {@code JdbcOutboxStore}) so
+ * that a bulk file is stored all or nothing; with PostgreSQL, enable the driver's {@code
+ * reWriteBatchedInserts} to turn each chunk into multi-row inserts.
+ */
+public class JdbcTransactionRepository implements TransactionRepository {
+
+  private static final String INSERT_TRANSACTION_SQL =
+      "INSERT INTO transactions (transaction_id, payment_id, debit_account, credit_account,"
+          + " amount, currency, status, transaction_type, created_at, tenant_id,"
+          + " business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_LEDGER_ENTRY_SQL =
+      "INSERT INTO ledger_entries (entry_id, transaction_id, account_number, entry_type, amount,"
+          + " balance_before, balance_after, posting_sequence, entry_date, created_at, tenant_id,"
+          + " business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  // event_sequence is assigned by its BIGSERIAL default
+  private static final String INSERT_EVENT_SQL =
+      "INSERT INTO transaction_events (event_id, transaction_id, event_type, event_data,"
+          + " occurred_at, correlation_id, causation_id, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, to_jsonb(?::text), ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+  private final int chunkSize;
+
+  public JdbcTransactionRepository(DataSource dataSource) {
+    this(dataSource, 1_000);
+  }
+
+  public JdbcTransactionRepository(DataSource dataSource, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    this.dataSource = dataSource;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void saveAll(List<Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return;
+    }
+    for (Transaction transaction : transactions) {
+      for (LedgerEntry entry : transaction.getLedgerEntries()) {
+        if (entry.getBalanceAfter() == null) {
+          throw new IllegalStateException(
+              "Transaction " + transaction.getId().getValue() + " has not been posted");
+        }
+      }
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement insertTransaction = connection.prepareStatement(INSERT_TRANSACTION_SQL);
+        PreparedStatement insertEntry = connection.prepareStatement(INSERT_LEDGER_ENTRY_SQL);
+        PreparedStatement insertEvent = connection.prepareStatement(INSERT_EVENT_SQL)) {
+      for (int from = 0; from < transactions.size(); from += chunkSize) {
+        List<Transaction> chunk =
+            transactions.subList(from, Math.min(from + chunkSize, transactions.size()));
+        for (Transaction transaction : chunk) {
+          addTransaction(insertTransaction, transaction);
+        }
+        insertTransaction.executeBatch();
+        for (Transaction transaction : chunk) {
+          for (LedgerEntry entry : transaction.getLedgerEntries()) {
+            addLedgerEntry(insertEntry, entry);
+          }
+        }
+        insertEntry.executeBatch();
+        for (Transaction transaction : chunk) {
+          for (TransactionEvent event : transaction.getEvents()) {
+            addEvent(insertEvent, event);
+          }
+        }
+        insertEvent.executeBatch();
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to save " + transactions.size() + " transactions", e);
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static void addTransaction(PreparedStatement statement, Transaction transaction)
+      throws SQLException {
+    statement.setString(1, transaction.getId().getValue());
+    statement.setString(2, transaction.getPaymentId().getValue());
+    statement.setString(3, transaction.getDebitAccount().getValue());
+    statement.setString(4, transaction.getCreditAccount().getValue());
+    CompactMoney amount = transaction.getCompactAmount();
+    statement.setBigDecimal(5, BigDecimal.valueOf(amount.getMinorUnits(), CompactMoney.SCALE));
+    statement.setString(6, transaction.getCurrency().getCurrencyCode());
+    statement.setString(7, transaction.getStatus().name());
+    statement.setString(8, transaction.getTransactionType().name());
+    statement.setTimestamp(9, Timestamp.from(transaction.getCreatedAt()));
+    statement.setString(10, transaction.getTenantContext().getTenantId());
+    statement.setString(11, transaction.getTenantContext().getBusinessUnitId());
+    statement.addBatch();
+  }
+
+  private static void addLedgerEntry(PreparedStatement statement, LedgerEntry entry)
+      throws SQLException {
+    statement.setString(1, entry.getId().getValue());
+    statement.setString(2, entry.getTransactionId().getValue());
+    statement.setString(3, entry.getAccountNumber().getValue());
+    statement.setString(4, entry.getEntryType().name());
+    statement.setBigDecimal(5, BigDecimal.valueOf(entry.getAmount(), CompactMoney.SCALE));
+    statement.setBigDecimal(6, BigDecimal.valueOf(entry.getBalanceBefore(), CompactMoney.SCALE));
+    statement.setBigDecimal(7, BigDecimal.valueOf(entry.getBalanceAfter(), CompactMoney.SCALE));
+    statement.setLong(8, entry.getPostingSequence());
+    statement.setDate(9, Date.valueOf(entry.getEntryDate()));
+    statement.setTimestamp(10, Timestamp.from(entry.getCreatedAt()));
+    statement.setString(11, entry.getTenantContext().getTenantId());
+    statement.setString(12, entry.getTenantContext().getBusinessUnitId());
+    statement.addBatch();
+  }
+
+  private static void addEvent(PreparedStatement statement, TransactionEvent event)
+      throws SQLException {
+    statement.setString(1, event.getId().getValue());
+    statement.setString(2, event.getTransactionId().getValue());
+    statement.setString(3, event.getEventType());
+    statement.setString(4, event.getDescription());
+    statement.setTimestamp(5, Timestamp.from(event.getOccurredAt()));
+    statement.setString(6, event.getCorrelationId());
+    statement.setString(7, event.getCausationId());
+    statement.setString(8, event.getTenantContext().getTenantId());
+    statement.setString(9, event.getTenantContext().getBusinessUnitId());
+    statement.addBatch();
+  }
+}
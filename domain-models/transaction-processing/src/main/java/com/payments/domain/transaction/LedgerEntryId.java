@@ -1,7 +1,7 @@
 package com.payments.domain.transaction;
 
+import com.payments.domain.shared.Ids;
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +20,16 @@ class LedgerEntryId {
   }
 
   public static LedgerEntryId generate() {
-    return new LedgerEntryId("LED-" + UUID.randomUUID());
+    return new LedgerEntryId(Ids.next("LED-"));
+  }
+
+  /** {@code count} IDs allocated as one block; see {@link Ids#nextBlock}. */
+  static LedgerEntryId[] generate(int count) {
+    String[] values = Ids.nextBlock("LED-", count);
+    LedgerEntryId[] ids = new LedgerEntryId[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = new LedgerEntryId(values[i]);
+    }
+    return ids;
   }
 }
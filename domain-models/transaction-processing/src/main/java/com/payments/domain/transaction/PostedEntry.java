@@ -0,0 +1,16 @@
+package com.payments.domain.transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.*;
+
+/** A stored ledger entry as replayed onto an account's checkpointed balance. */
+@Value
+@AllArgsConstructor
+public class PostedEntry {
+  long postingSequence;
+  String transactionId;
+  // Credits positive, debits negative
+  BigDecimal change;
+  Instant createdAt;
+}
@@ -2,11 +2,12 @@ package com.payments.domain.transaction;
 
 import com.payments.domain.shared.*;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Currency;
 import java.util.List;
 import lombok.*;
 
@@ -18,7 +19,7 @@ import lombok.*;
 @Entity
 @Table(name = "transactions")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Transaction {
+public class Transaction implements DomainEventSource {
 
   @EmbeddedId
   @AttributeOverride(name = "value", column = @Column(name = "transaction_id"))
@@ -43,12 +44,13 @@ public class Transaction {
   @AttributeOverride(name = "value", column = @Column(name = "credit_account"))
   private AccountNumber creditAccount;
 
-  @Embedded
-  @AttributeOverrides({
-    @AttributeOverride(name = "amount", column = @Column(name = "amount")),
-    @AttributeOverride(name = "currency", column = @Column(name = "currency"))
-  })
-  private Money amount;
+  // Minor units of the currency, as CompactMoney holds them
+  @Convert(converter = MinorUnitsConverter.class)
+  @Column(name = "amount")
+  private long amount;
+
+  @Column(name = "currency")
+  private Currency currency;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "status")
@@ -95,6 +97,40 @@ public class Transaction {
       AccountNumber creditAccount,
       Money amount,
       TransactionType transactionType) {
+    CompactMoney compact;
+    try {
+      compact = amount.toCompact();
+    } catch (ArithmeticException e) {
+      throw new InvalidTransactionException(
+          "Transaction amount out of range: " + amount.getAmount());
+    }
+    return create(
+        id,
+        tenantContext,
+        paymentId,
+        debitAccount,
+        creditAccount,
+        compact,
+        transactionType,
+        Instant.now(),
+        LedgerEntryId.generate(),
+        LedgerEntryId.generate(),
+        TransactionEventId.generate());
+  }
+
+  /** Used by {@link TransactionBatchFactory}: caller-supplied timestamp and child IDs. */
+  static Transaction create(
+      TransactionId id,
+      TenantContext tenantContext,
+      PaymentId paymentId,
+      AccountNumber debitAccount,
+      AccountNumber creditAccount,
+      CompactMoney amount,
+      TransactionType transactionType,
+      Instant createdAt,
+      LedgerEntryId debitEntryId,
+      LedgerEntryId creditEntryId,
+      TransactionEventId createdEventId) {
     // Business validation
     if (amount.isNegativeOrZero()) {
       throw new InvalidTransactionException("Transaction amount must be positive");
@@ -110,16 +146,18 @@ public class Transaction {
     transaction.paymentId = paymentId;
     transaction.debitAccount = debitAccount;
     transaction.creditAccount = creditAccount;
-    transaction.amount = amount;
+    transaction.amount = amount.getMinorUnits();
+    transaction.currency = amount.getCurrency();
     transaction.transactionType = transactionType;
     transaction.status = TransactionStatus.CREATED;
-    transaction.createdAt = Instant.now();
+    transaction.createdAt = createdAt;
 
     // Create ledger entries (double-entry bookkeeping)
-    transaction.createLedgerEntries();
+    transaction.createLedgerEntries(debitEntryId, creditEntryId);
 
     // Record event
-    transaction.addEvent("TransactionCreated", "Transaction created successfully");
+    transaction.addEvent(
+        createdEventId, "TransactionCreated", "Transaction created successfully", createdAt);
 
     // Domain event
     transaction.registerEvent(
@@ -129,7 +167,7 @@ public class Transaction {
             transaction.paymentId,
             transaction.debitAccount,
             transaction.creditAccount,
-            transaction.amount,
+            transaction.getAmount(),
             transaction.createdAt));
 
     return transaction;
@@ -183,7 +221,7 @@ public class Transaction {
     addEvent("TransactionCompleted", "Transaction completed successfully");
 
     registerEvent(
-        new TransactionCompletedEvent(this.id, this.tenantContext, this.amount, this.completedAt));
+        new TransactionCompletedEvent(this.id, this.tenantContext, getAmount(), this.completedAt));
   }
 
   /** Fail the transaction */
@@ -231,13 +269,48 @@ public class Transaction {
   }
 
   public Money getAmount() {
-    return amount;
+    return Money.ofMinorUnits(amount, currency);
+  }
+
+  /** The amount without a BigDecimal, for hot paths. */
+  public CompactMoney getCompactAmount() {
+    return CompactMoney.ofMinor(amount, currency);
   }
 
   public TransactionStatus getStatus() {
     return status;
   }
 
+  /** Debit and credit entries, in that order; posted by {@link AccountBalanceEngine}. */
+  List<LedgerEntry> getLedgerEntries() {
+    return ledgerEntries;
+  }
+
+  // Read by JdbcTransactionRepository
+  AccountNumber getDebitAccount() {
+    return debitAccount;
+  }
+
+  AccountNumber getCreditAccount() {
+    return creditAccount;
+  }
+
+  Currency getCurrency() {
+    return currency;
+  }
+
+  TransactionType getTransactionType() {
+    return transactionType;
+  }
+
+  Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  List<TransactionEvent> getEvents() {
+    return events;
+  }
+
   public List<DomainEvent> getDomainEvents() {
     return Collections.unmodifiableList(domainEvents);
   }
@@ -250,32 +323,39 @@ public class Transaction {
   // PRIVATE HELPERS
   // ─────────────────────────────────────────────────────────
 
-  private void createLedgerEntries() {
+  private void createLedgerEntries(LedgerEntryId debitEntryId, LedgerEntryId creditEntryId) {
     // Debit entry
     ledgerEntries.add(
         new LedgerEntry(
-            LedgerEntryId.generate(),
+            debitEntryId,
             this.id,
             this.tenantContext,
             this.debitAccount,
             LedgerEntryType.DEBIT,
-            this.amount.getAmount()));
+            this.amount,
+            this.createdAt));
 
     // Credit entry
     ledgerEntries.add(
         new LedgerEntry(
-            LedgerEntryId.generate(),
+            creditEntryId,
             this.id,
             this.tenantContext,
             this.creditAccount,
             LedgerEntryType.CREDIT,
-            this.amount.getAmount()));
+            this.amount,
+            this.createdAt));
   }
 
   private void addEvent(String eventType, String description) {
+    addEvent(TransactionEventId.generate(), eventType, description, Instant.now());
+  }
+
+  private void addEvent(
+      TransactionEventId eventId, String eventType, String description, Instant occurredAt) {
     events.add(
         new TransactionEvent(
-            TransactionEventId.generate(),
+            eventId,
             this.id,
             this.tenantContext,
             null, // sequence auto/generated in DB, keep null
@@ -283,7 +363,7 @@ public class Transaction {
             description,
             null, // correlationId
             null, // causationId
-            Instant.now()));
+            occurredAt));
   }
 
   private void registerEvent(DomainEvent event) {
@@ -321,14 +401,22 @@ class LedgerEntry {
   @Column(name = "entry_type")
   private LedgerEntryType entryType;
 
+  // Minor units, like the balances the engine keeps
+  @Convert(converter = MinorUnitsConverter.class)
   @Column(name = "amount")
-  private BigDecimal amount;
+  private long amount;
 
+  @Convert(converter = MinorUnitsConverter.class)
   @Column(name = "balance_before")
-  private BigDecimal balanceBefore;
+  private Long balanceBefore;
 
+  @Convert(converter = MinorUnitsConverter.class)
   @Column(name = "balance_after")
-  private BigDecimal balanceAfter;
+  private Long balanceAfter;
+
+  // Per account, assigned by AccountBalanceEngine
+  @Column(name = "posting_sequence")
+  private Long postingSequence;
 
   @Column(name = "entry_date")
   private LocalDate entryDate;
@@ -342,15 +430,16 @@ class LedgerEntry {
       TenantContext tenantContext,
       AccountNumber accountNumber,
       LedgerEntryType entryType,
-      BigDecimal amount) {
+      long amount,
+      Instant createdAt) {
     this.id = id;
     this.transactionId = transactionId;
     this.tenantContext = tenantContext;
     this.accountNumber = accountNumber;
     this.entryType = entryType;
     this.amount = amount;
-    this.entryDate = LocalDate.now();
-    this.createdAt = Instant.now();
+    this.entryDate = LocalDate.ofInstant(createdAt, ZoneId.systemDefault());
+    this.createdAt = createdAt;
   }
 }
 
@@ -0,0 +1,65 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the transactions of a {@link TransactionBatch} in one pass
+ *
+ * <p>Equivalent to calling {@link Transaction#create} per line, except that:
+ *
+ * <ul>
+ *   <li>the whole batch shares one creation timestamp, read once from the clock
+ *   <li>IDs are allocated as one block per kind ({@link Ids#nextBlock}): one clock read per block,
+ *       and the batch's transactions, ledger entries and events get ascending keys (see {@link
+ *       TimeOrderedIdGenerator})
+ * </ul>
+ *
+ * <p>The same validation applies; the first invalid line fails the batch with its line number
+ * (1-based). Persist the result with {@link TransactionRepository#saveAll}.
+ */
+public class TransactionBatchFactory {
+
+  private final Clock clock;
+
+  public TransactionBatchFactory() {
+    this(Clock.systemUTC());
+  }
+
+  public TransactionBatchFactory(Clock clock) {
+    this.clock = clock;
+  }
+
+  public List<Transaction> create(TransactionBatch batch) {
+    int size = batch.size();
+    Instant createdAt = clock.instant();
+    TransactionId[] transactionIds = TransactionId.generate(size);
+    LedgerEntryId[] entryIds = LedgerEntryId.generate(2 * size);
+    TransactionEventId[] eventIds = TransactionEventId.generate(size);
+
+    List<Transaction> transactions = new ArrayList<>(size);
+    for (int line = 0; line < size; line++) {
+      try {
+        transactions.add(
+            Transaction.create(
+                transactionIds[line],
+                batch.getTenantContext(),
+                batch.paymentIdAt(line),
+                batch.debitAccountAt(line),
+                batch.creditAccountAt(line),
+                CompactMoney.ofMinor(batch.amountAt(line), batch.getCurrency()),
+                batch.getTransactionType(),
+                createdAt,
+                entryIds[2 * line],
+                entryIds[2 * line + 1],
+                eventIds[line]));
+      } catch (InvalidTransactionException e) {
+        throw new InvalidTransactionException("Line " + (line + 1) + ": " + e.getMessage());
+      }
+    }
+    return transactions;
+  }
+}
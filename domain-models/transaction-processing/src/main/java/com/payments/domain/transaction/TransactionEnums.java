@@ -8,12 +8,6 @@ enum TransactionStatus {
   FAILED
 }
 
-enum TransactionType {
-  DEBIT,
-  CREDIT,
-  REVERSAL
-}
-
 enum LedgerEntryType {
   DEBIT,
   CREDIT
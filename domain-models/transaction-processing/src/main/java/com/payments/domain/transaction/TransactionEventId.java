@@ -1,7 +1,7 @@
 package com.payments.domain.transaction;
 
+import com.payments.domain.shared.Ids;
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +20,16 @@ class TransactionEventId {
   }
 
   public static TransactionEventId generate() {
-    return new TransactionEventId("TE-" + UUID.randomUUID());
+    return new TransactionEventId(Ids.next("TE-"));
+  }
+
+  /** {@code count} IDs allocated as one block; see {@link Ids#nextBlock}. */
+  static TransactionEventId[] generate(int count) {
+    String[] values = Ids.nextBlock("TE-", count);
+    TransactionEventId[] ids = new TransactionEventId[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = new TransactionEventId(values[i]);
+    }
+    return ids;
   }
 }
@@ -0,0 +1,18 @@
+package com.payments.domain.transaction;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Transaction aggregate, for event codec registration. */
+public final class TransactionEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(
+          TransactionCreatedEvent.class,
+          TransactionProcessingEvent.class,
+          TransactionClearingEvent.class,
+          TransactionCompletedEvent.class,
+          TransactionFailedEvent.class);
+
+  private TransactionEventTypes() {}
+}
@@ -3,6 +3,7 @@ package com.payments.domain.transaction;
 import com.payments.domain.shared.DomainEvent;
 import com.payments.domain.shared.PaymentId;
 import com.payments.domain.shared.TenantContext;
+import com.payments.domain.shared.WireTag;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Value;
@@ -10,12 +11,25 @@ import lombok.Value;
 @Value
 @AllArgsConstructor
 class TransactionCreatedEvent implements DomainEvent {
+  @WireTag(1)
   TransactionId transactionId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   PaymentId paymentId;
+
+  @WireTag(4)
   com.payments.domain.shared.AccountNumber debitAccount;
+
+  @WireTag(5)
   com.payments.domain.shared.AccountNumber creditAccount;
+
+  @WireTag(6)
   com.payments.domain.shared.Money amount;
+
+  @WireTag(7)
   Instant createdAt;
 
   @Override
@@ -32,8 +46,13 @@ class TransactionCreatedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class TransactionProcessingEvent implements DomainEvent {
+  @WireTag(1)
   TransactionId transactionId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   TransactionStatus status;
 
   @Override
@@ -50,9 +69,16 @@ class TransactionProcessingEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class TransactionClearingEvent implements DomainEvent {
+  @WireTag(1)
   TransactionId transactionId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   String clearingSystem;
+
+  @WireTag(4)
   String clearingReference;
 
   @Override
@@ -69,9 +95,16 @@ class TransactionClearingEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class TransactionCompletedEvent implements DomainEvent {
+  @WireTag(1)
   TransactionId transactionId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   com.payments.domain.shared.Money amount;
+
+  @WireTag(4)
   Instant completedAt;
 
   @Override
@@ -88,9 +121,16 @@ class TransactionCompletedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class TransactionFailedEvent implements DomainEvent {
+  @WireTag(1)
   TransactionId transactionId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   String reason;
+
+  @WireTag(4)
   TransactionStatus previousStatus;
 
   @Override
@@ -1,7 +1,7 @@
 package com.payments.domain.transaction;
 
+import com.payments.domain.shared.Ids;
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -21,6 +21,16 @@ public class TransactionId {
   }
 
   public static TransactionId generate() {
-    return new TransactionId("TXN-" + UUID.randomUUID());
+    return new TransactionId(Ids.next("TXN-"));
+  }
+
+  /** {@code count} IDs allocated as one block; see {@link Ids#nextBlock}. */
+  static TransactionId[] generate(int count) {
+    String[] values = Ids.nextBlock("TXN-", count);
+    TransactionId[] ids = new TransactionId[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = new TransactionId(values[i]);
+    }
+    return ids;
   }
 }
@@ -0,0 +1,14 @@
+package com.payments.domain.transaction;
+
+import java.util.List;
+
+/** Repository port: the {@code transactions}, {@code ledger_entries} and events tables. */
+public interface TransactionRepository {
+
+  /**
+   * Insert new transactions together with their ledger entries and transaction events. The ledger
+   * entries must already be posted by {@link AccountBalanceEngine#post(List)} as one batch; commit
+   * or revert that batch once this returns or throws.
+   */
+  void saveAll(List<Transaction> transactions);
+}
@@ -0,0 +1,8 @@
+package com.payments.domain.transaction;
+
+/** Kind of transaction, given to {@link Transaction#create}. */
+public enum TransactionType {
+  DEBIT,
+  CREDIT,
+  REVERSAL
+}
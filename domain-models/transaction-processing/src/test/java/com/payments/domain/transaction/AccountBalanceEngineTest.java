@@ -0,0 +1,337 @@
+package com.payments.domain.transaction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class AccountBalanceEngineTest {
+
+  private static final TenantContext TENANT = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+  private static final AccountNumber ALICE = AccountNumber.of("12345678901");
+  private static final AccountNumber BOB = AccountNumber.of("10987654321");
+
+  private final FakeRepository repository = new FakeRepository();
+
+  @Test
+  void post_stamps_balances_from_the_stored_opening_balance() {
+    repository.stored.put(ALICE.getValue(), balance(ALICE, "1000.00"));
+    try (AccountBalanceEngine engine = engine()) {
+      Transaction tx = transfer(ALICE, BOB, "250.00");
+
+      engine.post(tx);
+
+      LedgerEntry debit = tx.getLedgerEntries().get(0);
+      LedgerEntry credit = tx.getLedgerEntries().get(1);
+      assertEquals(100000L, debit.getBalanceBefore());
+      assertEquals(75000L, debit.getBalanceAfter());
+      assertEquals(0L, credit.getBalanceBefore());
+      assertEquals(25000L, credit.getBalanceAfter());
+      assertThrows(InvalidTransactionException.class, () -> engine.post(tx));
+    }
+  }
+
+  @Test
+  void concurrent_postings_on_hot_accounts_conserve_money() throws Exception {
+    try (AccountBalanceEngine engine = engine()) {
+      ExecutorService pool = Executors.newFixedThreadPool(8);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        boolean forward = t % 2 == 0;
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int i = 0; i < 2_000; i++) {
+                    Transaction tx =
+                        forward ? transfer(ALICE, BOB, "1.00") : transfer(BOB, ALICE, "0.50");
+                    engine.post(tx);
+                    engine.commit(tx);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      pool.shutdown();
+
+      assertEquals(new BigDecimal("-4000.00"), engine.getBalance(ALICE).getCurrentBalance());
+      assertEquals(new BigDecimal("4000.00"), engine.getBalance(BOB).getCurrentBalance());
+      assertEquals(16_000, engine.getPostingCount());
+
+      engine.checkpoint();
+      assertEquals(1, repository.batches.size());
+      assertEquals(2, repository.batches.get(0).size());
+      assertEquals(
+          new BigDecimal("4000.00"), repository.stored.get(BOB.getValue()).getCurrentBalance());
+
+      engine.checkpoint();
+      assertEquals(1, repository.batches.size());
+    }
+  }
+
+  @Test
+  void failed_checkpoint_is_retried_and_mismatched_currency_is_rejected() {
+    try (AccountBalanceEngine engine = engine()) {
+      postAndCommit(engine, transfer(ALICE, BOB, "10.00"));
+      repository.failNext = true;
+
+      assertThrows(IllegalStateException.class, engine::checkpoint);
+      engine.checkpoint();
+      assertEquals(
+          new BigDecimal("-10.00"), repository.stored.get(ALICE.getValue()).getCurrentBalance());
+
+      Transaction usd =
+          Transaction.create(
+              TransactionId.generate(),
+              TENANT,
+              PaymentId.generate(),
+              ALICE,
+              BOB,
+              Money.of(new BigDecimal("5.00"), Currency.getInstance("USD")),
+              TransactionType.CREDIT);
+      assertThrows(InvalidTransactionException.class, () -> engine.post(usd));
+      assertNull(usd.getLedgerEntries().get(0).getBalanceAfter());
+      assertEquals(new BigDecimal("-10.00"), engine.getBalance(ALICE).getCurrentBalance());
+    }
+  }
+
+  @Test
+  void later_posting_stacks_on_a_pending_one_and_is_restamped_when_that_one_is_reverted() {
+    try (AccountBalanceEngine engine = engine()) {
+      postAndCommit(engine, transfer(ALICE, BOB, "10.00"));
+      Transaction failed = transfer(ALICE, BOB, "5.00");
+      engine.post(failed);
+      Transaction saved = transfer(BOB, ALICE, "1.00");
+      engine.post(saved);
+      LedgerEntry credit = saved.getLedgerEntries().get(1);
+      assertEquals(-1500L, credit.getBalanceBefore());
+
+      engine.revert(failed);
+      engine.commit(saved);
+
+      assertNull(failed.getLedgerEntries().get(0).getBalanceAfter());
+      assertThrows(InvalidTransactionException.class, () -> engine.commit(failed));
+      assertEquals(-1000L, credit.getBalanceBefore());
+      assertEquals(-900L, credit.getBalanceAfter());
+      assertEquals(Long.valueOf(3), credit.getPostingSequence());
+      assertEquals(new BigDecimal("-9.00"), engine.getBalance(ALICE).getCurrentBalance());
+      assertEquals(1, engine.getRevertCount());
+      assertEquals(2, engine.getRestampedCount());
+
+      engine.checkpoint();
+      assertEquals(
+          new BigDecimal("9.00"), repository.stored.get(BOB.getValue()).getCurrentBalance());
+      assertEquals(3L, repository.stored.get(ALICE.getValue()).getLastPostingSequence());
+    }
+  }
+
+  @Test
+  void batch_committed_before_an_earlier_one_is_checkpointed_once_that_one_is() {
+    try (AccountBalanceEngine engine = engine()) {
+      Transaction first = transfer(ALICE, BOB, "10.00");
+      Transaction second = transfer(ALICE, BOB, "5.00");
+      engine.post(first);
+      engine.post(second);
+
+      engine.commit(second);
+      engine.checkpoint();
+      assertTrue(repository.batches.isEmpty());
+
+      engine.commit(first);
+      engine.checkpoint();
+      AccountBalance stored = repository.stored.get(ALICE.getValue());
+      assertEquals(new BigDecimal("-15.00"), stored.getCurrentBalance());
+      assertEquals(2L, stored.getLastPostingSequence());
+      assertEquals(second.getId().getValue(), stored.getLastTransactionId());
+    }
+  }
+
+  @Test
+  void abandoned_batch_is_committed_if_saved_and_reverted_otherwise() {
+    try (AccountBalanceEngine engine =
+        new AccountBalanceEngine(
+            repository, 16, Duration.ofHours(1), Duration.ZERO, Clock.systemUTC())) {
+      Transaction saved = transfer(ALICE, BOB, "10.00");
+      engine.post(saved);
+      repository.save(saved);
+      Transaction unsaved = transfer(ALICE, BOB, "5.00");
+      engine.post(unsaved);
+
+      engine.settleAbandoned();
+
+      assertEquals(2, engine.getAbandonedCount());
+      assertNull(unsaved.getLedgerEntries().get(0).getBalanceAfter());
+      assertThrows(InvalidTransactionException.class, () -> engine.commit(saved));
+      assertEquals(new BigDecimal("-10.00"), engine.getBalance(ALICE).getCurrentBalance());
+      engine.checkpoint();
+      assertEquals(
+          new BigDecimal("10.00"), repository.stored.get(BOB.getValue()).getCurrentBalance());
+    }
+  }
+
+  @Test
+  void batch_chains_postings_to_one_account_and_is_settled_as_a_whole() {
+    try (AccountBalanceEngine engine = engine()) {
+      Transaction first = transfer(ALICE, BOB, "10.00");
+      Transaction second = transfer(ALICE, BOB, "5.00");
+      List<Transaction> batch = List.of(first, second);
+
+      engine.post(batch);
+      LedgerEntry debit = second.getLedgerEntries().get(0);
+      assertEquals(-1000L, debit.getBalanceBefore());
+      assertEquals(-1500L, debit.getBalanceAfter());
+      assertEquals(Long.valueOf(2), debit.getPostingSequence());
+      assertThrows(InvalidTransactionException.class, () -> engine.commit(first));
+
+      engine.revert(batch);
+      assertNull(first.getLedgerEntries().get(0).getBalanceAfter());
+      assertEquals(new BigDecimal("0.00"), engine.getBalance(ALICE).getCurrentBalance());
+
+      engine.post(batch);
+      engine.commit(batch);
+      assertEquals(Long.valueOf(2), debit.getPostingSequence());
+      assertEquals(new BigDecimal("15.00"), engine.getBalance(BOB).getCurrentBalance());
+      assertEquals(2, engine.getRevertCount());
+    }
+  }
+
+  @Test
+  void account_with_a_pending_posting_is_checkpointed_at_its_committed_balance() {
+    try (AccountBalanceEngine engine = engine()) {
+      postAndCommit(engine, transfer(ALICE, BOB, "10.00"));
+      Transaction inFlight = transfer(ALICE, BOB, "5.00");
+      engine.post(inFlight);
+
+      engine.checkpoint();
+      AccountBalance stored = repository.stored.get(ALICE.getValue());
+      assertEquals(new BigDecimal("-10.00"), stored.getCurrentBalance());
+      assertEquals(1L, stored.getLastPostingSequence());
+      assertEquals(new BigDecimal("-15.00"), engine.getBalance(ALICE).getCurrentBalance());
+
+      engine.commit(inFlight);
+      engine.checkpoint();
+      stored = repository.stored.get(ALICE.getValue());
+      assertEquals(new BigDecimal("-15.00"), stored.getCurrentBalance());
+      assertEquals(2L, stored.getLastPostingSequence());
+    }
+  }
+
+  @Test
+  void account_is_rebuilt_from_its_checkpoint_and_the_ledger_after_it() {
+    repository.stored.put(ALICE.getValue(), balance(ALICE, "1000.00"));
+    AccountBalanceEngine crashed = engine();
+    postAndCommit(crashed, transfer(ALICE, BOB, "100.00"));
+    crashed.checkpoint();
+    Transaction uncheckpointed = transfer(ALICE, BOB, "50.00");
+    postAndCommit(crashed, uncheckpointed);
+    repository.save(uncheckpointed);
+    assertEquals(
+        new BigDecimal("900.00"), repository.stored.get(ALICE.getValue()).getCurrentBalance());
+    // As if Bob's account had never been checkpointed
+    repository.stored.remove(BOB.getValue());
+
+    try (AccountBalanceEngine engine = engine()) {
+      assertEquals(new BigDecimal("850.00"), engine.getBalance(ALICE).getCurrentBalance());
+      Transaction next = transfer(ALICE, BOB, "1.00");
+      engine.post(next);
+
+      LedgerEntry debit = next.getLedgerEntries().get(0);
+      assertEquals(85000L, debit.getBalanceBefore());
+      assertEquals(Long.valueOf(3), debit.getPostingSequence());
+      assertEquals(5000L, next.getLedgerEntries().get(1).getBalanceBefore());
+    }
+  }
+
+  private static void postAndCommit(AccountBalanceEngine engine, Transaction transaction) {
+    engine.post(transaction);
+    engine.commit(transaction);
+  }
+
+  private AccountBalanceEngine engine() {
+    return new AccountBalanceEngine(repository, 16, Duration.ofHours(1), Clock.systemUTC());
+  }
+
+  private static Transaction transfer(AccountNumber from, AccountNumber to, String amount) {
+    return Transaction.create(
+        TransactionId.generate(),
+        TENANT,
+        PaymentId.generate(),
+        from,
+        to,
+        Money.zar(new BigDecimal(amount)),
+        TransactionType.CREDIT);
+  }
+
+  private static AccountBalance balance(AccountNumber account, String amount) {
+    return new AccountBalance(
+        account,
+        TENANT.getTenantId(),
+        TENANT.getBusinessUnitId(),
+        Currency.getInstance("ZAR"),
+        new BigDecimal(amount),
+        null,
+        Clock.systemUTC().instant(),
+        0L);
+  }
+
+  private static final class FakeRepository implements AccountBalanceRepository {
+    final Map<String, AccountBalance> stored = new ConcurrentHashMap<>();
+    final Map<String, List<PostedEntry>> ledger = new ConcurrentHashMap<>();
+    final List<List<AccountBalance>> batches = new ArrayList<>();
+    boolean failNext;
+
+    @Override
+    public AccountBalance find(AccountNumber accountNumber) {
+      return stored.get(accountNumber.getValue());
+    }
+
+    @Override
+    public List<PostedEntry> findPostedAfter(AccountNumber accountNumber, long afterSequence) {
+      List<PostedEntry> entries = new ArrayList<>();
+      for (PostedEntry entry : ledger.getOrDefault(accountNumber.getValue(), List.of())) {
+        if (entry.getPostingSequence() > afterSequence) {
+          entries.add(entry);
+        }
+      }
+      return entries;
+    }
+
+    /** Store the transaction's ledger entries, as the transaction repository would. */
+    void save(Transaction transaction) {
+      for (LedgerEntry entry : transaction.getLedgerEntries()) {
+        BigDecimal amount = BigDecimal.valueOf(entry.getAmount(), CompactMoney.SCALE);
+        ledger
+            .computeIfAbsent(entry.getAccountNumber().getValue(), k -> new ArrayList<>())
+            .add(
+                new PostedEntry(
+                    entry.getPostingSequence(),
+                    transaction.getId().getValue(),
+                    entry.getEntryType() == LedgerEntryType.DEBIT ? amount.negate() : amount,
+                    entry.getCreatedAt()));
+      }
+    }
+
+    @Override
+    public void saveAll(List<AccountBalance> balances) {
+      if (failNext) {
+        failNext = false;
+        throw new IllegalStateException("database unavailable");
+      }
+      batches.add(balances);
+      for (AccountBalance balance : balances) {
+        stored.put(balance.getAccountNumber().getValue(), balance);
+      }
+    }
+  }
+}
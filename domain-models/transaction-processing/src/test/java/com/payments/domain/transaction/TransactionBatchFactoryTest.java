@@ -0,0 +1,70 @@
+package com.payments.domain.transaction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TransactionBatchFactoryTest {
+
+  private static final TenantContext TENANT = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+  private static final AccountNumber DEBIT = AccountNumber.of("12345678901");
+  private static final AccountNumber CREDIT = AccountNumber.of("10987654321");
+  private static final Instant NOW = Instant.parse("2024-03-01T10:15:30Z");
+
+  private final TransactionBatchFactory factory =
+      new TransactionBatchFactory(Clock.fixed(NOW, ZoneOffset.UTC));
+
+  @Test
+  void creates_one_transaction_per_line_with_shared_timestamp_and_unique_ids() {
+    TransactionBatch batch = batch(1_000);
+
+    List<Transaction> transactions = factory.create(batch);
+
+    assertEquals(1_000, transactions.size());
+    Set<String> ids = new HashSet<>();
+    for (Transaction tx : transactions) {
+      assertEquals(NOW, tx.getCreatedAt());
+      assertEquals(TransactionStatus.CREATED, tx.getStatus());
+      assertEquals(1, tx.getDomainEvents().size());
+      assertTrue(ids.add(tx.getId().getValue()));
+      for (LedgerEntry entry : tx.getLedgerEntries()) {
+        assertEquals(NOW, entry.getCreatedAt());
+        assertTrue(ids.add(entry.getId().getValue()));
+      }
+      assertEquals(NOW, tx.getEvents().get(0).getOccurredAt());
+      assertTrue(ids.add(tx.getEvents().get(0).getId().getValue()));
+    }
+    assertEquals(new BigDecimal("1.23"), transactions.get(122).getAmount().getAmount());
+    for (int i = 1; i < transactions.size(); i++) {
+      String previous = transactions.get(i - 1).getId().getValue();
+      assertTrue(transactions.get(i).getId().getValue().compareTo(previous) > 0);
+    }
+  }
+
+  @Test
+  void invalid_line_fails_the_batch_with_its_line_number() {
+    TransactionBatch batch = batch(3).add(PaymentId.generate(), DEBIT, DEBIT, 100);
+
+    InvalidTransactionException e =
+        assertThrows(InvalidTransactionException.class, () -> factory.create(batch));
+    assertTrue(e.getMessage().startsWith("Line 4: "));
+  }
+
+  private static TransactionBatch batch(int lines) {
+    TransactionBatch batch =
+        new TransactionBatch(TENANT, TransactionType.CREDIT, Currency.getInstance("ZAR"), lines);
+    for (int i = 1; i <= lines; i++) {
+      batch.add(PaymentId.generate(), DEBIT, CREDIT, i);
+    }
+    return batch;
+  }
+}
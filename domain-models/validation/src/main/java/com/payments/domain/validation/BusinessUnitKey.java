@@ -0,0 +1,35 @@
+package com.payments.domain.validation;
+
+import java.util.Objects;
+
+/** Map key of per-business-unit caches, with its hash computed once. */
+final class BusinessUnitKey {
+  final String tenantId;
+  final String businessUnitId;
+  private final int hash;
+
+  BusinessUnitKey(String tenantId, String businessUnitId) {
+    this.tenantId = Objects.requireNonNull(tenantId, "tenantId");
+    this.businessUnitId = Objects.requireNonNull(businessUnitId, "businessUnitId");
+    this.hash = 31 * tenantId.hashCode() + businessUnitId.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BusinessUnitKey)) {
+      return false;
+    }
+    BusinessUnitKey other = (BusinessUnitKey) o;
+    return hash == other.hash
+        && tenantId.equals(other.tenantId)
+        && businessUnitId.equals(other.businessUnitId);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+}
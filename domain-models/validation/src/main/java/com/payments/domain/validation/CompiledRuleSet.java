@@ -0,0 +1,108 @@
+package com.payments.domain.validation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The active rules of one business unit, compiled and sorted by priority (then name). Rules that do
+ * not compile are left out and listed in {@link #getInvalidRules}. Immutable and safe to share
+ * between threads.
+ */
+public final class CompiledRuleSet {
+
+  private static final Comparator<ValidationRuleDefinition> ORDER =
+      Comparator.comparingInt(ValidationRuleDefinition::getPriority)
+          .thenComparing(ValidationRuleDefinition::getRuleName);
+
+  private final ValidationRule[] rules;
+  private final RuleCondition[] conditions;
+  private final List<String> invalidRules;
+
+  private CompiledRuleSet(
+      ValidationRule[] rules, RuleCondition[] conditions, List<String> invalidRules) {
+    this.rules = rules;
+    this.conditions = conditions;
+    this.invalidRules = invalidRules;
+  }
+
+  /** Compile all rules at once, leaving out those that do not compile. */
+  public static CompiledRuleSet compile(List<ValidationRuleDefinition> definitions) {
+    List<ValidationRuleDefinition> sorted = new ArrayList<>(definitions);
+    sorted.sort(ORDER);
+    List<ValidationRule> rules = new ArrayList<>(sorted.size());
+    List<RuleCondition> conditions = new ArrayList<>(sorted.size());
+    List<String> invalidRules = new ArrayList<>();
+    for (ValidationRuleDefinition definition : sorted) {
+      try {
+        RuleCondition condition = RuleConditionCompiler.compile(definition.getRuleCondition());
+        rules.add(
+            new ValidationRule(
+                ValidationRuleId.of(definition.getRuleId()),
+                definition.getRuleName(),
+                ruleType(definition.getRuleType()),
+                definition.getRuleDescription(),
+                definition.getRuleCondition(),
+                definition.getPriority(),
+                true));
+        conditions.add(condition);
+      } catch (InvalidRuleConditionException e) {
+        String rule = definition.getRuleId() + " (" + definition.getRuleName() + ")";
+        invalidRules.add("Rule " + rule + ": " + e.getMessage());
+      }
+    }
+    return new CompiledRuleSet(
+        rules.toArray(new ValidationRule[0]),
+        conditions.toArray(new RuleCondition[0]),
+        List.copyOf(invalidRules));
+  }
+
+  /**
+   * Evaluate the rules in order, adding each one that holds to {@code result} as applied. Stops at
+   * the first rule that does not hold and adds it as failed.
+   *
+   * @return whether all rules hold
+   */
+  public boolean evaluate(ValidationResult result, PaymentFacts facts) {
+    for (int i = 0; i < conditions.length; i++) {
+      if (!conditions[i].test(facts)) {
+        result.addFailedRule(failedRule(rules[i], conditions[i]));
+        return false;
+      }
+      result.addAppliedRule(rules[i]);
+    }
+    return true;
+  }
+
+  public int size() {
+    return rules.length;
+  }
+
+  /** Why each rule left out did not compile, naming the rule. */
+  public List<String> getInvalidRules() {
+    return invalidRules;
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static RuleType ruleType(String name) {
+    try {
+      return RuleType.valueOf(name);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new InvalidRuleConditionException("Unknown rule type '" + name + "'");
+    }
+  }
+
+  private static FailedRule failedRule(ValidationRule rule, RuleCondition condition) {
+    RuleField field = condition.field();
+    String description = rule.getRuleDescription();
+    return new FailedRule(
+        FailedRuleId.generate(),
+        rule.getRuleName(),
+        rule.getRuleType().name(),
+        "Rule not satisfied: " + (description != null ? description : rule.getRuleCondition()),
+        field != null ? field.getJsonName() : null);
+  }
+}
@@ -0,0 +1,17 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.JsonReader;
+
+/** Rule conditions read with {@link JsonReader}. Only used when rules are compiled. */
+final class ConditionJson {
+
+  private ConditionJson() {}
+
+  static Object parse(String json) {
+    try {
+      return JsonReader.parse(json);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRuleConditionException(e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.*;
+
+/** Active limits of one customer: a {@code customer_limits} row and its payment type limits. */
+@Value
+@AllArgsConstructor
+public class CustomerLimits {
+  String customerId;
+  String tenantId;
+  String businessUnitId;
+  BigDecimal dailyLimit;
+  BigDecimal monthlyLimit;
+  BigDecimal perTransactionLimit;
+  Integer maxTransactionsPerDay; // null = no count limit
+  List<PaymentTypeLimit> paymentTypeLimits;
+}
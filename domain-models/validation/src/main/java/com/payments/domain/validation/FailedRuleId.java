@@ -1,7 +1,7 @@
 package com.payments.domain.validation;
 
+import com.payments.domain.shared.Ids;
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +20,6 @@ class FailedRuleId {
   }
 
   public static FailedRuleId generate() {
-    return new FailedRuleId("FR-" + UUID.randomUUID());
+    return new FailedRuleId(Ids.next("FR-"));
   }
 }
@@ -0,0 +1,23 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.*;
+
+/** A {@code fraud_api_metrics} row: the payments of one business unit scored in one interval. */
+@Value
+@AllArgsConstructor
+public class FraudApiMetrics {
+  Instant metricTimestamp;
+  int totalCalls;
+  int successfulCalls;
+  int failedCalls;
+  int timeoutCalls;
+  int fallbackCalls;
+  int avgResponseTimeMs;
+  int p95ResponseTimeMs;
+  int p99ResponseTimeMs;
+  BigDecimal errorRate;
+  String tenantId;
+  String businessUnitId;
+}
@@ -0,0 +1,9 @@
+package com.payments.domain.validation;
+
+import java.util.List;
+
+/** Repository port: the {@code fraud_api_metrics} table. */
+public interface FraudApiMetricsRepository {
+
+  void saveAll(List<FraudApiMetrics> metrics);
+}
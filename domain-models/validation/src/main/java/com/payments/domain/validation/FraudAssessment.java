@@ -0,0 +1,45 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import lombok.*;
+
+/** A fraud score of a payment, from the fraud API or from the fallback {@code fraud_rules}. */
+@Value
+@AllArgsConstructor
+public class FraudAssessment {
+  BigDecimal fraudScore;
+  RiskLevel riskLevel;
+  FraudRecommendation recommendation;
+  BigDecimal confidence;
+  List<String> reasons;
+  String modelVersion;
+  boolean fallbackUsed;
+
+  /**
+   * Assessment from a score alone, with risk level and recommendation by the fraud thresholds: LOW
+   * below 0.3, MEDIUM below 0.6, HIGH below 0.8, CRITICAL from there.
+   */
+  public static FraudAssessment ofScore(
+      BigDecimal fraudScore, List<String> reasons, String modelVersion, boolean fallbackUsed) {
+    BigDecimal score = fraudScore.min(BigDecimal.ONE).setScale(4, RoundingMode.HALF_UP);
+    RiskLevel riskLevel;
+    FraudRecommendation recommendation;
+    if (score.compareTo(new BigDecimal("0.3")) < 0) {
+      riskLevel = RiskLevel.LOW;
+      recommendation = FraudRecommendation.APPROVE;
+    } else if (score.compareTo(new BigDecimal("0.6")) < 0) {
+      riskLevel = RiskLevel.MEDIUM;
+      recommendation = FraudRecommendation.APPROVE_WITH_MONITORING;
+    } else if (score.compareTo(new BigDecimal("0.8")) < 0) {
+      riskLevel = RiskLevel.HIGH;
+      recommendation = FraudRecommendation.REQUIRE_VERIFICATION;
+    } else {
+      riskLevel = RiskLevel.CRITICAL;
+      recommendation = FraudRecommendation.REJECT;
+    }
+    return new FraudAssessment(
+        score, riskLevel, recommendation, null, reasons, modelVersion, fallbackUsed);
+  }
+}
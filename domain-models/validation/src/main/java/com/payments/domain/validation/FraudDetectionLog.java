@@ -0,0 +1,26 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import lombok.*;
+
+/** A {@code fraud_detection_log} row: the fraud score used for one payment. */
+@Value
+@AllArgsConstructor
+public class FraudDetectionLog {
+  String paymentId;
+  String customerId;
+  BigDecimal fraudScore;
+  RiskLevel riskLevel;
+  FraudRecommendation recommendation;
+  BigDecimal confidence;
+  List<String> fraudReasons;
+  String modelVersion;
+  Integer apiResponseTimeMs; // null when no API call was made, e.g. a cached score
+  boolean fallbackUsed;
+  String apiProvider;
+  Instant detectedAt;
+  String tenantId;
+  String businessUnitId;
+}
@@ -0,0 +1,9 @@
+package com.payments.domain.validation;
+
+import java.util.List;
+
+/** Repository port: the {@code fraud_detection_log} table. */
+public interface FraudLogRepository {
+
+  void saveAll(List<FraudDetectionLog> logs);
+}
@@ -0,0 +1,8 @@
+package com.payments.domain.validation;
+
+enum FraudRecommendation {
+  APPROVE,
+  APPROVE_WITH_MONITORING,
+  REQUIRE_VERIFICATION,
+  REJECT
+}
@@ -0,0 +1,18 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import lombok.*;
+
+/** A {@code fraud_rules} row; {@code ruleCondition} is the JSON of its condition. */
+@Value
+@AllArgsConstructor
+public class FraudRule {
+  String ruleId;
+  String ruleName;
+  String ruleType;
+  String ruleCondition;
+  BigDecimal riskScoreContribution;
+  int priority;
+  String tenantId;
+  String businessUnitId;
+}
@@ -0,0 +1,223 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scores payments with the {@code fraud_rules} of the business unit and of the platform when the
+ * fraud API cannot: the score is the sum of the contributions of the rules whose condition holds,
+ * capped at 1.
+ *
+ * <ul>
+ *   <li>conditions in the {@link RuleConditionCompiler} grammar test the payment itself
+ *   <li>the seeded {@code {"max_transactions_per_hour": n}} (this payment counted) and {@code
+ *       {"multiplier_of_average": m}} (of the last 30 days) test the source account's payments in
+ *       the {@link VelocityEngine}
+ *   <li>other conditions, such as {@code allowed_countries}, need data the payment does not carry;
+ *       they are skipped and counted
+ * </ul>
+ *
+ * <p>The fallback never approves outright: a payment no rule flags is approved with monitoring, and
+ * one for which no rule could be evaluated at all is sent for verification.
+ */
+final class FraudRuleFallback {
+
+  static final String MODEL_VERSION = "fraud-rules";
+  static final String PLATFORM_TENANT = "PLATFORM";
+  static final String PLATFORM_BUSINESS_UNIT = "PLATFORM-DEFAULT";
+
+  // The HIGH threshold, which requires verification
+  private static final BigDecimal UNASSESSED_SCORE = new BigDecimal("0.6");
+  private static final String UNASSESSED_REASON = "No fraud rule could be evaluated";
+
+  private final ConcurrentHashMap<BusinessUnitKey, CompiledFraudRule[]> rules =
+      new ConcurrentHashMap<>();
+  private final FraudRuleRepository repository;
+  private final VelocityEngine velocity;
+  private final LongAdder skippedRules = new LongAdder();
+  private final LongAdder unassessed = new LongAdder();
+
+  /** {@code velocity} may be null, leaving the seeded account conditions unevaluated. */
+  FraudRuleFallback(FraudRuleRepository repository, VelocityEngine velocity) {
+    this.repository = repository;
+    this.velocity = velocity;
+  }
+
+  FraudAssessment assess(ValidationRequest request) {
+    TenantContext tenant = request.getTenantContext();
+    BigDecimal score = BigDecimal.ZERO;
+    List<String> reasons = new ArrayList<>();
+    boolean evaluated = false;
+    for (CompiledFraudRule rule : rulesOf(tenant.getTenantId(), tenant.getBusinessUnitId())) {
+      Boolean holds = rule.condition.test(request);
+      if (holds == null) {
+        continue;
+      }
+      evaluated = true;
+      if (holds) {
+        score = score.add(rule.contribution);
+        reasons.add(rule.name);
+      }
+    }
+    if (!evaluated) {
+      unassessed.increment();
+      return new FraudAssessment(
+          UNASSESSED_SCORE,
+          RiskLevel.HIGH,
+          FraudRecommendation.REQUIRE_VERIFICATION,
+          null,
+          List.of(UNASSESSED_REASON),
+          MODEL_VERSION,
+          true);
+    }
+    FraudAssessment assessment = FraudAssessment.ofScore(score, reasons, MODEL_VERSION, true);
+    if (assessment.getRecommendation() != FraudRecommendation.APPROVE) {
+      return assessment;
+    }
+    return new FraudAssessment(
+        assessment.getFraudScore(),
+        assessment.getRiskLevel(),
+        FraudRecommendation.APPROVE_WITH_MONITORING,
+        null,
+        reasons,
+        MODEL_VERSION,
+        true);
+  }
+
+  /** Drop the compiled rules of a business unit, or of all of them for the platform's. */
+  void invalidate(String tenantId, String businessUnitId) {
+    if (isPlatform(tenantId, businessUnitId)) {
+      rules.clear();
+    } else {
+      rules.remove(new BusinessUnitKey(tenantId, businessUnitId));
+    }
+  }
+
+  /** Rules left out when compiling because their condition is not understood. */
+  long getSkippedRuleCount() {
+    return skippedRules.sum();
+  }
+
+  /** Payments sent for verification because none of their rules could be evaluated. */
+  long getUnassessedCount() {
+    return unassessed.sum();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private CompiledFraudRule[] rulesOf(String tenantId, String businessUnitId) {
+    BusinessUnitKey key = new BusinessUnitKey(tenantId, businessUnitId);
+    CompiledFraudRule[] compiled = rules.get(key);
+    if (compiled != null) {
+      return compiled;
+    }
+    return rules.computeIfAbsent(key, k -> compile(definitionsOf(k)));
+  }
+
+  private List<FraudRule> definitionsOf(BusinessUnitKey key) {
+    List<FraudRule> definitions =
+        new ArrayList<>(repository.findActive(key.tenantId, key.businessUnitId));
+    if (!isPlatform(key.tenantId, key.businessUnitId)) {
+      definitions.addAll(repository.findActive(PLATFORM_TENANT, PLATFORM_BUSINESS_UNIT));
+    }
+    return definitions;
+  }
+
+  private CompiledFraudRule[] compile(List<FraudRule> definitions) {
+    List<FraudRule> sorted = new ArrayList<>(definitions);
+    sorted.sort(Comparator.comparingInt(FraudRule::getPriority));
+    List<CompiledFraudRule> compiled = new ArrayList<>();
+    for (FraudRule rule : sorted) {
+      try {
+        compiled.add(
+            new CompiledFraudRule(
+                rule.getRuleName(),
+                condition(rule.getRuleCondition()),
+                rule.getRiskScoreContribution()));
+      } catch (InvalidRuleConditionException e) {
+        skippedRules.increment();
+      }
+    }
+    return compiled.toArray(new CompiledFraudRule[0]);
+  }
+
+  private Condition condition(String json) {
+    Object node = ConditionJson.parse(json);
+    if (node instanceof Map && ((Map<?, ?>) node).size() == 1) {
+      Map.Entry<?, ?> only = ((Map<?, ?>) node).entrySet().iterator().next();
+      if ("max_transactions_per_hour".equals(only.getKey())) {
+        int max = wholeNumber(only);
+        return request -> {
+          VelocityUsage hour = usage(request, VelocityWindow.HOURLY);
+          return hour != null ? hour.getCount() + 1 > max : null;
+        };
+      }
+      if ("multiplier_of_average".equals(only.getKey())) {
+        BigDecimal multiplier = number(only);
+        return request -> {
+          VelocityUsage month = usage(request, VelocityWindow.MONTHLY);
+          if (month == null || month.getCount() == 0) {
+            return null; // No history to compare with
+          }
+          BigDecimal total = month.getAmount().multiply(multiplier);
+          BigDecimal amount = request.getAmount().getAmount();
+          return amount.multiply(BigDecimal.valueOf(month.getCount())).compareTo(total) > 0;
+        };
+      }
+    }
+    RuleCondition compiled = RuleConditionCompiler.compile(json);
+    return request -> compiled.test(request.getFacts());
+  }
+
+  private VelocityUsage usage(ValidationRequest request, VelocityWindow window) {
+    return velocity != null
+        ? velocity.getUsage(request.getTenantContext(), request.getSourceAccount(), window)
+        : null;
+  }
+
+  private static boolean isPlatform(String tenantId, String businessUnitId) {
+    return PLATFORM_TENANT.equals(tenantId) && PLATFORM_BUSINESS_UNIT.equals(businessUnitId);
+  }
+
+  private static BigDecimal number(Map.Entry<?, ?> entry) {
+    if (!(entry.getValue() instanceof BigDecimal)) {
+      throw new InvalidRuleConditionException(
+          "Expected a number for '" + entry.getKey() + "': " + entry.getValue());
+    }
+    return (BigDecimal) entry.getValue();
+  }
+
+  private static int wholeNumber(Map.Entry<?, ?> entry) {
+    try {
+      return number(entry).intValueExact();
+    } catch (ArithmeticException e) {
+      throw new InvalidRuleConditionException(
+          "Expected a whole number for '" + entry.getKey() + "': " + entry.getValue(), e);
+    }
+  }
+
+  /** Whether a fraud rule's condition holds for a payment, or null if that cannot be told. */
+  private interface Condition {
+    Boolean test(ValidationRequest request);
+  }
+
+  private static final class CompiledFraudRule {
+    final String name;
+    final Condition condition;
+    final BigDecimal contribution;
+
+    CompiledFraudRule(String name, Condition condition, BigDecimal contribution) {
+      this.name = name;
+      this.condition = condition;
+      this.contribution = contribution;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.payments.domain.validation;
+
+import java.util.List;
+
+/** Repository port: the {@code fraud_rules} table. */
+public interface FraudRuleRepository {
+
+  /** Active rules of the business unit, in any order. */
+  List<FraudRule> findActive(String tenantId, String businessUnitId);
+}
@@ -0,0 +1,17 @@
+package com.payments.domain.validation;
+
+import java.util.List;
+
+/** Port: the external fraud scoring API, called with batches of payments. */
+public interface FraudScoringApi {
+
+  /**
+   * Score the payments in one call.
+   *
+   * @return one assessment per request, in request order
+   */
+  List<FraudAssessment> score(List<ValidationRequest> requests);
+
+  /** Name recorded as {@code api_provider}. */
+  String getProvider();
+}
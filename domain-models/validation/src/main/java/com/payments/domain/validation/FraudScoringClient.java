@@ -0,0 +1,673 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fraud scores for payments, from the {@link FraudScoringApi} where it answers in time and from the
+ * {@code fraud_rules} otherwise
+ *
+ * <ul>
+ *   <li>concurrent requests are collected into one API call of at most {@code maxBatchSize}
+ *       payments, waiting at most {@code linger} for a batch to fill
+ *   <li>payments of a call still unanswered after {@code hedgeDelay} are sent once more in a second
+ *       call; the first answer wins, and a payment fails only once both calls have failed. Hedges
+ *       are held to a tenth of the calls, after a burst of ten, so a slow API is not sent twice the
+ *       load
+ *   <li>a payment whose callers have all given up waiting is left out of the calls not yet made,
+ *       and a call finding every caller thread busy and their queue full fails at once, so its
+ *       payments fall back instead of waiting for their timeout
+ *   <li>scores are cached by payment fingerprint (business unit, customer, type, amount and
+ *       accounts) for {@code cacheTtl}, so a resubmitted payment, or an identical one while the
+ *       first is being scored, does not call the API again
+ *   <li>a payment not scored within {@code timeout}, or whose call fails, is scored by the {@code
+ *       fraud_rules} of its business unit and of the platform (see {@link FraudRuleFallback})
+ *   <li>every score used is written to {@code fraud_detection_log} in batches in the background
+ *   <li>the time each payment waited for the API, and whether it timed out or failed, is aggregated
+ *       per business unit and written to {@code fraud_api_metrics} every minute
+ * </ul>
+ */
+public class FraudScoringClient implements AutoCloseable {
+
+  private static final int QUEUE_CAPACITY = 16_384;
+  private static final int MAX_CACHED_SCORES = 100_000;
+  private static final int CALL_THREADS = 8;
+  private static final int CALL_QUEUE_CAPACITY = 32;
+  // Every call earns a tenth of a hedge, up to a burst of ten
+  private static final int HEDGE_COST = 10;
+  private static final int MAX_HEDGE_CREDIT = 10 * HEDGE_COST;
+  private static final Duration METRICS_INTERVAL = Duration.ofMinutes(1);
+
+  private final FraudScoringApi api;
+  private final FraudRuleFallback fallback;
+  private final int maxBatchSize;
+  private final long lingerNanos;
+  private final long hedgeDelayNanos;
+  private final long timeoutNanos;
+  private final long cacheTtlNanos;
+
+  private final ConcurrentHashMap<Fingerprint, CachedScore> cache = new ConcurrentHashMap<>();
+  private final BlockingQueue<CachedScore> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final Thread batcher;
+  private final ThreadPoolExecutor callers;
+  private final AtomicInteger hedgeCredit = new AtomicInteger(MAX_HEDGE_CREDIT);
+  private final ScheduledExecutorService scheduler;
+  private final AsyncBatchWriter<FraudDetectionLog> logWriter;
+  private final LatencyMetrics<BusinessUnitKey> latency;
+  private volatile boolean running = true;
+
+  private final LongAdder apiCalls = new LongAdder();
+  private final LongAdder apiFailures = new LongAdder();
+  private final LongAdder hedgedCalls = new LongAdder();
+  private final LongAdder skippedHedges = new LongAdder();
+  private final LongAdder rejectedCalls = new LongAdder();
+  private final LongAdder abandonedScores = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+
+  public FraudScoringClient(
+      FraudScoringApi api,
+      FraudRuleRepository ruleRepository,
+      FraudLogRepository logRepository,
+      FraudApiMetricsRepository metricsRepository) {
+    this(api, ruleRepository, logRepository, metricsRepository, null);
+  }
+
+  /** {@code velocity} lets the fallback evaluate rules on the account's recent payments. */
+  public FraudScoringClient(
+      FraudScoringApi api,
+      FraudRuleRepository ruleRepository,
+      FraudLogRepository logRepository,
+      FraudApiMetricsRepository metricsRepository,
+      VelocityEngine velocity) {
+    this(
+        api,
+        ruleRepository,
+        logRepository,
+        metricsRepository,
+        velocity,
+        64,
+        Duration.ofMillis(2),
+        Duration.ofMillis(50),
+        Duration.ofMillis(200),
+        Duration.ofSeconds(30));
+  }
+
+  public FraudScoringClient(
+      FraudScoringApi api,
+      FraudRuleRepository ruleRepository,
+      FraudLogRepository logRepository,
+      FraudApiMetricsRepository metricsRepository,
+      VelocityEngine velocity,
+      int maxBatchSize,
+      Duration linger,
+      Duration hedgeDelay,
+      Duration timeout,
+      Duration cacheTtl) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.api = api;
+    this.fallback = new FraudRuleFallback(ruleRepository, velocity);
+    this.maxBatchSize = maxBatchSize;
+    this.lingerNanos = linger.toNanos();
+    this.hedgeDelayNanos = hedgeDelay.toNanos();
+    this.timeoutNanos = timeout.toNanos();
+    this.cacheTtlNanos = cacheTtl.toNanos();
+    this.logWriter =
+        new AsyncBatchWriter<>(
+            "fraud-log-writer", 65_536, 500, Duration.ofMillis(200), logRepository::saveAll);
+    this.latency =
+        new LatencyMetrics<>(
+            "fraud-api",
+            METRICS_INTERVAL,
+            windows -> metricsRepository.saveAll(toMetrics(windows)));
+
+    AtomicInteger callerNumber = new AtomicInteger();
+    this.callers =
+        new ThreadPoolExecutor(
+            CALL_THREADS,
+            CALL_THREADS,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(CALL_QUEUE_CAPACITY),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "fraud-api-caller-" + callerNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "fraud-score-scheduler");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long sweepInterval = Math.max(cacheTtlNanos, TimeUnit.SECONDS.toNanos(1));
+    scheduler.scheduleWithFixedDelay(
+        this::evictExpired, sweepInterval, sweepInterval, TimeUnit.NANOSECONDS);
+    this.batcher = new Thread(this::runBatcher, "fraud-score-batcher");
+    this.batcher.setDaemon(true);
+    this.batcher.start();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // SCORING
+  // ─────────────────────────────────────────────────────────
+
+  /** Score the payment, waiting at most the timeout for the API before using the fallback. */
+  public FraudAssessment score(ValidationRequest request) {
+    long start = System.nanoTime();
+    Fingerprint fingerprint = Fingerprint.of(request);
+    CachedScore cached = cache.get(fingerprint);
+    boolean hit = cached != null && cached.isFreshAt(start) && cached.join();
+    if (!hit) {
+      CachedScore fresh = new CachedScore(request, start + cacheTtlNanos);
+      CachedScore raced =
+          cached == null
+              ? cache.putIfAbsent(fingerprint, fresh)
+              : cache.replace(fingerprint, cached, fresh) ? null : cache.get(fingerprint);
+      hit = raced != null && raced.isFreshAt(start) && raced.join();
+      if (hit) {
+        cached = raced; // An identical payment got there first
+      } else {
+        if (raced != null) {
+          cache.put(fingerprint, fresh);
+        }
+        cached = fresh;
+        if (!running || !queue.offer(fresh)) {
+          fresh.score.completeExceptionally(new IllegalStateException("Fraud score queue full"));
+        }
+      }
+    }
+    if (hit) {
+      cacheHits.increment();
+    }
+
+    FraudAssessment assessment;
+    Integer responseTimeMs = null;
+    CallOutcome outcome;
+    try {
+      ApiScore apiScore = cached.score.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      assessment = apiScore.assessment;
+      responseTimeMs = hit ? null : apiScore.responseTimeMs;
+      outcome = CallOutcome.SUCCESS;
+    } catch (TimeoutException e) {
+      timeouts.increment();
+      assessment = fallback(request);
+      outcome = CallOutcome.TIMEOUT;
+    } catch (ExecutionException e) {
+      assessment = fallback(request);
+      outcome = CallOutcome.FAILURE;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      assessment = fallback(request);
+      outcome = CallOutcome.FAILURE;
+    } finally {
+      cached.leave();
+    }
+    if (!hit || outcome != CallOutcome.SUCCESS) {
+      TenantContext tenant = request.getTenantContext();
+      latency.record(
+          new BusinessUnitKey(tenant.getTenantId(), tenant.getBusinessUnitId()),
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+          outcome);
+    }
+    logWriter.offer(logRow(request, assessment, responseTimeMs));
+    return assessment;
+  }
+
+  /**
+   * {@link ValidationCheck} for a {@code FRAUD} stage: records the assessment and fails payments
+   * the fraud score says to reject.
+   */
+  public boolean check(ValidationRequest request, ValidationResult result) {
+    FraudAssessment assessment = score(request);
+    result.setFraudAssessment(assessment.getFraudScore(), assessment.getRiskLevel());
+    if (assessment.getRecommendation() != FraudRecommendation.REJECT) {
+      return true;
+    }
+    result.addFailedRule(
+        new FailedRule(
+            FailedRuleId.generate(),
+            "FRAUD_SCORE",
+            RuleType.FRAUD.name(),
+            "Fraud score " + assessment.getFraudScore().toPlainString() + " is CRITICAL",
+            null));
+    return false;
+  }
+
+  /**
+   * Drop the compiled fallback rules of a business unit, or of all of them for the platform's; they
+   * are reloaded on next use.
+   */
+  public void invalidateFallbackRules(String tenantId, String businessUnitId) {
+    fallback.invalidate(tenantId, businessUnitId);
+  }
+
+  public long getApiCallCount() {
+    return apiCalls.sum();
+  }
+
+  public long getApiFailureCount() {
+    return apiFailures.sum();
+  }
+
+  public long getHedgedCallCount() {
+    return hedgedCalls.sum();
+  }
+
+  /** Hedges not sent because the hedge budget was spent. */
+  public long getSkippedHedgeCount() {
+    return skippedHedges.sum();
+  }
+
+  /** Calls failed without being made because the caller threads and their queue were full. */
+  public long getRejectedCallCount() {
+    return rejectedCalls.sum();
+  }
+
+  /** Payments left out of a call because every caller waiting for them had given up. */
+  public long getAbandonedScoreCount() {
+    return abandonedScores.sum();
+  }
+
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  public long getTimeoutCount() {
+    return timeouts.sum();
+  }
+
+  public long getFallbackCount() {
+    return fallbacks.sum();
+  }
+
+  /** Fallback rules left out because their condition is not understood. */
+  public long getSkippedFallbackRuleCount() {
+    return fallback.getSkippedRuleCount();
+  }
+
+  /** Fallback payments sent for verification because none of their rules could be evaluated. */
+  public long getUnassessedFallbackCount() {
+    return fallback.getUnassessedCount();
+  }
+
+  /** The latest interval of every business unit that saw payments, as written to the table. */
+  public List<FraudApiMetrics> getLatestMetrics() {
+    return toMetrics(new ArrayList<>(latency.getLatestWindows().values()));
+  }
+
+  public long getDroppedLogCount() {
+    return logWriter.getDroppedCount();
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    batcher.interrupt();
+    try {
+      batcher.join(5_000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    scheduler.shutdownNow();
+    callers.shutdownNow();
+    try {
+      callers.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    logWriter.close();
+    latency.close();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // BATCHING
+  // ─────────────────────────────────────────────────────────
+
+  private void runBatcher() {
+    List<CachedScore> batch = new ArrayList<>(maxBatchSize);
+    while (running) {
+      try {
+        CachedScore first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+          if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+            continue;
+          }
+          long remaining = deadline - System.nanoTime();
+          CachedScore next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        dispatch(List.copyOf(batch));
+        batch.clear();
+      } catch (InterruptedException e) {
+        break;
+      }
+    }
+    // Whatever is left falls back at once rather than waiting for its timeout
+    queue.drainTo(batch);
+    for (CachedScore pending : batch) {
+      pending.score.completeExceptionally(new IllegalStateException("Fraud client closed"));
+    }
+  }
+
+  private void dispatch(List<CachedScore> batch) {
+    hedgeCredit.getAndUpdate(credit -> Math.min(MAX_HEDGE_CREDIT, credit + 1));
+    if (execute(batch) && hedgeDelayNanos > 0) {
+      scheduler.schedule(() -> hedge(batch), hedgeDelayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void hedge(List<CachedScore> batch) {
+    List<CachedScore> unanswered = new ArrayList<>();
+    for (CachedScore pending : batch) {
+      if (!pending.score.isDone()) {
+        unanswered.add(pending);
+      }
+    }
+    if (unanswered.isEmpty()) {
+      return;
+    }
+    if (!takeHedgeCredit()) {
+      skippedHedges.increment();
+      return;
+    }
+    hedgedCalls.increment();
+    execute(unanswered);
+  }
+
+  private boolean takeHedgeCredit() {
+    for (int credit = hedgeCredit.get(); credit >= HEDGE_COST; credit = hedgeCredit.get()) {
+      if (hedgeCredit.compareAndSet(credit, credit - HEDGE_COST)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Hand a call to the callers, or fail it at once if they are all busy and their queue full. */
+  private boolean execute(List<CachedScore> batch) {
+    for (CachedScore pending : batch) {
+      pending.attempts.incrementAndGet();
+    }
+    try {
+      callers.execute(() -> call(batch));
+      return true;
+    } catch (RejectedExecutionException e) {
+      rejectedCalls.increment();
+      fail(batch, e);
+      return false;
+    }
+  }
+
+  private void call(List<CachedScore> pendingScores) {
+    // Answered by another attempt meanwhile, or abandoned by every caller
+    List<CachedScore> batch = new ArrayList<>(pendingScores.size());
+    for (CachedScore pending : pendingScores) {
+      if (!pending.score.isDone()) {
+        batch.add(pending);
+      } else {
+        pending.attempts.decrementAndGet();
+        if (pending.isAbandoned()) {
+          abandonedScores.increment();
+        }
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<ValidationRequest> requests = new ArrayList<>(batch.size());
+    for (CachedScore pending : batch) {
+      requests.add(pending.request);
+    }
+    apiCalls.increment();
+    long start = System.nanoTime();
+    try {
+      List<FraudAssessment> scores = api.score(requests);
+      if (scores.size() != batch.size()) {
+        throw new IllegalStateException(
+            "Fraud API returned " + scores.size() + " scores for " + batch.size() + " payments");
+      }
+      int responseTimeMs = (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).score.complete(new ApiScore(scores.get(i), responseTimeMs));
+        batch.get(i).attempts.decrementAndGet();
+      }
+    } catch (RuntimeException e) {
+      apiFailures.increment();
+      fail(batch, e);
+    }
+  }
+
+  private static void fail(List<CachedScore> batch, RuntimeException e) {
+    for (CachedScore pending : batch) {
+      // Another attempt for the payment may still answer; only the last one fails it
+      if (pending.attempts.decrementAndGet() == 0) {
+        pending.score.completeExceptionally(e);
+      }
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private FraudAssessment fallback(ValidationRequest request) {
+    fallbacks.increment();
+    return fallback.assess(request);
+  }
+
+  private static List<FraudApiMetrics> toMetrics(List<LatencyWindow<BusinessUnitKey>> windows) {
+    List<FraudApiMetrics> rows = new ArrayList<>(windows.size());
+    for (LatencyWindow<BusinessUnitKey> window : windows) {
+      // Every payment that failed or timed out was scored by the fallback
+      long fallbackCalls = window.getFailureCount() + window.getTimeoutCount();
+      rows.add(
+          new FraudApiMetrics(
+              window.getEnd(),
+              (int) window.getCallCount(),
+              (int) window.getSuccessCount(),
+              (int) window.getFailureCount(),
+              (int) window.getTimeoutCount(),
+              (int) fallbackCalls,
+              window.getMeanMillis(),
+              window.getPercentileMillis(95),
+              window.getPercentileMillis(99),
+              BigDecimal.valueOf(window.getErrorRatePercent()).setScale(2, RoundingMode.HALF_UP),
+              window.getKey().tenantId,
+              window.getKey().businessUnitId));
+    }
+    return rows;
+  }
+
+  /** Drop expired scores, then those closest to expiry while the cache is over its size. */
+  private void evictExpired() {
+    long now = System.nanoTime();
+    cache.values().removeIf(cached -> !cached.isFreshAt(now));
+    int excess = cache.size() - MAX_CACHED_SCORES;
+    if (excess <= 0) {
+      return;
+    }
+    List<Map.Entry<Fingerprint, CachedScore>> entries = new ArrayList<>(cache.entrySet());
+    entries.sort(
+        Comparator.comparingLong(
+            (Map.Entry<Fingerprint, CachedScore> entry) -> entry.getValue().expiresAtNanos - now));
+    for (int i = 0; i < excess && i < entries.size(); i++) {
+      cache.remove(entries.get(i).getKey(), entries.get(i).getValue());
+    }
+  }
+
+  private FraudDetectionLog logRow(
+      ValidationRequest request, FraudAssessment assessment, Integer responseTimeMs) {
+    TenantContext tenant = request.getTenantContext();
+    return new FraudDetectionLog(
+        request.getPaymentId().getValue(),
+        request.getCustomerId(),
+        assessment.getFraudScore(),
+        assessment.getRiskLevel(),
+        assessment.getRecommendation(),
+        assessment.getConfidence(),
+        assessment.getReasons(),
+        assessment.getModelVersion(),
+        responseTimeMs,
+        assessment.isFallbackUsed(),
+        assessment.isFallbackUsed() ? null : api.getProvider(),
+        Instant.now(),
+        tenant.getTenantId(),
+        tenant.getBusinessUnitId());
+  }
+
+  /**
+   * A score being fetched or fetched; failed scores are never fresh. Once every caller waiting for
+   * it has given up before it was fetched, it is abandoned: failed, and joined by no one else.
+   */
+  private static final class CachedScore {
+    private static final int ABANDONED = -1;
+
+    final ValidationRequest request;
+    final long expiresAtNanos;
+    final CompletableFuture<ApiScore> score = new CompletableFuture<>();
+    // API calls for the payment dispatched and not yet answered or failed
+    final AtomicInteger attempts = new AtomicInteger();
+    // Callers waiting for the score, starting with the one that created it
+    private final AtomicInteger waiters = new AtomicInteger(1);
+
+    CachedScore(ValidationRequest request, long expiresAtNanos) {
+      this.request = request;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    boolean isFreshAt(long nowNanos) {
+      return nowNanos - expiresAtNanos < 0 && !score.isCompletedExceptionally();
+    }
+
+    /** Wait for the score as well; false if it was abandoned. */
+    boolean join() {
+      for (int count = waiters.get(); count != ABANDONED; count = waiters.get()) {
+        if (waiters.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** A caller stopped waiting, with the score or without it. */
+    void leave() {
+      if (waiters.decrementAndGet() == 0
+          && !score.isDone()
+          && waiters.compareAndSet(0, ABANDONED)) {
+        score.completeExceptionally(new IllegalStateException("Every caller gave up waiting"));
+      }
+    }
+
+    boolean isAbandoned() {
+      return waiters.get() == ABANDONED;
+    }
+  }
+
+  private static final class ApiScore {
+    final FraudAssessment assessment;
+    final int responseTimeMs;
+
+    ApiScore(FraudAssessment assessment, int responseTimeMs) {
+      this.assessment = assessment;
+      this.responseTimeMs = responseTimeMs;
+    }
+  }
+
+  /** What makes two payments the same for scoring; the payment ID deliberately is not part. */
+  private static final class Fingerprint {
+    final String tenantId;
+    final String businessUnitId;
+    final String customerId;
+    final String paymentType;
+    final long amountMinorUnits;
+    final String currency;
+    final AccountNumber sourceAccount;
+    final AccountNumber destinationAccount;
+    final int hash;
+
+    private Fingerprint(ValidationRequest request) {
+      this.tenantId = request.getTenantContext().getTenantId();
+      this.businessUnitId = request.getTenantContext().getBusinessUnitId();
+      this.customerId = request.getCustomerId();
+      this.paymentType = request.getPaymentType();
+      this.amountMinorUnits = request.getAmount().toCompact().getMinorUnits();
+      this.currency = request.getAmount().getCurrency().getCurrencyCode();
+      this.sourceAccount = request.getSourceAccount();
+      this.destinationAccount = request.getDestinationAccount();
+      this.hash =
+          Objects.hash(
+              tenantId,
+              businessUnitId,
+              customerId,
+              paymentType,
+              amountMinorUnits,
+              currency,
+              sourceAccount,
+              destinationAccount);
+    }
+
+    static Fingerprint of(ValidationRequest request) {
+      return new Fingerprint(request);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Fingerprint)) {
+        return false;
+      }
+      Fingerprint other = (Fingerprint) o;
+      return hash == other.hash
+          && amountMinorUnits == other.amountMinorUnits
+          && tenantId.equals(other.tenantId)
+          && businessUnitId.equals(other.businessUnitId)
+          && Objects.equals(customerId, other.customerId)
+          && Objects.equals(paymentType, other.paymentType)
+          && currency.equals(other.currency)
+          && sourceAccount.equals(other.sourceAccount)
+          && destinationAccount.equals(other.destinationAccount);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.payments.domain.validation;
+
+/** A rule condition that cannot be parsed or does not fit the fields it names. */
+public class InvalidRuleConditionException extends RuntimeException {
+  public InvalidRuleConditionException(String message) {
+    super(message);
+  }
+
+  public InvalidRuleConditionException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,53 @@
+package com.payments.domain.validation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import javax.sql.DataSource;
+
+/** {@link FraudApiMetricsRepository} writing JDBC batch inserts (V3). */
+public class JdbcFraudApiMetricsRepository implements FraudApiMetricsRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO fraud_api_metrics (metric_timestamp, total_calls, successful_calls,"
+          + " failed_calls, timeout_calls, fallback_calls, avg_response_time_ms,"
+          + " p95_response_time_ms, p99_response_time_ms, error_rate, tenant_id,"
+          + " business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+
+  public JdbcFraudApiMetricsRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void saveAll(List<FraudApiMetrics> metrics) {
+    if (metrics.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (FraudApiMetrics row : metrics) {
+        statement.setTimestamp(1, Timestamp.from(row.getMetricTimestamp()));
+        statement.setInt(2, row.getTotalCalls());
+        statement.setInt(3, row.getSuccessfulCalls());
+        statement.setInt(4, row.getFailedCalls());
+        statement.setInt(5, row.getTimeoutCalls());
+        statement.setInt(6, row.getFallbackCalls());
+        statement.setInt(7, row.getAvgResponseTimeMs());
+        statement.setInt(8, row.getP95ResponseTimeMs());
+        statement.setInt(9, row.getP99ResponseTimeMs());
+        statement.setBigDecimal(10, row.getErrorRate());
+        statement.setString(11, row.getTenantId());
+        statement.setString(12, row.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to persist " + metrics.size() + " fraud API metrics rows", e);
+    }
+  }
+}
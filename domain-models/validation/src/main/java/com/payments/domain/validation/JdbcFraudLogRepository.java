@@ -0,0 +1,84 @@
+package com.payments.domain.validation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import javax.sql.DataSource;
+
+/** {@link FraudLogRepository} writing JDBC batch inserts into {@code fraud_detection_log} (V3). */
+public class JdbcFraudLogRepository implements FraudLogRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO fraud_detection_log (payment_id, customer_id, fraud_score, risk_level,"
+          + " recommendation, confidence, fraud_reasons, model_version, api_response_time_ms,"
+          + " fallback_used, api_provider, detected_at, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+
+  public JdbcFraudLogRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void saveAll(List<FraudDetectionLog> logs) {
+    if (logs.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (FraudDetectionLog log : logs) {
+        statement.setString(1, log.getPaymentId());
+        statement.setString(2, log.getCustomerId());
+        statement.setBigDecimal(3, log.getFraudScore());
+        statement.setString(4, log.getRiskLevel().name());
+        statement.setString(
+            5, log.getRecommendation() != null ? log.getRecommendation().name() : null);
+        statement.setBigDecimal(6, log.getConfidence());
+        statement.setString(7, toJsonArray(log.getFraudReasons()));
+        statement.setString(8, log.getModelVersion());
+        if (log.getApiResponseTimeMs() == null) {
+          statement.setNull(9, Types.INTEGER);
+        } else {
+          statement.setInt(9, log.getApiResponseTimeMs());
+        }
+        statement.setBoolean(10, log.isFallbackUsed());
+        statement.setString(11, log.getApiProvider());
+        statement.setTimestamp(12, Timestamp.from(log.getDetectedAt()));
+        statement.setString(13, log.getTenantId());
+        statement.setString(14, log.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to persist " + logs.size() + " fraud log rows", e);
+    }
+  }
+
+  private static String toJsonArray(List<String> values) {
+    if (values == null) {
+      return null;
+    }
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append('"');
+      for (char c : values.get(i).toCharArray()) {
+        if (c == '"' || c == '\\') {
+          json.append('\\').append(c);
+        } else if (c < 0x20) {
+          json.append(String.format("\\u%04x", (int) c));
+        } else {
+          json.append(c);
+        }
+      }
+      json.append('"');
+    }
+    return json.append(']').toString();
+  }
+}
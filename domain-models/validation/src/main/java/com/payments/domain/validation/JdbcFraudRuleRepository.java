@@ -0,0 +1,52 @@
+package com.payments.domain.validation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/** {@link FraudRuleRepository} over {@code fraud_rules} (V3). */
+public class JdbcFraudRuleRepository implements FraudRuleRepository {
+
+  private static final String FIND_ACTIVE_SQL =
+      "SELECT rule_id, rule_name, rule_type, rule_condition::text AS condition,"
+          + " risk_score_contribution, priority FROM fraud_rules"
+          + " WHERE tenant_id = ? AND business_unit_id = ? AND active = TRUE";
+
+  private final DataSource dataSource;
+
+  public JdbcFraudRuleRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public List<FraudRule> findActive(String tenantId, String businessUnitId) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_ACTIVE_SQL)) {
+      statement.setString(1, tenantId);
+      statement.setString(2, businessUnitId);
+      try (ResultSet rs = statement.executeQuery()) {
+        List<FraudRule> rules = new ArrayList<>();
+        while (rs.next()) {
+          rules.add(
+              new FraudRule(
+                  rs.getString("rule_id"),
+                  rs.getString("rule_name"),
+                  rs.getString("rule_type"),
+                  rs.getString("condition"),
+                  rs.getBigDecimal("risk_score_contribution"),
+                  rs.getInt("priority"),
+                  tenantId,
+                  businessUnitId));
+        }
+        return rules;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to load fraud rules of " + tenantId + "/" + businessUnitId, e);
+    }
+  }
+}
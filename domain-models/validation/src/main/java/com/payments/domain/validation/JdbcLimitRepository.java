@@ -0,0 +1,334 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * {@link LimitRepository} over the limit tables of V3.
+ *
+ * <p>The engine loads and flushes all customers at once, so the DataSource must connect as a role
+ * that is not subject to the tables' row-level security policies.
+ */
+public class JdbcLimitRepository implements LimitRepository {
+
+  private static final String FIND_LIMITS_SQL =
+      "SELECT customer_id, tenant_id, business_unit_id, daily_limit, monthly_limit,"
+          + " per_transaction_limit, max_transactions_per_day FROM customer_limits"
+          + " WHERE is_active = TRUE AND effective_from <= ?"
+          + " AND (effective_to IS NULL OR effective_to >= ?)";
+
+  private static final String FIND_TYPE_LIMITS_SQL =
+      "SELECT customer_id, payment_type, daily_limit, per_transaction_limit,"
+          + " max_transactions_per_day FROM payment_type_limits WHERE is_active = TRUE";
+
+  private static final String FIND_USAGE_SQL =
+      "SELECT customer_id, tenant_id, business_unit_id, usage_date, daily_used,"
+          + " daily_transaction_count, monthly_used, monthly_transaction_count"
+          + " FROM customer_limit_usage WHERE usage_date >= ?";
+
+  private static final String FIND_TYPE_USAGE_SQL =
+      "SELECT customer_id, tenant_id, business_unit_id, payment_type, usage_date, daily_used,"
+          + " daily_transaction_count FROM payment_type_limit_usage WHERE usage_date >= ?";
+
+  private static final String FIND_RESERVED_SQL =
+      "SELECT reservation_id, customer_id, tenant_id, business_unit_id, payment_id, payment_type,"
+          + " amount, reserved_at, expires_at FROM limit_reservations WHERE status = 'RESERVED'";
+
+  private static final String UPSERT_RESERVATION_SQL =
+      "INSERT INTO limit_reservations (reservation_id, customer_id, payment_id, amount,"
+          + " payment_type, status, reserved_at, expires_at, consumed_at, released_at,"
+          + " tenant_id, business_unit_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (payment_id) DO UPDATE SET"
+          + " reservation_id = EXCLUDED.reservation_id, amount = EXCLUDED.amount,"
+          + " payment_type = EXCLUDED.payment_type, status = EXCLUDED.status,"
+          + " reserved_at = EXCLUDED.reserved_at, expires_at = EXCLUDED.expires_at,"
+          + " consumed_at = EXCLUDED.consumed_at, released_at = EXCLUDED.released_at";
+
+  private static final String UPSERT_USAGE_SQL =
+      "INSERT INTO customer_limit_usage (customer_id, usage_date, daily_used,"
+          + " daily_transaction_count, monthly_used, monthly_transaction_count, last_updated,"
+          + " tenant_id, business_unit_id) VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, ?, ?)"
+          + " ON CONFLICT (customer_id, usage_date) DO UPDATE SET"
+          + " daily_used = EXCLUDED.daily_used,"
+          + " daily_transaction_count = EXCLUDED.daily_transaction_count,"
+          + " monthly_used = EXCLUDED.monthly_used,"
+          + " monthly_transaction_count = EXCLUDED.monthly_transaction_count,"
+          + " last_updated = EXCLUDED.last_updated";
+
+  private static final String UPSERT_TYPE_USAGE_SQL =
+      "INSERT INTO payment_type_limit_usage (customer_id, payment_type, usage_date, daily_used,"
+          + " daily_transaction_count, last_updated, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, ?, ?)"
+          + " ON CONFLICT (customer_id, payment_type, usage_date) DO UPDATE SET"
+          + " daily_used = EXCLUDED.daily_used,"
+          + " daily_transaction_count = EXCLUDED.daily_transaction_count,"
+          + " last_updated = EXCLUDED.last_updated";
+
+  private static final String INSERT_HISTORY_SQL =
+      "INSERT INTO limit_usage_history (customer_id, payment_id, payment_type, amount, operation,"
+          + " daily_used_before, daily_used_after, monthly_used_before, monthly_used_after,"
+          + " occurred_at, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final DataSource dataSource;
+
+  public JdbcLimitRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public List<CustomerLimits> findActiveLimits(LocalDate date) {
+    try (Connection connection = dataSource.getConnection()) {
+      Map<String, List<PaymentTypeLimit>> typeLimits = new HashMap<>();
+      try (PreparedStatement statement = connection.prepareStatement(FIND_TYPE_LIMITS_SQL);
+          ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          typeLimits
+              .computeIfAbsent(rs.getString("customer_id"), id -> new ArrayList<>())
+              .add(
+                  new PaymentTypeLimit(
+                      rs.getString("payment_type"),
+                      rs.getBigDecimal("daily_limit"),
+                      rs.getBigDecimal("per_transaction_limit"),
+                      getInteger(rs, "max_transactions_per_day")));
+        }
+      }
+      try (PreparedStatement statement = connection.prepareStatement(FIND_LIMITS_SQL)) {
+        statement.setDate(1, Date.valueOf(date));
+        statement.setDate(2, Date.valueOf(date));
+        try (ResultSet rs = statement.executeQuery()) {
+          List<CustomerLimits> limits = new ArrayList<>();
+          while (rs.next()) {
+            String customerId = rs.getString("customer_id");
+            limits.add(
+                new CustomerLimits(
+                    customerId,
+                    rs.getString("tenant_id"),
+                    rs.getString("business_unit_id"),
+                    rs.getBigDecimal("daily_limit"),
+                    rs.getBigDecimal("monthly_limit"),
+                    rs.getBigDecimal("per_transaction_limit"),
+                    getInteger(rs, "max_transactions_per_day"),
+                    typeLimits.getOrDefault(customerId, List.of())));
+          }
+          return limits;
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to load customer limits", e);
+    }
+  }
+
+  @Override
+  public List<LimitUsage> findUsageSince(LocalDate from) {
+    try (Connection connection = dataSource.getConnection()) {
+      List<LimitUsage> usage = new ArrayList<>();
+      try (PreparedStatement statement = connection.prepareStatement(FIND_USAGE_SQL)) {
+        statement.setDate(1, Date.valueOf(from));
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            usage.add(
+                new LimitUsage(
+                    rs.getString("customer_id"),
+                    rs.getString("tenant_id"),
+                    rs.getString("business_unit_id"),
+                    null,
+                    rs.getDate("usage_date").toLocalDate(),
+                    rs.getBigDecimal("daily_used"),
+                    rs.getInt("daily_transaction_count"),
+                    rs.getBigDecimal("monthly_used"),
+                    rs.getInt("monthly_transaction_count")));
+          }
+        }
+      }
+      try (PreparedStatement statement = connection.prepareStatement(FIND_TYPE_USAGE_SQL)) {
+        statement.setDate(1, Date.valueOf(from));
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            usage.add(
+                new LimitUsage(
+                    rs.getString("customer_id"),
+                    rs.getString("tenant_id"),
+                    rs.getString("business_unit_id"),
+                    rs.getString("payment_type"),
+                    rs.getDate("usage_date").toLocalDate(),
+                    rs.getBigDecimal("daily_used"),
+                    rs.getInt("daily_transaction_count"),
+                    BigDecimal.ZERO,
+                    0));
+          }
+        }
+      }
+      return usage;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to load limit usage since " + from, e);
+    }
+  }
+
+  @Override
+  public List<LimitReservation> findReserved() {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_RESERVED_SQL);
+        ResultSet rs = statement.executeQuery()) {
+      List<LimitReservation> reservations = new ArrayList<>();
+      while (rs.next()) {
+        reservations.add(
+            new LimitReservation(
+                rs.getString("reservation_id"),
+                rs.getString("customer_id"),
+                rs.getString("tenant_id"),
+                rs.getString("business_unit_id"),
+                PaymentId.of(rs.getString("payment_id")),
+                rs.getString("payment_type"),
+                rs.getBigDecimal("amount"),
+                LimitReservationStatus.RESERVED,
+                rs.getTimestamp("reserved_at").toInstant(),
+                rs.getTimestamp("expires_at").toInstant(),
+                null,
+                null));
+      }
+      return reservations;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to load limit reservations", e);
+    }
+  }
+
+  @Override
+  public void saveState(List<LimitReservation> reservations, List<LimitUsage> usage) {
+    if (reservations.isEmpty() && usage.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        saveReservations(connection, reservations);
+        saveUsage(connection, usage);
+        connection.commit();
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to save " + reservations.size() + " limit reservations", e);
+    }
+  }
+
+  @Override
+  public void addHistory(List<LimitUsageHistory> history) {
+    if (history.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_HISTORY_SQL)) {
+      for (LimitUsageHistory entry : history) {
+        statement.setString(1, entry.getCustomerId());
+        statement.setString(2, entry.getPaymentId().getValue());
+        statement.setString(3, entry.getPaymentType());
+        statement.setBigDecimal(4, entry.getAmount());
+        statement.setString(5, entry.getOperation().name());
+        statement.setBigDecimal(6, entry.getDailyUsedBefore());
+        statement.setBigDecimal(7, entry.getDailyUsedAfter());
+        statement.setBigDecimal(8, entry.getMonthlyUsedBefore());
+        statement.setBigDecimal(9, entry.getMonthlyUsedAfter());
+        statement.setTimestamp(10, Timestamp.from(entry.getOccurredAt()));
+        statement.setString(11, entry.getTenantId());
+        statement.setString(12, entry.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to insert " + history.size() + " limit history rows", e);
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static void saveReservations(Connection connection, List<LimitReservation> reservations)
+      throws SQLException {
+    if (reservations.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement statement = connection.prepareStatement(UPSERT_RESERVATION_SQL)) {
+      for (LimitReservation reservation : reservations) {
+        statement.setString(1, reservation.getReservationId());
+        statement.setString(2, reservation.getCustomerId());
+        statement.setString(3, reservation.getPaymentId().getValue());
+        statement.setBigDecimal(4, reservation.getAmount());
+        statement.setString(5, reservation.getPaymentType());
+        statement.setString(6, reservation.getStatus().name());
+        statement.setTimestamp(7, Timestamp.from(reservation.getReservedAt()));
+        statement.setTimestamp(8, Timestamp.from(reservation.getExpiresAt()));
+        statement.setTimestamp(9, toTimestamp(reservation.getConsumedAt()));
+        statement.setTimestamp(10, toTimestamp(reservation.getReleasedAt()));
+        statement.setString(11, reservation.getTenantId());
+        statement.setString(12, reservation.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static void saveUsage(Connection connection, List<LimitUsage> usage) throws SQLException {
+    try (PreparedStatement customerRows = connection.prepareStatement(UPSERT_USAGE_SQL);
+        PreparedStatement typeRows = connection.prepareStatement(UPSERT_TYPE_USAGE_SQL)) {
+      boolean customerBatch = false;
+      boolean typeBatch = false;
+      for (LimitUsage row : usage) {
+        if (row.getPaymentType() == null) {
+          customerRows.setString(1, row.getCustomerId());
+          customerRows.setDate(2, Date.valueOf(row.getUsageDate()));
+          customerRows.setBigDecimal(3, row.getDailyUsed());
+          customerRows.setInt(4, row.getDailyTransactionCount());
+          customerRows.setBigDecimal(5, row.getMonthlyUsed());
+          customerRows.setInt(6, row.getMonthlyTransactionCount());
+          customerRows.setString(7, row.getTenantId());
+          customerRows.setString(8, row.getBusinessUnitId());
+          customerRows.addBatch();
+          customerBatch = true;
+        } else {
+          typeRows.setString(1, row.getCustomerId());
+          typeRows.setString(2, row.getPaymentType());
+          typeRows.setDate(3, Date.valueOf(row.getUsageDate()));
+          typeRows.setBigDecimal(4, row.getDailyUsed());
+          typeRows.setInt(5, row.getDailyTransactionCount());
+          typeRows.setString(6, row.getTenantId());
+          typeRows.setString(7, row.getBusinessUnitId());
+          typeRows.addBatch();
+          typeBatch = true;
+        }
+      }
+      if (customerBatch) {
+        customerRows.executeBatch();
+      }
+      if (typeBatch) {
+        typeRows.executeBatch();
+      }
+    }
+  }
+
+  private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+    int value = rs.getInt(column);
+    return rs.wasNull() ? null : value;
+  }
+
+  private static Timestamp toTimestamp(Instant instant) {
+    return instant != null ? Timestamp.from(instant) : null;
+  }
+}
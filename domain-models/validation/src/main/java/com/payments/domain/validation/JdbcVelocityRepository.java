@@ -0,0 +1,95 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * {@link VelocityRepository} over the {@code HOURLY} rows of {@code velocity_tracking} (V3, keyed
+ * for upserts by V8).
+ *
+ * <p>Flushes span tenants, so the DataSource must connect as a role that is not subject to the
+ * table's row-level security policy.
+ */
+public class JdbcVelocityRepository implements VelocityRepository {
+
+  private static final Duration HOUR = Duration.ofHours(1);
+
+  private static final String FIND_HOURLY_SQL =
+      "SELECT window_start, transaction_count, total_amount, business_unit_id"
+          + " FROM velocity_tracking WHERE tenant_id = ? AND account_number = ?"
+          + " AND window_type = 'HOURLY' AND window_start >= ? ORDER BY window_start";
+
+  private static final String ADD_HOURLY_SQL =
+      "INSERT INTO velocity_tracking (account_number, transaction_count, total_amount,"
+          + " window_start, window_end, window_type, tenant_id, business_unit_id)"
+          + " VALUES (?, ?, ?, ?, ?, 'HOURLY', ?, ?)"
+          + " ON CONFLICT (tenant_id, account_number, window_type, window_start) DO UPDATE SET"
+          + " transaction_count = velocity_tracking.transaction_count"
+          + " + EXCLUDED.transaction_count,"
+          + " total_amount = velocity_tracking.total_amount + EXCLUDED.total_amount";
+
+  private final DataSource dataSource;
+
+  public JdbcVelocityRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public List<VelocityTally> findHourly(
+      String tenantId, AccountNumber accountNumber, Instant since) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(FIND_HOURLY_SQL)) {
+      statement.setString(1, tenantId);
+      statement.setString(2, accountNumber.getValue());
+      statement.setTimestamp(3, Timestamp.from(since));
+      try (ResultSet rs = statement.executeQuery()) {
+        List<VelocityTally> tallies = new ArrayList<>();
+        while (rs.next()) {
+          tallies.add(
+              new VelocityTally(
+                  tenantId,
+                  rs.getString("business_unit_id"),
+                  accountNumber,
+                  rs.getTimestamp("window_start").toInstant(),
+                  rs.getInt("transaction_count"),
+                  rs.getBigDecimal("total_amount")));
+        }
+        return tallies;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to load velocity of " + accountNumber.getValue(), e);
+    }
+  }
+
+  @Override
+  public void addHourly(List<VelocityTally> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(ADD_HOURLY_SQL)) {
+      for (VelocityTally delta : deltas) {
+        statement.setString(1, delta.getAccountNumber().getValue());
+        statement.setInt(2, delta.getCount());
+        statement.setBigDecimal(3, delta.getAmount());
+        statement.setTimestamp(4, Timestamp.from(delta.getHourStart()));
+        statement.setTimestamp(5, Timestamp.from(delta.getHourStart().plus(HOUR)));
+        statement.setString(6, delta.getTenantId());
+        statement.setString(7, delta.getBusinessUnitId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to flush " + deltas.size() + " velocity tallies", e);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.payments.domain.validation;
+
+import lombok.Getter;
+
+/** A reservation would take a customer over one of their limits. */
+public class LimitExceededException extends RuntimeException {
+
+  /** e.g. {@code DAILY_LIMIT}, {@code EFT_DAILY_COUNT} */
+  @Getter private final String limitName;
+
+  public LimitExceededException(String limitName, String message) {
+    super(message);
+    this.limitName = limitName;
+  }
+}
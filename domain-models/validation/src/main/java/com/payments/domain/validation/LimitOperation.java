@@ -0,0 +1,8 @@
+package com.payments.domain.validation;
+
+/** Operation recorded in {@code limit_usage_history}; an expiry is recorded as a release. */
+public enum LimitOperation {
+  RESERVE,
+  CONSUME,
+  RELEASE
+}
@@ -0,0 +1,28 @@
+package com.payments.domain.validation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository port: {@code customer_limits}, {@code payment_type_limits}, their usage tables, {@code
+ * limit_reservations} and {@code limit_usage_history}.
+ */
+public interface LimitRepository {
+
+  /** Limits of all customers active on {@code date}, with their active payment type limits. */
+  List<CustomerLimits> findActiveLimits(LocalDate date);
+
+  /** Customer and payment type usage rows dated {@code from} or later. */
+  List<LimitUsage> findUsageSince(LocalDate from);
+
+  /** Reservations still in status {@code RESERVED}, expired or not. */
+  List<LimitReservation> findReserved();
+
+  /**
+   * Upsert the reservations (one row per payment) and the usage rows in one transaction, so a
+   * rebuild sees both as of the same flush.
+   */
+  void saveState(List<LimitReservation> reservations, List<LimitUsage> usage);
+
+  void addHistory(List<LimitUsageHistory> history);
+}
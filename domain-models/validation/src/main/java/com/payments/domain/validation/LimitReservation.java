@@ -0,0 +1,24 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.*;
+
+/** Hold of a payment's amount on its customer's limits: a {@code limit_reservations} row. */
+@Value
+@AllArgsConstructor
+public class LimitReservation {
+  String reservationId;
+  String customerId;
+  String tenantId;
+  String businessUnitId;
+  PaymentId paymentId;
+  String paymentType;
+  BigDecimal amount;
+  LimitReservationStatus status;
+  Instant reservedAt;
+  Instant expiresAt;
+  Instant consumedAt;
+  Instant releasedAt; // also set when expired
+}
@@ -0,0 +1,873 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory limit reservations per customer
+ *
+ * <p>Replaces {@code check_customer_limit()} and the usage row updates per payment:
+ *
+ * <ul>
+ *   <li>a customer's daily, monthly and per payment type usage are atomic counters; a reservation
+ *       adds to each with a compare-and-set that fails rather than go over the limit, and takes
+ *       back what it already added when a later limit fails. Payments of one customer never wait
+ *       for a lock, and concurrent reservations can never take the customer over a limit together
+ *   <li>reservations neither consumed nor released within the TTL expire on a timer
+ *   <li>reservations and usage rows are upserted in the background, and every operation is appended
+ *       to {@code limit_usage_history}
+ *   <li>a new engine rebuilds its counters from the tables: the usage rows plus the reservations
+ *       still {@code RESERVED}
+ * </ul>
+ *
+ * <p>The counters include outstanding reservations; the usage tables hold consumed amounts only, as
+ * {@code check_customer_limit()} reads them. A reservation stays on the day and month it was made
+ * in, also when consumed after midnight. Amounts are compared in minor units; limits are in the
+ * customer's currency. A failing reservation may briefly hold back a concurrent one that would have
+ * fit.
+ *
+ * <p>One engine must own all reservations of a customer. Operations not yet flushed when the
+ * process dies are missing after the restart; a payment consumed during the last flush may be
+ * counted twice, but never not at all.
+ */
+public class LimitReservationEngine implements AutoCloseable {
+
+  // Per counter of reserve(); the first two are prefixed with the payment type
+  private static final String[] LIMIT_NAMES = {
+    "DAILY_LIMIT", "DAILY_COUNT", "DAILY_LIMIT", "DAILY_COUNT", "MONTHLY_LIMIT"
+  };
+
+  private final ConcurrentHashMap<String, CustomerState> customers = new ConcurrentHashMap<>();
+  // Outstanding reservations only; settled ones are kept until the next flush writes them
+  private final ConcurrentHashMap<String, Hold> byReservationId = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<PaymentId, Hold> byPaymentId = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, Set<Hold>> expiryBuckets = new ConcurrentHashMap<>();
+  private final Set<Hold> dirtyHolds = ConcurrentHashMap.newKeySet();
+  private final Set<DayUsage> dirtyDays = ConcurrentHashMap.newKeySet();
+
+  private final LimitRepository repository;
+  private final long ttlMillis;
+  private final Clock clock;
+  private final ZoneId zone;
+  private final AsyncBatchWriter<LimitUsageHistory> historyWriter;
+  private final ScheduledExecutorService flusher;
+  private long lastCleanupMillis;
+
+  private final LongAdder reservations = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder flushFailures = new LongAdder();
+
+  public LimitReservationEngine(LimitRepository repository) {
+    this(repository, Duration.ofMinutes(15), Duration.ofSeconds(1), Clock.systemDefaultZone());
+  }
+
+  /**
+   * @param flushInterval how often reservations are expired and the tables updated
+   */
+  public LimitReservationEngine(
+      LimitRepository repository, Duration reservationTtl, Duration flushInterval, Clock clock) {
+    this.repository = repository;
+    this.ttlMillis = reservationTtl.toMillis();
+    this.clock = clock;
+    this.zone = clock.getZone();
+    this.historyWriter =
+        new AsyncBatchWriter<>(
+            "limit-history-writer", 65_536, 500, Duration.ofMillis(200), repository::addHistory);
+    rebuild();
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "limit-reservation-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = flushInterval.toMillis();
+    flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // RESERVATIONS
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Hold {@code amount} on the customer's per-transaction, daily, monthly and payment type limits.
+   * Reserving again for a payment while its reservation is outstanding returns that reservation.
+   *
+   * @throws LimitExceededException if the amount does not fit one of the limits
+   */
+  public LimitReservation reserve(
+      String customerId, PaymentId paymentId, String paymentType, Money amount) {
+    long amountMinorUnits = amount.toCompact().getMinorUnits();
+    if (amountMinorUnits <= 0) {
+      throw new IllegalArgumentException("Reservation amount must be positive: " + amount);
+    }
+    CustomerState customer = customer(customerId);
+    Hold existing = byPaymentId.get(paymentId);
+    if (existing != null) {
+      return existing.snapshot();
+    }
+
+    long now = clock.millis();
+    Limits limits = customer.limits;
+    TypeLimit typeLimit = limits.types.getOrDefault(paymentType, TypeLimit.NONE);
+    if (amountMinorUnits > limits.perTransaction) {
+      throw rejected(customer, "PER_TRANSACTION_LIMIT", amountMinorUnits, limits.perTransaction);
+    }
+    if (amountMinorUnits > typeLimit.perTransaction) {
+      throw rejected(
+          customer,
+          paymentType + "_PER_TRANSACTION_LIMIT",
+          amountMinorUnits,
+          typeLimit.perTransaction);
+    }
+
+    DayUsage day = customer.day(now);
+    TypeUsage type = day.type(paymentType);
+    AtomicLong[] counters = {
+      type.usedAmount, type.usedCount, day.usedAmount, day.usedCount, day.month.usedAmount
+    };
+    long[] deltas = {amountMinorUnits, 1, amountMinorUnits, 1, amountMinorUnits};
+    long[] maxima = {
+      typeLimit.daily, typeLimit.dailyCount, limits.daily, limits.dailyCount, limits.monthly
+    };
+    long[] before = new long[counters.length];
+    for (int i = 0; i < counters.length; i++) {
+      before[i] = tryAdd(counters[i], deltas[i], maxima[i]);
+      if (before[i] < 0) {
+        giveBack(counters, deltas, i);
+        String limitName = i < 2 ? paymentType + "_" + LIMIT_NAMES[i] : LIMIT_NAMES[i];
+        throw rejected(customer, limitName, amountMinorUnits, maxima[i]);
+      }
+    }
+
+    Hold hold =
+        new Hold(
+            Ids.next("LRS-"),
+            customer,
+            day,
+            paymentId,
+            paymentType,
+            amountMinorUnits,
+            now,
+            now + ttlMillis);
+    Hold raced = byPaymentId.putIfAbsent(paymentId, hold);
+    if (raced != null) {
+      giveBack(counters, deltas, counters.length);
+      return raced.snapshot();
+    }
+    day.outstanding.incrementAndGet();
+    byReservationId.put(hold.reservationId, hold);
+    schedule(hold);
+    dirtyHolds.add(hold);
+    reservations.increment();
+    long dailyBefore = before[2];
+    long monthlyBefore = before[4];
+    record(
+        hold,
+        LimitOperation.RESERVE,
+        dailyBefore,
+        dailyBefore + amountMinorUnits,
+        monthlyBefore,
+        monthlyBefore + amountMinorUnits,
+        now);
+    return hold.snapshot();
+  }
+
+  /**
+   * Turn an outstanding reservation into usage once its payment is executed.
+   *
+   * @throws IllegalArgumentException if the reservation is unknown or no longer outstanding
+   * @throws IllegalStateException if the reservation expired or was released meanwhile
+   */
+  public LimitReservation consume(String reservationId) {
+    Hold hold = byReservationId.get(reservationId);
+    if (hold == null) {
+      throw new IllegalArgumentException("No outstanding limit reservation " + reservationId);
+    }
+    long now = clock.millis();
+    if (now >= hold.expiresAtMillis) {
+      settle(hold, LimitReservationStatus.EXPIRED, now);
+    }
+    if (hold.outcome.compareAndSet(
+        Outcome.RESERVED, new Outcome(LimitReservationStatus.CONSUMED, now))) {
+      forget(hold);
+      DayUsage day = hold.day;
+      day.consumedAmount.addAndGet(hold.amountMinorUnits);
+      day.consumedCount.incrementAndGet();
+      day.month.consumedAmount.addAndGet(hold.amountMinorUnits);
+      day.month.consumedCount.incrementAndGet();
+      hold.type.consumedAmount.addAndGet(hold.amountMinorUnits);
+      hold.type.consumedCount.incrementAndGet();
+      hold.usageApplied = true;
+      day.outstanding.decrementAndGet();
+      dirtyDays.add(day);
+      dirtyHolds.add(hold);
+      long daily = day.usedAmount.get();
+      long monthly = day.month.usedAmount.get();
+      record(hold, LimitOperation.CONSUME, daily, daily, monthly, monthly, now);
+      return hold.snapshot();
+    }
+    throw new IllegalStateException(
+        "Limit reservation " + reservationId + " is " + hold.outcome.get().status);
+  }
+
+  /**
+   * Give an outstanding reservation back, e.g. when its payment is rejected downstream.
+   *
+   * @return false if the reservation is unknown or no longer outstanding
+   */
+  public boolean release(String reservationId) {
+    Hold hold = byReservationId.get(reservationId);
+    return hold != null && settle(hold, LimitReservationStatus.RELEASED, clock.millis());
+  }
+
+  /**
+   * Give back the outstanding reservation of a payment, e.g. one made by a validation stage whose
+   * result was discarded.
+   *
+   * @return false if the payment has no outstanding reservation
+   */
+  public boolean releasePayment(PaymentId paymentId) {
+    Hold hold = byPaymentId.get(paymentId);
+    return hold != null && settle(hold, LimitReservationStatus.RELEASED, clock.millis());
+  }
+
+  public Optional<LimitReservation> getOutstandingReservation(String reservationId) {
+    Hold hold = byReservationId.get(reservationId);
+    return hold == null ? Optional.empty() : Optional.of(hold.snapshot());
+  }
+
+  /** Today's consumed usage of the customer, as it is written to {@code customer_limit_usage}. */
+  public LimitUsage getUsage(String customerId) {
+    List<LimitUsage> rows = new ArrayList<>();
+    customer(customerId).day(clock.millis()).addRows(rows);
+    return rows.get(0);
+  }
+
+  /** Add a customer or replace their limits; usage and reservations are kept. */
+  public void putLimits(CustomerLimits limits) {
+    Limits compiled = new Limits(limits);
+    customers.compute(
+        limits.getCustomerId(),
+        (id, customer) -> {
+          if (customer == null) {
+            return new CustomerState(limits, compiled, zone);
+          }
+          customer.limits = compiled;
+          return customer;
+        });
+  }
+
+  public long getReservationCount() {
+    return reservations.sum();
+  }
+
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  public long getExpirationCount() {
+    return expirations.sum();
+  }
+
+  public long getFlushFailureCount() {
+    return flushFailures.sum();
+  }
+
+  /** History rows that could not be queued because the writer was saturated. */
+  public long getHistoryDroppedCount() {
+    return historyWriter.getDroppedCount();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // EXPIRY AND WRITE-BACK
+  // ─────────────────────────────────────────────────────────
+
+  /** Expire the reservations past their TTL now; otherwise done on every flush. */
+  public synchronized void expireOverdue() {
+    long now = clock.millis();
+    long dueBucket = Math.floorDiv(now, 1000);
+    for (Long bucket : expiryBuckets.keySet()) {
+      if (bucket > dueBucket) {
+        continue;
+      }
+      Set<Hold> holds = expiryBuckets.remove(bucket);
+      if (holds != null) {
+        for (Hold hold : holds) {
+          settle(hold, LimitReservationStatus.EXPIRED, now);
+        }
+      }
+    }
+  }
+
+  /** Upsert the reservations and usage rows changed since the last flush now. */
+  public synchronized void flush() {
+    List<Hold> holds = drain(dirtyHolds);
+    List<DayUsage> days = drain(dirtyDays);
+    List<LimitReservation> reservationRows = new ArrayList<>(holds.size());
+    for (Hold hold : holds) {
+      reservationRows.add(hold.persistentSnapshot());
+    }
+    // Read after the reservations: a consume in between is then in both, rather than in neither
+    List<LimitUsage> usageRows = new ArrayList<>();
+    for (DayUsage day : days) {
+      day.addRows(usageRows);
+    }
+    try {
+      repository.saveState(reservationRows, usageRows);
+    } catch (RuntimeException e) {
+      dirtyHolds.addAll(holds);
+      dirtyDays.addAll(days);
+      throw e;
+    }
+    dropPastDays();
+  }
+
+  @Override
+  public void close() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    historyWriter.close();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void flushQuietly() {
+    try {
+      expireOverdue();
+      flush();
+    } catch (RuntimeException e) {
+      // Kept for the next flush
+      flushFailures.increment();
+    }
+  }
+
+  private CustomerState customer(String customerId) {
+    CustomerState customer = customers.get(customerId);
+    if (customer == null) {
+      throw new IllegalArgumentException("No active limits for customer " + customerId);
+    }
+    return customer;
+  }
+
+  /** File an outstanding reservation under the second after which it is overdue. */
+  private void schedule(Hold hold) {
+    while (true) {
+      Set<Hold> bucket = expiryBuckets.get(hold.expiryBucket);
+      if (bucket == null) {
+        bucket =
+            expiryBuckets.computeIfAbsent(hold.expiryBucket, b -> ConcurrentHashMap.newKeySet());
+      }
+      bucket.add(hold);
+      // Again if a sweep took the bucket in between, unless it has settled the reservation
+      if (expiryBuckets.get(hold.expiryBucket) == bucket
+          || hold.outcome.get() != Outcome.RESERVED) {
+        return;
+      }
+    }
+  }
+
+  private void forget(Hold hold) {
+    byReservationId.remove(hold.reservationId, hold);
+    byPaymentId.remove(hold.paymentId, hold);
+    Set<Hold> bucket = expiryBuckets.get(hold.expiryBucket);
+    if (bucket != null) {
+      bucket.remove(hold);
+    }
+  }
+
+  /** Release or expire a reservation still held; false if it was already settled. */
+  private boolean settle(Hold hold, LimitReservationStatus status, long now) {
+    if (!hold.outcome.compareAndSet(Outcome.RESERVED, new Outcome(status, now))) {
+      return false;
+    }
+    forget(hold);
+    DayUsage day = hold.day;
+    hold.type.usedAmount.addAndGet(-hold.amountMinorUnits);
+    hold.type.usedCount.decrementAndGet();
+    long dailyAfter = day.usedAmount.addAndGet(-hold.amountMinorUnits);
+    day.usedCount.decrementAndGet();
+    long monthlyAfter = day.month.usedAmount.addAndGet(-hold.amountMinorUnits);
+    day.outstanding.decrementAndGet();
+    dirtyHolds.add(hold);
+    if (status == LimitReservationStatus.EXPIRED) {
+      expirations.increment();
+    }
+    record(
+        hold,
+        LimitOperation.RELEASE,
+        dailyAfter + hold.amountMinorUnits,
+        dailyAfter,
+        monthlyAfter + hold.amountMinorUnits,
+        monthlyAfter,
+        now);
+    return true;
+  }
+
+  private void record(
+      Hold hold,
+      LimitOperation operation,
+      long dailyBefore,
+      long dailyAfter,
+      long monthlyBefore,
+      long monthlyAfter,
+      long now) {
+    CustomerState customer = hold.customer;
+    historyWriter.offer(
+        new LimitUsageHistory(
+            customer.customerId,
+            customer.tenantId,
+            customer.businessUnitId,
+            hold.paymentId,
+            hold.paymentType,
+            decimal(hold.amountMinorUnits),
+            operation,
+            decimal(dailyBefore),
+            decimal(dailyAfter),
+            decimal(monthlyBefore),
+            decimal(monthlyAfter),
+            Instant.ofEpochMilli(now)));
+  }
+
+  private LimitExceededException rejected(
+      CustomerState customer, String limitName, long amountMinorUnits, long limit) {
+    rejections.increment();
+    String detail =
+        limitName.endsWith("_COUNT")
+            ? "at most " + limit + " payments per day"
+            : "payment of " + decimal(amountMinorUnits) + " does not fit " + decimal(limit);
+    return new LimitExceededException(
+        limitName, limitName + " exceeded for customer " + customer.customerId + ": " + detail);
+  }
+
+  /** Rebuild the counters from the tables; runs before the engine is shared. */
+  private void rebuild() {
+    long now = clock.millis();
+    LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+    for (CustomerLimits limits : repository.findActiveLimits(today)) {
+      putLimits(limits);
+    }
+
+    List<Hold> restored = new ArrayList<>();
+    LocalDate from = today.withDayOfMonth(1);
+    for (LimitReservation reservation : repository.findReserved()) {
+      CustomerState customer = customers.get(reservation.getCustomerId());
+      if (customer == null) {
+        continue;
+      }
+      LocalDate date = LocalDate.ofInstant(reservation.getReservedAt(), zone);
+      Hold hold =
+          new Hold(
+              reservation.getReservationId(),
+              customer,
+              customer.dayOn(date),
+              reservation.getPaymentId(),
+              reservation.getPaymentType(),
+              minorUnits(reservation.getAmount()),
+              reservation.getReservedAt().toEpochMilli(),
+              reservation.getExpiresAt().toEpochMilli());
+      restored.add(hold);
+      if (date.withDayOfMonth(1).isBefore(from)) {
+        from = date.withDayOfMonth(1);
+      }
+    }
+
+    // Usage of today and of the days reservations were made on; the latest row of each month
+    for (LimitUsage row : repository.findUsageSince(from)) {
+      CustomerState customer = customers.get(row.getCustomerId());
+      if (customer != null) {
+        customer.restore(row, today);
+      }
+    }
+    for (CustomerState customer : customers.values()) {
+      for (DayUsage day : customer.days.values()) {
+        day.usedAmount.set(day.consumedAmount.get());
+        day.usedCount.set(day.consumedCount.get());
+        for (TypeUsage type : day.types.values()) {
+          type.usedAmount.set(type.consumedAmount.get());
+          type.usedCount.set(type.consumedCount.get());
+        }
+      }
+      for (MonthUsage month : customer.months.values()) {
+        month.usedAmount.set(month.consumedAmount.get());
+      }
+    }
+
+    for (Hold hold : restored) {
+      hold.type.usedAmount.addAndGet(hold.amountMinorUnits);
+      hold.type.usedCount.incrementAndGet();
+      hold.day.usedAmount.addAndGet(hold.amountMinorUnits);
+      hold.day.usedCount.incrementAndGet();
+      hold.day.month.usedAmount.addAndGet(hold.amountMinorUnits);
+      hold.day.outstanding.incrementAndGet();
+      byReservationId.put(hold.reservationId, hold);
+      byPaymentId.put(hold.paymentId, hold);
+      schedule(hold);
+    }
+    lastCleanupMillis = now;
+    expireOverdue();
+  }
+
+  /** Once a day, drop the counters of past days and months nothing refers to anymore. */
+  private void dropPastDays() {
+    long now = clock.millis();
+    if (LocalDate.ofInstant(Instant.ofEpochMilli(now), zone)
+        .equals(LocalDate.ofInstant(Instant.ofEpochMilli(lastCleanupMillis), zone))) {
+      return;
+    }
+    lastCleanupMillis = now;
+    for (CustomerState customer : customers.values()) {
+      customer
+          .days
+          .values()
+          .removeIf(
+              day ->
+                  day.endMillis <= now && day.outstanding.get() == 0 && !dirtyDays.contains(day));
+      customer
+          .months
+          .values()
+          .removeIf(
+              month ->
+                  month.endMillis <= now
+                      && customer.days.values().stream().noneMatch(day -> day.month == month));
+    }
+  }
+
+  /** Add {@code delta} unless the counter would exceed {@code max}; the previous value, or -1. */
+  private static long tryAdd(AtomicLong counter, long delta, long max) {
+    while (true) {
+      long current = counter.get();
+      if (current > max - delta) {
+        return -1;
+      }
+      if (counter.compareAndSet(current, current + delta)) {
+        return current;
+      }
+    }
+  }
+
+  private static void giveBack(AtomicLong[] counters, long[] deltas, int count) {
+    for (int i = 0; i < count; i++) {
+      counters[i].addAndGet(-deltas[i]);
+    }
+  }
+
+  private static <T> List<T> drain(Set<T> dirty) {
+    List<T> drained = new ArrayList<>();
+    for (Iterator<T> it = dirty.iterator(); it.hasNext(); ) {
+      drained.add(it.next());
+      it.remove();
+    }
+    return drained;
+  }
+
+  private static long minorUnits(BigDecimal amount) {
+    if (amount == null) {
+      return Long.MAX_VALUE;
+    }
+    return amount.movePointRight(CompactMoney.SCALE).longValueExact();
+  }
+
+  private static BigDecimal decimal(long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, CompactMoney.SCALE);
+  }
+
+  private static long epochMillis(LocalDate date, ZoneId zone) {
+    return date.atStartOfDay(zone).toInstant().toEpochMilli();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // STATE
+  // ─────────────────────────────────────────────────────────
+
+  /** Limits in minor units; {@code Long.MAX_VALUE} where there is none. */
+  private static final class Limits {
+    final long perTransaction;
+    final long daily;
+    final long monthly;
+    final long dailyCount;
+    final Map<String, TypeLimit> types = new ConcurrentHashMap<>();
+
+    Limits(CustomerLimits limits) {
+      this.perTransaction = minorUnits(limits.getPerTransactionLimit());
+      this.daily = minorUnits(limits.getDailyLimit());
+      this.monthly = minorUnits(limits.getMonthlyLimit());
+      this.dailyCount = count(limits.getMaxTransactionsPerDay());
+      for (PaymentTypeLimit limit : limits.getPaymentTypeLimits()) {
+        types.put(
+            limit.getPaymentType(),
+            new TypeLimit(
+                minorUnits(limit.getPerTransactionLimit()),
+                minorUnits(limit.getDailyLimit()),
+                count(limit.getMaxTransactionsPerDay())));
+      }
+    }
+
+    private static long count(Integer max) {
+      return max == null ? Long.MAX_VALUE : max;
+    }
+  }
+
+  private static final class TypeLimit {
+    static final TypeLimit NONE = new TypeLimit(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    final long perTransaction;
+    final long daily;
+    final long dailyCount;
+
+    TypeLimit(long perTransaction, long daily, long dailyCount) {
+      this.perTransaction = perTransaction;
+      this.daily = daily;
+      this.dailyCount = dailyCount;
+    }
+  }
+
+  private static final class CustomerState {
+    final String customerId;
+    final String tenantId;
+    final String businessUnitId;
+    final ZoneId zone;
+    volatile Limits limits;
+    final ConcurrentHashMap<LocalDate, DayUsage> days = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<YearMonth, MonthUsage> months = new ConcurrentHashMap<>();
+    private volatile DayUsage current;
+
+    CustomerState(CustomerLimits config, Limits limits, ZoneId zone) {
+      this.customerId = config.getCustomerId();
+      this.tenantId = config.getTenantId();
+      this.businessUnitId = config.getBusinessUnitId();
+      this.zone = zone;
+      this.limits = limits;
+    }
+
+    DayUsage day(long now) {
+      DayUsage day = current;
+      if (day != null && now >= day.startMillis && now < day.endMillis) {
+        return day;
+      }
+      day = dayOn(LocalDate.ofInstant(Instant.ofEpochMilli(now), zone));
+      current = day;
+      return day;
+    }
+
+    DayUsage dayOn(LocalDate date) {
+      DayUsage day = days.get(date);
+      return day != null ? day : days.computeIfAbsent(date, this::newDay);
+    }
+
+    /** Take over a persisted usage row; only days that already exist, or today, are kept. */
+    void restore(LimitUsage row, LocalDate today) {
+      LocalDate date = row.getUsageDate();
+      DayUsage day = date.equals(today) ? dayOn(date) : days.get(date);
+      if (row.getPaymentType() == null) {
+        MonthUsage month = months.computeIfAbsent(YearMonth.from(date), this::newMonth);
+        if (month.restoredFrom == null || !date.isBefore(month.restoredFrom)) {
+          month.consumedAmount.set(minorUnits(row.getMonthlyUsed()));
+          month.consumedCount.set(row.getMonthlyTransactionCount());
+          month.restoredFrom = date;
+        }
+        if (day != null) {
+          day.consumedAmount.set(minorUnits(row.getDailyUsed()));
+          day.consumedCount.set(row.getDailyTransactionCount());
+        }
+      } else if (day != null) {
+        TypeUsage type = day.type(row.getPaymentType());
+        type.consumedAmount.set(minorUnits(row.getDailyUsed()));
+        type.consumedCount.set(row.getDailyTransactionCount());
+      }
+    }
+
+    private DayUsage newDay(LocalDate date) {
+      return new DayUsage(this, date, months.computeIfAbsent(YearMonth.from(date), this::newMonth));
+    }
+
+    private MonthUsage newMonth(YearMonth month) {
+      return new MonthUsage(epochMillis(month.plusMonths(1).atDay(1), zone));
+    }
+  }
+
+  /** Usage of a customer on one day; "used" includes outstanding reservations. */
+  private static final class DayUsage {
+    final CustomerState customer;
+    final LocalDate date;
+    final long startMillis;
+    final long endMillis;
+    final MonthUsage month;
+    final AtomicLong usedAmount = new AtomicLong();
+    final AtomicLong usedCount = new AtomicLong();
+    final AtomicLong consumedAmount = new AtomicLong();
+    final AtomicLong consumedCount = new AtomicLong();
+    final AtomicLong outstanding = new AtomicLong();
+    final ConcurrentHashMap<String, TypeUsage> types = new ConcurrentHashMap<>();
+
+    DayUsage(CustomerState customer, LocalDate date, MonthUsage month) {
+      this.customer = customer;
+      this.date = date;
+      this.startMillis = epochMillis(date, customer.zone);
+      this.endMillis = epochMillis(date.plusDays(1), customer.zone);
+      this.month = month;
+    }
+
+    TypeUsage type(String paymentType) {
+      TypeUsage type = types.get(paymentType);
+      return type != null ? type : types.computeIfAbsent(paymentType, t -> new TypeUsage());
+    }
+
+    /** The customer_limit_usage row, followed by the payment_type_limit_usage rows. */
+    void addRows(List<LimitUsage> rows) {
+      rows.add(
+          new LimitUsage(
+              customer.customerId,
+              customer.tenantId,
+              customer.businessUnitId,
+              null,
+              date,
+              decimal(consumedAmount.get()),
+              (int) consumedCount.get(),
+              decimal(month.consumedAmount.get()),
+              (int) month.consumedCount.get()));
+      types.forEach(
+          (paymentType, type) -> {
+            if (type.consumedCount.get() > 0) {
+              rows.add(
+                  new LimitUsage(
+                      customer.customerId,
+                      customer.tenantId,
+                      customer.businessUnitId,
+                      paymentType,
+                      date,
+                      decimal(type.consumedAmount.get()),
+                      (int) type.consumedCount.get(),
+                      BigDecimal.ZERO,
+                      0));
+            }
+          });
+    }
+  }
+
+  private static final class MonthUsage {
+    final long endMillis;
+    final AtomicLong usedAmount = new AtomicLong();
+    final AtomicLong consumedAmount = new AtomicLong();
+    final AtomicLong consumedCount = new AtomicLong();
+    LocalDate restoredFrom; // rebuild only
+
+    MonthUsage(long endMillis) {
+      this.endMillis = endMillis;
+    }
+  }
+
+  private static final class TypeUsage {
+    final AtomicLong usedAmount = new AtomicLong();
+    final AtomicLong usedCount = new AtomicLong();
+    final AtomicLong consumedAmount = new AtomicLong();
+    final AtomicLong consumedCount = new AtomicLong();
+  }
+
+  private static final class Outcome {
+    static final Outcome RESERVED = new Outcome(LimitReservationStatus.RESERVED, 0);
+
+    final LimitReservationStatus status;
+    final long atMillis;
+
+    Outcome(LimitReservationStatus status, long atMillis) {
+      this.status = status;
+      this.atMillis = atMillis;
+    }
+  }
+
+  private static final class Hold {
+    final String reservationId;
+    final CustomerState customer;
+    final DayUsage day;
+    final TypeUsage type;
+    final PaymentId paymentId;
+    final String paymentType;
+    final long amountMinorUnits;
+    final long reservedAtMillis;
+    final long expiresAtMillis;
+    final long expiryBucket;
+    final AtomicReference<Outcome> outcome = new AtomicReference<>(Outcome.RESERVED);
+    // Set once a consume has added to the usage counters
+    volatile boolean usageApplied;
+
+    Hold(
+        String reservationId,
+        CustomerState customer,
+        DayUsage day,
+        PaymentId paymentId,
+        String paymentType,
+        long amountMinorUnits,
+        long reservedAtMillis,
+        long expiresAtMillis) {
+      this.reservationId = reservationId;
+      this.customer = customer;
+      this.day = day;
+      this.type = day.type(paymentType);
+      this.paymentId = paymentId;
+      this.paymentType = paymentType;
+      this.amountMinorUnits = amountMinorUnits;
+      this.reservedAtMillis = reservedAtMillis;
+      this.expiresAtMillis = expiresAtMillis;
+      this.expiryBucket = Math.floorDiv(expiresAtMillis, 1000) + 1;
+    }
+
+    LimitReservation snapshot() {
+      return snapshot(outcome.get());
+    }
+
+    /** As written by a flush: consumed only once the consumption is in the usage counters. */
+    LimitReservation persistentSnapshot() {
+      Outcome current = outcome.get();
+      boolean pending = current.status == LimitReservationStatus.CONSUMED && !usageApplied;
+      return snapshot(pending ? Outcome.RESERVED : current);
+    }
+
+    private LimitReservation snapshot(Outcome current) {
+      LimitReservationStatus status = current.status;
+      Instant settledAt = Instant.ofEpochMilli(current.atMillis);
+      return new LimitReservation(
+          reservationId,
+          customer.customerId,
+          customer.tenantId,
+          customer.businessUnitId,
+          paymentId,
+          paymentType,
+          decimal(amountMinorUnits),
+          status,
+          Instant.ofEpochMilli(reservedAtMillis),
+          Instant.ofEpochMilli(expiresAtMillis),
+          status == LimitReservationStatus.CONSUMED ? settledAt : null,
+          status == LimitReservationStatus.RELEASED || status == LimitReservationStatus.EXPIRED
+              ? settledAt
+              : null);
+    }
+  }
+}
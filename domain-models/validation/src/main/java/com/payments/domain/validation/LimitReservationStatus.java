@@ -0,0 +1,8 @@
+package com.payments.domain.validation;
+
+public enum LimitReservationStatus {
+  RESERVED,
+  CONSUMED,
+  RELEASED,
+  EXPIRED
+}
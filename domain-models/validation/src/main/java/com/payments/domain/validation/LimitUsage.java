@@ -0,0 +1,23 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.*;
+
+/**
+ * Consumed limits of a customer on one day: a {@code customer_limit_usage} row, or a {@code
+ * payment_type_limit_usage} row when {@code paymentType} is set (the monthly fields are then zero).
+ */
+@Value
+@AllArgsConstructor
+public class LimitUsage {
+  String customerId;
+  String tenantId;
+  String businessUnitId;
+  String paymentType;
+  LocalDate usageDate;
+  BigDecimal dailyUsed;
+  int dailyTransactionCount;
+  BigDecimal monthlyUsed;
+  int monthlyTransactionCount;
+}
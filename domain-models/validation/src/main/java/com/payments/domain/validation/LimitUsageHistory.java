@@ -0,0 +1,27 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * One limit operation: a {@code limit_usage_history} row. "Used" amounts include outstanding
+ * reservations, so a consume leaves them unchanged.
+ */
+@Value
+@AllArgsConstructor
+public class LimitUsageHistory {
+  String customerId;
+  String tenantId;
+  String businessUnitId;
+  PaymentId paymentId;
+  String paymentType;
+  BigDecimal amount;
+  LimitOperation operation;
+  BigDecimal dailyUsedBefore;
+  BigDecimal dailyUsedAfter;
+  BigDecimal monthlyUsedBefore;
+  BigDecimal monthlyUsedAfter;
+  Instant occurredAt;
+}
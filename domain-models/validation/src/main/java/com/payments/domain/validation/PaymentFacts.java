@@ -0,0 +1,73 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The values of a payment that rule conditions test, one slot per {@link RuleField}. Conditions
+ * read the slots directly, so evaluating a rule involves no lookups by name.
+ */
+public final class PaymentFacts {
+
+  private static final int FIELDS = RuleField.values().length;
+
+  private final long[] numbers = new long[FIELDS];
+  private final String[] strings = new String[FIELDS];
+  private int present; // Bit per RuleField ordinal
+
+  public static PaymentFacts of(
+      Money amount,
+      String paymentType,
+      AccountNumber sourceAccount,
+      AccountNumber destinationAccount) {
+    return new PaymentFacts()
+        .with(RuleField.AMOUNT, amount.getAmount())
+        .with(RuleField.CURRENCY, amount.getCurrency().getCurrencyCode())
+        .with(RuleField.PAYMENT_TYPE, paymentType)
+        .with(RuleField.SOURCE_ACCOUNT, sourceAccount.getValue())
+        .with(RuleField.DESTINATION_ACCOUNT, destinationAccount.getValue());
+  }
+
+  public PaymentFacts with(RuleField field, String value) {
+    if (field.isNumeric()) {
+      throw new IllegalArgumentException(field + " is numeric");
+    }
+    strings[field.ordinal()] = value;
+    return mark(field, value != null);
+  }
+
+  /** Rounded half-up to the field's scale. */
+  public PaymentFacts with(RuleField field, BigDecimal value) {
+    if (!field.isNumeric()) {
+      throw new IllegalArgumentException(field + " is not numeric");
+    }
+    if (value != null) {
+      numbers[field.ordinal()] =
+          value.setScale(field.getScale(), RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    return mark(field, value != null);
+  }
+
+  public PaymentFacts with(RuleField field, long value) {
+    return with(field, BigDecimal.valueOf(value));
+  }
+
+  boolean has(RuleField field) {
+    return (present & (1 << field.ordinal())) != 0;
+  }
+
+  long number(RuleField field) {
+    return numbers[field.ordinal()];
+  }
+
+  String string(RuleField field) {
+    return strings[field.ordinal()];
+  }
+
+  private PaymentFacts mark(RuleField field, boolean isPresent) {
+    int bit = 1 << field.ordinal();
+    present = isPresent ? present | bit : present & ~bit;
+    return this;
+  }
+}
@@ -0,0 +1,14 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import lombok.*;
+
+/** Daily limit of a customer for one payment type: a {@code payment_type_limits} row. */
+@Value
+@AllArgsConstructor
+public class PaymentTypeLimit {
+  String paymentType;
+  BigDecimal dailyLimit;
+  BigDecimal perTransactionLimit; // null = customer's per-transaction limit only
+  Integer maxTransactionsPerDay; // null = no count limit
+}
@@ -0,0 +1,259 @@
+package com.payments.domain.validation;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled rule condition: a typed expression tree over {@link PaymentFacts}, built once by {@link
+ * RuleConditionCompiler}. Comparisons read the fact slots directly and compare longs or strings;
+ * {@code all} and {@code any} stop at the first part that decides them.
+ *
+ * <p>A comparison on a field the payment does not have is false, also for {@code ne} and {@code
+ * not_in}; test for absence with {@code missing}.
+ */
+abstract class RuleCondition {
+
+  abstract boolean test(PaymentFacts facts);
+
+  /** The field a failure is reported on: the one field the condition tests, if there is one. */
+  RuleField field() {
+    return null;
+  }
+
+  enum Op {
+    EQ,
+    NE,
+    LT,
+    LTE,
+    GT,
+    GTE,
+    IN,
+    NOT_IN,
+    MATCHES,
+    EXISTS,
+    MISSING
+  }
+
+  static final class All extends RuleCondition {
+    private final RuleCondition[] parts;
+
+    All(RuleCondition[] parts) {
+      this.parts = parts;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      for (RuleCondition part : parts) {
+        if (!part.test(facts)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    RuleField field() {
+      return commonField(parts);
+    }
+  }
+
+  static final class Any extends RuleCondition {
+    private final RuleCondition[] parts;
+
+    Any(RuleCondition[] parts) {
+      this.parts = parts;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      for (RuleCondition part : parts) {
+        if (part.test(facts)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    RuleField field() {
+      return commonField(parts);
+    }
+  }
+
+  static final class Not extends RuleCondition {
+    private final RuleCondition part;
+
+    Not(RuleCondition part) {
+      this.part = part;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      return !part.test(facts);
+    }
+
+    @Override
+    RuleField field() {
+      return part.field();
+    }
+  }
+
+  /** {@code eq} to {@code gte} on a numeric field, in the field's scale. */
+  static final class NumberComparison extends RuleCondition {
+    private final RuleField field;
+    private final Op op;
+    private final long value;
+
+    NumberComparison(RuleField field, Op op, long value) {
+      this.field = field;
+      this.op = op;
+      this.value = value;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      if (!facts.has(field)) {
+        return false;
+      }
+      long actual = facts.number(field);
+      switch (op) {
+        case EQ:
+          return actual == value;
+        case NE:
+          return actual != value;
+        case LT:
+          return actual < value;
+        case LTE:
+          return actual <= value;
+        case GT:
+          return actual > value;
+        default:
+          return actual >= value;
+      }
+    }
+
+    @Override
+    RuleField field() {
+      return field;
+    }
+  }
+
+  static final class NumberIn extends RuleCondition {
+    private final RuleField field;
+    private final long[] sortedValues;
+    private final boolean negated;
+
+    NumberIn(RuleField field, long[] values, boolean negated) {
+      this.field = field;
+      this.sortedValues = values.clone();
+      Arrays.sort(this.sortedValues);
+      this.negated = negated;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      return facts.has(field)
+          && (Arrays.binarySearch(sortedValues, facts.number(field)) >= 0) != negated;
+    }
+
+    @Override
+    RuleField field() {
+      return field;
+    }
+  }
+
+  static final class StringEquals extends RuleCondition {
+    private final RuleField field;
+    private final String value;
+    private final boolean negated;
+
+    StringEquals(RuleField field, String value, boolean negated) {
+      this.field = field;
+      this.value = value;
+      this.negated = negated;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      return facts.has(field) && value.equals(facts.string(field)) != negated;
+    }
+
+    @Override
+    RuleField field() {
+      return field;
+    }
+  }
+
+  static final class StringIn extends RuleCondition {
+    private final RuleField field;
+    private final Set<String> values;
+    private final boolean negated;
+
+    StringIn(RuleField field, Set<String> values, boolean negated) {
+      this.field = field;
+      this.values = values;
+      this.negated = negated;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      return facts.has(field) && values.contains(facts.string(field)) != negated;
+    }
+
+    @Override
+    RuleField field() {
+      return field;
+    }
+  }
+
+  static final class Matches extends RuleCondition {
+    private final RuleField field;
+    private final Pattern pattern;
+
+    Matches(RuleField field, Pattern pattern) {
+      this.field = field;
+      this.pattern = pattern;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      return facts.has(field) && pattern.matcher(facts.string(field)).matches();
+    }
+
+    @Override
+    RuleField field() {
+      return field;
+    }
+  }
+
+  static final class Presence extends RuleCondition {
+    private final RuleField field;
+    private final boolean present;
+
+    Presence(RuleField field, boolean present) {
+      this.field = field;
+      this.present = present;
+    }
+
+    @Override
+    boolean test(PaymentFacts facts) {
+      return facts.has(field) == present;
+    }
+
+    @Override
+    RuleField field() {
+      return field;
+    }
+  }
+
+  private static RuleField commonField(RuleCondition[] parts) {
+    RuleField field = parts[0].field();
+    for (RuleCondition part : parts) {
+      if (part.field() != field) {
+        return null;
+      }
+    }
+    return field;
+  }
+}
@@ -0,0 +1,149 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the JSON of a {@code rule_condition} into a {@link RuleCondition}. A condition is one of
+ *
+ * <ul>
+ *   <li>{@code {"all": [...]}}, {@code {"any": [...]}} or {@code {"not": {...}}}
+ *   <li>{@code {"field": "amount", "op": "lte", "value": 50000}}, with {@code op} one of {@code eq
+ *       ne lt lte gt gte in not_in matches exists missing}; {@code in} and {@code not_in} take an
+ *       array, {@code exists} and {@code missing} no value
+ * </ul>
+ *
+ * <p>Field names and value types are checked here, so a rule set that compiles cannot fail at
+ * evaluation time.
+ */
+final class RuleConditionCompiler {
+
+  private RuleConditionCompiler() {}
+
+  static RuleCondition compile(String json) {
+    return compile(ConditionJson.parse(json));
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private static RuleCondition compile(Object node) {
+    if (!(node instanceof Map)) {
+      throw new InvalidRuleConditionException("Expected a condition object: " + node);
+    }
+    Map<?, ?> object = (Map<?, ?>) node;
+    if (object.size() == 1 && object.containsKey("all")) {
+      return new RuleCondition.All(parts(object.get("all")));
+    }
+    if (object.size() == 1 && object.containsKey("any")) {
+      return new RuleCondition.Any(parts(object.get("any")));
+    }
+    if (object.size() == 1 && object.containsKey("not")) {
+      return new RuleCondition.Not(compile(object.get("not")));
+    }
+    return comparison(object);
+  }
+
+  private static RuleCondition[] parts(Object node) {
+    if (!(node instanceof List) || ((List<?>) node).isEmpty()) {
+      throw new InvalidRuleConditionException("Expected a non-empty array of conditions: " + node);
+    }
+    List<?> list = (List<?>) node;
+    RuleCondition[] parts = new RuleCondition[list.size()];
+    for (int i = 0; i < parts.length; i++) {
+      parts[i] = compile(list.get(i));
+    }
+    return parts;
+  }
+
+  private static RuleCondition comparison(Map<?, ?> object) {
+    for (Object key : object.keySet()) {
+      if (!"field".equals(key) && !"op".equals(key) && !"value".equals(key)) {
+        throw new InvalidRuleConditionException("Unknown condition key '" + key + "'");
+      }
+    }
+    RuleField field = RuleField.byJsonName(text(object.get("field"), "field"));
+    if (field == null) {
+      throw new InvalidRuleConditionException("Unknown field '" + object.get("field") + "'");
+    }
+    RuleCondition.Op op;
+    try {
+      op = RuleCondition.Op.valueOf(text(object.get("op"), "op").toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRuleConditionException("Unknown op '" + object.get("op") + "'");
+    }
+    Object value = object.get("value");
+
+    switch (op) {
+      case EXISTS:
+      case MISSING:
+        return new RuleCondition.Presence(field, op == RuleCondition.Op.EXISTS);
+      case IN:
+      case NOT_IN:
+        return membership(field, op == RuleCondition.Op.NOT_IN, value);
+      case MATCHES:
+        if (field.isNumeric()) {
+          throw new InvalidRuleConditionException("matches needs a text field: " + field);
+        }
+        try {
+          return new RuleCondition.Matches(field, Pattern.compile(text(value, "value")));
+        } catch (PatternSyntaxException e) {
+          throw new InvalidRuleConditionException("Invalid pattern for " + field, e);
+        }
+      default:
+        if (field.isNumeric()) {
+          return new RuleCondition.NumberComparison(field, op, scaled(field, value));
+        }
+        if (op != RuleCondition.Op.EQ && op != RuleCondition.Op.NE) {
+          throw new InvalidRuleConditionException(op + " needs a numeric field: " + field);
+        }
+        return new RuleCondition.StringEquals(
+            field, text(value, "value"), op == RuleCondition.Op.NE);
+    }
+  }
+
+  private static RuleCondition membership(RuleField field, boolean negated, Object value) {
+    if (!(value instanceof List)) {
+      throw new InvalidRuleConditionException("in and not_in need an array value: " + value);
+    }
+    List<?> values = (List<?>) value;
+    if (field.isNumeric()) {
+      long[] numbers = new long[values.size()];
+      for (int i = 0; i < numbers.length; i++) {
+        numbers[i] = scaled(field, values.get(i));
+      }
+      return new RuleCondition.NumberIn(field, numbers, negated);
+    }
+    Set<String> strings = new HashSet<>();
+    for (Object element : values) {
+      strings.add(text(element, "value"));
+    }
+    return new RuleCondition.StringIn(field, Set.copyOf(strings), negated);
+  }
+
+  private static long scaled(RuleField field, Object value) {
+    if (!(value instanceof BigDecimal)) {
+      throw new InvalidRuleConditionException(field + " needs a numeric value: " + value);
+    }
+    try {
+      return ((BigDecimal) value).setScale(field.getScale()).unscaledValue().longValueExact();
+    } catch (ArithmeticException e) {
+      throw new InvalidRuleConditionException(
+          "Value " + value + " has more than " + field.getScale() + " decimals for " + field);
+    }
+  }
+
+  private static String text(Object value, String key) {
+    if (!(value instanceof String)) {
+      throw new InvalidRuleConditionException("Expected a string for '" + key + "': " + value);
+    }
+    return (String) value;
+  }
+}
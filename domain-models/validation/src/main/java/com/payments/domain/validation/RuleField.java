@@ -0,0 +1,57 @@
+package com.payments.domain.validation;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Payment fields a rule condition can test, by their name in the condition JSON. Numbers are held
+ * as longs with the field's scale, e.g. amounts in minor units.
+ */
+public enum RuleField {
+  AMOUNT("amount", 2),
+  CURRENCY("currency"),
+  PAYMENT_TYPE("payment_type"),
+  PRIORITY("priority"),
+  SOURCE_ACCOUNT("source_account"),
+  DESTINATION_ACCOUNT("destination_account"),
+  REFERENCE("reference"),
+  INITIATED_BY("initiated_by"),
+  CHANNEL("channel"),
+  CUSTOMER_ID("customer_id"),
+  HOUR_OF_DAY("hour_of_day", 0),
+  FRAUD_SCORE("fraud_score", 4);
+
+  private static final Map<String, RuleField> BY_NAME = new HashMap<>();
+
+  static {
+    for (RuleField field : values()) {
+      BY_NAME.put(field.jsonName, field);
+    }
+  }
+
+  @Getter private final String jsonName;
+  private final boolean numeric;
+  @Getter private final int scale;
+
+  RuleField(String jsonName) {
+    this.jsonName = jsonName;
+    this.numeric = false;
+    this.scale = 0;
+  }
+
+  RuleField(String jsonName, int scale) {
+    this.jsonName = jsonName;
+    this.numeric = true;
+    this.scale = scale;
+  }
+
+  public boolean isNumeric() {
+    return numeric;
+  }
+
+  /** Field by its JSON name, or null. */
+  static RuleField byJsonName(String name) {
+    return BY_NAME.get(name);
+  }
+}
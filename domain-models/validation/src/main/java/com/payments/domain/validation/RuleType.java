@@ -5,5 +5,11 @@ enum RuleType {
   BUSINESS_RULE,
   FRAUD,
   LIMIT,
-  VELOCITY
+  VELOCITY,
+  // Further rule types of validation_rules
+  STATUS,
+  KYC,
+  FICA,
+  AMOUNT,
+  PATTERN
 }
@@ -0,0 +1,17 @@
+package com.payments.domain.validation;
+
+/** The work of one {@link ValidationStage}. */
+@FunctionalInterface
+public interface ValidationCheck {
+
+  /**
+   * Check the payment, adding applied and failed rules or a fraud assessment to {@code result}. The
+   * result belongs to this check alone; it is merged into the payment's result afterwards.
+   *
+   * <p>Checks run on pipeline threads and are interrupted when cancelled. A {@link
+   * LimitExceededException} or any other exception fails the check.
+   *
+   * @return whether the payment passes
+   */
+  boolean check(ValidationRequest request, ValidationResult result);
+}
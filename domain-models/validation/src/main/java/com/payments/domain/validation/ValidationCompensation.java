@@ -0,0 +1,12 @@
+package com.payments.domain.validation;
+
+/** Undoes the work of a {@link ValidationStage} whose result the pipeline discarded. */
+@FunctionalInterface
+public interface ValidationCompensation {
+
+  /**
+   * Undo what the stage's check did for the payment, such as a limit reservation. Called once the
+   * check has ended, with the result it wrote to, which may be incomplete.
+   */
+  void compensate(ValidationRequest request, ValidationResult result);
+}
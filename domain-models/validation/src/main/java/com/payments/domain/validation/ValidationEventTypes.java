@@ -0,0 +1,13 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.DomainEvent;
+import java.util.List;
+
+/** Domain event types emitted by the Validation Result aggregate, for event codec registration. */
+public final class ValidationEventTypes {
+
+  public static final List<Class<? extends DomainEvent>> ALL =
+      List.of(PaymentValidatedEvent.class, ValidationFailedEvent.class);
+
+  private ValidationEventTypes() {}
+}
@@ -3,6 +3,7 @@ package com.payments.domain.validation;
 import com.payments.domain.shared.DomainEvent;
 import com.payments.domain.shared.PaymentId;
 import com.payments.domain.shared.TenantContext;
+import com.payments.domain.shared.WireTag;
 import java.time.Instant;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -11,8 +12,13 @@ import lombok.Value;
 @Value
 @AllArgsConstructor
 class PaymentValidatedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   ValidationResult validationResult;
 
   @Override
@@ -29,8 +35,13 @@ class PaymentValidatedEvent implements DomainEvent {
 @Value
 @AllArgsConstructor
 class ValidationFailedEvent implements DomainEvent {
+  @WireTag(1)
   PaymentId paymentId;
+
+  @WireTag(2)
   TenantContext tenantContext;
+
+  @WireTag(3)
   List<FailedRule> failedRules;
 
   @Override
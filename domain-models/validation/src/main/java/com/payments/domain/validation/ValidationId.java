@@ -1,7 +1,7 @@
 package com.payments.domain.validation;
 
+import com.payments.domain.shared.Ids;
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -21,6 +21,6 @@ public class ValidationId {
   }
 
   public static ValidationId generate() {
-    return new ValidationId("VAL-" + UUID.randomUUID());
+    return new ValidationId(Ids.next("VAL-"));
   }
 }
@@ -0,0 +1,320 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Validates a payment by running all {@link ValidationStage}s at once, so a validation takes as
+ * long as its slowest stage rather than the sum of them.
+ *
+ * <ul>
+ *   <li>each stage writes to a result of its own; the results of the stages that finished are
+ *       merged into the payment's {@link ValidationResult} in stage order
+ *   <li>a stage still running at its deadline is cancelled and fails
+ *   <li>when a hard-fail stage fails, the stages still running are cancelled and their rules are
+ *       left out of the result
+ *   <li>{@link ValidationResult#completeValidation} is called once, valid only if every stage
+ *       passed
+ * </ul>
+ *
+ * <p>Cancelling interrupts a stage. The work of a stage whose result is discarded, because it timed
+ * out or was cancelled, is undone by its {@link ValidationStage#getCompensation compensation} once
+ * its check has ended: by the stage thread if the check was still running, else at once. Stages
+ * whose result is kept are not undone; release what an invalid payment reserved.
+ */
+public class ValidationPipeline implements AutoCloseable {
+
+  // Per stage of a validation: the check is running, has reported, or its result was discarded
+  private static final int RUNNING = 0;
+  private static final int REPORTED = 1;
+  private static final int DISCARDED = 2;
+
+  private final String validatorService;
+  private final ValidationStage[] stages;
+  private final long[] deadlineNanos;
+  private final ExecutorService executor;
+
+  private final LongAdder validations = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder cancellations = new LongAdder();
+  private final LongAdder compensations = new LongAdder();
+  private final LongAdder compensationFailures = new LongAdder();
+
+  /**
+   * @param threads stage threads; stages waiting on remote calls hold one each, so allow for the
+   *     payments validated at once times the number of stages
+   */
+  public ValidationPipeline(String validatorService, List<ValidationStage> stages, int threads) {
+    if (stages.isEmpty()) {
+      throw new IllegalArgumentException("A validation pipeline needs at least one stage");
+    }
+    this.validatorService = validatorService;
+    this.stages = stages.toArray(new ValidationStage[0]);
+    this.deadlineNanos = new long[this.stages.length];
+    for (int i = 0; i < this.stages.length; i++) {
+      deadlineNanos[i] = this.stages[i].getDeadline().toNanos();
+    }
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "validation-stage-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // VALIDATION
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Run all stages against the payment and complete its validation.
+   *
+   * @throws IllegalStateException if the calling thread is interrupted while waiting
+   */
+  public ValidationResult validate(ValidationRequest request) {
+    PaymentId paymentId = request.getPaymentId();
+    ValidationResult result =
+        ValidationResult.create(ValidationId.generate(), request.getTenantContext(), paymentId);
+    validations.increment();
+    int count = stages.length;
+    ValidationResult[] partials = new ValidationResult[count];
+    FailedRule[] stageFailures = new FailedRule[count];
+    boolean[] finished = new boolean[count];
+    boolean[] returned = new boolean[count];
+    Future<?>[] futures = new Future<?>[count];
+    AtomicIntegerArray states = new AtomicIntegerArray(count);
+    // Every stage reports at most once, so offering to it never blocks
+    BlockingQueue<Outcome> outcomes = new ArrayBlockingQueue<>(count);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      int stage = i;
+      partials[i] = ValidationResult.create(result.getId(), result.getTenantContext(), paymentId);
+      futures[i] =
+          executor.submit(
+              () -> {
+                Outcome outcome = run(stage, request, partials[stage]);
+                if (states.compareAndSet(stage, RUNNING, REPORTED)) {
+                  outcomes.add(outcome);
+                } else {
+                  Thread.interrupted(); // The cancellation, which the compensation must outlive
+                  compensate(stage, request, partials[stage]);
+                }
+              });
+    }
+
+    boolean valid = true;
+    int pending = count;
+    try {
+      while (pending > 0) {
+        long now = System.nanoTime();
+        long nextDeadline = Long.MAX_VALUE;
+        boolean hardFailed = false;
+        for (int i = 0; i < count; i++) {
+          if (finished[i]) {
+            continue;
+          }
+          long remaining = start + deadlineNanos[i] - now;
+          if (remaining <= 0) {
+            finished[i] = true;
+            pending--;
+            discard(i, request, partials[i], futures[i], states);
+            timeouts.increment();
+            stageFailures[i] = timedOut(stages[i]);
+            valid = false;
+            hardFailed |= stages[i].isHardFail();
+          } else {
+            nextDeadline = Math.min(nextDeadline, remaining);
+          }
+        }
+        if (hardFailed || pending == 0) {
+          break;
+        }
+
+        Outcome outcome = outcomes.poll(nextDeadline, TimeUnit.NANOSECONDS);
+        if (outcome == null || finished[outcome.stage]) {
+          continue; // A deadline passed, or the stage already timed out
+        }
+        finished[outcome.stage] = true;
+        returned[outcome.stage] = outcome.returned;
+        pending--;
+        if (!outcome.passed) {
+          stageFailures[outcome.stage] = outcome.error;
+          valid = false;
+          if (stages[outcome.stage].isHardFail()) {
+            break;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancelUnfinished(request, partials, futures, states, finished);
+      throw new IllegalStateException("Interrupted while validating " + paymentId, e);
+    }
+    cancelUnfinished(request, partials, futures, states, finished);
+
+    for (int i = 0; i < count; i++) {
+      // What a stage that timed out or threw left in its partial result is incomplete
+      if (returned[i]) {
+        result.merge(partials[i]);
+      }
+      if (stageFailures[i] != null) {
+        result.addFailedRule(stageFailures[i]);
+      }
+    }
+    result.completeValidation(valid, validatorService);
+    return result;
+  }
+
+  public long getValidationCount() {
+    return validations.sum();
+  }
+
+  public long getTimeoutCount() {
+    return timeouts.sum();
+  }
+
+  /** Stages cancelled because a hard-fail stage failed first. */
+  public long getCancellationCount() {
+    return cancellations.sum();
+  }
+
+  /** Discarded stages whose compensation was run, including those that threw. */
+  public long getCompensationCount() {
+    return compensations.sum();
+  }
+
+  /** Compensations that threw; what they were to undo may still be held. */
+  public long getCompensationFailureCount() {
+    return compensationFailures.sum();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private Outcome run(int stage, ValidationRequest request, ValidationResult partial) {
+    ValidationStage validationStage = stages[stage];
+    try {
+      if (validationStage.getCheck().check(request, partial)) {
+        return new Outcome(stage, true, true, null);
+      }
+      FailedRule reason =
+          partial.hasFailedRules()
+              ? null
+              : failedRule(validationStage, "Stage " + validationStage.getName() + " failed");
+      return new Outcome(stage, false, true, reason);
+    } catch (LimitExceededException e) {
+      return new Outcome(
+          stage,
+          false,
+          false,
+          new FailedRule(
+              FailedRuleId.generate(),
+              e.getLimitName(),
+              RuleType.LIMIT.name(),
+              e.getMessage(),
+              null));
+    } catch (RuntimeException e) {
+      return new Outcome(
+          stage,
+          false,
+          false,
+          failedRule(validationStage, "Stage " + validationStage.getName() + " failed: " + e));
+    }
+  }
+
+  private void cancelUnfinished(
+      ValidationRequest request,
+      ValidationResult[] partials,
+      Future<?>[] futures,
+      AtomicIntegerArray states,
+      boolean[] finished) {
+    for (int i = 0; i < futures.length; i++) {
+      if (!finished[i]) {
+        discard(i, request, partials[i], futures[i], states);
+        cancellations.increment();
+      }
+    }
+  }
+
+  /**
+   * Leave a stage's result out. A check still running is interrupted and compensates itself when it
+   * ends; one that already reported is compensated here.
+   */
+  private void discard(
+      int stage,
+      ValidationRequest request,
+      ValidationResult partial,
+      Future<?> future,
+      AtomicIntegerArray states) {
+    if (states.compareAndSet(stage, RUNNING, DISCARDED)) {
+      future.cancel(true);
+    } else {
+      compensate(stage, request, partial);
+    }
+  }
+
+  private void compensate(int stage, ValidationRequest request, ValidationResult partial) {
+    ValidationCompensation compensation = stages[stage].getCompensation();
+    if (compensation == null) {
+      return;
+    }
+    compensations.increment();
+    try {
+      compensation.compensate(request, partial);
+    } catch (RuntimeException e) {
+      compensationFailures.increment();
+    }
+  }
+
+  private static FailedRule timedOut(ValidationStage stage) {
+    return failedRule(
+        stage, "Stage " + stage.getName() + " did not finish within " + stage.getDeadline());
+  }
+
+  private static FailedRule failedRule(ValidationStage stage, String reason) {
+    return new FailedRule(FailedRuleId.generate(), stage.getName(), stage.getName(), reason, null);
+  }
+
+  /**
+   * A stage that finished: {@code returned} unless it threw; {@code error} is the failure to add
+   * besides the stage's own failed rules, if any.
+   */
+  private static final class Outcome {
+    final int stage;
+    final boolean passed;
+    final boolean returned;
+    final FailedRule error;
+
+    Outcome(int stage, boolean passed, boolean returned, FailedRule error) {
+      this.stage = stage;
+      this.passed = passed;
+      this.returned = returned;
+      this.error = error;
+    }
+  }
+}
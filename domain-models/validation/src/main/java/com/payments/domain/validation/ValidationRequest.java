@@ -0,0 +1,19 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import lombok.*;
+
+/** A payment to validate, as every {@link ValidationStage} sees it. */
+@Value
+@AllArgsConstructor
+public class ValidationRequest {
+  TenantContext tenantContext;
+  PaymentId paymentId;
+  String customerId;
+  String paymentType;
+  Money amount;
+  AccountNumber sourceAccount;
+  AccountNumber destinationAccount;
+  // Read concurrently by the stages; not to be changed once the request is submitted
+  PaymentFacts facts;
+}
@@ -18,10 +18,11 @@ import lombok.*;
 @Entity
 @Table(name = "validation_results")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class ValidationResult {
+public class ValidationResult implements DomainEventSource {
 
   @EmbeddedId
   @AttributeOverride(name = "value", column = @Column(name = "validation_id"))
+  @WireTag(1)
   private ValidationId id;
 
   @Embedded
@@ -29,34 +30,46 @@ public class ValidationResult {
     @AttributeOverride(name = "tenantId", column = @Column(name = "tenant_id")),
     @AttributeOverride(name = "businessUnitId", column = @Column(name = "business_unit_id"))
   })
+  @WireTag(2)
   private TenantContext tenantContext;
 
   @Embedded
   @AttributeOverride(name = "value", column = @Column(name = "payment_id"))
+  @WireTag(3)
   private PaymentId paymentId;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "validation_status")
+  @WireTag(4)
   private ValidationStatus status;
 
   @Column(name = "fraud_score")
+  @WireTag(5)
   private BigDecimal fraudScore;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "risk_level")
+  @WireTag(6)
   private RiskLevel riskLevel;
 
-  @Transient private List<ValidationRule> appliedRules = new ArrayList<>();
+  @Transient
+  @WireTag(7)
+  private List<ValidationRule> appliedRules = new ArrayList<>();
 
-  @Transient private List<FailedRule> failedRules = new ArrayList<>();
+  @Transient
+  @WireTag(8)
+  private List<FailedRule> failedRules = new ArrayList<>();
 
   @Column(name = "failed_rules", columnDefinition = "jsonb")
+  @WireTag(9)
   private String failedRulesJson;
 
   @Column(name = "validated_at")
+  @WireTag(10)
   private Instant validatedAt;
 
   @Column(name = "validator_service")
+  @WireTag(11)
   private String validatorService;
 
   @Transient private List<DomainEvent> domainEvents = new ArrayList<>();
@@ -97,6 +110,15 @@ public class ValidationResult {
     this.riskLevel = riskLevel;
   }
 
+  /** Take over the rules and fraud assessment of a partial result of the same payment */
+  void merge(ValidationResult partial) {
+    this.appliedRules.addAll(partial.appliedRules);
+    this.failedRules.addAll(partial.failedRules);
+    if (partial.fraudScore != null || partial.riskLevel != null) {
+      setFraudAssessment(partial.fraudScore, partial.riskLevel);
+    }
+  }
+
   /** Complete validation with result */
   public void completeValidation(boolean isValid, String validatorService) {
     this.status = isValid ? ValidationStatus.VALID : ValidationStatus.INVALID;
@@ -154,6 +176,10 @@ public class ValidationResult {
     return riskLevel;
   }
 
+  public List<ValidationRule> getAppliedRules() {
+    return Collections.unmodifiableList(appliedRules);
+  }
+
   public List<FailedRule> getFailedRules() {
     return Collections.unmodifiableList(failedRules);
   }
@@ -184,21 +210,30 @@ public class ValidationResult {
 @Data
 class ValidationRule {
 
-  @EmbeddedId private ValidationRuleId id;
+  @EmbeddedId
+  @WireTag(1)
+  private ValidationRuleId id;
 
+  @WireTag(2)
   private String ruleName;
 
   @Enumerated(EnumType.STRING)
+  @WireTag(3)
   private RuleType ruleType;
 
+  @WireTag(4)
   private String ruleDescription;
 
+  @WireTag(5)
   private String ruleCondition;
 
+  @WireTag(6)
   private Integer priority;
 
+  @WireTag(7)
   private Boolean active;
 
+  @WireTag(8)
   private Instant createdAt;
 
   public ValidationRule(
@@ -225,16 +260,23 @@ class ValidationRule {
 @Data
 class FailedRule {
 
-  @EmbeddedId private FailedRuleId id;
+  @EmbeddedId
+  @WireTag(1)
+  private FailedRuleId id;
 
+  @WireTag(2)
   private String ruleName;
 
+  @WireTag(3)
   private String ruleType;
 
+  @WireTag(4)
   private String reason;
 
+  @WireTag(5)
   private String field;
 
+  @WireTag(6)
   private Instant failedAt;
 
   public FailedRule(
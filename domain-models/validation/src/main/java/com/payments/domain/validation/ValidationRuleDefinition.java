@@ -0,0 +1,17 @@
+package com.payments.domain.validation;
+
+import lombok.*;
+
+/** A {@code validation_rules} row; {@code ruleCondition} is the JSON of its condition. */
+@Value
+@AllArgsConstructor
+public class ValidationRuleDefinition {
+  String ruleId;
+  String ruleName;
+  String ruleType;
+  String ruleDescription;
+  String ruleCondition;
+  int priority;
+  String tenantId;
+  String businessUnitId;
+}
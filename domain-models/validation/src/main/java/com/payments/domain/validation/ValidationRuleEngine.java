@@ -0,0 +1,67 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluates the {@code validation_rules} of a payment's business unit.
+ *
+ * <p>Each business unit's active rules are loaded and compiled once into a {@link CompiledRuleSet}
+ * and cached; per payment only the compiled conditions run, in priority order, stopping at the
+ * first rule that fails. Call {@link #invalidate} when a business unit's rules change.
+ *
+ * <p>A rule whose condition does not compile is left out of its business unit's set and counted
+ * once per compilation, so one broken row neither fails every payment nor is recompiled for each.
+ */
+public class ValidationRuleEngine {
+
+  private final ConcurrentHashMap<BusinessUnitKey, CompiledRuleSet> ruleSets =
+      new ConcurrentHashMap<>();
+  private final ValidationRuleRepository repository;
+  private final LongAdder invalidRules = new LongAdder();
+
+  public ValidationRuleEngine(ValidationRuleRepository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * Evaluate the rules of {@code result}'s business unit against the payment.
+   *
+   * @return whether all rules that compile hold
+   */
+  public boolean evaluate(ValidationResult result, PaymentFacts facts) {
+    TenantContext tenant = result.getTenantContext();
+    return getRuleSet(tenant.getTenantId(), tenant.getBusinessUnitId()).evaluate(result, facts);
+  }
+
+  public CompiledRuleSet getRuleSet(String tenantId, String businessUnitId) {
+    BusinessUnitKey key = new BusinessUnitKey(tenantId, businessUnitId);
+    CompiledRuleSet ruleSet = ruleSets.get(key);
+    if (ruleSet != null) {
+      return ruleSet;
+    }
+    return ruleSets.computeIfAbsent(key, this::compile);
+  }
+
+  /** Rules left out of the sets compiled so far because their condition did not compile. */
+  public long getInvalidRuleCount() {
+    return invalidRules.sum();
+  }
+
+  /** Drop the business unit's compiled rules; they are reloaded on next use. */
+  public void invalidate(String tenantId, String businessUnitId) {
+    ruleSets.remove(new BusinessUnitKey(tenantId, businessUnitId));
+  }
+
+  public void invalidateAll() {
+    ruleSets.clear();
+  }
+
+  private CompiledRuleSet compile(BusinessUnitKey key) {
+    CompiledRuleSet ruleSet =
+        CompiledRuleSet.compile(repository.findActive(key.tenantId, key.businessUnitId));
+    invalidRules.add(ruleSet.getInvalidRules().size());
+    return ruleSet;
+  }
+}
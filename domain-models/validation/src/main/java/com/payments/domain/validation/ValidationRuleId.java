@@ -1,7 +1,7 @@
 package com.payments.domain.validation;
 
+import com.payments.domain.shared.Ids;
 import jakarta.persistence.Embeddable;
-import java.util.UUID;
 import lombok.Value;
 
 @Embeddable
@@ -20,6 +20,6 @@ class ValidationRuleId {
   }
 
   public static ValidationRuleId generate() {
-    return new ValidationRuleId("VR-" + UUID.randomUUID());
+    return new ValidationRuleId(Ids.next("VR-"));
   }
 }
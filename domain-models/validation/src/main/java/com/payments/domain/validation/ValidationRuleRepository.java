@@ -0,0 +1,10 @@
+package com.payments.domain.validation;
+
+import java.util.List;
+
+/** Repository port: the {@code validation_rules} table. */
+public interface ValidationRuleRepository {
+
+  /** Active rules of the business unit, in any order. */
+  List<ValidationRuleDefinition> findActive(String tenantId, String businessUnitId);
+}
@@ -0,0 +1,36 @@
+package com.payments.domain.validation;
+
+import java.time.Duration;
+import lombok.*;
+
+/**
+ * A check run by the {@link ValidationPipeline}, with the time it may take from the start of the
+ * validation. A stage that times out fails. When a hard-fail stage fails the payment is rejected at
+ * once and the stages still running are cancelled. The compensation, if any, undoes the work of a
+ * stage whose result is discarded that way.
+ *
+ * <p>The name is reported as the rule name and type of timeouts and errors, so names such as {@code
+ * FRAUD}, {@code LIMIT}, {@code VELOCITY} and {@code BUSINESS_RULE} fit best.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ValidationStage {
+  String name;
+  Duration deadline;
+  boolean hardFail;
+  ValidationCheck check;
+  ValidationCompensation compensation;
+
+  public static ValidationStage of(String name, Duration deadline, ValidationCheck check) {
+    return new ValidationStage(name, deadline, false, check, null);
+  }
+
+  public static ValidationStage hardFail(String name, Duration deadline, ValidationCheck check) {
+    return new ValidationStage(name, deadline, true, check, null);
+  }
+
+  /** This stage, undoing its check with {@code compensation} when its result is discarded. */
+  public ValidationStage withCompensation(ValidationCompensation compensation) {
+    return new ValidationStage(name, deadline, hardFail, check, compensation);
+  }
+}
@@ -0,0 +1,130 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Velocity state of one account: a ring of buckets per {@link VelocityWindow}, flattened into
+ * primitive arrays, plus running totals per window so reads never scan the ring.
+ *
+ * <p>Not thread-safe; {@link VelocityEngine} guards each counter with its monitor.
+ */
+final class VelocityCounter {
+
+  private static final VelocityWindow[] WINDOWS = VelocityWindow.values();
+  private static final int BUCKETS = VelocityWindow.BUCKETS;
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  final String tenantId;
+  final String businessUnitId;
+  final AccountNumber accountNumber;
+
+  // Slot w * BUCKETS + (bucket % BUCKETS) holds bucket number `bucket` of window w
+  private final int[] counts = new int[WINDOWS.length * BUCKETS];
+  private final long[] sums = new long[WINDOWS.length * BUCKETS];
+  private final long[] newestBucket = new long[WINDOWS.length];
+  private final int[] totalCounts = new int[WINDOWS.length];
+  private final long[] totalSums = new long[WINDOWS.length];
+
+  // Hourly deltas not yet added to velocity_tracking; usually only the current hour
+  private final List<long[]> unflushed = new ArrayList<>(2);
+  long lastRecordedMillis;
+  boolean retired;
+
+  VelocityCounter(String tenantId, String businessUnitId, AccountNumber accountNumber) {
+    this.tenantId = tenantId;
+    this.businessUnitId = businessUnitId;
+    this.accountNumber = accountNumber;
+  }
+
+  /** Count one payment, to be written to velocity_tracking on the next flush. */
+  void record(long amountMinorUnits, long atMillis) {
+    add(1, amountMinorUnits, atMillis);
+    lastRecordedMillis = Math.max(lastRecordedMillis, atMillis);
+    long hourStart = atMillis - Math.floorMod(atMillis, HOUR_MILLIS);
+    for (long[] delta : unflushed) {
+      if (delta[0] == hourStart) {
+        delta[1]++;
+        delta[2] += amountMinorUnits;
+        return;
+      }
+    }
+    unflushed.add(new long[] {hourStart, 1, amountMinorUnits});
+  }
+
+  /** Count already persisted payments (warm start); not written back. */
+  void restore(int count, long amountMinorUnits, long atMillis) {
+    add(count, amountMinorUnits, atMillis);
+    lastRecordedMillis = Math.max(lastRecordedMillis, atMillis);
+  }
+
+  int count(VelocityWindow window, long nowMillis) {
+    int w = window.ordinal();
+    advance(w, nowMillis / window.bucketMillis());
+    return totalCounts[w];
+  }
+
+  long sum(VelocityWindow window, long nowMillis) {
+    int w = window.ordinal();
+    advance(w, nowMillis / window.bucketMillis());
+    return totalSums[w];
+  }
+
+  void drainUnflushed(List<VelocityTally> sink) {
+    for (long[] delta : unflushed) {
+      sink.add(
+          new VelocityTally(
+              tenantId,
+              businessUnitId,
+              accountNumber,
+              Instant.ofEpochMilli(delta[0]),
+              (int) delta[1],
+              BigDecimal.valueOf(delta[2], CompactMoney.SCALE)));
+    }
+    unflushed.clear();
+  }
+
+  boolean hasUnflushed() {
+    return !unflushed.isEmpty();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void add(int count, long amountMinorUnits, long atMillis) {
+    for (int w = 0; w < WINDOWS.length; w++) {
+      long bucket = atMillis / WINDOWS[w].bucketMillis();
+      advance(w, bucket);
+      if (newestBucket[w] - bucket >= BUCKETS) {
+        continue; // Older than the window
+      }
+      int slot = w * BUCKETS + (int) (bucket % BUCKETS);
+      counts[slot] += count;
+      sums[slot] += amountMinorUnits;
+      totalCounts[w] += count;
+      totalSums[w] += amountMinorUnits;
+    }
+  }
+
+  /** Move window w forward to {@code bucket}, dropping the buckets that fall out of it. */
+  private void advance(int w, long bucket) {
+    long newest = newestBucket[w];
+    if (bucket <= newest) {
+      return;
+    }
+    long steps = Math.min(bucket - newest, BUCKETS);
+    int base = w * BUCKETS;
+    for (long b = bucket - steps + 1; b <= bucket; b++) {
+      int slot = base + (int) (b % BUCKETS);
+      totalCounts[w] -= counts[slot];
+      totalSums[w] -= sums[slot];
+      counts[slot] = 0;
+      sums[slot] = 0;
+    }
+    newestBucket[w] = bucket;
+  }
+}
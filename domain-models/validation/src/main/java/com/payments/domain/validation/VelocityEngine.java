@@ -0,0 +1,305 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory velocity checks per tenant + account
+ *
+ * <p>Replaces a range query and a row update on {@code velocity_tracking} per payment:
+ *
+ * <ul>
+ *   <li>counts and amounts are kept in sliding {@link VelocityWindow}s of bucketed ring counters;
+ *       reading a window's totals is O(1)
+ *   <li>each account's counter is locked only for the check and the increment, so writers to
+ *       different accounts never contend
+ *   <li>new payments are added to hourly tallies in {@code velocity_tracking} in the background
+ *   <li>an account's counter is warm-started from those tallies on first use, e.g. after a restart;
+ *       restored payments count as made at the end of their hour, keeping them in the window
+ *       slightly longer rather than shorter
+ * </ul>
+ *
+ * <p>Amounts are counted in minor units without regard to currency; an account has one currency.
+ * Payments not yet flushed when the process dies are missing after the restart. While {@code
+ * velocity_tracking} cannot be written, at most {@code maxRetainedTallies} hourly tallies are kept
+ * for the next flush; the rest are dropped and counted.
+ */
+public class VelocityEngine implements AutoCloseable {
+
+  private static final long HOUR_MILLIS = 3_600_000L;
+  private static final int DEFAULT_MAX_RETAINED_TALLIES = 100_000;
+  // The longest window plus its extra bucket
+  private static final long RETENTION_MILLIS =
+      VelocityWindow.MONTHLY.getSpan().toMillis() + VelocityWindow.MONTHLY.bucketMillis();
+
+  private final ConcurrentHashMap<Key, VelocityCounter> counters = new ConcurrentHashMap<>();
+  private final VelocityRepository repository;
+  private final Clock clock;
+  private final ScheduledExecutorService flusher;
+  private final int maxRetainedTallies;
+  private List<VelocityTally> failedFlush = new ArrayList<>();
+
+  private final LongAdder checks = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder flushFailures = new LongAdder();
+  private final LongAdder droppedTallies = new LongAdder();
+
+  public VelocityEngine(VelocityRepository repository) {
+    this(repository, Duration.ofSeconds(5), Clock.systemUTC());
+  }
+
+  public VelocityEngine(VelocityRepository repository, Duration flushInterval, Clock clock) {
+    this(repository, flushInterval, clock, DEFAULT_MAX_RETAINED_TALLIES);
+  }
+
+  public VelocityEngine(
+      VelocityRepository repository, Duration flushInterval, Clock clock, int maxRetainedTallies) {
+    if (maxRetainedTallies < 0) {
+      throw new IllegalArgumentException("Max retained tallies cannot be negative");
+    }
+    this.repository = repository;
+    this.clock = clock;
+    this.maxRetainedTallies = maxRetainedTallies;
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "velocity-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = flushInterval.toMillis();
+    flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // CHECKS
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Check a payment from {@code account} against the limits and count it if all of them hold. Every
+   * limit is added to {@code result}, as an applied rule or as a failed one.
+   *
+   * @return whether the payment is within all limits
+   */
+  public boolean checkAndRecord(
+      ValidationResult result, AccountNumber account, Money amount, List<VelocityLimit> limits) {
+    TenantContext tenant = result.getTenantContext();
+    long amountMinorUnits = amount.toCompact().getMinorUnits();
+    long now = clock.millis();
+    checks.increment();
+
+    FailedRule[] failures = null;
+    while (true) {
+      VelocityCounter counter = counterFor(tenant, account, now);
+      synchronized (counter) {
+        if (counter.retired) {
+          continue;
+        }
+        for (int i = 0; i < limits.size(); i++) {
+          VelocityLimit limit = limits.get(i);
+          VelocityWindow window = limit.getWindow();
+          int count = counter.count(window, now) + 1;
+          long sum = counter.sum(window, now) + amountMinorUnits;
+          if (limit.isExceededBy(count, sum)) {
+            if (failures == null) {
+              failures = new FailedRule[limits.size()];
+            }
+            failures[i] = failedRule(limit, count, sum);
+          }
+        }
+        if (failures == null) {
+          counter.record(amountMinorUnits, now);
+        }
+      }
+      break;
+    }
+
+    for (int i = 0; i < limits.size(); i++) {
+      if (failures != null && failures[i] != null) {
+        result.addFailedRule(failures[i]);
+      } else {
+        result.addAppliedRule(limits.get(i).rule);
+      }
+    }
+    if (failures != null) {
+      rejections.increment();
+    }
+    return failures == null;
+  }
+
+  /** Payments counted for the account in the window, ending now. */
+  public VelocityUsage getUsage(
+      TenantContext tenant, AccountNumber account, VelocityWindow window) {
+    long now = clock.millis();
+    while (true) {
+      VelocityCounter counter = counterFor(tenant, account, now);
+      synchronized (counter) {
+        if (!counter.retired) {
+          return new VelocityUsage(
+              window,
+              counter.count(window, now),
+              BigDecimal.valueOf(counter.sum(window, now), CompactMoney.SCALE));
+        }
+      }
+    }
+  }
+
+  public long getCheckCount() {
+    return checks.sum();
+  }
+
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  public long getFlushFailureCount() {
+    return flushFailures.sum();
+  }
+
+  /** Hourly tallies lost because too many were already waiting for a failed flush to succeed. */
+  public long getDroppedTallyCount() {
+    return droppedTallies.sum();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // WRITE-BACK
+  // ─────────────────────────────────────────────────────────
+
+  /**
+   * Add the payments counted since the last flush to {@code velocity_tracking} now, and drop the
+   * counters of accounts idle for longer than the longest window.
+   */
+  public synchronized void flush() {
+    List<VelocityTally> pending = failedFlush;
+    failedFlush = new ArrayList<>();
+    long now = clock.millis();
+    for (Iterator<Map.Entry<Key, VelocityCounter>> it = counters.entrySet().iterator();
+        it.hasNext(); ) {
+      VelocityCounter counter = it.next().getValue();
+      synchronized (counter) {
+        counter.drainUnflushed(pending);
+        if (now - counter.lastRecordedMillis > RETENTION_MILLIS) {
+          counter.retired = true;
+          it.remove();
+        }
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+    try {
+      repository.addHourly(pending);
+    } catch (RuntimeException e) {
+      if (pending.size() > maxRetainedTallies) {
+        droppedTallies.add(pending.size() - maxRetainedTallies);
+        pending.subList(maxRetainedTallies, pending.size()).clear();
+      }
+      failedFlush = pending;
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  // ─────────────────────────────────────────────────────────
+  // PRIVATE HELPERS
+  // ─────────────────────────────────────────────────────────
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      // Kept for the next flush
+      flushFailures.increment();
+    }
+  }
+
+  private VelocityCounter counterFor(TenantContext tenant, AccountNumber account, long now) {
+    Key key = new Key(tenant.getTenantId(), account);
+    VelocityCounter counter = counters.get(key);
+    if (counter != null) {
+      return counter;
+    }
+    // Warm start outside any lock; a concurrent loader of the same account may win the insert
+    VelocityCounter loaded =
+        new VelocityCounter(tenant.getTenantId(), tenant.getBusinessUnitId(), account);
+    Instant since = Instant.ofEpochMilli(now - RETENTION_MILLIS - HOUR_MILLIS);
+    for (VelocityTally tally : repository.findHourly(tenant.getTenantId(), account, since)) {
+      long endOfHour = tally.getHourStart().toEpochMilli() + HOUR_MILLIS - 1;
+      long amountMinorUnits = tally.getAmount().movePointRight(CompactMoney.SCALE).longValueExact();
+      loaded.restore(tally.getCount(), amountMinorUnits, Math.min(endOfHour, now));
+    }
+    VelocityCounter existing = counters.putIfAbsent(key, loaded);
+    return existing != null ? existing : loaded;
+  }
+
+  private static FailedRule failedRule(VelocityLimit limit, int count, long sumMinorUnits) {
+    return new FailedRule(
+        FailedRuleId.generate(),
+        limit.getRuleName(),
+        RuleType.VELOCITY.name(),
+        "Velocity limit exceeded: "
+            + count
+            + " payments totalling "
+            + BigDecimal.valueOf(sumMinorUnits, CompactMoney.SCALE).toPlainString()
+            + " in the last "
+            + limit.getWindow().getSpan()
+            + " ("
+            + limit.rule.getRuleDescription()
+            + ")",
+        "debtorAccount");
+  }
+
+  private static final class Key {
+    final String tenantId;
+    final AccountNumber accountNumber;
+    final int hash;
+
+    Key(String tenantId, AccountNumber accountNumber) {
+      this.tenantId = Objects.requireNonNull(tenantId, "tenantId");
+      this.accountNumber = Objects.requireNonNull(accountNumber, "accountNumber");
+      this.hash = 31 * tenantId.hashCode() + accountNumber.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hash == other.hash
+          && tenantId.equals(other.tenantId)
+          && accountNumber.equals(other.accountNumber);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
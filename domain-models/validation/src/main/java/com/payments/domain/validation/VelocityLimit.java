@@ -0,0 +1,78 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import lombok.Getter;
+
+/**
+ * Maximum number and/or amount of payments an account may make within a {@link VelocityWindow},
+ * including the payment being validated.
+ */
+public class VelocityLimit {
+
+  @Getter private final VelocityWindow window;
+  @Getter private final Integer maxCount;
+  @Getter private final Money maxAmount;
+  private final long maxAmountMinorUnits;
+  // Added to ValidationResult when the limit is checked and holds
+  final ValidationRule rule;
+
+  private VelocityLimit(VelocityWindow window, Integer maxCount, Money maxAmount) {
+    if (maxCount == null && maxAmount == null) {
+      throw new IllegalArgumentException("A velocity limit needs a maximum count or amount");
+    }
+    this.window = window;
+    this.maxCount = maxCount;
+    this.maxAmount = maxAmount;
+    this.maxAmountMinorUnits =
+        maxAmount != null ? maxAmount.toCompact().getMinorUnits() : Long.MAX_VALUE;
+    this.rule =
+        new ValidationRule(
+            ValidationRuleId.generate(),
+            getRuleName(),
+            RuleType.VELOCITY,
+            "At most " + describe() + " per " + window.getSpan(),
+            condition(),
+            null,
+            true);
+  }
+
+  public static VelocityLimit of(VelocityWindow window, Integer maxCount, Money maxAmount) {
+    return new VelocityLimit(window, maxCount, maxAmount);
+  }
+
+  public static VelocityLimit ofCount(VelocityWindow window, int maxCount) {
+    return new VelocityLimit(window, maxCount, null);
+  }
+
+  public static VelocityLimit ofAmount(VelocityWindow window, Money maxAmount) {
+    return new VelocityLimit(window, null, maxAmount);
+  }
+
+  public String getRuleName() {
+    return "VELOCITY_" + window.name();
+  }
+
+  boolean isExceededBy(int count, long amountMinorUnits) {
+    return (maxCount != null && count > maxCount) || amountMinorUnits > maxAmountMinorUnits;
+  }
+
+  private String describe() {
+    if (maxAmount == null) {
+      return maxCount + " payments";
+    }
+    String amount = maxAmount.getAmount().toPlainString() + " " + maxAmount.getCurrency();
+    return maxCount == null ? amount : maxCount + " payments and " + amount;
+  }
+
+  /** Same shape as the {@code rule_condition} JSON of velocity rules in validation_rules. */
+  private String condition() {
+    StringBuilder json = new StringBuilder("{\"window\": \"").append(window).append('"');
+    if (maxCount != null) {
+      json.append(", \"max_transactions\": ").append(maxCount);
+    }
+    if (maxAmount != null) {
+      json.append(", \"max_amount\": ").append(maxAmount.getAmount().toPlainString());
+    }
+    return json.append('}').toString();
+  }
+}
@@ -0,0 +1,15 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.time.Instant;
+import java.util.List;
+
+/** Repository port: hourly tallies in the {@code velocity_tracking} table. */
+public interface VelocityRepository {
+
+  /** Hourly tallies of the account whose hour starts at or after {@code since}. */
+  List<VelocityTally> findHourly(String tenantId, AccountNumber accountNumber, Instant since);
+
+  /** Add the given counts and amounts to the hourly tallies, creating missing ones. */
+  void addHourly(List<VelocityTally> deltas);
+}
@@ -0,0 +1,18 @@
+package com.payments.domain.validation;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.*;
+
+/** Payments of one account within one clock hour: an {@code HOURLY} row of velocity_tracking. */
+@Value
+@AllArgsConstructor
+public class VelocityTally {
+  String tenantId;
+  String businessUnitId;
+  AccountNumber accountNumber;
+  Instant hourStart;
+  int count;
+  BigDecimal amount;
+}
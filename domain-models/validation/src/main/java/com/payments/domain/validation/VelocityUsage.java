@@ -0,0 +1,13 @@
+package com.payments.domain.validation;
+
+import java.math.BigDecimal;
+import lombok.*;
+
+/** Payments counted in one velocity window of an account. */
+@Value
+@AllArgsConstructor
+public class VelocityUsage {
+  VelocityWindow window;
+  int count;
+  BigDecimal amount;
+}
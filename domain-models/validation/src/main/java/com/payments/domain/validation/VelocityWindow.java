@@ -0,0 +1,35 @@
+package com.payments.domain.validation;
+
+import java.time.Duration;
+
+/**
+ * Sliding velocity windows (the {@code window_type} values of {@code velocity_tracking})
+ *
+ * <p>Each window is tracked in {@link #BUCKETS} buckets of 1/30 of its span: the current bucket
+ * plus 30 full ones. A window therefore covers at least its span and at most 1/30 more, so limits
+ * err on the strict side.
+ */
+public enum VelocityWindow {
+  HOURLY(Duration.ofHours(1)),
+  DAILY(Duration.ofDays(1)),
+  WEEKLY(Duration.ofDays(7)),
+  MONTHLY(Duration.ofDays(30));
+
+  static final int BUCKETS = 31;
+
+  private final Duration span;
+  private final long bucketMillis;
+
+  VelocityWindow(Duration span) {
+    this.span = span;
+    this.bucketMillis = span.toMillis() / (BUCKETS - 1);
+  }
+
+  public Duration getSpan() {
+    return span;
+  }
+
+  long bucketMillis() {
+    return bucketMillis;
+  }
+}
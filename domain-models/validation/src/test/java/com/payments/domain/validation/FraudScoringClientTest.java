@@ -0,0 +1,322 @@
+package com.payments.domain.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class FraudScoringClientTest {
+
+  private static final TenantContext TENANT = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+
+  private final StubApi api = new StubApi();
+  private final List<FraudDetectionLog> logs = Collections.synchronizedList(new ArrayList<>());
+  private final List<FraudApiMetrics> metrics = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  void concurrent_requests_share_api_calls() throws InterruptedException {
+    api.delayMillis = 20;
+    int payments = 32;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    try (FraudScoringClient client = client(Duration.ofSeconds(1), Duration.ofSeconds(1))) {
+      for (int i = 0; i < payments; i++) {
+        String amount = (100 + i) + ".00";
+        Thread thread =
+            new Thread(
+                () -> {
+                  try {
+                    start.await();
+                  } catch (InterruptedException e) {
+                    return;
+                  }
+                  assertFalse(client.score(request(amount)).isFallbackUsed());
+                });
+        threads.add(thread);
+        thread.start();
+      }
+      start.countDown();
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertTrue(client.getApiCallCount() < payments, "calls: " + client.getApiCallCount());
+      assertEquals(payments, api.scored.get());
+    }
+    assertEquals(payments, logs.size());
+  }
+
+  @Test
+  void identical_payment_is_scored_from_the_cache() {
+    try (FraudScoringClient client = client(Duration.ofSeconds(1), Duration.ofSeconds(1))) {
+      FraudAssessment first = client.score(request("250.00"));
+      FraudAssessment second = client.score(request("250.00"));
+
+      assertSame(first, second);
+      assertEquals(1, client.getApiCallCount());
+      assertEquals(1, client.getCacheHitCount());
+    }
+    assertEquals(2, logs.size());
+    assertEquals(1, metrics.get(0).getTotalCalls());
+    assertNotNull(logs.get(0).getApiResponseTimeMs());
+    assertNull(logs.get(1).getApiResponseTimeMs());
+  }
+
+  @Test
+  void slow_api_falls_back_to_the_fraud_rules() {
+    api.delayMillis = 2_000;
+    try (FraudScoringClient client = client(Duration.ofSeconds(5), Duration.ofMillis(50))) {
+      ValidationResult result =
+          ValidationResult.create(ValidationId.generate(), TENANT, PaymentId.generate());
+
+      assertFalse(client.check(request("5000.00"), result));
+
+      assertEquals(RiskLevel.CRITICAL, result.getRiskLevel());
+      assertEquals("FRAUD_SCORE", result.getFailedRules().get(0).getRuleName());
+      assertEquals(1, client.getTimeoutCount());
+      assertEquals(1, client.getFallbackCount());
+    }
+    assertTrue(logs.get(0).isFallbackUsed());
+    assertEquals(List.of("Large payment"), logs.get(0).getFraudReasons());
+    assertEquals(1, metrics.get(0).getTimeoutCalls());
+    assertEquals(1, metrics.get(0).getFallbackCalls());
+    assertTrue(metrics.get(0).getP99ResponseTimeMs() >= 50);
+  }
+
+  @Test
+  void unanswered_call_is_hedged() {
+    api.hangFirstCall = true;
+    try (FraudScoringClient client = client(Duration.ofMillis(20), Duration.ofSeconds(1))) {
+      FraudAssessment assessment = client.score(request("100.00"));
+
+      assertFalse(assessment.isFallbackUsed());
+      assertEquals(1, client.getHedgedCallCount());
+      assertEquals(2, client.getApiCallCount());
+    }
+  }
+
+  @Test
+  void failed_hedge_leaves_the_payment_to_the_slower_call() {
+    api.delayMillis = 200;
+    api.failSecondCall = true;
+    try (FraudScoringClient client = client(Duration.ofMillis(20), Duration.ofSeconds(1))) {
+      FraudAssessment assessment = client.score(request("100.00"));
+
+      assertFalse(assessment.isFallbackUsed());
+      assertEquals(1, client.getHedgedCallCount());
+      assertEquals(1, client.getApiFailureCount());
+      assertEquals(0, client.getFallbackCount());
+    }
+  }
+
+  @Test
+  void hedges_are_held_to_the_hedge_budget() {
+    api.delayMillis = 40;
+    int payments = 30;
+    try (FraudScoringClient client = client(Duration.ofMillis(5), Duration.ofSeconds(1))) {
+      for (int i = 0; i < payments; i++) {
+        assertFalse(client.score(request((100 + i) + ".00")).isFallbackUsed());
+      }
+
+      // A burst of ten, then one per ten calls
+      long hedged = client.getHedgedCallCount();
+      assertTrue(hedged >= 10 && hedged <= 13, "hedged: " + hedged);
+      assertEquals(payments, hedged + client.getSkippedHedgeCount());
+    }
+  }
+
+  @Test
+  void abandoned_payments_are_not_sent_and_a_full_caller_queue_fails_at_once()
+      throws InterruptedException {
+    api.gate = new CountDownLatch(1);
+    try (FraudScoringClient client = client(Duration.ZERO, Duration.ofMillis(30))) {
+      // Eight calls hold every caller thread, 32 more fill their queue
+      for (int i = 0; i < 40; i++) {
+        assertTrue(client.score(request((100 + i) + ".00")).isFallbackUsed());
+      }
+      assertEquals(0, client.getRejectedCallCount());
+      assertTrue(client.score(request("999.00")).isFallbackUsed());
+      assertEquals(1, client.getRejectedCallCount());
+      // Failed without waiting for its timeout
+      assertEquals(41, client.getFallbackCount());
+      assertEquals(40, client.getTimeoutCount());
+
+      api.gate.countDown();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (client.getAbandonedScoreCount() < 32 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(32, client.getAbandonedScoreCount());
+      assertEquals(8, client.getApiCallCount());
+    }
+  }
+
+  @Test
+  void fallback_evaluates_platform_velocity_rules_and_never_approves_outright() throws Exception {
+    api.delayMillis = 2_000;
+    String over1000 = "{\"field\": \"amount\", \"op\": \"gt\", \"value\": 1000}";
+    FraudRule large = rule("FR-1", "Large payment", over1000, "0.90");
+    FraudRule platform =
+        rule("FRAUD-RULE-001", "High velocity check", "{\"max_transactions_per_hour\": 2}", "0.30");
+    FraudRuleRepository rules =
+        (tenantId, businessUnitId) -> List.of(tenantId.equals("PLATFORM") ? platform : large);
+    try (VelocityEngine velocity = new VelocityEngine(new NoTallies());
+        FraudScoringClient client = client(rules, velocity, Duration.ZERO, Duration.ofMillis(20))) {
+      FraudAssessment first = client.score(request("100.00"));
+      assertEquals(BigDecimal.ZERO.setScale(4), first.getFraudScore());
+      assertEquals(FraudRecommendation.APPROVE_WITH_MONITORING, first.getRecommendation());
+
+      for (int i = 0; i < 2; i++) {
+        ValidationResult result =
+            ValidationResult.create(ValidationId.generate(), TENANT, PaymentId.generate());
+        Money amount = Money.zar(new BigDecimal("100.00"));
+        velocity.checkAndRecord(result, AccountNumber.of("12345678901"), amount, List.of());
+      }
+      FraudAssessment third = client.score(request("100.00"));
+      assertEquals(new BigDecimal("0.3000"), third.getFraudScore());
+      assertEquals(List.of("High velocity check"), third.getReasons());
+    }
+  }
+
+  @Test
+  void fallback_with_no_evaluable_rule_requires_verification() {
+    api.delayMillis = 2_000;
+    FraudRuleRepository rules =
+        (tenantId, businessUnitId) ->
+            List.of(
+                rule("FR-1", "Foreign IP address", "{\"allowed_countries\": [\"ZA\"]}", "0.20"),
+                rule("FR-2", "Velocity", "{\"max_transactions_per_hour\": 10}", "0.30"));
+    try (FraudScoringClient client = client(rules, null, Duration.ZERO, Duration.ofMillis(20))) {
+      FraudAssessment assessment = client.score(request("100.00"));
+
+      assertTrue(assessment.isFallbackUsed());
+      assertEquals(FraudRecommendation.REQUIRE_VERIFICATION, assessment.getRecommendation());
+      assertEquals(1, client.getUnassessedFallbackCount());
+      // allowed_countries, once each for the business unit's and the platform's rules
+      assertEquals(2, client.getSkippedFallbackRuleCount());
+    }
+  }
+
+  private FraudScoringClient client(Duration hedgeDelay, Duration timeout) {
+    // The business unit's rules; the platform has none
+    FraudRuleRepository rules =
+        (tenantId, businessUnitId) ->
+            tenantId.equals("PLATFORM")
+                ? List.of()
+                : List.of(
+                    new FraudRule(
+                        "FR-1",
+                        "Large payment",
+                        "AMOUNT",
+                        "{\"field\": \"amount\", \"op\": \"gt\", \"value\": 1000}",
+                        new BigDecimal("0.90"),
+                        1,
+                        tenantId,
+                        businessUnitId),
+                    new FraudRule(
+                        "FR-2",
+                        "High velocity check",
+                        "VELOCITY",
+                        "{\"max_transactions_per_hour\": 10}",
+                        new BigDecimal("0.30"),
+                        2,
+                        tenantId,
+                        businessUnitId));
+    return client(rules, null, hedgeDelay, timeout);
+  }
+
+  private FraudScoringClient client(
+      FraudRuleRepository rules, VelocityEngine velocity, Duration hedgeDelay, Duration timeout) {
+    return new FraudScoringClient(
+        api,
+        rules,
+        logs::addAll,
+        metrics::addAll,
+        velocity,
+        16,
+        Duration.ofMillis(5),
+        hedgeDelay,
+        timeout,
+        Duration.ofMinutes(1));
+  }
+
+  private static FraudRule rule(String id, String name, String condition, String contribution) {
+    return new FraudRule(
+        id, name, "PATTERN", condition, new BigDecimal(contribution), 1, "PLATFORM", "PLATFORM");
+  }
+
+  private static ValidationRequest request(String amount) {
+    Money money = Money.zar(new BigDecimal(amount));
+    AccountNumber source = AccountNumber.of("12345678901");
+    AccountNumber destination = AccountNumber.of("10987654321");
+    return new ValidationRequest(
+        TENANT,
+        PaymentId.generate(),
+        "CUST-1",
+        "EFT",
+        money,
+        source,
+        destination,
+        PaymentFacts.of(money, "EFT", source, destination));
+  }
+
+  private static final class NoTallies implements VelocityRepository {
+    @Override
+    public List<VelocityTally> findHourly(
+        String tenantId, AccountNumber accountNumber, Instant since) {
+      return List.of();
+    }
+
+    @Override
+    public void addHourly(List<VelocityTally> deltas) {}
+  }
+
+  /**
+   * Scores every payment 0.1 after a delay; can leave its first call unanswered, fail its second,
+   * or hold every call until a gate opens.
+   */
+  private static final class StubApi implements FraudScoringApi {
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicInteger scored = new AtomicInteger();
+    volatile long delayMillis;
+    volatile boolean hangFirstCall;
+    volatile boolean failSecondCall;
+    volatile CountDownLatch gate;
+
+    @Override
+    public List<FraudAssessment> score(List<ValidationRequest> requests) {
+      int call = calls.incrementAndGet();
+      if (failSecondCall && call == 2) {
+        throw new IllegalStateException("Fraud API unavailable");
+      }
+      try {
+        if (gate != null) {
+          gate.await();
+        }
+        Thread.sleep(hangFirstCall && call == 1 ? 10_000 : delayMillis);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      List<FraudAssessment> assessments = new ArrayList<>();
+      for (ValidationRequest request : requests) {
+        assessments.add(
+            FraudAssessment.ofScore(new BigDecimal("0.1"), List.of(), "stub-model-1", false));
+        scored.incrementAndGet();
+      }
+      return assessments;
+    }
+
+    @Override
+    public String getProvider() {
+      return "stub";
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.payments.domain.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LimitReservationEngineTest {
+
+  private static final String CUSTOMER = "CUST-1";
+  private static final Instant START = Instant.parse("2024-03-01T10:00:00Z");
+
+  private final MutableClock clock = new MutableClock(START);
+  private final FakeRepository repository = new FakeRepository();
+
+  @Test
+  void reservations_fail_over_the_daily_limit_until_one_is_released() {
+    try (LimitReservationEngine engine = engine()) {
+      LimitReservation first = engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("600"));
+      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("400"));
+
+      LimitExceededException rejected =
+          assertThrows(
+              LimitExceededException.class,
+              () -> engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("0.01")));
+      assertEquals("DAILY_LIMIT", rejected.getLimitName());
+
+      engine.release(first.getReservationId());
+      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("600"));
+      assertEquals(1, engine.getRejectionCount());
+    }
+  }
+
+  @Test
+  void reservation_is_released_by_its_payment() {
+    try (LimitReservationEngine engine = engine()) {
+      PaymentId payment = PaymentId.generate();
+      LimitReservation reservation = engine.reserve(CUSTOMER, payment, "EFT", zar("1000"));
+
+      assertTrue(engine.releasePayment(payment));
+      assertFalse(engine.releasePayment(payment));
+      assertTrue(engine.getOutstandingReservation(reservation.getReservationId()).isEmpty());
+      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("1000"));
+    }
+  }
+
+  @Test
+  void payment_type_limit_applies_to_its_type_only() {
+    try (LimitReservationEngine engine = engine()) {
+      engine.reserve(CUSTOMER, PaymentId.generate(), "RTC", zar("300"));
+
+      LimitExceededException rejected =
+          assertThrows(
+              LimitExceededException.class,
+              () -> engine.reserve(CUSTOMER, PaymentId.generate(), "RTC", zar("1")));
+      assertEquals("RTC_DAILY_LIMIT", rejected.getLimitName());
+      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("700"));
+    }
+  }
+
+  @Test
+  void expired_reservations_free_the_limit_and_cannot_be_consumed() {
+    try (LimitReservationEngine engine = engine()) {
+      LimitReservation held = engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("1000"));
+
+      clock.advance(Duration.ofMinutes(16));
+      engine.expireOverdue();
+
+      assertEquals(1, engine.getExpirationCount());
+      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("1000"));
+      assertThrows(IllegalArgumentException.class, () -> engine.consume(held.getReservationId()));
+    }
+    assertTrue(
+        repository.history.stream().anyMatch(h -> h.getOperation() == LimitOperation.RELEASE));
+  }
+
+  @Test
+  void concurrent_reservations_never_exceed_the_limit() throws InterruptedException {
+    AtomicInteger accepted = new AtomicInteger();
+    try (LimitReservationEngine engine = engine()) {
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        Thread thread =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < 500; i++) {
+                    try {
+                      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("1"));
+                      accepted.incrementAndGet();
+                    } catch (LimitExceededException e) {
+                      // Expected once the limit is used up
+                    }
+                  }
+                });
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    }
+
+    assertEquals(1000, accepted.get());
+  }
+
+  @Test
+  void a_new_engine_rebuilds_usage_and_outstanding_reservations_from_the_tables() {
+    try (LimitReservationEngine engine = engine()) {
+      LimitReservation consumed = engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("250"));
+      engine.consume(consumed.getReservationId());
+      engine.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("500"));
+    }
+    LimitUsage saved = repository.usage.get(CUSTOMER + "/null");
+    assertEquals(new BigDecimal("250.00"), saved.getDailyUsed());
+    assertEquals(new BigDecimal("250.00"), saved.getMonthlyUsed());
+
+    try (LimitReservationEngine restarted = engine()) {
+      assertEquals(new BigDecimal("250.00"), restarted.getUsage(CUSTOMER).getDailyUsed());
+      assertThrows(
+          LimitExceededException.class,
+          () -> restarted.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("250.01")));
+      restarted.reserve(CUSTOMER, PaymentId.generate(), "EFT", zar("250"));
+    }
+  }
+
+  private LimitReservationEngine engine() {
+    return new LimitReservationEngine(
+        repository, Duration.ofMinutes(15), Duration.ofHours(1), clock);
+  }
+
+  private static Money zar(String amount) {
+    return Money.zar(new BigDecimal(amount));
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  /** Daily 1000, monthly 5000, RTC at most 300 a day; keeps the latest row per key. */
+  private static final class FakeRepository implements LimitRepository {
+    final Map<PaymentId, LimitReservation> reservations = new LinkedHashMap<>();
+    final Map<String, LimitUsage> usage = new LinkedHashMap<>();
+    final List<LimitUsageHistory> history = new ArrayList<>();
+
+    @Override
+    public List<CustomerLimits> findActiveLimits(LocalDate date) {
+      return List.of(
+          new CustomerLimits(
+              CUSTOMER,
+              "t1",
+              "bu1",
+              new BigDecimal("1000.00"),
+              new BigDecimal("5000.00"),
+              new BigDecimal("1000.00"),
+              100_000,
+              List.of(new PaymentTypeLimit("RTC", new BigDecimal("300.00"), null, null))));
+    }
+
+    @Override
+    public List<LimitUsage> findUsageSince(LocalDate from) {
+      List<LimitUsage> found = new ArrayList<>();
+      for (LimitUsage row : usage.values()) {
+        if (!row.getUsageDate().isBefore(from)) {
+          found.add(row);
+        }
+      }
+      return found;
+    }
+
+    @Override
+    public List<LimitReservation> findReserved() {
+      List<LimitReservation> found = new ArrayList<>();
+      for (LimitReservation reservation : reservations.values()) {
+        if (reservation.getStatus() == LimitReservationStatus.RESERVED) {
+          found.add(reservation);
+        }
+      }
+      return found;
+    }
+
+    @Override
+    public void saveState(List<LimitReservation> reservations, List<LimitUsage> usage) {
+      for (LimitReservation reservation : reservations) {
+        this.reservations.put(reservation.getPaymentId(), reservation);
+      }
+      for (LimitUsage row : usage) {
+        this.usage.put(row.getCustomerId() + "/" + row.getPaymentType(), row);
+      }
+    }
+
+    @Override
+    public synchronized void addHistory(List<LimitUsageHistory> history) {
+      this.history.addAll(history);
+    }
+  }
+}
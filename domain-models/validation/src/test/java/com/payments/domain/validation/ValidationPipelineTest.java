@@ -0,0 +1,179 @@
+package com.payments.domain.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ValidationPipelineTest {
+
+  private static final TenantContext TENANT = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+  private static final Duration SECOND = Duration.ofSeconds(1);
+
+  @Test
+  void stages_run_concurrently_and_are_merged_in_stage_order() {
+    List<ValidationStage> stages =
+        List.of(
+            ValidationStage.of("FRAUD", SECOND, slowPass("FRAUD_SCORE", 200)),
+            ValidationStage.of("VELOCITY", SECOND, slowPass("VELOCITY_HOURLY", 200)),
+            ValidationStage.of("BUSINESS_RULE", SECOND, slowPass("MAX_AMOUNT", 200)));
+    try (ValidationPipeline pipeline = new ValidationPipeline("validator", stages, 8)) {
+      long start = System.nanoTime();
+      ValidationResult result = pipeline.validate(request());
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      assertTrue(result.isValid());
+      assertTrue(elapsedMillis < 500, "took " + elapsedMillis + "ms");
+      assertEquals(new BigDecimal("0.1000"), result.getFraudScore());
+      assertEquals(
+          List.of("FRAUD_SCORE", "VELOCITY_HOURLY", "MAX_AMOUNT"),
+          result.getAppliedRules().stream().map(ValidationRule::getRuleName).toList());
+    }
+  }
+
+  @Test
+  void stage_past_its_deadline_fails_the_payment() {
+    List<ValidationStage> stages =
+        List.of(
+            ValidationStage.of("FRAUD", Duration.ofMillis(100), slowPass("FRAUD_SCORE", 5_000)),
+            ValidationStage.of("BUSINESS_RULE", SECOND, slowPass("MAX_AMOUNT", 0)));
+    try (ValidationPipeline pipeline = new ValidationPipeline("validator", stages, 8)) {
+      ValidationResult result = pipeline.validate(request());
+
+      assertTrue(result.isInvalid());
+      assertEquals("FRAUD", result.getFailedRules().get(0).getRuleName());
+      assertEquals(1, result.getAppliedRules().size());
+      assertEquals(1, pipeline.getTimeoutCount());
+    }
+  }
+
+  @Test
+  void hard_failure_cancels_the_stages_still_running() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    ValidationCheck blocking =
+        (request, result) -> {
+          started.countDown();
+          try {
+            Thread.sleep(10_000);
+          } catch (InterruptedException e) {
+            interrupted.countDown();
+          }
+          return true;
+        };
+    // Fails once the blocking stage runs, so there is a running stage to interrupt
+    ValidationCheck overLimit =
+        (request, result) -> {
+          try {
+            started.await(1, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          throw new LimitExceededException("DAILY_LIMIT", "Daily limit exceeded");
+        };
+    List<ValidationStage> stages =
+        List.of(
+            ValidationStage.of("FRAUD", Duration.ofSeconds(30), blocking),
+            ValidationStage.hardFail("LIMIT", SECOND, overLimit));
+    try (ValidationPipeline pipeline = new ValidationPipeline("validator", stages, 8)) {
+      long start = System.nanoTime();
+      ValidationResult result = pipeline.validate(request());
+
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+      assertTrue(result.isInvalid());
+      assertEquals(1, result.getFailedRules().size());
+      assertEquals("DAILY_LIMIT", result.getFailedRules().get(0).getRuleName());
+      assertEquals("LIMIT", result.getFailedRules().get(0).getRuleType());
+      assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+      assertEquals(1, pipeline.getCancellationCount());
+    }
+  }
+
+  @Test
+  void reservation_of_a_cancelled_stage_is_released() throws InterruptedException {
+    Set<PaymentId> reserved = ConcurrentHashMap.newKeySet();
+    CountDownLatch reservedOne = new CountDownLatch(1);
+    CountDownLatch released = new CountDownLatch(1);
+    // Reserves, then is still waiting on a slow check when the hard failure cancels it
+    ValidationCheck limits =
+        (request, result) -> {
+          reserved.add(request.getPaymentId());
+          reservedOne.countDown();
+          try {
+            Thread.sleep(10_000);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return true;
+        };
+    ValidationCheck sanctions =
+        (request, result) -> {
+          try {
+            reservedOne.await(1, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return false;
+        };
+    List<ValidationStage> stages =
+        List.of(
+            ValidationStage.of("LIMIT", Duration.ofSeconds(30), limits)
+                .withCompensation(
+                    (request, result) -> {
+                      reserved.remove(request.getPaymentId());
+                      released.countDown();
+                    }),
+            ValidationStage.hardFail("SANCTIONS", SECOND, sanctions));
+    try (ValidationPipeline pipeline = new ValidationPipeline("validator", stages, 8)) {
+      ValidationResult result = pipeline.validate(request());
+
+      assertTrue(result.isInvalid());
+      assertTrue(released.await(1, TimeUnit.SECONDS));
+      assertTrue(reserved.isEmpty());
+      assertEquals(1, pipeline.getCancellationCount());
+      assertEquals(1, pipeline.getCompensationCount());
+    }
+  }
+
+  /** Sleeps, then passes with one applied rule; the FRAUD_SCORE rule also sets a fraud score. */
+  private static ValidationCheck slowPass(String ruleName, long sleepMillis) {
+    ValidationRule rule =
+        new ValidationRule(
+            ValidationRuleId.generate(), ruleName, RuleType.BUSINESS_RULE, null, null, 1, true);
+    return (request, result) -> {
+      try {
+        Thread.sleep(sleepMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      if (ruleName.equals("FRAUD_SCORE")) {
+        result.setFraudAssessment(new BigDecimal("0.1000"), RiskLevel.LOW);
+      }
+      result.addAppliedRule(rule);
+      return true;
+    };
+  }
+
+  private static ValidationRequest request() {
+    Money amount = Money.zar(new BigDecimal("100.00"));
+    AccountNumber source = AccountNumber.of("12345678901");
+    AccountNumber destination = AccountNumber.of("10987654321");
+    return new ValidationRequest(
+        TENANT,
+        PaymentId.generate(),
+        "CUST-1",
+        "EFT",
+        amount,
+        source,
+        destination,
+        PaymentFacts.of(amount, "EFT", source, destination));
+  }
+}
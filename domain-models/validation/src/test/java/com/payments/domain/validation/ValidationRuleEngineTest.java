@@ -0,0 +1,124 @@
+package com.payments.domain.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ValidationRuleEngineTest {
+
+  private static final TenantContext TENANT = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+
+  private final FakeRepository repository = new FakeRepository();
+
+  @Test
+  void nested_conditions_are_evaluated_against_the_payment() {
+    repository.rules.add(
+        rule(
+            "R1",
+            10,
+            "{\"any\": ["
+                + compare("payment_type", "in", "[\"RTC\", \"EFT\"]")
+                + ", {\"all\": ["
+                + compare("amount", "lte", "100.50")
+                + ", {\"not\": {\"field\": \"channel\", \"op\": \"exists\"}}]}]}"));
+    ValidationRuleEngine engine = new ValidationRuleEngine(repository);
+
+    assertTrue(engine.evaluate(newResult(), facts("5000.00", "EFT")));
+    assertTrue(engine.evaluate(newResult(), facts("100.50", "SWIFT")));
+    assertFalse(engine.evaluate(newResult(), facts("100.51", "SWIFT")));
+    assertFalse(
+        engine.evaluate(newResult(), facts("1.00", "SWIFT").with(RuleField.CHANNEL, "MOBILE")));
+  }
+
+  @Test
+  void rules_run_in_priority_order_and_stop_at_the_first_failure() {
+    repository.rules.add(rule("LATE", 30, compare("currency", "eq", "\"ZAR\"")));
+    repository.rules.add(rule("MAX", 20, compare("amount", "lt", "1000")));
+    repository.rules.add(rule("MIN", 10, compare("amount", "gt", "0")));
+    ValidationRuleEngine engine = new ValidationRuleEngine(repository);
+
+    ValidationResult result = newResult();
+    assertFalse(engine.evaluate(result, facts("1000.00", "EFT")));
+
+    FailedRule failed = result.getFailedRules().get(0);
+    assertEquals("MAX", failed.getRuleName());
+    assertEquals("amount", failed.getField());
+    assertEquals(1, result.getFailedRules().size());
+    assertEquals(List.of("MIN"), appliedRuleNames(result));
+  }
+
+  @Test
+  void invalid_condition_is_left_out_counted_and_not_recompiled() {
+    repository.rules.add(rule("BAD", 1, compare("amount", "matches", "\"1\"")));
+    repository.rules.add(rule("MAX", 2, compare("amount", "lt", "1000")));
+    ValidationRuleEngine engine = new ValidationRuleEngine(repository);
+
+    assertTrue(engine.evaluate(newResult(), facts("1.00", "EFT")));
+    assertFalse(engine.evaluate(newResult(), facts("5000.00", "EFT")));
+
+    CompiledRuleSet ruleSet = engine.getRuleSet("t1", "bu1");
+    assertEquals(1, ruleSet.size());
+    String invalid = ruleSet.getInvalidRules().get(0);
+    assertTrue(invalid.startsWith("Rule BAD-ID (BAD)"), invalid);
+    assertEquals(1, engine.getInvalidRuleCount());
+    assertEquals(1, repository.loads);
+  }
+
+  @Test
+  void compiled_rules_are_cached_until_invalidated() {
+    repository.rules.add(rule("MIN", 10, compare("amount", "gt", "0")));
+    ValidationRuleEngine engine = new ValidationRuleEngine(repository);
+
+    engine.evaluate(newResult(), facts("1.00", "EFT"));
+    engine.evaluate(newResult(), facts("2.00", "EFT"));
+    assertEquals(1, repository.loads);
+
+    engine.invalidate("t1", "bu1");
+    engine.evaluate(newResult(), facts("3.00", "EFT"));
+    assertEquals(2, repository.loads);
+  }
+
+  private static List<String> appliedRuleNames(ValidationResult result) {
+    List<String> names = new ArrayList<>();
+    for (ValidationRule rule : result.getAppliedRules()) {
+      names.add(rule.getRuleName());
+    }
+    return names;
+  }
+
+  private static ValidationRuleDefinition rule(String name, int priority, String condition) {
+    return new ValidationRuleDefinition(
+        name + "-ID", name, "BUSINESS_RULE", null, condition, priority, "t1", "bu1");
+  }
+
+  private static String compare(String field, String op, String value) {
+    return "{\"field\": \"" + field + "\", \"op\": \"" + op + "\", \"value\": " + value + "}";
+  }
+
+  private static PaymentFacts facts(String amount, String paymentType) {
+    return PaymentFacts.of(
+        Money.zar(new BigDecimal(amount)),
+        paymentType,
+        AccountNumber.of("12345678901"),
+        AccountNumber.of("10987654321"));
+  }
+
+  private static ValidationResult newResult() {
+    return ValidationResult.create(ValidationId.generate(), TENANT, PaymentId.generate());
+  }
+
+  private static final class FakeRepository implements ValidationRuleRepository {
+    final List<ValidationRuleDefinition> rules = new ArrayList<>();
+    int loads;
+
+    @Override
+    public List<ValidationRuleDefinition> findActive(String tenantId, String businessUnitId) {
+      loads++;
+      return rules;
+    }
+  }
+}
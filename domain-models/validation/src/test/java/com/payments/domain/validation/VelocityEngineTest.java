@@ -0,0 +1,188 @@
+package com.payments.domain.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.payments.domain.shared.*;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VelocityEngineTest {
+
+  private static final TenantContext TENANT = TenantContext.of("t1", "Tenant One", "bu1", "BU One");
+  private static final AccountNumber ACCOUNT = AccountNumber.of("12345678901");
+  private static final Instant START = Instant.parse("2024-03-01T10:00:00Z");
+
+  private final MutableClock clock = new MutableClock(START);
+  private final FakeRepository repository = new FakeRepository();
+
+  @Test
+  void payment_over_the_hourly_count_fails_and_is_not_counted() {
+    List<VelocityLimit> limits = List.of(VelocityLimit.ofCount(VelocityWindow.HOURLY, 3));
+    try (VelocityEngine engine = engine()) {
+      for (int i = 0; i < 3; i++) {
+        ValidationResult ok = newResult();
+        assertTrue(engine.checkAndRecord(ok, ACCOUNT, zar("100.00"), limits));
+        assertFalse(ok.hasFailedRules());
+        clock.advance(Duration.ofMinutes(5));
+      }
+
+      ValidationResult rejected = newResult();
+      assertFalse(engine.checkAndRecord(rejected, ACCOUNT, zar("100.00"), limits));
+      assertEquals("VELOCITY_HOURLY", rejected.getFailedRules().get(0).getRuleName());
+      assertEquals(3, engine.getUsage(TENANT, ACCOUNT, VelocityWindow.HOURLY).getCount());
+
+      // The first payment leaves the hourly window, the daily window still holds all three
+      clock.advance(Duration.ofMinutes(48));
+      assertEquals(2, engine.getUsage(TENANT, ACCOUNT, VelocityWindow.HOURLY).getCount());
+      assertEquals(
+          new BigDecimal("300.00"),
+          engine.getUsage(TENANT, ACCOUNT, VelocityWindow.DAILY).getAmount());
+      assertTrue(engine.checkAndRecord(newResult(), ACCOUNT, zar("100.00"), limits));
+    }
+  }
+
+  @Test
+  void amount_limit_includes_the_payment_being_checked() {
+    List<VelocityLimit> limits =
+        List.of(VelocityLimit.ofAmount(VelocityWindow.DAILY, zar("1000.00")));
+    try (VelocityEngine engine = engine()) {
+      assertTrue(engine.checkAndRecord(newResult(), ACCOUNT, zar("600.00"), limits));
+      assertFalse(engine.checkAndRecord(newResult(), ACCOUNT, zar("400.01"), limits));
+      assertTrue(engine.checkAndRecord(newResult(), ACCOUNT, zar("400.00"), limits));
+    }
+  }
+
+  @Test
+  void flushed_hourly_tallies_warm_start_a_new_engine() {
+    try (VelocityEngine engine = engine()) {
+      engine.checkAndRecord(newResult(), ACCOUNT, zar("10.00"), List.of());
+      clock.advance(Duration.ofMinutes(70));
+      engine.checkAndRecord(newResult(), ACCOUNT, zar("20.00"), List.of());
+      engine.checkAndRecord(newResult(), ACCOUNT, zar("30.00"), List.of());
+      engine.flush();
+    }
+    assertEquals(2, repository.rows.size());
+
+    try (VelocityEngine restarted = engine()) {
+      VelocityUsage daily = restarted.getUsage(TENANT, ACCOUNT, VelocityWindow.DAILY);
+      assertEquals(3, daily.getCount());
+      assertEquals(new BigDecimal("60.00"), daily.getAmount());
+
+      restarted.checkAndRecord(newResult(), ACCOUNT, zar("5.00"), List.of());
+      restarted.flush();
+    }
+    assertEquals(2, repository.rows.size());
+    assertEquals(3, repository.rows.get(1).getCount());
+    assertEquals(new BigDecimal("55.00"), repository.rows.get(1).getAmount());
+  }
+
+  @Test
+  void tallies_kept_for_a_failed_flush_are_capped() {
+    try (VelocityEngine engine = new VelocityEngine(repository, Duration.ofHours(1), clock, 2)) {
+      for (int i = 0; i < 3; i++) {
+        engine.checkAndRecord(newResult(), ACCOUNT, zar("10.00"), List.of());
+        clock.advance(Duration.ofMinutes(60));
+      }
+      repository.failing = true;
+      assertThrows(IllegalStateException.class, engine::flush);
+      assertEquals(1, engine.getDroppedTallyCount());
+
+      repository.failing = false;
+      engine.flush();
+    }
+    assertEquals(2, repository.rows.size());
+  }
+
+  private VelocityEngine engine() {
+    return new VelocityEngine(repository, Duration.ofHours(1), clock);
+  }
+
+  private static ValidationResult newResult() {
+    return ValidationResult.create(ValidationId.generate(), TENANT, PaymentId.generate());
+  }
+
+  private static Money zar(String amount) {
+    return Money.zar(new BigDecimal(amount));
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  /** Keeps one row per account and hour, adding deltas like the upsert does; can fail writes. */
+  private static final class FakeRepository implements VelocityRepository {
+    final List<VelocityTally> rows = new ArrayList<>();
+    boolean failing;
+
+    @Override
+    public List<VelocityTally> findHourly(
+        String tenantId, AccountNumber accountNumber, Instant since) {
+      List<VelocityTally> found = new ArrayList<>();
+      for (VelocityTally row : rows) {
+        if (row.getAccountNumber().equals(accountNumber) && !row.getHourStart().isBefore(since)) {
+          found.add(row);
+        }
+      }
+      return found;
+    }
+
+    @Override
+    public void addHourly(List<VelocityTally> deltas) {
+      if (failing) {
+        throw new IllegalStateException("velocity_tracking unavailable");
+      }
+      for (VelocityTally delta : deltas) {
+        int existing = -1;
+        for (int i = 0; i < rows.size(); i++) {
+          if (rows.get(i).getHourStart().equals(delta.getHourStart())) {
+            existing = i;
+          }
+        }
+        if (existing < 0) {
+          rows.add(delta);
+        } else {
+          VelocityTally row = rows.get(existing);
+          rows.set(
+              existing,
+              new VelocityTally(
+                  row.getTenantId(),
+                  row.getBusinessUnitId(),
+                  row.getAccountNumber(),
+                  row.getHourStart(),
+                  row.getCount() + delta.getCount(),
+                  row.getAmount().add(delta.getAmount())));
+        }
+      }
+    }
+  }
+}
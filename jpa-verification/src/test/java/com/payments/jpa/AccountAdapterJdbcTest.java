@@ -0,0 +1,231 @@
+package com.payments.jpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.payments.domain.account.AccountAdapter;
+import com.payments.domain.account.AccountInfo;
+import com.payments.domain.account.AccountInfoCache;
+import com.payments.domain.account.AdapterType;
+import com.payments.domain.account.ApiCallTelemetry;
+import com.payments.domain.account.JdbcAccountCacheRepository;
+import com.payments.domain.account.JdbcApiCallLogRepository;
+import com.payments.domain.account.JdbcBackendSystemMetricsRepository;
+import com.payments.domain.account.JdbcCircuitBreakerStateRepository;
+import com.payments.domain.shared.AccountAdapterId;
+import com.payments.domain.shared.AccountNumber;
+import com.payments.domain.shared.BackendSystemId;
+import com.payments.domain.shared.CircuitBreakerStatus;
+import com.payments.domain.shared.CircuitState;
+import com.payments.domain.shared.GuardedSystemType;
+import com.payments.domain.shared.TenantContext;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/** The account adapter's JDBC repositories against the migrated schema and its foreign keys. */
+class AccountAdapterJdbcTest {
+
+  private static final TenantContext TENANT =
+      TenantContext.of("T-100", "Acme Corp", "BU-100", "Retail");
+  private static final BackendSystemId CORE_BANKING = BackendSystemId.of("BS-CORE");
+
+  private static final String CACHE_ROW_SQL =
+      "SELECT (account_data ->> 'accountHolderName') || '|' || hit_count FROM account_cache"
+          + " WHERE account_number = '12345678901' AND tenant_id = 'T-100'";
+
+  private static PostgreSQLContainer<?> postgres;
+  private static PGSimpleDataSource dataSource;
+
+  @BeforeAll
+  static void setup() throws SQLException {
+    // Skip if Docker is not available in this environment (unless enforced)
+    boolean dockerUp;
+    try {
+      org.testcontainers.DockerClientFactory.instance().client();
+      dockerUp = true;
+    } catch (Throwable t) {
+      dockerUp = false;
+    }
+    boolean enforce = Boolean.parseBoolean(System.getProperty("ci.enforceDocker", "false"));
+    if (enforce) {
+      if (!dockerUp) {
+        throw new IllegalStateException("Docker is required in CI for JDBC verification");
+      }
+    } else {
+      org.junit.jupiter.api.Assumptions.assumeTrue(
+          dockerUp, "Docker not available; skipping account adapter JDBC test");
+    }
+
+    postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"))
+            .withDatabaseName("test")
+            .withUsername("test")
+            .withPassword("test");
+    postgres.start();
+
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("filesystem:" + getMigrationsPath())
+        .load()
+        .migrate();
+
+    dataSource = new PGSimpleDataSource();
+    dataSource.setUrl(postgres.getJdbcUrl());
+    dataSource.setUser(postgres.getUsername());
+    dataSource.setPassword(postgres.getPassword());
+
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate(
+          "INSERT INTO backend_systems (system_id, system_name, base_url, auth_type, tenant_id,"
+              + " business_unit_id) VALUES ('BS-CORE', 'Core banking',"
+              + " 'https://core.example.com', 'MTLS', 'T-100', 'BU-100')");
+    }
+  }
+
+  @AfterAll
+  static void tearDown() {
+    if (postgres != null) {
+      postgres.stop();
+    }
+  }
+
+  @Test
+  @DisplayName("API calls and their metrics reference the backend system called")
+  void metricsReferenceTheBackendSystemCalled() throws SQLException {
+    AccountAdapter adapter =
+        AccountAdapter.create(
+            AccountAdapterId.generate(),
+            TENANT,
+            "Core banking adapter",
+            AdapterType.BANK_ADAPTER,
+            "https://core.example.com",
+            "tester");
+    adapter.addBackendSystem(
+        CORE_BANKING, "Core banking", "CORE_BANKING", "https://core.example.com", "tester");
+
+    ApiCallTelemetry telemetry =
+        new ApiCallTelemetry(
+            new JdbcApiCallLogRepository(dataSource),
+            new JdbcBackendSystemMetricsRepository(dataSource),
+            ApiCallTelemetry.DEFAULT_RING_CAPACITY,
+            1_024,
+            100,
+            Duration.ofMillis(10),
+            Duration.ofHours(1));
+    int events = adapter.getDomainEvents().size();
+    telemetry.record(
+        adapter.logApiCall(
+            CORE_BANKING, "GET_ACCOUNT", "/accounts/12345678901", "GET", 200, 12L, "REQ-1"));
+    assertEquals(events, adapter.getDomainEvents().size());
+    // Writes the call log, then the metrics interval; an FK violation would throw here
+    telemetry.close();
+
+    assertEquals(0, telemetry.getFailedCount());
+    assertEquals(
+        "BS-CORE|GET_ACCOUNT|GET",
+        queryString(
+            "SELECT backend_system || '|' || operation || '|' || http_method FROM api_call_log"));
+    assertEquals(
+        "BS-CORE|1",
+        queryString("SELECT backend_system || '|' || total_calls FROM backend_system_metrics"));
+  }
+
+  @Test
+  @DisplayName("Clearing adapter circuits are stored next to backend system circuits")
+  void circuitStatesOfBothSystemTypesArePersisted() throws SQLException {
+    JdbcCircuitBreakerStateRepository repository =
+        new JdbcCircuitBreakerStateRepository(dataSource);
+    Instant now = Instant.parse("2024-03-01T08:00:00Z");
+    // The clearing adapter has no backend_systems row; the foreign key must not apply to it
+    repository.saveAll(
+        List.of(
+            circuit(GuardedSystemType.BACKEND_SYSTEM, "BS-CORE", CircuitState.CLOSED, now),
+            circuit(GuardedSystemType.CLEARING_ADAPTER, "CLAD-SAMOS", CircuitState.OPEN, now),
+            circuit(GuardedSystemType.CLEARING_ADAPTER, "BS-CORE", CircuitState.OPEN, now)));
+
+    List<CircuitBreakerStatus> loaded = repository.findAll();
+    assertEquals(3, loaded.size());
+    assertEquals(
+        "CLOSED",
+        queryString(
+            "SELECT state FROM circuit_breaker_state"
+                + " WHERE system_type = 'BACKEND_SYSTEM' AND backend_system = 'BS-CORE'"));
+    assertEquals(
+        "OPEN",
+        queryString(
+            "SELECT state FROM circuit_breaker_state"
+                + " WHERE system_type = 'CLEARING_ADAPTER' AND backend_system = 'BS-CORE'"));
+  }
+
+  @Test
+  @DisplayName("Cached accounts get a row whose hit count the cache adds to")
+  void hitCountsAreAddedToTheCachedAccountsRow() throws SQLException {
+    AccountInfoCache cache =
+        new AccountInfoCache(
+            new JdbcAccountCacheRepository(dataSource),
+            16,
+            Duration.ofHours(1),
+            Duration.ofHours(1),
+            Clock.systemUTC());
+    AccountNumber account = AccountNumber.of("12345678901");
+    cache.put(TENANT, AccountInfo.of(account, "Holder", "CURRENT", "632005", CORE_BANKING));
+    cache.flushHitCounts();
+    assertEquals("Holder|0", queryString(CACHE_ROW_SQL));
+
+    cache.getIfPresent(TENANT, account);
+    cache.getIfPresent(TENANT, account);
+    cache.flushHitCounts();
+    assertEquals("Holder|2", queryString(CACHE_ROW_SQL));
+
+    cache.getIfPresent(TENANT, account);
+    cache.close();
+    assertEquals("Holder|3", queryString(CACHE_ROW_SQL));
+  }
+
+  private static CircuitBreakerStatus circuit(
+      GuardedSystemType type, String id, CircuitState state, Instant now) {
+    return new CircuitBreakerStatus(
+        type,
+        id,
+        state,
+        state == CircuitState.OPEN ? 5 : 0,
+        null,
+        null,
+        now,
+        state == CircuitState.OPEN ? now.plusSeconds(60) : null,
+        TENANT.getTenantId(),
+        TENANT.getBusinessUnitId());
+  }
+
+  private static String queryString(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        ResultSet rs = statement.executeQuery()) {
+      rs.next();
+      return rs.getString(1);
+    }
+  }
+
+  private static String getMigrationsPath() {
+    String mmRoot = System.getProperty("maven.multiModuleProjectDirectory");
+    File projectRoot = (mmRoot != null) ? new File(mmRoot) : new File("..").getAbsoluteFile();
+    File migrationsDir = new File(projectRoot, "database-migrations");
+    return migrationsDir.getAbsolutePath();
+  }
+}